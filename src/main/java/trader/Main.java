@@ -27,6 +27,13 @@ public class Main {
     public static void main(String[] args) {
 
         Strategy strategy = new BGXStrategyMain("Oanda", "bgxStrategyConfig.yaml", "oandaBrokerConfig.yaml");
-        ThreadedStrategy threadedStrategy = new ThreadedStrategy(strategy);
+        final ThreadedStrategy threadedStrategy = new ThreadedStrategy(strategy);
+        //on shutdown the running price is finished before the process ends
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                threadedStrategy.stop();
+            }
+        }, "StrategyShutdown"));
     }
 }
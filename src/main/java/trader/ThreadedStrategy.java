@@ -25,4 +25,8 @@ public class ThreadedStrategy implements Runnable {
     public void run() {
         strategy.execute();
     }
+
+    public void stop() {
+        strategy.stop();
+    }
 }
@@ -6,20 +6,30 @@ import trader.entity.order.Order;
 import trader.entity.order.enums.OrderType;
 import trader.entity.price.Price;
 import trader.entity.trade.BrokerTradeDetails;
+import trader.observer.Observer;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+//the calls block the calling thread. Balance and margins come from one account snapshot, so fetching them
+//concurrently would save no request, and an order change must be known to have finished before the next price
 public interface BrokerGateway {
 
 
     Price getPrice(String instrument);
+    //prices every instrument in one request, instruments without a price are left out
+    Map<String, Price> getPrices(Collection<String> instruments);
+    //blocks while the price stream is alive and pushes every price to the observer
+    void streamPrices(String instrument, Observer observer);
     List<Candlestick> getCandles(HashMap<String, String> settings);
 
     void validateConnector();
     BrokerConnector getConnector();
+    //account queries share one account snapshot until it is invalidated
+    void invalidateAccountSnapshot();
 
     BigDecimal getMarginUsed();
     BigDecimal getAvailableMargin();
@@ -32,6 +42,8 @@ public interface BrokerGateway {
     String setTradeStopLossPrice(String tradeID, String price);
     BigDecimal getTradeStopLossPrice(String tradeID);
     String placeOrder(Map<String, String> settings, String orderType);
+    //replaces a pending market if touched order in one request, the order keeps no gap in between
+    String replaceOrder(String orderID, Map<String, String> settings);
 
 
     BrokerTradeDetails getTradeDetails(int index);
@@ -0,0 +1,130 @@
+package trader.broker;
+
+import trader.broker.connector.BrokerConnector;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.order.Order;
+import trader.entity.order.enums.OrderType;
+import trader.entity.price.Price;
+import trader.entity.trade.BrokerTradeDetails;
+import trader.exception.NullArgumentException;
+import trader.observer.Observer;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Passes every call to another gateway. Gateways that change only a few calls extend it and override those.
+ */
+public abstract class ForwardingBrokerGateway implements BrokerGateway {
+
+    protected final BrokerGateway brokerGateway;
+
+    protected ForwardingBrokerGateway(BrokerGateway brokerGateway) {
+        if(brokerGateway == null)
+            throw new NullArgumentException();
+        this.brokerGateway = brokerGateway;
+    }
+
+    @Override
+    public Price getPrice(String instrument) {
+        return brokerGateway.getPrice(instrument);
+    }
+
+    @Override
+    public Map<String, Price> getPrices(Collection<String> instruments) {
+        return brokerGateway.getPrices(instruments);
+    }
+
+    @Override
+    public void streamPrices(String instrument, Observer observer) {
+        brokerGateway.streamPrices(instrument, observer);
+    }
+
+    @Override
+    public List<Candlestick> getCandles(HashMap<String, String> settings) {
+        return brokerGateway.getCandles(settings);
+    }
+
+    @Override
+    public void validateConnector() {
+        brokerGateway.validateConnector();
+    }
+
+    @Override
+    public BrokerConnector getConnector() {
+        return brokerGateway.getConnector();
+    }
+
+    @Override
+    public void invalidateAccountSnapshot() {
+        brokerGateway.invalidateAccountSnapshot();
+    }
+
+    @Override
+    public BigDecimal getMarginUsed() {
+        return brokerGateway.getMarginUsed();
+    }
+
+    @Override
+    public BigDecimal getAvailableMargin() {
+        return brokerGateway.getAvailableMargin();
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+        return brokerGateway.getBalance();
+    }
+
+    @Override
+    public Order getOrder(OrderType orderType) {
+        return brokerGateway.getOrder(orderType);
+    }
+
+    @Override
+    public int totalOpenOrdersSize() {
+        return brokerGateway.totalOpenOrdersSize();
+    }
+
+    @Override
+    public String cancelOrder(String orderID) {
+        return brokerGateway.cancelOrder(orderID);
+    }
+
+    @Override
+    public String setTradeStopLossPrice(String tradeID, String price) {
+        return brokerGateway.setTradeStopLossPrice(tradeID, price);
+    }
+
+    @Override
+    public BigDecimal getTradeStopLossPrice(String tradeID) {
+        return brokerGateway.getTradeStopLossPrice(tradeID);
+    }
+
+    @Override
+    public String placeOrder(Map<String, String> settings, String orderType) {
+        return brokerGateway.placeOrder(settings, orderType);
+    }
+
+    @Override
+    public String replaceOrder(String orderID, Map<String, String> settings) {
+        return brokerGateway.replaceOrder(orderID, settings);
+    }
+
+    @Override
+    public BrokerTradeDetails getTradeDetails(int index) {
+        return brokerGateway.getTradeDetails(index);
+    }
+
+    @Override
+    public int totalOpenTradesSize() {
+        return brokerGateway.totalOpenTradesSize();
+    }
+
+    @Override
+    public String toString() {
+        return brokerGateway.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package trader.broker.candle;
+
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Pipettes;
+import trader.entity.price.Price;
+import trader.exception.NullArgumentException;
+import trader.observer.Observer;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds mid price candles of one instrument from the price ticks, for every granularity in use. The volume is the
+ * number of ticks, as in the broker candles. When a tick falls past the close of a candle, the candle is handed to
+ * the {@link CandleRepository}, so the series has the closed candle without a request. The candle in progress when
+ * the aggregator starts misses its earlier ticks and is left to the broker.
+ */
+public final class CandleAggregator implements Observer {
+
+    private final CandleRepository candleRepository;
+    private final String instrument;
+    private final Set<CandleGranularity> granularities;
+    private final Set<CandleGranularity> partialBars;
+    private final Map<CandleGranularity, CandleBar> bars;
+    private final CandleCloseCalendar closeCalendar;
+
+    public CandleAggregator(CandleRepository candleRepository, String instrument, Collection<CandleGranularity> granularities) {
+        if(candleRepository == null || instrument == null || granularities == null)
+            throw new NullArgumentException();
+        this.candleRepository = candleRepository;
+        this.instrument = instrument.trim();
+        this.granularities = EnumSet.noneOf(CandleGranularity.class);
+        this.granularities.addAll(granularities);
+        this.partialBars = EnumSet.copyOf(this.granularities);
+        this.bars = new EnumMap<>(CandleGranularity.class);
+        this.closeCalendar = new CandleCloseCalendar();
+    }
+
+    @Override
+    public void updateObserver(Price price) {
+        if(price == null)
+            throw new NullArgumentException();
+        if(price.getDateTime() == null || price.getBid() == null || price.getAsk() == null)
+            return;
+        ZonedDateTime time = price.getDateTime();
+        long midPrice = Pipettes.divideByCount(Pipettes.valueOf(price.getBid()) + Pipettes.valueOf(price.getAsk()), 2L);
+        for (CandleGranularity granularity : granularities) {
+            CandleBar bar = bars.get(granularity);
+            if(bar != null && !time.isBefore(bar.getCloseTime())) {
+                closeBar(granularity, bar);
+                bar = null;
+            }
+            if(bar == null) {
+                bar = new CandleBar(closeCalendar.openTime(granularity, time), closeCalendar.nextClose(granularity, time));
+                bars.put(granularity, bar);
+            }
+            //a late tick of an already closed candle is left out
+            if(!time.isBefore(bar.getOpenTime()))
+                bar.add(midPrice);
+        }
+    }
+
+    private void closeBar(CandleGranularity granularity, CandleBar bar) {
+        if(!partialBars.remove(granularity) && !bar.isEmpty())
+            candleRepository.addCandle(instrument, granularity, bar.toCandle(granularity));
+    }
+}
@@ -0,0 +1,70 @@
+package trader.broker.candle;
+
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.Candle;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Pipettes;
+
+import java.time.ZonedDateTime;
+
+//a candle being built, prices are in pipettes
+final class CandleBar {
+
+    private final ZonedDateTime openTime;
+    private final ZonedDateTime closeTime;
+    private long openPrice;
+    private long highPrice;
+    private long lowPrice;
+    private long closePrice;
+    private long volume;
+    private boolean empty = true;
+
+    CandleBar(ZonedDateTime openTime, ZonedDateTime closeTime) {
+        this.openTime = openTime;
+        this.closeTime = closeTime;
+    }
+
+    ZonedDateTime getOpenTime() {
+        return openTime;
+    }
+
+    ZonedDateTime getCloseTime() {
+        return closeTime;
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    //one price tick
+    void add(long price) {
+        add(price, price, price, price, 1L);
+    }
+
+    void add(long open, long high, long low, long close, long ticks) {
+        if(empty) {
+            openPrice = open;
+            highPrice = high;
+            lowPrice = low;
+            empty = false;
+        } else {
+            highPrice = Math.max(highPrice, high);
+            lowPrice = Math.min(lowPrice, low);
+        }
+        closePrice = close;
+        volume += ticks;
+    }
+
+    Candlestick toCandle(CandleGranularity granularity) {
+        return new Candle.CandleBuilder()
+                .setDateTime(openTime)
+                .setTimeFrame(granularity.toSeconds())
+                .setOpenPrice(Pipettes.toBigDecimal(openPrice))
+                .setHighPrice(Pipettes.toBigDecimal(highPrice))
+                .setLowPrice(Pipettes.toBigDecimal(lowPrice))
+                .setClosePrice(Pipettes.toBigDecimal(closePrice))
+                .setVolume(volume)
+                .setComplete(true)
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package trader.broker.candle;
+
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.exception.NullArgumentException;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Close times of broker candles. Candles are aligned to the FX trading day, which starts at 17:00 New York time.
+ * The market closes on Friday at 17:00 and opens again on Sunday at 17:00, so no candle closes over the weekend.
+ */
+final class CandleCloseCalendar {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    private static final LocalTime DAILY_ALIGNMENT = LocalTime.of(17, 0);
+
+    ZonedDateTime nextClose(CandleGranularity granularity, ZonedDateTime time) {
+        if(granularity == null || time == null)
+            throw new NullArgumentException();
+        ZonedDateTime marketTime = skipWeekend(time.withZoneSameInstant(NEW_YORK));
+        ZonedDateTime close;
+        if(granularity == CandleGranularity.W)
+            close = nextWeeklyClose(marketTime);
+        else if(granularity == CandleGranularity.M)
+            close = nextMonthlyClose(marketTime);
+        else if(granularity == CandleGranularity.D)
+            close = alignToDay(tradingDayStart(marketTime).plusDays(1));
+        else
+            close = nextIntradayClose(granularity, marketTime);
+        return close.withZoneSameInstant(time.getZone());
+    }
+
+    //the time of the candle the time falls into, which is the close of the candle before
+    ZonedDateTime openTime(CandleGranularity granularity, ZonedDateTime time) {
+        if(granularity == null || time == null)
+            throw new NullArgumentException();
+        ZonedDateTime marketTime = skipWeekend(time.withZoneSameInstant(NEW_YORK));
+        ZonedDateTime open;
+        if(granularity == CandleGranularity.W)
+            open = alignToDay(nextWeeklyClose(marketTime).minusWeeks(1));
+        else if(granularity == CandleGranularity.M)
+            open = lastTradingDayOfMonth(nextMonthlyClose(marketTime).with(TemporalAdjusters.firstDayOfMonth()).minusDays(1));
+        else if(granularity == CandleGranularity.D)
+            open = tradingDayStart(marketTime);
+        else
+            open = intradayOpen(granularity, marketTime);
+        return open.withZoneSameInstant(time.getZone());
+    }
+
+    private ZonedDateTime intradayOpen(CandleGranularity granularity, ZonedDateTime time) {
+        ZonedDateTime dayStart = tradingDayStart(time);
+        long elapsedSeconds = dayStart.until(time, ChronoUnit.SECONDS);
+        long period = granularity.toSeconds();
+        return dayStart.plusSeconds(elapsedSeconds / period * period);
+    }
+
+    private ZonedDateTime nextIntradayClose(CandleGranularity granularity, ZonedDateTime time) {
+        ZonedDateTime dayStart = tradingDayStart(time);
+        ZonedDateTime dayEnd = alignToDay(dayStart.plusDays(1));
+        long elapsedSeconds = dayStart.until(time, ChronoUnit.SECONDS);
+        long period = granularity.toSeconds();
+        ZonedDateTime close = dayStart.plusSeconds((elapsedSeconds / period + 1) * period);
+        return close.isAfter(dayEnd) ? dayEnd : close;
+    }
+
+    private ZonedDateTime nextWeeklyClose(ZonedDateTime time) {
+        ZonedDateTime close = alignToDay(time.with(TemporalAdjusters.nextOrSame(DayOfWeek.FRIDAY)));
+        return close.isAfter(time) ? close : alignToDay(close.plusWeeks(1));
+    }
+
+    private ZonedDateTime nextMonthlyClose(ZonedDateTime time) {
+        ZonedDateTime close = lastTradingDayOfMonth(time);
+        return close.isAfter(time) ? close : lastTradingDayOfMonth(close.plusDays(1).with(TemporalAdjusters.firstDayOfMonth()));
+    }
+
+    private ZonedDateTime lastTradingDayOfMonth(ZonedDateTime time) {
+        ZonedDateTime close = alignToDay(time.with(TemporalAdjusters.lastDayOfMonth()));
+        if(close.getDayOfWeek() == DayOfWeek.SATURDAY || close.getDayOfWeek() == DayOfWeek.SUNDAY)
+            close = alignToDay(close.with(TemporalAdjusters.previous(DayOfWeek.FRIDAY)));
+        return close;
+    }
+
+    //between the weekly close and the weekly open the next candle closes as if the time was the weekly open
+    private ZonedDateTime skipWeekend(ZonedDateTime time) {
+        DayOfWeek day = time.getDayOfWeek();
+        boolean afterWeeklyClose = day == DayOfWeek.FRIDAY && !time.toLocalTime().isBefore(DAILY_ALIGNMENT);
+        boolean beforeWeeklyOpen = day == DayOfWeek.SUNDAY && time.toLocalTime().isBefore(DAILY_ALIGNMENT);
+        if(afterWeeklyClose || day == DayOfWeek.SATURDAY || beforeWeeklyOpen)
+            return alignToDay(time.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)));
+        return time;
+    }
+
+    private ZonedDateTime tradingDayStart(ZonedDateTime time) {
+        ZonedDateTime dayStart = alignToDay(time);
+        return dayStart.isAfter(time) ? alignToDay(dayStart.minusDays(1)) : dayStart;
+    }
+
+    private ZonedDateTime alignToDay(ZonedDateTime time) {
+        return time.toLocalDate().atTime(DAILY_ALIGNMENT).atZone(NEW_YORK);
+    }
+}
@@ -0,0 +1,109 @@
+package trader.broker.candle;
+
+import trader.entity.candlestick.Candlestick;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The newest candles of one series, at most as many as the limit. Candles are appended in place to an array twice
+ * the limit long, and only when it is full are the newest candles moved to a new array. The read-only views handed
+ * out stay valid while the history changes: an append writes only past their end, and replacing a candle copies the
+ * array first.
+ */
+final class CandleHistory {
+
+    private Candlestick[] candles;
+    private int start;
+    private int end;
+    private int limit;
+
+    CandleHistory() {
+        this.limit = 1;
+        this.candles = new Candlestick[2];
+    }
+
+    int size() {
+        return end - start;
+    }
+
+    boolean isEmpty() {
+        return end == start;
+    }
+
+    Candlestick get(int index) {
+        return candles[start + index];
+    }
+
+    //null when there are no candles
+    Candlestick last() {
+        return isEmpty() ? null : candles[end - 1];
+    }
+
+    List<Candlestick> view() {
+        return new View(candles, start, end);
+    }
+
+    List<Candlestick> last(int quantity) {
+        return new View(candles, Math.max(start, end - quantity), end);
+    }
+
+    void replaceAll(List<Candlestick> newCandles, int limit) {
+        this.limit = Math.max(1, limit);
+        int from = Math.max(0, newCandles.size() - this.limit);
+        this.candles = new Candlestick[2 * this.limit];
+        this.start = 0;
+        this.end = 0;
+        for (Candlestick candle : newCandles.subList(from, newCandles.size()))
+            candles[end++] = candle;
+    }
+
+    void append(Candlestick candle) {
+        if(end == candles.length)
+            copy(Math.max(0, size() - limit + 1));
+        candles[end++] = candle;
+        if(size() > limit)
+            start++;
+    }
+
+    void set(int index, Candlestick candle) {
+        copy(0);
+        candles[start + index] = candle;
+    }
+
+    //moves the candles after the dropped ones to a new array, the views keep the old one
+    private void copy(int dropped) {
+        Candlestick[] copy = new Candlestick[Math.max(candles.length, 2 * limit)];
+        int size = size() - dropped;
+        System.arraycopy(candles, start + dropped, copy, 0, size);
+        this.candles = copy;
+        this.start = 0;
+        this.end = size;
+    }
+
+    private static final class View extends AbstractList<Candlestick> implements RandomAccess {
+
+        private final Candlestick[] candles;
+        private final int from;
+        private final int to;
+
+        View(Candlestick[] candles, int from, int to) {
+            this.candles = candles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Candlestick get(int index) {
+            if(index < 0 || index >= to - from)
+                throw new IndexOutOfBoundsException();
+            return candles[from + index];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package trader.broker.candle;
+
+import trader.broker.BrokerGateway;
+import trader.controller.enums.SettingsFieldNames;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Price;
+import trader.exception.BadRequestException;
+import trader.exception.NullArgumentException;
+import trader.observer.Observer;
+import trader.strategy.TradingStrategyConfiguration;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns one candle series per instrument and granularity, so indicators and exit strategies sharing a timeframe
+ * share one candle request. A series is refreshed only once the time of the last price tick passes the close of
+ * its current candle; ticks in between are served from memory. Readers get read-only views of the series, which
+ * keeps only as many candles as the largest quantity requested from it.
+ * With a store directory every series is also kept in a {@link CandleStore}, so after a restart only the candles
+ * closed since the last stored one are fetched. Candles built from the price stream by a {@link CandleAggregator}
+ * are appended as they close and spare the refresh request, until the broker candles replace them.
+ * With a roll-up granularity in the configuration, the coarser series are only fetched in full on first use and
+ * afterwards built by {@link CandleRollUp} from the series of the roll-up granularity, so one candle request after
+ * each close updates every timeframe.
+ */
+public class CandleRepository implements Observer {
+
+    private static final String INSTRUMENT = SettingsFieldNames.INSTRUMENT.toString();
+    private static final String QUANTITY = SettingsFieldNames.QUANTITY.toString();
+    private static final String GRANULARITY = SettingsFieldNames.GRANULARITY.toString();
+    //the broker may publish the completed candle a moment after the close
+    private static final int MAX_REFRESH_RETRIES = 5;
+    private static final long REFRESH_RETRY_SECONDS = 2L;
+    private static final int RECONCILE_LOCAL_CANDLES = 10;
+    //the most candles the broker returns for one request
+    private static final int MAX_FETCH_CANDLES = 5000;
+
+    private final BrokerGateway brokerGateway;
+    private final TradingStrategyConfiguration configuration;
+    private final Map<String, CandleSeries> candleSeries;
+    private final CandleCloseCalendar closeCalendar;
+    private final CandleRollUp rollUp;
+    private final Path storeDirectory;
+    private volatile ZonedDateTime lastTickTime;
+
+    public CandleRepository(BrokerGateway brokerGateway, TradingStrategyConfiguration configuration) {
+        this(brokerGateway, configuration, null);
+    }
+
+    //a null store directory keeps the candles in memory only
+    public CandleRepository(BrokerGateway brokerGateway, TradingStrategyConfiguration configuration, Path storeDirectory) {
+        if(brokerGateway == null || configuration == null)
+            throw new NullArgumentException();
+        this.brokerGateway = brokerGateway;
+        this.configuration = configuration;
+        this.candleSeries = new ConcurrentHashMap<>();
+        this.closeCalendar = new CandleCloseCalendar();
+        this.rollUp = new CandleRollUp(closeCalendar);
+        this.storeDirectory = storeDirectory;
+    }
+
+    @Override
+    public void updateObserver(Price price) {
+        if(price == null)
+            throw new NullArgumentException();
+        if(price.getDateTime() != null)
+            lastTickTime = price.getDateTime();
+    }
+
+    /**
+     * Returns the last {@code quantity} candles of the series named in the settings. The series is fetched in full
+     * on first use and afterwards with only the update quantity of candles, after each candle close. Every series
+     * has its own lock, so series of different granularities are refreshed in parallel.
+     */
+    public List<Candlestick> getCandles(Map<String, String> settings) {
+        validateSettings(settings);
+        int quantity = parseQuantity(settings.get(QUANTITY));
+        CandleSeries series = obtainSeries(settings.get(INSTRUMENT), settings.get(GRANULARITY));
+        synchronized (series) {
+            refreshSeries(series, quantity);
+            return series.candles.last(quantity);
+        }
+    }
+
+    /**
+     * Appends a candle built from the price stream, when it is newer than the last candle of a loaded series.
+     * Returns false when the candle is not used.
+     */
+    public boolean addCandle(String instrument, CandleGranularity granularity, Candlestick candle) {
+        if(instrument == null || granularity == null || candle == null)
+            throw new NullArgumentException();
+        CandleSeries series = candleSeries.get(instrument.trim() + ":" + granularity);
+        if(series == null)
+            return false;
+        synchronized (series) {
+            if(series.candles.isEmpty() || !candle.getDateTime().isAfter(series.candles.last().getDateTime()))
+                return false;
+            series.candles.append(candle);
+            series.localCandles++;
+            return true;
+        }
+    }
+
+    private CandleSeries obtainSeries(String instrument, String granularity) {
+        return obtainSeries(instrument, parseGranularity(granularity));
+    }
+
+    private CandleSeries obtainSeries(String instrument, CandleGranularity granularity) {
+        String key = instrument.trim() + ":" + granularity;
+        CandleSeries series = candleSeries.get(key);
+        if(series != null)
+            return series;
+        synchronized (candleSeries) {
+            series = candleSeries.get(key);
+            if(series == null) {
+                series = new CandleSeries(instrument.trim(), granularity);
+                series.store = openStore(series);
+                candleSeries.put(key, series);
+            }
+            return series;
+        }
+    }
+
+    private void refreshSeries(CandleSeries series, int quantity) {
+        ZonedDateTime time = currentTime();
+        if(series.loadedQuantity < quantity) {
+            series.candles.replaceAll(loadCandles(series, quantity, time), quantity);
+            series.loadedQuantity = quantity;
+            scheduleNextClose(series, time);
+            return;
+        }
+        if(time.isBefore(series.nextRefresh))
+            return;
+        //a locally built candle saves the request, every few closes the broker candles replace the local ones
+        if(isClosedCandlePublished(series) && series.localCandles < RECONCILE_LOCAL_CANDLES) {
+            scheduleNextClose(series, time);
+            return;
+        }
+        List<Candlestick> update = rollUpCandles(series, time);
+        if(update == null)
+            update = fetchCandles(series, updateQuantity(series, time));
+        merge(series, update);
+        storeCandles(series, update);
+        if(!update.isEmpty())
+            series.localCandles = 0;
+        if(isClosedCandlePublished(series) || ++series.failedRefreshes >= MAX_REFRESH_RETRIES)
+            scheduleNextClose(series, time);
+        else
+            series.nextRefresh = time.plusSeconds(REFRESH_RETRY_SECONDS);
+    }
+
+    //a series read less often than it closes also needs the candles closed since its last one
+    private int updateQuantity(CandleSeries series, ZonedDateTime time) {
+        Candlestick last = series.candles.last();
+        long closed = last == null ? 0L :
+                Math.max(0L, time.toEpochSecond() - last.getDateTime().toEpochSecond()) / series.granularity.toSeconds();
+        long quantity = Math.max(configuration.getUpdateCandlesQuantity(), Math.max(series.localCandles + 1L, closed));
+        return (int) Math.min(MAX_FETCH_CANDLES, quantity);
+    }
+
+    //null when the series is not built from the roll-up series or the base candles can not cover its gap
+    private List<Candlestick> rollUpCandles(CandleSeries series, ZonedDateTime time) {
+        CandleGranularity base = configuration.getRollUpGranularity();
+        //locally built candles are built again from the base candles, which replace them when they differ
+        int lastIndex = series.candles.size() - 1 - series.localCandles;
+        if(!CandleRollUp.canRollUp(base, series.granularity) || lastIndex < 0)
+            return null;
+        Candlestick last = series.candles.get(lastIndex);
+        long baseQuantity = Math.max(0L, time.toEpochSecond() - last.getDateTime().toEpochSecond()) / base.toSeconds() + 1L;
+        if(baseQuantity > MAX_FETCH_CANDLES)
+            return null;
+        //a series only ever locks its base series after itself, never the other way round
+        CandleSeries baseSeries = obtainSeries(series.instrument, base);
+        synchronized (baseSeries) {
+            refreshSeries(baseSeries, (int) baseQuantity);
+            return rollUp.rollUp(baseSeries.candles.view(), base, series.granularity, last.getDateTime());
+        }
+    }
+
+    private void scheduleNextClose(CandleSeries series, ZonedDateTime time) {
+        series.nextClose = closeCalendar.nextClose(series.granularity, time);
+        series.nextRefresh = series.nextClose;
+        series.failedRefreshes = 0;
+    }
+
+    private boolean isClosedCandlePublished(CandleSeries series) {
+        Candlestick last = series.candles.last();
+        return last != null &&
+                !closeCalendar.nextClose(series.granularity, last.getDateTime()).isBefore(series.nextClose);
+    }
+
+    private ZonedDateTime currentTime() {
+        return lastTickTime == null ? ZonedDateTime.now(ZoneOffset.UTC) : lastTickTime;
+    }
+
+    //candles newer than the last one are appended, a candle with a known time replaces a different one,
+    //which is how the broker candles correct the locally built ones
+    private void merge(CandleSeries series, List<Candlestick> update) {
+        CandleHistory candles = series.candles;
+        for (Candlestick candle : update) {
+            Candlestick last = candles.last();
+            if(last == null || candle.getDateTime().isAfter(last.getDateTime())) {
+                candles.append(candle);
+                continue;
+            }
+            int index = indexOf(candles, candle.getDateTime());
+            if(index >= 0 && !isSameCandle(candles.get(index), candle))
+                candles.set(index, candle);
+        }
+    }
+
+    private int indexOf(CandleHistory candles, ZonedDateTime time) {
+        for (int i = candles.size() - 1; i >= 0; i--) {
+            ZonedDateTime candleTime = candles.get(i).getDateTime();
+            if(candleTime.isEqual(time))
+                return i;
+            if(candleTime.isBefore(time))
+                return -1;
+        }
+        return -1;
+    }
+
+    private boolean isSameCandle(Candlestick candle, Candlestick other) {
+        return candle.getVolume() == other.getVolume() &&
+                candle.getOpenPrice().compareTo(other.getOpenPrice()) == 0 &&
+                candle.getHighPrice().compareTo(other.getHighPrice()) == 0 &&
+                candle.getLowPrice().compareTo(other.getLowPrice()) == 0 &&
+                candle.getClosePrice().compareTo(other.getClosePrice()) == 0;
+    }
+
+    //stored candles are used when the candles closed since the last stored one join them
+    private List<Candlestick> loadCandles(CandleSeries series, int quantity, ZonedDateTime time) {
+        if(series.store == null)
+            return fetchCandles(series, quantity);
+        try {
+            if(series.store.size() >= quantity) {
+                int gap = gapQuantity(series, time);
+                if(gap < quantity) {
+                    List<Candlestick> update = fetchCandles(series, gap);
+                    if(joinsStore(series.store, update)) {
+                        series.store.append(update);
+                        return series.store.load(quantity).toCandlesticks();
+                    }
+                }
+            }
+            List<Candlestick> candles = fetchCandles(series, quantity);
+            if(!candles.isEmpty())
+                series.store.replace(candles);
+            return candles;
+        } catch (UncheckedIOException e) {
+            closeStore(series);
+            return fetchCandles(series, quantity);
+        }
+    }
+
+    //candles can not close more often than once per granularity, two more overlap the stored ones
+    private int gapQuantity(CandleSeries series, ZonedDateTime time) {
+        long elapsedSeconds = Math.max(0L, time.toEpochSecond() - series.store.lastTime());
+        return (int) Math.min(Integer.MAX_VALUE - 2, elapsedSeconds / series.granularity.toSeconds()) + 2;
+    }
+
+    private boolean joinsStore(CandleStore store, List<Candlestick> update) {
+        return !update.isEmpty() && update.get(0).getDateTime().toEpochSecond() <= store.lastTime();
+    }
+
+    private void storeCandles(CandleSeries series, List<Candlestick> candles) {
+        if(series.store == null)
+            return;
+        try {
+            series.store.append(candles);
+        } catch (UncheckedIOException e) {
+            closeStore(series);
+        }
+    }
+
+    private CandleStore openStore(CandleSeries series) {
+        if(storeDirectory == null)
+            return null;
+        try {
+            return CandleStore.open(storeDirectory.resolve(series.instrument + "_" + series.granularity + ".candles"));
+        } catch (UncheckedIOException e) {
+            return null;
+        }
+    }
+
+    //a failing store is dropped and the series is served from the broker only
+    private void closeStore(CandleSeries series) {
+        try {
+            series.store.close();
+        } catch (UncheckedIOException e) {
+            //the store is not used any more
+        }
+        series.store = null;
+    }
+
+    private List<Candlestick> fetchCandles(CandleSeries series, int quantity) {
+        HashMap<String, String> request = new HashMap<>();
+        request.put(INSTRUMENT, series.instrument);
+        request.put(QUANTITY, String.valueOf(quantity));
+        request.put(GRANULARITY, series.granularity.toString());
+        List<Candlestick> candles = brokerGateway.getCandles(request);
+        return candles == null ? Collections.<Candlestick>emptyList() : candles;
+    }
+
+    private void validateSettings(Map<String, String> settings) {
+        if(settings == null || settings.get(INSTRUMENT) == null || settings.get(QUANTITY) == null || settings.get(GRANULARITY) == null)
+            throw new NullArgumentException();
+    }
+
+    private CandleGranularity parseGranularity(String granularity) {
+        try {
+            return CandleGranularity.valueOf(granularity.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException();
+        }
+    }
+
+    private int parseQuantity(String quantity) {
+        try {
+            int candlesQuantity = Integer.parseInt(quantity.trim());
+            if(candlesQuantity < 1)
+                throw new BadRequestException();
+            return candlesQuantity;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException();
+        }
+    }
+
+    private static final class CandleSeries {
+
+        private final String instrument;
+        private final CandleGranularity granularity;
+        private final CandleHistory candles;
+        private int loadedQuantity;
+        private ZonedDateTime nextClose;
+        private ZonedDateTime nextRefresh;
+        private int failedRefreshes;
+        private CandleStore store;
+        private int localCandles;
+
+        CandleSeries(String instrument, CandleGranularity granularity) {
+            this.instrument = instrument;
+            this.granularity = granularity;
+            this.candles = new CandleHistory();
+        }
+    }
+}
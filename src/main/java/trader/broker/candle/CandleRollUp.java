@@ -0,0 +1,88 @@
+package trader.broker.candle;
+
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Pipettes;
+import trader.exception.NullArgumentException;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the candles of a coarser granularity from the candles of a base granularity, with the alignment of the
+ * {@link CandleCloseCalendar}. Only candles whose whole time is covered by the base candles are built, so they are
+ * the same as the broker's candles of that granularity.
+ */
+final class CandleRollUp {
+
+    private static final long DAY_SECONDS = CandleGranularity.D.toSeconds();
+    private static final Set<CandleGranularity> CALENDAR_GRANULARITIES =
+            EnumSet.of(CandleGranularity.D, CandleGranularity.W, CandleGranularity.M);
+
+    private final CandleCloseCalendar closeCalendar;
+
+    CandleRollUp(CandleCloseCalendar closeCalendar) {
+        if(closeCalendar == null)
+            throw new NullArgumentException();
+        this.closeCalendar = closeCalendar;
+    }
+
+    //every candle of the granularity has to start and end on a base candle boundary
+    static boolean canRollUp(CandleGranularity base, CandleGranularity granularity) {
+        if(base == null || granularity == null || base.toSeconds() >= granularity.toSeconds())
+            return false;
+        if(!CALENDAR_GRANULARITIES.contains(granularity))
+            return granularity.toSeconds() % base.toSeconds() == 0;
+        if(granularity == CandleGranularity.D || !CALENDAR_GRANULARITIES.contains(base))
+            return DAY_SECONDS % base.toSeconds() == 0;
+        return base == CandleGranularity.D;
+    }
+
+    /**
+     * Returns the complete candles of the granularity that open after the time, built from the base candles,
+     * oldest first.
+     */
+    List<Candlestick> rollUp(List<Candlestick> baseCandles, CandleGranularity base, CandleGranularity granularity,
+                             ZonedDateTime after) {
+        if(baseCandles == null || base == null || granularity == null || after == null)
+            throw new NullArgumentException();
+        List<Candlestick> candles = new ArrayList<>();
+        if(baseCandles.isEmpty())
+            return candles;
+        ZonedDateTime firstBaseTime = baseCandles.get(0).getDateTime();
+        ZonedDateTime lastBaseClose = closeCalendar.nextClose(base, baseCandles.get(baseCandles.size() - 1).getDateTime());
+        //the base candles of the candles up to the time are not read again
+        int start = baseCandles.size();
+        while(start > 0 && baseCandles.get(start - 1).getDateTime().isAfter(after))
+            start--;
+        CandleBar bar = null;
+        for (Candlestick baseCandle : baseCandles.subList(start, baseCandles.size())) {
+            ZonedDateTime time = baseCandle.getDateTime();
+            if(bar != null && !time.isBefore(bar.getCloseTime())) {
+                addCovered(candles, bar, firstBaseTime, granularity);
+                bar = null;
+            }
+            if(bar == null) {
+                ZonedDateTime openTime = closeCalendar.openTime(granularity, time);
+                if(!openTime.isAfter(after))
+                    continue;
+                bar = new CandleBar(openTime, closeCalendar.nextClose(granularity, time));
+            }
+            bar.add(Pipettes.valueOf(baseCandle.getOpenPrice()), Pipettes.valueOf(baseCandle.getHighPrice()),
+                    Pipettes.valueOf(baseCandle.getLowPrice()), Pipettes.valueOf(baseCandle.getClosePrice()),
+                    baseCandle.getVolume());
+        }
+        if(bar != null && !lastBaseClose.isBefore(bar.getCloseTime()))
+            addCovered(candles, bar, firstBaseTime, granularity);
+        return candles;
+    }
+
+    //a candle that opens before the first base candle misses part of its prices
+    private void addCovered(List<Candlestick> candles, CandleBar bar, ZonedDateTime firstBaseTime, CandleGranularity granularity) {
+        if(!bar.getOpenTime().isBefore(firstBaseTime))
+            candles.add(bar.toCandle(granularity));
+    }
+}
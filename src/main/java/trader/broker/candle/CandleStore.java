@@ -0,0 +1,171 @@
+package trader.broker.candle;
+
+import trader.entity.candlestick.CandleBuffer;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.price.Pipettes;
+import trader.exception.NullArgumentException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only file of complete candles, mapped into memory. A 16 byte header holds a marker, the record size and
+ * the number of stored candles; every candle is a record of six longs: epoch second, open, high, low, close in
+ * pipettes and volume. The count is written after the records, so a crash in between loses only the last append.
+ */
+final class CandleStore implements Closeable {
+
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 48;
+    private static final int MARKER = 0x42475843;
+    private static final int MARKER_OFFSET = 0;
+    private static final int RECORD_SIZE_OFFSET = 4;
+    private static final int COUNT_OFFSET = 8;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int size;
+
+    private CandleStore(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long records = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+        map((int) Math.max(MIN_CAPACITY, Math.min(records, Integer.MAX_VALUE / RECORD_BYTES - 1)));
+        if(isValid(records))
+            size = (int) buffer.getLong(COUNT_OFFSET);
+        else
+            writeHeader(0);
+    }
+
+    //a missing, foreign or damaged file is started again empty
+    static CandleStore open(Path file) {
+        if(file == null)
+            throw new NullArgumentException();
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if(directory != null)
+                Files.createDirectories(directory);
+            return new CandleStore(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    //epoch second of the newest stored candle, or Long.MIN_VALUE when the store is empty
+    long lastTime() {
+        return size == 0 ? Long.MIN_VALUE : buffer.getLong(recordOffset(size - 1));
+    }
+
+    /**
+     * Returns the newest {@code quantity} stored candles, oldest first.
+     */
+    CandleBuffer load(int quantity) {
+        int count = Math.min(Math.max(quantity, 0), size);
+        CandleBuffer candles = new CandleBuffer(count);
+        for (int i = size - count; i < size; i++) {
+            int offset = recordOffset(i);
+            candles.add(buffer.getLong(offset), buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                    buffer.getLong(offset + 24), buffer.getLong(offset + 32), buffer.getLong(offset + 40));
+        }
+        return candles;
+    }
+
+    /**
+     * Appends the candles newer than the last stored one and returns how many were written.
+     */
+    int append(List<Candlestick> candles) {
+        if(candles == null)
+            throw new NullArgumentException();
+        long lastTime = lastTime();
+        int count = size;
+        for (Candlestick candle : candles) {
+            long time = candle.getDateTime().toEpochSecond();
+            if(time <= lastTime)
+                continue;
+            ensureCapacity(count + 1);
+            int offset = recordOffset(count++);
+            buffer.putLong(offset, time);
+            buffer.putLong(offset + 8, Pipettes.valueOf(candle.getOpenPrice()));
+            buffer.putLong(offset + 16, Pipettes.valueOf(candle.getHighPrice()));
+            buffer.putLong(offset + 24, Pipettes.valueOf(candle.getLowPrice()));
+            buffer.putLong(offset + 32, Pipettes.valueOf(candle.getClosePrice()));
+            buffer.putLong(offset + 40, candle.getVolume());
+            lastTime = time;
+        }
+        int written = count - size;
+        if(written > 0)
+            commit(count);
+        return written;
+    }
+
+    /**
+     * Replaces the stored candles, used when the stored history no longer joins the candles from the broker.
+     */
+    void replace(List<Candlestick> candles) {
+        if(candles == null)
+            throw new NullArgumentException();
+        commit(0);
+        append(candles);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isValid(long records) {
+        if(records < 0 || buffer.getInt(MARKER_OFFSET) != MARKER || buffer.getInt(RECORD_SIZE_OFFSET) != RECORD_BYTES)
+            return false;
+        long count = buffer.getLong(COUNT_OFFSET);
+        return count >= 0 && count <= records;
+    }
+
+    private void writeHeader(int count) {
+        buffer.putInt(MARKER_OFFSET, MARKER);
+        buffer.putInt(RECORD_SIZE_OFFSET, RECORD_BYTES);
+        commit(count);
+    }
+
+    private void commit(int count) {
+        buffer.force();
+        buffer.putLong(COUNT_OFFSET, count);
+        buffer.force();
+        size = count;
+    }
+
+    private void ensureCapacity(int records) {
+        if(records <= capacity)
+            return;
+        try {
+            map(Math.max(records, capacity * 2));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //mapping past the end of the file grows it
+    private void map(int records) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) records * RECORD_BYTES);
+        capacity = records;
+    }
+
+    private int recordOffset(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+}
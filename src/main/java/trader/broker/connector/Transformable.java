@@ -7,6 +7,7 @@ import trader.entity.trade.BrokerTradeDetails;
 import trader.responder.Response;
 
 import java.util.List;
+import java.util.Map;
 
 public interface Transformable {
 
@@ -18,4 +19,6 @@ public interface Transformable {
 
     <T> Price transformToPrice(Response<T> response);
 
+    <T> Map<String, Price> transformToPrices(Response<T> response);
+
 }
@@ -0,0 +1,167 @@
+package trader.broker.connector.oanda;
+
+import com.oanda.v20.account.Account;
+import com.oanda.v20.account.AccountChanges;
+import com.oanda.v20.account.AccountChangesResponse;
+import com.oanda.v20.account.AccountChangesState;
+import com.oanda.v20.order.Order;
+import com.oanda.v20.order.OrderType;
+import com.oanda.v20.order.StopLossOrder;
+import com.oanda.v20.primitives.AccountUnits;
+import com.oanda.v20.trade.TradeSummary;
+import trader.exception.NullArgumentException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local copy of the account. It is loaded once in full and afterwards kept up to date with the deltas of the
+ * account changes endpoint, so a refresh costs the same no matter how many trades and orders are open.
+ */
+class OandaAccountState {
+
+    private final Map<String, Order> orders;
+    private final Map<String, TradeSummary> trades;
+    private String lastTransactionID;
+    private BigDecimal balance;
+    private BigDecimal marginUsed;
+    private BigDecimal marginAvailable;
+    private BigDecimal unrealizedPL;
+
+    OandaAccountState() {
+        orders = new LinkedHashMap<>();
+        trades = new LinkedHashMap<>();
+        clear();
+    }
+
+    synchronized void load(Account account) {
+        if(account == null)
+            throw new NullArgumentException();
+        clear();
+        balance = toBigDecimal(account.getBalance(), BigDecimal.ZERO);
+        marginUsed = toBigDecimal(account.getMarginUsed(), BigDecimal.ZERO);
+        marginAvailable = toBigDecimal(account.getMarginAvailable(), BigDecimal.ZERO);
+        unrealizedPL = toBigDecimal(account.getUnrealizedPL(), BigDecimal.ZERO);
+        addOrders(account.getOrders());
+        addTrades(account.getTrades());
+        lastTransactionID = account.getLastTransactionID().toString();
+    }
+
+    synchronized void applyChanges(AccountChangesResponse changesResponse) {
+        if(changesResponse == null)
+            throw new NullArgumentException();
+        AccountChanges changes = changesResponse.getChanges();
+        if(changes != null) {
+            addOrders(changes.getOrdersCreated());
+            removeOrders(changes.getOrdersCancelled());
+            removeOrders(changes.getOrdersFilled());
+            removeOrders(changes.getOrdersTriggered());
+            addTrades(changes.getTradesOpened());
+            addTrades(changes.getTradesReduced());
+            removeTrades(changes.getTradesClosed());
+            attachStopLossOrders(changes.getOrdersCreated());
+        }
+        applyState(changesResponse.getState());
+        lastTransactionID = changesResponse.getLastTransactionID().toString();
+    }
+
+    synchronized void clear() {
+        orders.clear();
+        trades.clear();
+        lastTransactionID = null;
+        balance = BigDecimal.ZERO;
+        marginUsed = BigDecimal.ZERO;
+        marginAvailable = BigDecimal.ZERO;
+        unrealizedPL = BigDecimal.ZERO;
+    }
+
+    synchronized boolean isLoaded() {
+        return lastTransactionID != null;
+    }
+
+    synchronized String getLastTransactionID() {
+        return lastTransactionID;
+    }
+
+    synchronized BigDecimal getBalance() {
+        return balance;
+    }
+
+    synchronized BigDecimal getMarginUsed() {
+        return marginUsed;
+    }
+
+    synchronized BigDecimal getMarginAvailable() {
+        return marginAvailable;
+    }
+
+    synchronized List<Order> getOrders() {
+        return new ArrayList<>(orders.values());
+    }
+
+    synchronized List<TradeSummary> getTrades() {
+        return new ArrayList<>(trades.values());
+    }
+
+    //the account changes state has no balance, but NAV is balance plus unrealized profit
+    private void applyState(AccountChangesState state) {
+        if(state == null)
+            return;
+        marginUsed = toBigDecimal(state.getMarginUsed(), marginUsed);
+        marginAvailable = toBigDecimal(state.getMarginAvailable(), marginAvailable);
+        unrealizedPL = toBigDecimal(state.getUnrealizedPL(), unrealizedPL);
+        if(state.getNAV() != null)
+            balance = state.getNAV().bigDecimalValue().subtract(unrealizedPL);
+    }
+
+    //replacing a stop loss creates a new order, the trade has to point to it
+    private void attachStopLossOrders(List<Order> createdOrders) {
+        if(createdOrders == null)
+            return;
+        for (Order order : createdOrders) {
+            if(order.getType() != OrderType.STOP_LOSS)
+                continue;
+            StopLossOrder stopLossOrder = (StopLossOrder) order;
+            if(stopLossOrder.getTradeID() == null)
+                continue;
+            TradeSummary trade = trades.get(stopLossOrder.getTradeID().toString());
+            if(trade != null)
+                trades.put(trade.getId().toString(), new TradeSummary(trade).setStopLossOrderID(order.getId()));
+        }
+    }
+
+    private void addOrders(List<Order> newOrders) {
+        if(newOrders == null)
+            return;
+        for (Order order : newOrders)
+            orders.put(order.getId().toString(), order);
+    }
+
+    private void removeOrders(List<Order> oldOrders) {
+        if(oldOrders == null)
+            return;
+        for (Order order : oldOrders)
+            orders.remove(order.getId().toString());
+    }
+
+    private void addTrades(List<TradeSummary> newTrades) {
+        if(newTrades == null)
+            return;
+        for (TradeSummary trade : newTrades)
+            trades.put(trade.getId().toString(), trade);
+    }
+
+    private void removeTrades(List<TradeSummary> oldTrades) {
+        if(oldTrades == null)
+            return;
+        for (TradeSummary trade : oldTrades)
+            trades.remove(trade.getId().toString());
+    }
+
+    private BigDecimal toBigDecimal(AccountUnits units, BigDecimal defaultValue) {
+        return units == null ? defaultValue : units.bigDecimalValue();
+    }
+}
@@ -9,20 +9,29 @@ import com.oanda.v20.pricing.PricingGetResponse;
 import com.oanda.v20.trade.TradeSetDependentOrdersResponse;
 import trader.broker.connector.*;
 import trader.broker.connector.oanda.transformer.*;
+import trader.entity.candlestick.CandleBuffer;
 import trader.entity.candlestick.Candlestick;
 import trader.entity.price.Price;
+import trader.entity.price.PriceImpl;
 import trader.entity.trade.BrokerTradeDetails;
 import trader.exception.BadRequestException;
 import trader.exception.EmptyArgumentException;
 import trader.exception.NullArgumentException;
+import trader.observer.Observer;
 import trader.presenter.Presenter;
 import trader.requestor.Request;
 import trader.responder.Response;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 public class OandaGateway extends BaseGateway {
@@ -31,10 +40,17 @@ public class OandaGateway extends BaseGateway {
     private static final String INSTRUMENT = "instrument";
     private static final String PRICE = "price";
     private static final String CANDLE = "candle";
+    private static final String DECODED_PRICE = "decodedPrice";
+    private static final String DECODED_CANDLE = "decodedCandle";
     private static final String TRADE_ID = "tradeID";
     private static final String ORDER_ID = "orderID";
     private static final String CANCEL_ORDER = "cancelOrder";
+    private static final String REPLACE_ORDER = "replaceOrder";
     private static final String SET_STOP_LOSS_PRICE = "setStopLossPrice";
+    private static final String ACCOUNT_CHANGES = "accountChanges";
+    private static final String SINCE_TRANSACTION_ID = "sinceTransactionID";
+    private static final String REST_HOST_PREFIX = "://api-";
+    private static final String STREAM_HOST_PREFIX = "://stream-";
 
     private Context context;
     private BrokerConnector connector;
@@ -43,8 +59,13 @@ public class OandaGateway extends BaseGateway {
     private OandaRequestBuilder oandaRequestBuilder;
     private OandaResponseBuilder oandaResponseBuilder;
     private Transformable oandaTransformer;
+    private OandaPriceStream oandaPriceStream;
     private HashMap<String, String> priceSettings;
     private HashMap<String, String> accountSettings;
+    private final AtomicLong accountVersion = new AtomicLong();
+    private long accountStateVersion;
+    private OandaAccountState accountState;
+    private volatile boolean directDecoding;
 
     private OandaGateway(BrokerConnector connector, Presenter presenter){
         this.connector = connector;
@@ -52,10 +73,13 @@ public class OandaGateway extends BaseGateway {
         setContext();
         oandaAccountValidator = new OandaAccountValidator();
         oandaRequestBuilder = new OandaRequestBuilder();
-        oandaResponseBuilder = new OandaResponseBuilder(context, connector.getUrl(), presenter);
+        oandaResponseBuilder = new OandaResponseBuilder(context, connector.getUrl(), presenter,
+                new OandaRestReader(connector.getUrl(), connector));
         oandaTransformer = new OandaTransformer();
+        oandaPriceStream = new OandaPriceStream(composeStreamUrl(connector.getUrl()), connector, presenter);
         priceSettings = setAccount();
         accountSettings = setAccount();
+        accountState = new OandaAccountState();
     }
 
     @Override
@@ -65,17 +89,17 @@ public class OandaGateway extends BaseGateway {
 
     @Override
     public BigDecimal getMarginUsed(){
-        return getAccount().getMarginUsed().bigDecimalValue();
+        return getAccountState().getMarginUsed();
     }
 
     @Override
     public BigDecimal getAvailableMargin() {
-        return getAccount().getMarginAvailable().bigDecimalValue();
+        return getAccountState().getMarginAvailable();
     }
 
     @Override
     public BigDecimal getBalance() {
-        return getAccount().getBalance().bigDecimalValue();
+        return getAccountState().getBalance();
     }
 
     @Override
@@ -84,24 +108,108 @@ public class OandaGateway extends BaseGateway {
         oandaAccountValidator.validateAccountBalance(connector, context);
     }
 
+    @Override
+    public void invalidateAccountSnapshot() {
+        accountVersion.incrementAndGet();
+    }
+
     @Override
     public Price getPrice(String instrument) {
-        priceSettings.put(INSTRUMENT, instrument);
-        Request<?> priceRequest = oandaRequestBuilder.build(PRICE, priceSettings);
+        //a copy, so concurrent calls do not share the request settings
+        HashMap<String, String> settings = new HashMap<>(priceSettings);
+        settings.put(INSTRUMENT, instrument);
+        if(directDecoding)
+            return firstPrice(getDecodedPrices(settings));
+        Request<?> priceRequest = oandaRequestBuilder.build(PRICE, settings);
         Response<PricingGetResponse> priceResponse = oandaResponseBuilder.buildResponse(PRICE, priceRequest);
         return oandaTransformer.transformToPrice(priceResponse);
     }
 
+    @Override
+    public Map<String, Price> getPrices(Collection<String> instruments) {
+        if(instruments == null)
+            throw new NullArgumentException();
+        if(instruments.isEmpty())
+            throw new EmptyArgumentException();
+        Set<String> names = new LinkedHashSet<>();
+        for (String instrument : instruments) {
+            validateStringInput(instrument);
+            names.add(instrument.trim());
+        }
+        HashMap<String, String> settings = new HashMap<>(priceSettings);
+        settings.put(INSTRUMENT, String.join(",", names));
+        if(directDecoding)
+            return getDecodedPrices(settings);
+        Request<?> pricesRequest = oandaRequestBuilder.build(PRICE, settings);
+        Response<PricingGetResponse> pricesResponse = oandaResponseBuilder.buildResponse(PRICE, pricesRequest);
+        return oandaTransformer.transformToPrices(pricesResponse);
+    }
+
+    @Override
+    public void streamPrices(String instrument, Observer observer) {
+        validateStringInput(instrument);
+        if(observer == null)
+            throw new NullArgumentException();
+        oandaPriceStream.stream(instrument, observer);
+    }
+
     @Override
     public List<Candlestick> getCandles(HashMap<String, String> settings) {
+        if(directDecoding)
+            return getCandleBuffer(settings).toCandlesticks();
         Request<?> candleRequest = oandaRequestBuilder.build(CANDLE, settings);
         Response<InstrumentCandlesResponse> candlesResponse = oandaResponseBuilder.buildResponse(CANDLE,candleRequest);
         return  oandaTransformer.transformCandlesticks(candlesResponse);
     }
 
+    /**
+     * Returns the complete candles decoded straight from the response body into primitive columns.
+     */
+    public CandleBuffer getCandleBuffer(HashMap<String, String> settings) {
+        Request<?> candleRequest = oandaRequestBuilder.build(CANDLE, settings);
+        Response<CandleBuffer> candlesResponse = oandaResponseBuilder.buildResponse(DECODED_CANDLE, candleRequest);
+        if(candlesResponse == null || candlesResponse.getBody() == null)
+            return new CandleBuffer(0);
+        return candlesResponse.getBody();
+    }
+
+    //prices and candles are decoded from the response body instead of the v20 response objects
+    public void setDirectDecoding(boolean directDecoding) {
+        this.directDecoding = directDecoding;
+    }
+
+    public boolean isDirectDecoding() {
+        return directDecoding;
+    }
+
+    //the calls waiting in line for a request token
+    public int getRequestQueueDepth() {
+        return oandaResponseBuilder.getRequestScheduler().getQueueDepth();
+    }
+
+    //the requests sent to the broker, retries included
+    public long getScheduledRequests() {
+        return oandaResponseBuilder.getRequestScheduler().getScheduledRequests();
+    }
+
+    //the reads answered by an identical read already in line
+    public long getCoalescedRequests() {
+        return oandaResponseBuilder.getRequestScheduler().getCoalescedRequests();
+    }
+
+    public long getAverageRequestWaitMillis() {
+        OandaRequestScheduler scheduler = oandaResponseBuilder.getRequestScheduler();
+        long scheduled = scheduler.getScheduledRequests();
+        return scheduled == 0 ? 0L : TimeUnit.NANOSECONDS.toMillis(scheduler.getTotalWaitNanos() / scheduled);
+    }
+
+    public long getMaxRequestWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(oandaResponseBuilder.getRequestScheduler().getMaxWaitNanos());
+    }
+
     @Override
     public int totalOpenTradesSize() {
-        return getAccount().getTrades().size();
+        return getAccountState().getTrades().size();
     }
 
     @Override
@@ -114,10 +222,36 @@ public class OandaGateway extends BaseGateway {
         settings.put(ACCOUNT_ID, getConnector().getAccountID());
         Request<?> marketOrderRequest = oandaRequestBuilder.build(orderType, settings);
         Response<OrderCreateResponse> marketOrderResponse = oandaResponseBuilder.buildResponse(orderType, marketOrderRequest);
+        invalidateAccountSnapshot();
+        if(marketOrderResponse == null)
+            throw new BadRequestException();
         OrderCreateResponse orderResponse = marketOrderResponse.getBody();
         return orderResponse.getOrderCreateTransaction().getId().toString();
     }
 
+    /**
+     * Returns the id of the new order. Throws {@link BadRequestException} when the broker rejects the replacement,
+     * for example because the old order was filled or cancelled in the meantime.
+     */
+    @Override
+    public String replaceOrder(String orderID, Map<String, String> settings) {
+        validateStringInput(orderID);
+        if(settings == null)
+            throw new NullArgumentException();
+        HashMap<String, String> replaceSettings = new HashMap<>(settings);
+        replaceSettings.put(ACCOUNT_ID, getConnector().getAccountID());
+        replaceSettings.put(ORDER_ID, orderID);
+        Request<?> orderReplaceRequest = oandaRequestBuilder.build(REPLACE_ORDER, replaceSettings);
+        Response<OrderReplaceResponse> orderReplaceResponse = oandaResponseBuilder.buildResponse(REPLACE_ORDER, orderReplaceRequest);
+        invalidateAccountSnapshot();
+        if(orderReplaceResponse == null || orderReplaceResponse.getBody().getOrderCreateTransaction() == null)
+            throw new BadRequestException();
+        return orderReplaceResponse.getBody().getOrderCreateTransaction().getId().toString();
+    }
+
+    /**
+     * Throws {@link BadRequestException} when the broker rejects the request, as do the other order writes.
+     */
     @Override
     public String cancelOrder(String orderID) {
         validateStringInput(orderID);
@@ -125,6 +259,9 @@ public class OandaGateway extends BaseGateway {
         settings.put(ORDER_ID, orderID);
         Request<?> orderCancelRequest = oandaRequestBuilder.build("orderSpecifier", settings);
         Response<OrderCancelResponse> cancelOrderResponse = oandaResponseBuilder.buildResponse("orderSpecifier",orderCancelRequest);
+        invalidateAccountSnapshot();
+        if(cancelOrderResponse == null)
+            throw new BadRequestException();
         OrderCancelResponse responseDataStructure = cancelOrderResponse.getBody();
         return responseDataStructure.getLastTransactionID().toString();
     }
@@ -142,9 +279,10 @@ public class OandaGateway extends BaseGateway {
     @Override
     public BrokerTradeDetails getTradeDetails(int index){
         try{
+            OandaAccountState state = getAccountState();
             return oandaTransformer.transformTradeSummary(
-                    getAccount().getTrades().get(index),
-                    getAccount().getOrders()
+                    state.getTrades().get(index),
+                    state.getOrders()
             );
         } catch(Exception e){
             throw new BadRequestException();
@@ -160,7 +298,9 @@ public class OandaGateway extends BaseGateway {
         settings.put(PRICE, stopLossPrice);
         Request<?> tradeSetDependentOrderRequest = oandaRequestBuilder.build(SET_STOP_LOSS_PRICE, settings);
         Response<TradeSetDependentOrdersResponse> tradeSetDependentOrdersResponse = oandaResponseBuilder.buildResponse(SET_STOP_LOSS_PRICE, tradeSetDependentOrderRequest);
-
+        invalidateAccountSnapshot();
+        if(tradeSetDependentOrdersResponse == null)
+            throw new BadRequestException();
         TradeSetDependentOrdersResponse responseDataStructure = tradeSetDependentOrdersResponse.getBody();
         return responseDataStructure.getLastTransactionID().toString();
     }
@@ -193,10 +333,56 @@ public class OandaGateway extends BaseGateway {
             throw new EmptyArgumentException();
     }
 
-    private Account getAccount(){
+    private Map<String, Price> getDecodedPrices(HashMap<String, String> settings) {
+        Request<?> pricesRequest = oandaRequestBuilder.build(PRICE, settings);
+        Response<Map<String, Price>> pricesResponse = oandaResponseBuilder.buildResponse(DECODED_PRICE, pricesRequest);
+        if(pricesResponse == null || pricesResponse.getBody() == null)
+            return new LinkedHashMap<>();
+        return pricesResponse.getBody();
+    }
+
+    private Price firstPrice(Map<String, Price> prices) {
+        if(prices.isEmpty())
+            return new PriceImpl.PriceBuilder().setIsTradable(false).build();
+        return prices.values().iterator().next();
+    }
+
+    private synchronized OandaAccountState getAccountState(){
+        long version = accountVersion.get();
+        if(accountState.isLoaded() && accountStateVersion == version)
+            return accountState;
+        if(accountState.isLoaded())
+            updateAccountState();
+        else
+            loadAccountState();
+        accountStateVersion = version;
+        return accountState;
+    }
+
+    private void updateAccountState(){
+        HashMap<String, String> settings = setAccount();
+        settings.put(SINCE_TRANSACTION_ID, accountState.getLastTransactionID());
+        Request<?> changesRequest = oandaRequestBuilder.build(ACCOUNT_CHANGES, settings);
+        Response<AccountChangesResponse> changesResponse = oandaResponseBuilder.buildResponse(ACCOUNT_CHANGES, changesRequest);
+        //changes since the last transaction are lost, start again from the full account
+        if(changesResponse == null || changesResponse.getBody() == null) {
+            loadAccountState();
+            return;
+        }
+        accountState.applyChanges(changesResponse.getBody());
+    }
+
+    private void loadAccountState(){
         Request<?> accountRequest = oandaRequestBuilder.build(ACCOUNT_ID, accountSettings);
         Response<Account> accountResponse = oandaResponseBuilder.buildResponse(ACCOUNT_ID, accountRequest);
-        return accountResponse.getBody();
+        accountState.clear();
+        if(accountResponse == null || accountResponse.getBody() == null)
+            throw new BadRequestException();
+        accountState.load(accountResponse.getBody());
+    }
+
+    private String composeStreamUrl(String url) {
+        return url.replaceFirst(REST_HOST_PREFIX, STREAM_HOST_PREFIX);
     }
 
     private void setContext(){
@@ -213,6 +399,6 @@ public class OandaGateway extends BaseGateway {
     }
 
     private List<Order> getOrders(){
-        return  getAccount().getOrders();
+        return getAccountState().getOrders();
     }
 }
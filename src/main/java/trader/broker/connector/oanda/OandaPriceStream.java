@@ -0,0 +1,173 @@
+package trader.broker.connector.oanda;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import trader.broker.connector.BrokerConnector;
+import trader.broker.connector.oanda.transformer.OandaStreamPriceTransformer;
+import trader.entity.price.Price;
+import trader.exception.NullArgumentException;
+import trader.observer.Observer;
+import trader.presenter.Presenter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the v20 pricing stream. The stream is chunked HTTP with one JSON object per line: PRICE lines are pushed
+ * to the observer as they arrive and HEARTBEAT lines only keep the subscription alive. When the stream goes silent
+ * for longer than the heartbeat timeout, or the connection drops, the instrument is resubscribed. A price message
+ * that cannot be read, or an observer failing on it, is reported and the stream goes on with the next message.
+ */
+class OandaPriceStream {
+
+    private static final String STREAM_PATH = "/v3/accounts/%s/pricing/stream?instruments=%s";
+    private static final String TYPE = "type";
+    private static final String PRICE = "PRICE";
+    private static final String HEARTBEAT = "HEARTBEAT";
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    //oanda sends heartbeat every 5 seconds
+    private static final int HEARTBEAT_TIMEOUT_MILLIS = 15_000;
+    private static final long RESUBSCRIBE_DELAY_MILLIS = 250L;
+    private static final long MAX_RESUBSCRIBE_DELAY_MILLIS = 8_000L;
+    private static final int MAX_FAILED_SUBSCRIPTIONS = 6;
+
+    private final String streamUrl;
+    private final BrokerConnector connector;
+    private final Presenter presenter;
+    private final OandaStreamPriceTransformer transformer;
+    private int heartbeatTimeout;
+    private long resubscribeDelay;
+    private int maxFailedSubscriptions;
+    private long lastHeartbeatMillis;
+    private int subscriptions;
+
+    OandaPriceStream(String streamUrl, BrokerConnector connector, Presenter presenter) {
+        this(streamUrl, connector, presenter, HEARTBEAT_TIMEOUT_MILLIS, RESUBSCRIBE_DELAY_MILLIS, MAX_FAILED_SUBSCRIPTIONS);
+    }
+
+    OandaPriceStream(String streamUrl, BrokerConnector connector, Presenter presenter,
+                     int heartbeatTimeout, long resubscribeDelay, int maxFailedSubscriptions) {
+        if(streamUrl == null || connector == null || presenter == null)
+            throw new NullArgumentException();
+        this.streamUrl = streamUrl.trim();
+        this.connector = connector;
+        this.presenter = presenter;
+        this.transformer = new OandaStreamPriceTransformer();
+        this.heartbeatTimeout = heartbeatTimeout;
+        this.resubscribeDelay = resubscribeDelay;
+        this.maxFailedSubscriptions = maxFailedSubscriptions;
+    }
+
+    /**
+     * Blocks while the stream is alive. Returns when the stream cannot be subscribed to
+     * {@code maxFailedSubscriptions} times in a row, or when the calling thread is interrupted.
+     */
+    void stream(String instrument, Observer observer) {
+        int failedSubscriptions = 0;
+        while (!Thread.currentThread().isInterrupted() && failedSubscriptions < maxFailedSubscriptions) {
+            if (readStream(instrument, observer)) {
+                failedSubscriptions = 0;
+            } else {
+                failedSubscriptions++;
+            }
+            presenter.execute("Price stream lost. Resubscribing...");
+            sleep(calculateResubscribeDelay(failedSubscriptions));
+        }
+        presenter.execute("Price stream unavailable.");
+    }
+
+    long getLastHeartbeatMillis() {
+        return lastHeartbeatMillis;
+    }
+
+    int getSubscriptions() {
+        return subscriptions;
+    }
+
+    private boolean readStream(String instrument, Observer observer) {
+        HttpURLConnection connection = null;
+        boolean received = false;
+        try {
+            connection = openConnection(instrument);
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK)
+                return false;
+            subscriptions++;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null && !Thread.currentThread().isInterrupted()) {
+                    received |= handleLine(line, observer);
+                }
+            }
+        } catch (IOException e) {
+            //heartbeat timeout or dropped connection - resubscribe
+        } catch (RuntimeException e) {
+            presenter.execute("Price stream failed: " + e);
+        } finally {
+            if (connection != null)
+                connection.disconnect();
+        }
+        return received;
+    }
+
+    private boolean handleLine(String line, Observer observer) {
+        if (line.trim().isEmpty())
+            return false;
+        JsonObject message;
+        try {
+            message = new JsonParser().parse(line).getAsJsonObject();
+        } catch (JsonSyntaxException | IllegalStateException e) {
+            return false;
+        }
+        String type = message.has(TYPE) ? message.get(TYPE).getAsString() : "";
+        if (type.equals(HEARTBEAT)) {
+            lastHeartbeatMillis = System.currentTimeMillis();
+            return true;
+        }
+        if (type.equals(PRICE)) {
+            updateObserver(message, observer);
+            return true;
+        }
+        return false;
+    }
+
+    //a failing price must not end the stream, the prices after it are still pushed
+    private void updateObserver(JsonObject message, Observer observer) {
+        try {
+            Price price = transformer.transformToPrice(message);
+            observer.updateObserver(price);
+        } catch (RuntimeException e) {
+            presenter.execute("Price update failed: " + e);
+        }
+    }
+
+    private HttpURLConnection openConnection(String instrument) throws IOException {
+        String path = String.format(STREAM_PATH, connector.getAccountID(), URLEncoder.encode(instrument, "UTF-8"));
+        HttpURLConnection connection = (HttpURLConnection) new URL(streamUrl + path).openConnection();
+        connection.setRequestMethod("GET");
+        connection.setRequestProperty("Authorization", "Bearer " + connector.getToken());
+        connection.setRequestProperty("Accept-Datetime-Format", "RFC3339");
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(heartbeatTimeout);
+        return connection;
+    }
+
+    private long calculateResubscribeDelay(int failedSubscriptions) {
+        long delay = resubscribeDelay << Math.min(failedSubscriptions, 16);
+        return Math.min(delay, MAX_RESUBSCRIBE_DELAY_MILLIS);
+    }
+
+    private void sleep(long sleepInterval) {
+        try {
+            Thread.sleep(sleepInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
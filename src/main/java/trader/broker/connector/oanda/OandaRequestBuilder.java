@@ -1,5 +1,6 @@
 package trader.broker.connector.oanda;
 
+import com.oanda.v20.account.AccountChangesRequest;
 import com.oanda.v20.account.AccountID;
 import com.oanda.v20.instrument.CandlestickGranularity;
 import com.oanda.v20.instrument.InstrumentCandlesRequest;
@@ -29,6 +30,7 @@ class OandaRequestBuilder {
     private static final String TRADE_STOP_LOSS_PRICE = "tradeStopLossPrice";
     private static final String ORDER_ID = "orderID";
     private static final String TRADE_ID = "tradeID";
+    private static final String SINCE_TRANSACTION_ID = "sinceTransactionID";
 
     public Request<?> build(String requestType, Map<String, String> settings) {
         initialInputValidation(requestType, settings);
@@ -38,10 +40,14 @@ class OandaRequestBuilder {
             return buildCandlesRequest(settings);
         if(requestType.trim().equalsIgnoreCase(ACCOUNT_ID))
             return buildAccountIDRequest(settings);
+        if(requestType.trim().equalsIgnoreCase("accountChanges"))
+            return buildAccountChangesRequest(settings);
         if(requestType.trim().equalsIgnoreCase("marketIfTouchedOrder"))
             return buildCreateMarketIfTouchedOrderRequest(settings);
         if(requestType.trim().equalsIgnoreCase("marketOrder"))
             return buildCreateMarketOrderRequest(settings);
+        if(requestType.trim().equalsIgnoreCase("replaceOrder"))
+            return buildReplaceMarketIfTouchedOrderRequest(settings);
         if(requestType.trim().equalsIgnoreCase("orderSpecifier"))
             return buildOrderSpecifierRequest(settings);
         if(requestType.trim().equalsIgnoreCase("setStopLossPrice"))
@@ -51,8 +57,14 @@ class OandaRequestBuilder {
     }
 
     private Request<PricingGetRequest> buildPricingRequest(Map<String, String> settings) {
+        //one request prices every instrument of a comma separated list
         List<String> instruments = new ArrayList<>();
-        instruments.add(settings.get(INSTRUMENT));
+        for (String instrument : settings.get(INSTRUMENT).split(",")) {
+            if(!instrument.trim().isEmpty())
+                instruments.add(instrument.trim());
+        }
+        if(instruments.isEmpty())
+            throw new BadRequestException();
         AccountID accountId = new AccountID(settings.get(ACCOUNT_ID));
         Request<PricingGetRequest> request = new RequestImpl<>();
         request.setBody(new PricingGetRequest(accountId, instruments));
@@ -77,6 +89,16 @@ class OandaRequestBuilder {
         return accountIDRequest;
     }
 
+    private Request<AccountChangesRequest> buildAccountChangesRequest(Map<String, String> settings) {
+        String sinceTransactionID = settings.get(SINCE_TRANSACTION_ID);
+        if(sinceTransactionID == null || sinceTransactionID.trim().isEmpty())
+            throw new BadRequestException();
+        Request<AccountChangesRequest> request = new RequestImpl<>();
+        request.setBody(new AccountChangesRequest(new AccountID(settings.get(ACCOUNT_ID)))
+                .setSinceTransactionID(sinceTransactionID.trim()));
+        return request;
+    }
+
     private Request<OrderCreateRequest> buildCreateMarketIfTouchedOrderRequest(Map<String, String> settings) {
         AccountID accountID = new AccountID(settings.get(ACCOUNT_ID));
         OrderCreateRequest orderCreateRequest = new OrderCreateRequest(accountID)
@@ -95,6 +117,18 @@ class OandaRequestBuilder {
         return request;
     }
 
+    private Request<OrderReplaceRequest> buildReplaceMarketIfTouchedOrderRequest(Map<String, String> settings) {
+        String orderID = settings.get(ORDER_ID);
+        if(orderID == null || orderID.trim().isEmpty())
+            throw new BadRequestException();
+        AccountID accountID = new AccountID(settings.get(ACCOUNT_ID));
+        OrderReplaceRequest orderReplaceRequest = new OrderReplaceRequest(accountID, new OrderSpecifier(orderID.trim()))
+                .setOrder(createMarketIfTouchedOrderRequest(settings));
+        Request<OrderReplaceRequest> request = new RequestImpl<>();
+        request.setBody(orderReplaceRequest);
+        return request;
+    }
+
     private OrderRequest createMarketOrderRequest(Map<String, String> settings){
         return  new MarketOrderRequest()
                 .setInstrument(settings.get(INSTRUMENT))
@@ -0,0 +1,285 @@
+package trader.broker.connector.oanda;
+
+import trader.exception.NullArgumentException;
+import trader.exception.UnableToExecuteRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Token bucket in front of the broker REST calls. A call blocks until it is first in line and a token is free.
+ * Order create, replace, cancel and stop loss updates are always in line before account, price and candle reads, and a
+ * read that is already queued or running is shared with every identical read instead of being sent again. Every
+ * attempt of a call takes its own token, so a retry waits in line like a new call.
+ */
+class OandaRequestScheduler {
+
+    //oanda allows 100 requests per second on a connection
+    private static final double REQUESTS_PER_SECOND = 50.0;
+    private static final int BURST = 10;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    enum RequestPriority {
+        WRITE,
+        READ
+    }
+
+    private final ReentrantLock lock;
+    private final Condition turn;
+    private final PriorityQueue<Ticket> queue;
+    private final Map<String, Ticket> pendingReads;
+    private final double requestsPerSecond;
+    private final int burst;
+    private double tokens;
+    private long lastRefillNanos;
+    private long sequence;
+    private long scheduledRequests;
+    private long coalescedRequests;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    OandaRequestScheduler() {
+        this(REQUESTS_PER_SECOND, BURST);
+    }
+
+    OandaRequestScheduler(double requestsPerSecond, int burst) {
+        if(requestsPerSecond <= 0 || burst < 1)
+            throw new IllegalArgumentException();
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.lock = new ReentrantLock();
+        this.turn = lock.newCondition();
+        this.queue = new PriorityQueue<>();
+        this.pendingReads = new HashMap<>();
+    }
+
+    static RequestPriority priorityOf(String type) {
+        if(type == null)
+            throw new NullArgumentException();
+        String requestType = type.trim();
+        if(requestType.equalsIgnoreCase("marketIfTouchedOrder") || requestType.equalsIgnoreCase("marketOrder")
+                || requestType.equalsIgnoreCase("cancelOrder") || requestType.equalsIgnoreCase("orderSpecifier")
+                || requestType.equalsIgnoreCase("setStopLossPrice") || requestType.equalsIgnoreCase("replaceOrder"))
+            return RequestPriority.WRITE;
+        return RequestPriority.READ;
+    }
+
+    /**
+     * Runs the call when its turn comes. Reads with the same key share one call, writes never do, so the key of a
+     * write may be null.
+     */
+    <T> T execute(String type, String key, Supplier<T> call) {
+        if(type == null || call == null)
+            throw new NullArgumentException();
+        RequestPriority priority = priorityOf(type);
+        boolean coalescing = priority == RequestPriority.READ && key != null;
+        Ticket ticket;
+        lock.lock();
+        try {
+            Ticket pending = coalescing ? pendingReads.get(key) : null;
+            if(pending != null) {
+                coalescedRequests++;
+                return pending.<T>awaitResult(lock);
+            }
+            ticket = new Ticket(priority, sequence++, System.nanoTime());
+            queue.add(ticket);
+            if(coalescing)
+                pendingReads.put(key, ticket);
+            awaitTurn(ticket);
+        } finally {
+            if(lock.isHeldByCurrentThread())
+                lock.unlock();
+        }
+        try {
+            T result = call.get();
+            ticket.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            ticket.fail(e);
+            throw e;
+        } finally {
+            //an error thrown by the call must not leave the shared readers waiting
+            if(!ticket.isDone())
+                ticket.fail(new UnableToExecuteRequest());
+            if(coalescing)
+                removePendingRead(key, ticket);
+        }
+    }
+
+    /**
+     * Waits in line for one more token, for a call that already had its turn and is sent again.
+     */
+    void acquire(String type) {
+        if(type == null)
+            throw new NullArgumentException();
+        lock.lock();
+        try {
+            Ticket ticket = new Ticket(priorityOf(type), sequence++, System.nanoTime());
+            queue.add(ticket);
+            awaitTurn(ticket);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getScheduledRequests() {
+        lock.lock();
+        try {
+            return scheduledRequests;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getCoalescedRequests() {
+        lock.lock();
+        try {
+            return coalescedRequests;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getTotalWaitNanos() {
+        lock.lock();
+        try {
+            return totalWaitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getMaxWaitNanos() {
+        lock.lock();
+        try {
+            return maxWaitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //the first ticket in line waits for the next token, the others wait until they are first
+    private void awaitTurn(Ticket ticket) {
+        boolean interrupted = false;
+        while (true) {
+            if(queue.peek() == ticket) {
+                refillTokens();
+                if(tokens >= 1) {
+                    tokens--;
+                    queue.poll();
+                    recordWait(ticket);
+                    turn.signalAll();
+                    break;
+                }
+            }
+            try {
+                if(queue.peek() == ticket)
+                    turn.awaitNanos(nanosUntilNextToken());
+                else
+                    turn.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if(interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private void refillTokens() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * requestsPerSecond / NANOS_PER_SECOND);
+        lastRefillNanos = now;
+    }
+
+    private long nanosUntilNextToken() {
+        return Math.max(1L, (long) Math.ceil((1 - tokens) * NANOS_PER_SECOND / requestsPerSecond));
+    }
+
+    private void recordWait(Ticket ticket) {
+        long waitNanos = System.nanoTime() - ticket.enqueuedNanos;
+        scheduledRequests++;
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    private void removePendingRead(String key, Ticket ticket) {
+        lock.lock();
+        try {
+            pendingReads.remove(key, ticket);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Ticket implements Comparable<Ticket> {
+
+        private final RequestPriority priority;
+        private final long sequence;
+        private final long enqueuedNanos;
+        private final CountDownLatch done;
+        private Object result;
+        private RuntimeException failure;
+
+        Ticket(RequestPriority priority, long sequence, long enqueuedNanos) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedNanos = enqueuedNanos;
+            this.done = new CountDownLatch(1);
+        }
+
+        void complete(Object value) {
+            result = value;
+            done.countDown();
+        }
+
+        void fail(RuntimeException e) {
+            failure = e;
+            done.countDown();
+        }
+
+        boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T awaitResult(ReentrantLock lock) {
+            lock.unlock();
+            boolean interrupted = false;
+            while (done.getCount() > 0) {
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if(interrupted)
+                Thread.currentThread().interrupt();
+            if(failure != null)
+                throw failure;
+            return (T) result;
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -4,50 +4,105 @@ import com.oanda.v20.Context;
 import com.oanda.v20.ExecuteException;
 import com.oanda.v20.RequestException;
 import com.oanda.v20.account.Account;
+import com.oanda.v20.account.AccountChangesRequest;
+import com.oanda.v20.account.AccountChangesResponse;
 import com.oanda.v20.account.AccountID;
 import com.oanda.v20.instrument.InstrumentCandlesRequest;
 import com.oanda.v20.instrument.InstrumentCandlesResponse;
 import com.oanda.v20.order.OrderCancelResponse;
 import com.oanda.v20.order.OrderCreateRequest;
 import com.oanda.v20.order.OrderCreateResponse;
+import com.oanda.v20.order.OrderReplaceRequest;
+import com.oanda.v20.order.OrderReplaceResponse;
 import com.oanda.v20.order.OrderSpecifier;
 import com.oanda.v20.pricing.*;
 import com.oanda.v20.trade.TradeSetDependentOrdersRequest;
 import com.oanda.v20.trade.TradeSetDependentOrdersResponse;
-import trader.connection.Connection;
+import trader.connection.BrokerCall;
+import trader.connection.ConnectionHealth;
+import trader.entity.candlestick.CandleBuffer;
+import trader.entity.price.Price;
 import trader.exception.EmptyArgumentException;
 import trader.exception.NoSuchDataStructureException;
 import trader.exception.NullArgumentException;
+import trader.exception.UnableToExecuteRequest;
 import trader.interactor.ResponseImpl;
 import trader.presenter.Presenter;
 import trader.requestor.Request;
 import trader.responder.Response;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 public class OandaResponseBuilder {
 
+    private static final int MAX_READ_ATTEMPTS = 10;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR = 500;
+
     private Context context;
     private String url;
     private Presenter presenter;
+    private OandaRequestScheduler requestScheduler;
+    private ConnectionHealth connectionHealth;
+    private OandaRestReader restReader;
 
     OandaResponseBuilder(Context context, String url, Presenter presenter){
+        this(context, url, presenter, null);
+    }
+
+    //without a rest reader only the v20 context answers, the decoded types are not available
+    OandaResponseBuilder(Context context, String url, Presenter presenter, OandaRestReader restReader){
         verifyInput(context, url);
         this.context = context;
         this.url = url.trim();
+        this.restReader = restReader;
+        this.requestScheduler = new OandaRequestScheduler();
         setPresenter(presenter);
+        this.connectionHealth = new ConnectionHealth(this.url, presenter);
     }
 
-    public <T, E> Response<E> buildResponse(String type, Request<T> request) {
+    public <T, E> Response<E> buildResponse(final String type, final Request<T> request) {
         verifyInput(request, type);
+        String readKey = composeReadKey(type, request);
+        Response<E> response = requestScheduler.execute(type, readKey, new Supplier<Response<E>>() {
+            @Override
+            public Response<E> get() {
+                return dispatchResponse(type, request);
+            }
+        });
+        return readKey == null ? response : copyOf(response);
+    }
+
+    OandaRequestScheduler getRequestScheduler() {
+        return requestScheduler;
+    }
+
+    ConnectionHealth getConnectionHealth() {
+        return connectionHealth;
+    }
+
+    private <T, E> Response<E> dispatchResponse(String type, Request<T> request) {
         if(type.trim().equalsIgnoreCase("accountid"))
             return setResponse((E) createAccountResponse(request));
+        if(type.trim().equalsIgnoreCase("accountChanges"))
+            return setResponse((E) createAccountChangesResponse(request));
         if(type.trim().equalsIgnoreCase("price"))
             return setResponse((E) createPriceResponse(request));
         if(type.trim().equalsIgnoreCase("candle"))
             return setResponse((E) createCandlesResponse(request));
+        if(type.trim().equalsIgnoreCase("decodedPrice") && restReader != null)
+            return setResponse((E) createDecodedPriceResponse(request));
+        if(type.trim().equalsIgnoreCase("decodedCandle") && restReader != null)
+            return setResponse((E) createDecodedCandlesResponse(request));
         if(type.trim().equalsIgnoreCase("marketIfTouchedOrder") || type.trim().equalsIgnoreCase("marketOrder"))
             return setResponse((E) createOrderCreateResponse(request));
+        if(type.trim().equalsIgnoreCase("replaceOrder"))
+            return setResponse((E) createOrderReplaceResponse(request));
         if(type.trim().equalsIgnoreCase("cancelOrder"))
             return setResponse((E) createCancelOrderResponse(request));
         if(type.trim().equalsIgnoreCase("setStopLossPrice"))
@@ -57,93 +112,190 @@ public class OandaResponseBuilder {
         throw new NoSuchDataStructureException();
     }
 
-    private <T> OrderCancelResponse createCloseOrderResponse(Request<T> request) {
-        List<Object> body = (List<Object>) request.getBody();
-        AccountID accountID = (AccountID) body.get(0);
-        OrderSpecifier orderSpecifier = (OrderSpecifier) body.get(1);
-        try {
-            return this.context.order.cancel(accountID, orderSpecifier);
-        } catch (ExecuteException | RequestException e) {
-            Connection.waitToConnect(url, presenter);
-        } catch (RuntimeException e) {
-            throw new RuntimeException(e);
+    //identical reads have the same path and query, writes and reads without a copy of the answer are never shared
+    private <T> String composeReadKey(String type, Request<T> request) {
+        if(!isShareable(type))
+            return null;
+        Object body = request.getBody();
+        if(body instanceof com.oanda.v20.Request) {
+            com.oanda.v20.Request brokerRequest = (com.oanda.v20.Request) body;
+            return type.trim().toLowerCase() + brokerRequest.getPathParams() + brokerRequest.getQueryParams();
         }
-        return null;
+        return type.trim().toLowerCase() + body;
+    }
+
+    private boolean isShareable(String type) {
+        String requestType = type.trim();
+        return requestType.equalsIgnoreCase("accountid")
+                || (restReader != null && (requestType.equalsIgnoreCase("decodedPrice") || requestType.equalsIgnoreCase("decodedCandle")));
+    }
+
+    //every caller of a shared read gets its own response and body, the prices only as a read-only view
+    private <E> Response<E> copyOf(Response<E> response) {
+        if(response == null)
+            return null;
+        Object body = response.getBody();
+        if(body instanceof Account)
+            return setResponse((E) new Account((Account) body));
+        if(body instanceof CandleBuffer)
+            return setResponse((E) new CandleBuffer((CandleBuffer) body));
+        if(body instanceof Map)
+            return setResponse((E) Collections.unmodifiableMap((Map<String, Price>) body));
+        return setResponse(response.getBody());
+    }
+
+    private <T> OrderCancelResponse createCloseOrderResponse(Request<T> request) {
+        return execute("orderSpecifier", new BrokerCall<OrderCancelResponse>() {
+            @Override
+            public OrderCancelResponse call() throws ExecuteException, RequestException {
+                List<Object> body = (List<Object>) request.getBody();
+                AccountID accountID = (AccountID) body.get(0);
+                OrderSpecifier orderSpecifier = (OrderSpecifier) body.get(1);
+                return context.order.cancel(accountID, orderSpecifier);
+            }
+        });
     }
 
     private <T> Object createAccountResponse(Request<T> request) {
-        try{
-            AccountID accountID = (AccountID) request.getBody();
-            return context.account.get(accountID).getAccount();
-        } catch (ExecuteException | RequestException e) {
-            Connection.waitToConnect(url, presenter);
-        } catch (RuntimeException e) {
-            throw new RuntimeException(e);
-        }
-        return null;
+        return execute("accountID", new BrokerCall<Account>() {
+            @Override
+            public Account call() throws ExecuteException, RequestException {
+                AccountID accountID = (AccountID) request.getBody();
+                return context.account.get(accountID).getAccount();
+            }
+        });
+    }
+
+    private <T> AccountChangesResponse createAccountChangesResponse(Request<T> request) {
+        return execute("accountChanges", new BrokerCall<AccountChangesResponse>() {
+            @Override
+            public AccountChangesResponse call() throws ExecuteException, RequestException {
+                AccountChangesRequest changesRequest = (AccountChangesRequest) request.getBody();
+                return context.account.changes(changesRequest);
+            }
+        });
     }
 
     private <T> TradeSetDependentOrdersResponse createSetStopLossPriceResponse(Request<T> request) {
-        TradeSetDependentOrdersRequest requestDataStructure = (TradeSetDependentOrdersRequest) request.getBody();
-        try {
-            return this.context.trade.setDependentOrders(requestDataStructure);
-        } catch (ExecuteException | RequestException e) {
-            Connection.waitToConnect(url, presenter);
-        } catch (RuntimeException e) {
-            throw new RuntimeException(e);
-        }
-        return null;
+        return execute("setStopLossPrice", new BrokerCall<TradeSetDependentOrdersResponse>() {
+            @Override
+            public TradeSetDependentOrdersResponse call() throws ExecuteException, RequestException {
+                TradeSetDependentOrdersRequest requestDataStructure = (TradeSetDependentOrdersRequest) request.getBody();
+                return context.trade.setDependentOrders(requestDataStructure);
+            }
+        });
     }
 
     private <T> OrderCancelResponse createCancelOrderResponse(Request<T> request) {
-        try {
-
-            List<Object> requestDataStructure = (List<Object>) request.getBody();
-            AccountID account = (AccountID) requestDataStructure.get(0);
-            OrderSpecifier order = (OrderSpecifier) requestDataStructure.get(1);
-            return context.order.cancel(account, order);
-        } catch (ExecuteException | RequestException e) {
-            Connection.waitToConnect(url, presenter);
-        } catch (RuntimeException e) {
-            throw new RuntimeException(e);
-        }
-        return null;
+        return execute("cancelOrder", new BrokerCall<OrderCancelResponse>() {
+            @Override
+            public OrderCancelResponse call() throws ExecuteException, RequestException {
+                List<Object> requestDataStructure = (List<Object>) request.getBody();
+                AccountID account = (AccountID) requestDataStructure.get(0);
+                OrderSpecifier order = (OrderSpecifier) requestDataStructure.get(1);
+                return context.order.cancel(account, order);
+            }
+        });
     }
 
     private <T> OrderCreateResponse createOrderCreateResponse(Request<T> createOrderRequest) {
-        try {
-            OrderCreateRequest request = (OrderCreateRequest) createOrderRequest.getBody();
-            return context.order.create(request);
-        } catch (ExecuteException | RequestException e) {
-            Connection.waitToConnect(url, presenter);
-        } catch (RuntimeException e) {
-            throw new RuntimeException(e);
-        }
-        return null;
+        return execute("marketOrder", new BrokerCall<OrderCreateResponse>() {
+            @Override
+            public OrderCreateResponse call() throws ExecuteException, RequestException {
+                OrderCreateRequest request = (OrderCreateRequest) createOrderRequest.getBody();
+                return context.order.create(request);
+            }
+        });
+    }
+
+    private <T> OrderReplaceResponse createOrderReplaceResponse(Request<T> replaceOrderRequest) {
+        return execute("replaceOrder", new BrokerCall<OrderReplaceResponse>() {
+            @Override
+            public OrderReplaceResponse call() throws ExecuteException, RequestException {
+                OrderReplaceRequest request = (OrderReplaceRequest) replaceOrderRequest.getBody();
+                return context.order.replace(request);
+            }
+        });
     }
 
     private <T> PricingGetResponse createPriceResponse(Request<T> priceRequest) {
-        try {
-            PricingGetRequest request = (PricingGetRequest) priceRequest.getBody();
-            return context.pricing.get(request);
-        } catch (ExecuteException | RequestException e) {
-            Connection.waitToConnect(url, presenter);
-        } catch (RuntimeException e) {
-            throw new RuntimeException(e);
-        }
-        return null;
+        return execute("price", new BrokerCall<PricingGetResponse>() {
+            @Override
+            public PricingGetResponse call() throws ExecuteException, RequestException {
+                PricingGetRequest request = (PricingGetRequest) priceRequest.getBody();
+                return context.pricing.get(request);
+            }
+        });
     }
 
     private <T> InstrumentCandlesResponse createCandlesResponse(Request<T> candlesRequest) {
-        try{
-            InstrumentCandlesRequest request = (InstrumentCandlesRequest) candlesRequest.getBody();
-            return context.instrument.candles(request);
-        } catch (ExecuteException | RequestException e) {
-            Connection.waitToConnect(url, presenter);
-        } catch (RuntimeException e) {
-            throw new RuntimeException(e);
-        }
-        return null;
+        return execute("candle", new BrokerCall<InstrumentCandlesResponse>() {
+            @Override
+            public InstrumentCandlesResponse call() throws ExecuteException, RequestException {
+                InstrumentCandlesRequest request = (InstrumentCandlesRequest) candlesRequest.getBody();
+                return context.instrument.candles(request);
+            }
+        });
+    }
+
+    private <T> Map<String, Price> createDecodedPriceResponse(Request<T> priceRequest) {
+        return execute("price", new BrokerCall<Map<String, Price>>() {
+            @Override
+            public Map<String, Price> call() throws IOException {
+                PricingGetRequest request = (PricingGetRequest) priceRequest.getBody();
+                return restReader.readPrices(request);
+            }
+        });
+    }
+
+    private <T> CandleBuffer createDecodedCandlesResponse(Request<T> candlesRequest) {
+        return execute("candle", new BrokerCall<CandleBuffer>() {
+            @Override
+            public CandleBuffer call() throws IOException {
+                InstrumentCandlesRequest request = (InstrumentCandlesRequest) candlesRequest.getBody();
+                return restReader.readCandles(request);
+            }
+        });
+    }
+
+    /**
+     * Reads get ten attempts, so an outage ends in {@link UnableToExecuteRequest} instead of blocking the price thread.
+     * A new or replacing order is sent once, because a request that failed on the way back may already have been
+     * filled. Cancel and stop loss updates can be repeated, so they get a few attempts. When the broker answers with an
+     * error the request itself is wrong and the response is null, which the gateway writes turn into
+     * {@link trader.exception.BadRequestException}.
+     */
+    private <R> R execute(String type, final BrokerCall<R> call) {
+        return connectionHealth.execute(type, maxAttempts(type), new BrokerCall<R>() {
+            private int attempts;
+
+            @Override
+            public R call() throws Exception {
+                //the first attempt is sent on the token the call was scheduled with
+                if(attempts++ > 0)
+                    requestScheduler.acquire(type);
+                try {
+                    return call.call();
+                } catch (RequestException e) {
+                    if(isRetryable(e))
+                        throw e;
+                    return null;
+                }
+            }
+        });
+    }
+
+    private int maxAttempts(String type) {
+        if(type.equals("marketOrder") || type.equals("replaceOrder"))
+            return 1;
+        if(OandaRequestScheduler.priorityOf(type) == OandaRequestScheduler.RequestPriority.WRITE)
+            return MAX_WRITE_ATTEMPTS;
+        return MAX_READ_ATTEMPTS;
+    }
+
+    //too many requests and server errors pass, other errors are answers to a bad request
+    private boolean isRetryable(RequestException e) {
+        return e.getStatus() == TOO_MANY_REQUESTS || e.getStatus() >= SERVER_ERROR;
     }
 
     private void verifyInput(Object object, String str) {
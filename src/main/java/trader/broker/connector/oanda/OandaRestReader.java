@@ -0,0 +1,131 @@
+package trader.broker.connector.oanda;
+
+import com.oanda.v20.instrument.InstrumentCandlesRequest;
+import com.oanda.v20.pricing.PricingGetRequest;
+import trader.broker.connector.BrokerConnector;
+import trader.broker.connector.oanda.transformer.OandaCandleDecoder;
+import trader.broker.connector.oanda.transformer.OandaPriceDecoder;
+import trader.entity.candlestick.CandleBuffer;
+import trader.entity.price.Price;
+import trader.exception.NullArgumentException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Sends candle and pricing requests itself and decodes the response body while it is read, instead of letting the
+ * v20 context build its response objects. Too many requests and server errors throw, so the call is retried like
+ * the v20 calls; any other error answer returns null.
+ */
+class OandaRestReader {
+
+    private static final String CANDLES_PATH = "/v3/instruments/{instrument}/candles";
+    private static final String PRICING_PATH = "/v3/accounts/{accountID}/pricing";
+    private static final String COUNT = "count";
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR = 500;
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int READ_TIMEOUT_MILLIS = 30_000;
+
+    private final String url;
+    private final BrokerConnector connector;
+    private final OandaCandleDecoder candleDecoder;
+    private final OandaPriceDecoder priceDecoder;
+
+    OandaRestReader(String url, BrokerConnector connector) {
+        if(url == null || connector == null)
+            throw new NullArgumentException();
+        this.url = url.trim();
+        this.connector = connector;
+        this.candleDecoder = new OandaCandleDecoder();
+        this.priceDecoder = new OandaPriceDecoder();
+    }
+
+    CandleBuffer readCandles(InstrumentCandlesRequest request) throws IOException {
+        HttpURLConnection connection = open(CANDLES_PATH, request);
+        if(connection == null)
+            return null;
+        Object count = request.getQueryParams().get(COUNT);
+        CandleBuffer buffer = count == null ? new CandleBuffer() : new CandleBuffer(Integer.parseInt(count.toString()));
+        try (Reader body = openBody(connection)) {
+            return candleDecoder.decode(body, buffer);
+        }
+    }
+
+    Map<String, Price> readPrices(PricingGetRequest request) throws IOException {
+        HttpURLConnection connection = open(PRICING_PATH, request);
+        if(connection == null)
+            return null;
+        try (Reader body = openBody(connection)) {
+            return priceDecoder.decode(body);
+        }
+    }
+
+    private HttpURLConnection open(String path, com.oanda.v20.Request request) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url + composePath(path, request)).openConnection();
+        connection.setRequestMethod("GET");
+        connection.setRequestProperty("Authorization", "Bearer " + connector.getToken());
+        connection.setRequestProperty("Accept-Datetime-Format", "RFC3339");
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        int status = connection.getResponseCode();
+        if(status == HttpURLConnection.HTTP_OK)
+            return connection;
+        //the error body is read to the end, so the connection can be kept alive
+        discard(connection.getErrorStream());
+        if(status == TOO_MANY_REQUESTS || status >= SERVER_ERROR)
+            throw new IOException("Broker answered " + status);
+        return null;
+    }
+
+    private String composePath(String template, com.oanda.v20.Request request) throws IOException {
+        String path = template;
+        for (Map.Entry<String, Object> param : request.getPathParams().entrySet())
+            path = path.replace("{" + param.getKey() + "}", encode(param.getValue()));
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, Object> param : request.getQueryParams().entrySet()) {
+            query.append(query.length() == 0 ? '?' : '&')
+                    .append(param.getKey())
+                    .append('=')
+                    .append(encode(param.getValue()));
+        }
+        return path + query;
+    }
+
+    //lists like the instruments of a pricing request are comma separated
+    private String encode(Object value) throws IOException {
+        if(value instanceof Collection) {
+            StringBuilder joined = new StringBuilder();
+            for (Object element : (Collection<?>) value) {
+                if(joined.length() > 0)
+                    joined.append(',');
+                joined.append(element);
+            }
+            return URLEncoder.encode(joined.toString(), "UTF-8");
+        }
+        return URLEncoder.encode(String.valueOf(value), "UTF-8");
+    }
+
+    private Reader openBody(HttpURLConnection connection) throws IOException {
+        return new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    private void discard(InputStream errorStream) throws IOException {
+        if(errorStream == null)
+            return;
+        try (InputStream in = errorStream) {
+            byte[] skipped = new byte[1_024];
+            while (in.read(skipped) >= 0) {
+                //nothing to keep
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package trader.broker.connector.oanda.transformer;
+
+import trader.entity.candlestick.CandleBuffer;
+import trader.exception.NullArgumentException;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads an {@code instrument.candles} response straight from the JSON stream into a {@link CandleBuffer}, without
+ * the v20 response objects. Like {@link OandaCandleTransformer} it keeps only the complete mid candles.
+ */
+public class OandaCandleDecoder {
+
+    private static final String CANDLES = "candles";
+    private static final String TIME = "time";
+    private static final String VOLUME = "volume";
+    private static final String COMPLETE = "complete";
+    private static final String MID = "mid";
+
+    public CandleBuffer decode(Reader source, CandleBuffer buffer) throws IOException {
+        if(source == null || buffer == null)
+            throw new NullArgumentException();
+        OandaJsonReader reader = new OandaJsonReader(source);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if(OandaJsonReader.matches(reader.nextName(), CANDLES) && reader.isArrayNext())
+                readCandles(reader, buffer);
+            else
+                reader.skipValue();
+        }
+        reader.endObject();
+        return buffer;
+    }
+
+    private void readCandles(OandaJsonReader reader, CandleBuffer buffer) throws IOException {
+        CandleFields candle = new CandleFields();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            candle.reset();
+            readCandle(reader, candle);
+            if(candle.complete && candle.hasMid)
+                buffer.add(candle.time, candle.open, candle.high, candle.low, candle.close, candle.volume);
+        }
+        reader.endArray();
+    }
+
+    private void readCandle(OandaJsonReader reader, CandleFields candle) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            CharSequence name = reader.nextName();
+            if(OandaJsonReader.matches(name, TIME))
+                candle.time = OandaJsonValues.toEpochSecond(reader.nextToken());
+            else if(OandaJsonReader.matches(name, VOLUME))
+                candle.volume = reader.nextLong();
+            else if(OandaJsonReader.matches(name, COMPLETE))
+                candle.complete = reader.nextBoolean();
+            else if(OandaJsonReader.matches(name, MID) && reader.isObjectNext())
+                readMid(reader, candle);
+            else
+                reader.skipValue();
+        }
+        reader.endObject();
+    }
+
+    private void readMid(OandaJsonReader reader, CandleFields candle) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            CharSequence name = reader.nextName();
+            if(name.length() != 1) {
+                reader.skipValue();
+                continue;
+            }
+            //the name is overwritten by the value, so it is read first
+            char price = name.charAt(0);
+            switch (price) {
+                case 'o': candle.open = OandaJsonValues.toPipettes(reader.nextToken()); break;
+                case 'h': candle.high = OandaJsonValues.toPipettes(reader.nextToken()); break;
+                case 'l': candle.low = OandaJsonValues.toPipettes(reader.nextToken()); break;
+                case 'c': candle.close = OandaJsonValues.toPipettes(reader.nextToken()); break;
+                default: reader.skipValue();
+            }
+        }
+        reader.endObject();
+        candle.hasMid = true;
+    }
+
+    //one instance per response, reused for every candle
+    private static final class CandleFields {
+
+        private long time;
+        private long volume;
+        private boolean complete;
+        private boolean hasMid;
+        private long open;
+        private long high;
+        private long low;
+        private long close;
+
+        private void reset() {
+            time = 0L;
+            volume = 0L;
+            complete = false;
+            hasMid = false;
+            open = 0L;
+            high = 0L;
+            low = 0L;
+            close = 0L;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package trader.broker.connector.oanda.transformer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Pull reader for v20 JSON responses. Names and string values are read into one reused buffer that is compared
+ * and parsed in place, so walking a response allocates nothing unless {@link #nextString()} is called.
+ */
+final class OandaJsonReader {
+
+    private static final int BUFFER_SIZE = 8_192;
+    private static final int TOKEN_SIZE = 64;
+
+    private final Reader in;
+    private final char[] buffer;
+    private final Token token;
+    private int position;
+    private int limit;
+
+    OandaJsonReader(Reader in) {
+        this.in = in;
+        this.buffer = new char[BUFFER_SIZE];
+        this.token = new Token();
+    }
+
+    void beginObject() throws IOException {
+        expect('{');
+    }
+
+    void endObject() throws IOException {
+        expect('}');
+    }
+
+    void beginArray() throws IOException {
+        expect('[');
+    }
+
+    void endArray() throws IOException {
+        expect(']');
+    }
+
+    //true while the current object or array has more members, the comma between them is consumed
+    boolean hasNext() throws IOException {
+        char c = peek();
+        if(c == ',') {
+            position++;
+            return true;
+        }
+        return c != '}' && c != ']';
+    }
+
+    boolean isObjectNext() throws IOException {
+        return peek() == '{';
+    }
+
+    boolean isArrayNext() throws IOException {
+        return peek() == '[';
+    }
+
+    //the name stays in the token until the next value is read
+    CharSequence nextName() throws IOException {
+        readString();
+        expect(':');
+        return token;
+    }
+
+    CharSequence nextToken() throws IOException {
+        if(peek() == '"')
+            readString();
+        else
+            readLiteral();
+        return token;
+    }
+
+    String nextString() throws IOException {
+        return nextToken().toString();
+    }
+
+    long nextLong() throws IOException {
+        CharSequence value = nextToken();
+        int length = value.length();
+        if(length == 0)
+            throw new NumberFormatException();
+        boolean negative = value.charAt(0) == '-';
+        long result = 0;
+        for (int i = negative ? 1 : 0; i < length; i++) {
+            char c = value.charAt(i);
+            if(c < '0' || c > '9')
+                throw new NumberFormatException(value.toString());
+            result = Math.addExact(Math.multiplyExact(result, 10), c - '0');
+        }
+        return negative ? -result : result;
+    }
+
+    boolean nextBoolean() throws IOException {
+        CharSequence value = nextToken();
+        if(matches(value, "true"))
+            return true;
+        if(matches(value, "false"))
+            return false;
+        throw new IllegalStateException("Expected a boolean but was " + value);
+    }
+
+    static boolean matches(CharSequence value, String expected) {
+        if(value.length() != expected.length())
+            return false;
+        for (int i = 0; i < expected.length(); i++) {
+            if(value.charAt(i) != expected.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    void skipValue() throws IOException {
+        char c = peek();
+        if(c == '"' || (c != '{' && c != '[')) {
+            nextToken();
+            return;
+        }
+        int depth = 0;
+        do {
+            c = read();
+            if(c == '"') {
+                position--;
+                readString();
+            } else if(c == '{' || c == '[') {
+                depth++;
+            } else if(c == '}' || c == ']') {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    private void readString() throws IOException {
+        expect('"');
+        token.clear();
+        while (true) {
+            char c = read();
+            if(c == '"')
+                return;
+            if(c == '\\')
+                c = readEscaped();
+            token.append(c);
+        }
+    }
+
+    private char readEscaped() throws IOException {
+        char c = read();
+        switch (c) {
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++)
+                    code = code * 16 + Character.digit(read(), 16);
+                return (char) code;
+            default: return c;
+        }
+    }
+
+    //numbers, true, false and null
+    private void readLiteral() throws IOException {
+        peek();
+        token.clear();
+        while (true) {
+            if(position == limit && !fill())
+                return;
+            char c = buffer[position];
+            if(c == ',' || c == '}' || c == ']' || Character.isWhitespace(c))
+                return;
+            token.append(c);
+            position++;
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        char c = peek();
+        if(c != expected)
+            throw new IllegalStateException("Expected " + expected + " but was " + c);
+        position++;
+    }
+
+    //the next character that is not white space, without consuming it
+    private char peek() throws IOException {
+        while (true) {
+            if(position == limit && !fill())
+                throw new EOFException();
+            char c = buffer[position];
+            if(!Character.isWhitespace(c))
+                return c;
+            position++;
+        }
+    }
+
+    private char read() throws IOException {
+        if(position == limit && !fill())
+            throw new EOFException();
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        int count = in.read(buffer, 0, buffer.length);
+        if(count <= 0)
+            return false;
+        position = 0;
+        limit = count;
+        return true;
+    }
+
+    //the reused characters of the last name or value
+    private static final class Token implements CharSequence {
+
+        private char[] chars = new char[TOKEN_SIZE];
+        private int length;
+
+        private void clear() {
+            length = 0;
+        }
+
+        private void append(char c) {
+            if(length == chars.length)
+                chars = Arrays.copyOf(chars, length * 2);
+            chars[length++] = c;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if(index < 0 || index >= length)
+                throw new IndexOutOfBoundsException();
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package trader.broker.connector.oanda.transformer;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Reads the decimal and time strings of v20 responses without creating BigDecimal or java.time objects.
+ */
+final class OandaJsonValues {
+
+    static final int PRICE_SCALE = 5;
+    private static final int NANO_DIGITS = 9;
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private OandaJsonValues() { }
+
+    //half up to 5 decimals, like setScale(5, RoundingMode.HALF_UP)
+    static long toPipettes(CharSequence decimal) {
+        int length = decimal.length();
+        int position = 0;
+        boolean negative = false;
+        if(length > 0 && (decimal.charAt(0) == '-' || decimal.charAt(0) == '+')) {
+            negative = decimal.charAt(0) == '-';
+            position++;
+        }
+        if(position == length)
+            throw new NumberFormatException(decimal.toString());
+        long value = 0;
+        int fractionDigits = -1;
+        boolean roundUp = false;
+        for (; position < length; position++) {
+            char c = decimal.charAt(position);
+            if(c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if(c < '0' || c > '9')
+                throw new NumberFormatException(decimal.toString());
+            if(fractionDigits == PRICE_SCALE) {
+                roundUp = c >= '5';
+                break;
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+            if(fractionDigits >= 0)
+                fractionDigits++;
+        }
+        for (int i = Math.max(fractionDigits, 0); i < PRICE_SCALE; i++)
+            value = Math.multiplyExact(value, 10);
+        if(roundUp)
+            value++;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Accepts RFC3339 times, for example {@code 2018-06-01T15:10:00.000000000Z}, and UNIX times such as
+     * {@code 1527865800.000000000}. Only times with an offset other than Z are parsed with java.time.
+     */
+    static long toEpochSecond(CharSequence time) {
+        if(isUnixTime(time))
+            return parseDigits(time, 0, unixSecondsEnd(time));
+        if(!isUtcDateTime(time))
+            return OffsetDateTime.parse(time).toEpochSecond();
+        long year = parseDigits(time, 0, 4);
+        long month = parseDigits(time, 5, 7);
+        long day = parseDigits(time, 8, 10);
+        long seconds = parseDigits(time, 11, 13) * 3600 + parseDigits(time, 14, 16) * 60 + parseDigits(time, 17, 19);
+        return toEpochDay(year, month, day) * SECONDS_PER_DAY + seconds;
+    }
+
+    static int toNanoOfSecond(CharSequence time) {
+        int start;
+        int end;
+        if(isUnixTime(time)) {
+            start = unixSecondsEnd(time) + 1;
+            end = time.length();
+        } else if(isUtcDateTime(time)) {
+            start = 20;
+            end = time.length() - 1;
+        } else {
+            return OffsetDateTime.parse(time).getNano();
+        }
+        if(start >= end)
+            return 0;
+        int nanos = (int) parseDigits(time, start, Math.min(end, start + NANO_DIGITS));
+        for (int i = end - start; i < NANO_DIGITS; i++)
+            nanos *= 10;
+        return nanos;
+    }
+
+    private static boolean isUnixTime(CharSequence time) {
+        return indexOf(time, 'T') < 0;
+    }
+
+    private static int unixSecondsEnd(CharSequence time) {
+        int dot = indexOf(time, '.');
+        return dot < 0 ? time.length() : dot;
+    }
+
+    private static boolean isUtcDateTime(CharSequence time) {
+        int length = time.length();
+        return length >= 20 && time.charAt(4) == '-' && time.charAt(7) == '-' && time.charAt(10) == 'T'
+                && time.charAt(13) == ':' && time.charAt(16) == ':' && time.charAt(length - 1) == 'Z'
+                && (length == 20 || time.charAt(19) == '.');
+    }
+
+    private static long parseDigits(CharSequence value, int start, int end) {
+        if(start >= end)
+            throw new NumberFormatException(value.toString());
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if(c < '0' || c > '9')
+                throw new NumberFormatException(value.toString());
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static int indexOf(CharSequence value, char c) {
+        for (int i = 0; i < value.length(); i++) {
+            if(value.charAt(i) == c)
+                return i;
+        }
+        return -1;
+    }
+
+    //days since 1970-01-01 of a proleptic gregorian date
+    private static long toEpochDay(long year, long month, long day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+}
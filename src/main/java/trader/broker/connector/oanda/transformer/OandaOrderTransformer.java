@@ -23,9 +23,10 @@ public class OandaOrderTransformer {
         String orderType = order.getType().toString();
         String orderInstrument = order.getInstrument().toString();
         BigDecimal orderUnits = order.getUnits().bigDecimalValue();
+        BigDecimal orderPrice = order.getPrice().bigDecimalValue();
         BigDecimal orderStopLossPrice = order.getStopLossOnFill().getPrice().bigDecimalValue();
 
-        return new OrderImpl(orderID, OrderType.valueOf(orderType), orderInstrument, orderUnits, orderStopLossPrice);
+        return new OrderImpl(orderID, OrderType.valueOf(orderType), orderInstrument, orderUnits, orderPrice, orderStopLossPrice);
     }
 
     private <T> Order transformStopLossOrderToOrder(StopLossOrder order) {
@@ -35,6 +36,6 @@ public class OandaOrderTransformer {
         BigDecimal orderUnits = BigDecimal.valueOf(0);
         BigDecimal orderStopLossPrice = order.getPrice().bigDecimalValue();
 
-        return new OrderImpl(orderID, OrderType.valueOf(orderType), orderInstrument, orderUnits, orderStopLossPrice);
+        return new OrderImpl(orderID, OrderType.valueOf(orderType), orderInstrument, orderUnits, orderStopLossPrice, orderStopLossPrice);
     }
 }
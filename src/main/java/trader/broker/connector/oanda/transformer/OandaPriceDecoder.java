@@ -0,0 +1,171 @@
+package trader.broker.connector.oanda.transformer;
+
+import trader.entity.price.Price;
+import trader.entity.price.PriceImpl;
+import trader.exception.NullArgumentException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads a {@code pricing.get} response straight from the JSON stream into prices by instrument, without the v20
+ * response objects. A price without bids or asks is not tradable.
+ */
+public class OandaPriceDecoder {
+
+    private static final String PRICES = "prices";
+    private static final String INSTRUMENT = "instrument";
+    private static final String TIME = "time";
+    private static final String TRADEABLE = "tradeable";
+    private static final String BIDS = "bids";
+    private static final String ASKS = "asks";
+    private static final String PRICE = "price";
+    private static final String UNITS_AVAILABLE = "unitsAvailable";
+    private static final String DEFAULT = "default";
+    private static final String LONG = "long";
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    public Map<String, Price> decode(Reader source) throws IOException {
+        if(source == null)
+            throw new NullArgumentException();
+        Map<String, Price> prices = new LinkedHashMap<>();
+        OandaJsonReader reader = new OandaJsonReader(source);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if(OandaJsonReader.matches(reader.nextName(), PRICES) && reader.isArrayNext())
+                readPrices(reader, prices);
+            else
+                reader.skipValue();
+        }
+        reader.endObject();
+        return prices;
+    }
+
+    private void readPrices(OandaJsonReader reader, Map<String, Price> prices) throws IOException {
+        PriceFields price = new PriceFields();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            price.reset();
+            readPrice(reader, price);
+            if(price.instrument != null)
+                prices.put(price.instrument, price.toPrice());
+        }
+        reader.endArray();
+    }
+
+    private void readPrice(OandaJsonReader reader, PriceFields price) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            CharSequence name = reader.nextName();
+            if(OandaJsonReader.matches(name, INSTRUMENT)) {
+                price.instrument = reader.nextString();
+            } else if(OandaJsonReader.matches(name, TIME)) {
+                CharSequence time = reader.nextToken();
+                price.epochSecond = OandaJsonValues.toEpochSecond(time);
+                price.nanoOfSecond = OandaJsonValues.toNanoOfSecond(time);
+            } else if(OandaJsonReader.matches(name, TRADEABLE)) {
+                price.tradeable = reader.nextBoolean();
+            } else if(OandaJsonReader.matches(name, BIDS) && reader.isArrayNext()) {
+                price.hasBid = readTopOfBook(reader, price, true);
+            } else if(OandaJsonReader.matches(name, ASKS) && reader.isArrayNext()) {
+                price.hasAsk = readTopOfBook(reader, price, false);
+            } else if(OandaJsonReader.matches(name, UNITS_AVAILABLE) && reader.isObjectNext()) {
+                readUnitsAvailable(reader, price);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    //only the first bucket of the book is used
+    private boolean readTopOfBook(OandaJsonReader reader, PriceFields price, boolean bid) throws IOException {
+        boolean found = false;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if(found || !reader.isObjectNext()) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if(OandaJsonReader.matches(reader.nextName(), PRICE) && !found) {
+                    long value = OandaJsonValues.toPipettes(reader.nextToken());
+                    if(bid)
+                        price.bid = value;
+                    else
+                        price.ask = value;
+                    found = true;
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endArray();
+        return found;
+    }
+
+    private void readUnitsAvailable(OandaJsonReader reader, PriceFields price) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if(!OandaJsonReader.matches(reader.nextName(), DEFAULT) || !reader.isObjectNext()) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if(OandaJsonReader.matches(reader.nextName(), LONG))
+                    price.availableUnits = new BigDecimal(reader.nextString());
+                else
+                    reader.skipValue();
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+    }
+
+    //one instance per response, reused for every price
+    private static final class PriceFields {
+
+        private String instrument;
+        private long epochSecond;
+        private int nanoOfSecond;
+        private boolean tradeable;
+        private boolean hasBid;
+        private boolean hasAsk;
+        private long bid;
+        private long ask;
+        private BigDecimal availableUnits;
+
+        private void reset() {
+            instrument = null;
+            epochSecond = 0L;
+            nanoOfSecond = 0;
+            tradeable = false;
+            hasBid = false;
+            hasAsk = false;
+            bid = 0L;
+            ask = 0L;
+            availableUnits = BigDecimal.ZERO;
+        }
+
+        private Price toPrice() {
+            if(!hasBid || !hasAsk)
+                return new PriceImpl.PriceBuilder().setIsTradable(false).build();
+            return new PriceImpl.PriceBuilder()
+                    .setAsk(BigDecimal.valueOf(ask, OandaJsonValues.PRICE_SCALE))
+                    .setBid(BigDecimal.valueOf(bid, OandaJsonValues.PRICE_SCALE))
+                    .setDateTime(ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nanoOfSecond), UTC))
+                    .setIsTradable(tradeable)
+                    .setAvailableUnits(availableUnits)
+                    .build();
+        }
+    }
+}
@@ -11,6 +11,8 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class OandaPriceTransformer {
 
@@ -22,7 +24,25 @@ public class OandaPriceTransformer {
         if(isPriceTradeable(pricingGetResponse))
             return new PriceImpl.PriceBuilder().setIsTradable(false).build();
 
-        ClientPrice clientPrice = pricingGetResponse.getPrices().get(0);
+        return transformClientPrice(pricingGetResponse.getPrices().get(0));
+    }
+
+    /**
+     * Returns the prices of a batched response by instrument, in the order of the response.
+     */
+    public <T> Map<String, Price> transformToPrices(Response<T> response) {
+        Map<String, Price> prices = new LinkedHashMap<>();
+        PricingGetResponse pricingGetResponse = null;
+        if(response != null)
+            pricingGetResponse = (PricingGetResponse) response.getBody();
+        if(isPriceTradeable(pricingGetResponse))
+            return prices;
+        for (ClientPrice clientPrice : pricingGetResponse.getPrices())
+            prices.put(clientPrice.getInstrument().toString(), transformClientPrice(clientPrice));
+        return prices;
+    }
+
+    private Price transformClientPrice(ClientPrice clientPrice) {
         BigDecimal ask = clientPrice.getAsks().get(0).getPrice().bigDecimalValue();
         BigDecimal bid = clientPrice.getBids().get(0).getPrice().bigDecimalValue();
         ZonedDateTime dateTime = convertDateTimeToZonedDateTime(clientPrice.getTime());
@@ -0,0 +1,53 @@
+package trader.broker.connector.oanda.transformer;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import trader.entity.price.Price;
+import trader.entity.price.PriceImpl;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+public class OandaStreamPriceTransformer {
+
+    private static final String ASKS = "asks";
+    private static final String BIDS = "bids";
+    private static final String PRICE = "price";
+    private static final String TIME = "time";
+    private static final String TRADEABLE = "tradeable";
+
+    public Price transformToPrice(JsonObject streamPrice) {
+        if(isPriceNotTradeable(streamPrice))
+            return new PriceImpl.PriceBuilder().setIsTradable(false).build();
+
+        BigDecimal ask = extractTopOfBook(streamPrice.getAsJsonArray(ASKS));
+        BigDecimal bid = extractTopOfBook(streamPrice.getAsJsonArray(BIDS));
+        ZonedDateTime dateTime = convertDateTimeToZonedDateTime(streamPrice.get(TIME).getAsString());
+        boolean tradeable = streamPrice.get(TRADEABLE).getAsBoolean();
+        return new PriceImpl.PriceBuilder()
+                .setAsk(ask)
+                .setBid(bid)
+                .setDateTime(dateTime)
+                .setIsTradable(tradeable)
+                .build();
+    }
+
+    private boolean isPriceNotTradeable(JsonObject streamPrice) {
+        return streamPrice == null ||
+                !streamPrice.has(ASKS) || streamPrice.getAsJsonArray(ASKS).size() == 0 ||
+                !streamPrice.has(BIDS) || streamPrice.getAsJsonArray(BIDS).size() == 0 ||
+                !streamPrice.has(TIME) || !streamPrice.has(TRADEABLE);
+    }
+
+    private BigDecimal extractTopOfBook(JsonArray bucket) {
+        return bucket.get(0).getAsJsonObject().get(PRICE).getAsBigDecimal();
+    }
+
+    private ZonedDateTime convertDateTimeToZonedDateTime(String dateTime){
+        Instant instantDateTime = Instant.parse(dateTime);
+        ZoneId zoneId = ZoneId.of("UTC");
+        return ZonedDateTime.ofInstant(instantDateTime, zoneId);
+    }
+}
@@ -9,6 +9,7 @@ import trader.entity.trade.BrokerTradeDetails;
 import trader.responder.Response;
 
 import java.util.List;
+import java.util.Map;
 
 public class OandaTransformer implements Transformable {
 
@@ -44,4 +45,9 @@ public class OandaTransformer implements Transformable {
         return oandaPriceTransformer.transformToPrice(response);
     };
 
+    @Override
+    public <T> Map<String, Price> transformToPrices(Response<T> response){
+        return oandaPriceTransformer.transformToPrices(response);
+    };
+
 }
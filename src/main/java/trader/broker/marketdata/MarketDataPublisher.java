@@ -0,0 +1,84 @@
+package trader.broker.marketdata;
+
+import trader.broker.BrokerGateway;
+import trader.broker.ForwardingBrokerGateway;
+import trader.controller.enums.SettingsFieldNames;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Price;
+import trader.exception.NullArgumentException;
+import trader.observer.Observer;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gateway of the market data publisher process. Every price and every candle it gets from the broker is also
+ * written to the {@link MarketDataSegment} of the instrument, so local bot processes reading the segments through
+ * a {@link MarketDataReader} need no broker requests of their own. Only one publisher may write to a directory.
+ */
+public class MarketDataPublisher extends ForwardingBrokerGateway {
+
+    private static final String INSTRUMENT = SettingsFieldNames.INSTRUMENT.toString();
+    private static final String GRANULARITY = SettingsFieldNames.GRANULARITY.toString();
+
+    private final MarketDataSegments segments;
+
+    public MarketDataPublisher(BrokerGateway brokerGateway, Path directory) {
+        super(brokerGateway);
+        this.segments = new MarketDataSegments(directory);
+    }
+
+    @Override
+    public Price getPrice(String instrument) {
+        Price price = brokerGateway.getPrice(instrument);
+        publishPrice(instrument, price);
+        return price;
+    }
+
+    @Override
+    public Map<String, Price> getPrices(Collection<String> instruments) {
+        Map<String, Price> prices = brokerGateway.getPrices(instruments);
+        if(prices != null)
+            for (Map.Entry<String, Price> price : prices.entrySet())
+                publishPrice(price.getKey(), price.getValue());
+        return prices;
+    }
+
+    @Override
+    public void streamPrices(final String instrument, final Observer observer) {
+        if(observer == null)
+            throw new NullArgumentException();
+        brokerGateway.streamPrices(instrument, new Observer() {
+            @Override
+            public void updateObserver(Price price) {
+                publishPrice(instrument, price);
+                observer.updateObserver(price);
+            }
+        });
+    }
+
+    @Override
+    public List<Candlestick> getCandles(HashMap<String, String> settings) {
+        List<Candlestick> candles = brokerGateway.getCandles(settings);
+        if(candles != null && settings != null && settings.get(INSTRUMENT) != null && settings.get(GRANULARITY) != null) {
+            MarketDataSegment segment = segments.get(settings.get(INSTRUMENT));
+            CandleGranularity granularity = MarketDataSegments.parseGranularity(settings.get(GRANULARITY));
+            if(segment != null && granularity != null)
+                segment.publishCandles(granularity, candles);
+        }
+        return candles;
+    }
+
+    //prices without a time or quotes are passed on but not published
+    private void publishPrice(String instrument, Price price) {
+        if(instrument == null || price == null || price.getDateTime() == null || price.getBid() == null || price.getAsk() == null)
+            return;
+        MarketDataSegment segment = segments.get(instrument);
+        if(segment != null)
+            segment.publishPrice(price);
+    }
+}
@@ -0,0 +1,190 @@
+package trader.broker.marketdata;
+
+import trader.broker.BrokerGateway;
+import trader.broker.ForwardingBrokerGateway;
+import trader.controller.enums.SettingsFieldNames;
+import trader.entity.candlestick.CandleBuffer;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Price;
+import trader.exception.NullArgumentException;
+import trader.observer.Observer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gateway of a bot process that takes its prices and candles from the {@link MarketDataSegment}s written by a
+ * {@link MarketDataPublisher}. Account and order calls still go to the broker, and so do the market data calls
+ * the segments can not answer: no tick published in the last {@code maxTickAgeMillis}, fewer candles than asked
+ * for, or candles a whole candle behind the clock. At a candle close the publisher writes the tick before it fetches
+ * the closed candle, so candles behind the clock are read again for a few seconds before the broker is asked.
+ */
+public class MarketDataReader extends ForwardingBrokerGateway {
+
+    private static final String INSTRUMENT = SettingsFieldNames.INSTRUMENT.toString();
+    private static final String QUANTITY = SettingsFieldNames.QUANTITY.toString();
+    private static final String GRANULARITY = SettingsFieldNames.GRANULARITY.toString();
+    private static final long DEFAULT_MAX_TICK_AGE_MILLIS = 30_000L;
+    private static final long IDLE_SLEEP_MILLIS = 1L;
+    //the interval of the broker prices pushed while the publisher is silent, as often as the price poll
+    private static final long FALLBACK_POLL_MILLIS = 1_000L;
+    private static final long DEFAULT_CANDLE_WAIT_MILLIS = 3_000L;
+    private static final long CANDLE_RETRY_MILLIS = 10L;
+
+    private final MarketDataSegments segments;
+    private final long maxTickAgeMillis;
+    private final long candleWaitMillis;
+
+    public MarketDataReader(BrokerGateway brokerGateway, Path directory) {
+        this(brokerGateway, directory, DEFAULT_MAX_TICK_AGE_MILLIS);
+    }
+
+    MarketDataReader(BrokerGateway brokerGateway, Path directory, long maxTickAgeMillis) {
+        this(brokerGateway, directory, maxTickAgeMillis, DEFAULT_CANDLE_WAIT_MILLIS);
+    }
+
+    MarketDataReader(BrokerGateway brokerGateway, Path directory, long maxTickAgeMillis, long candleWaitMillis) {
+        super(brokerGateway);
+        this.segments = new MarketDataSegments(directory);
+        this.maxTickAgeMillis = maxTickAgeMillis;
+        this.candleWaitMillis = candleWaitMillis;
+    }
+
+    @Override
+    public Price getPrice(String instrument) {
+        Price price = readFreshPrice(instrument);
+        return price == null ? brokerGateway.getPrice(instrument) : price;
+    }
+
+    @Override
+    public Map<String, Price> getPrices(Collection<String> instruments) {
+        if(instruments == null)
+            throw new NullArgumentException();
+        Map<String, Price> prices = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String instrument : instruments) {
+            Price price = readFreshPrice(instrument);
+            if(price == null)
+                missing.add(instrument);
+            else
+                prices.put(instrument, price);
+        }
+        if(!missing.isEmpty()) {
+            Map<String, Price> brokerPrices = brokerGateway.getPrices(missing);
+            if(brokerPrices != null)
+                prices.putAll(brokerPrices);
+        }
+        return prices;
+    }
+
+    /**
+     * Pushes every tick of the segment as it is published and blocks until the calling thread is interrupted.
+     * A reader that falls a whole ring behind skips to the newest tick. While the publisher is silent the broker
+     * price is pushed once per second.
+     */
+    @Override
+    public void streamPrices(String instrument, Observer observer) {
+        if(instrument == null || observer == null)
+            throw new NullArgumentException();
+        MarketDataSegment segment = segments.get(instrument);
+        if(segment == null) {
+            brokerGateway.streamPrices(instrument, observer);
+            return;
+        }
+        long published = segment.getPublishedTicks();
+        long next = published;
+        long lastTickMillis = segment.getPublishedMillis(published - 1);
+        long lastPollMillis = 0L;
+        while(!Thread.currentThread().isInterrupted()) {
+            published = segment.getPublishedTicks();
+            if(published - next > MarketDataSegment.TICK_CAPACITY)
+                next = published - 1;
+            if(next < published) {
+                Price price = segment.readPrice(next++);
+                if(price != null) {
+                    observer.updateObserver(price);
+                    lastTickMillis = System.currentTimeMillis();
+                }
+                continue;
+            }
+            long now = System.currentTimeMillis();
+            if(now - lastTickMillis > maxTickAgeMillis && now - lastPollMillis >= FALLBACK_POLL_MILLIS) {
+                Price price = brokerGateway.getPrice(instrument);
+                if(price != null)
+                    observer.updateObserver(price);
+                lastPollMillis = now;
+            }
+            if(!sleep(IDLE_SLEEP_MILLIS))
+                return;
+        }
+    }
+
+    @Override
+    public List<Candlestick> getCandles(HashMap<String, String> settings) {
+        if(settings == null || settings.get(INSTRUMENT) == null || settings.get(GRANULARITY) == null || settings.get(QUANTITY) == null)
+            return brokerGateway.getCandles(settings);
+        CandleGranularity granularity = MarketDataSegments.parseGranularity(settings.get(GRANULARITY));
+        int quantity = parseQuantity(settings.get(QUANTITY));
+        MarketDataSegment segment = segments.get(settings.get(INSTRUMENT));
+        if(granularity == null || quantity < 1 || segment == null)
+            return brokerGateway.getCandles(settings);
+        CandleBuffer candles = readClosedCandles(segment, granularity, quantity);
+        if(candles.size() < quantity || isBehind(candles, granularity))
+            return brokerGateway.getCandles(settings);
+        return candles.toCandlesticks();
+    }
+
+    private Price readFreshPrice(String instrument) {
+        if(instrument == null)
+            throw new NullArgumentException();
+        MarketDataSegment segment = segments.get(instrument);
+        if(segment == null)
+            return null;
+        long newest = segment.getPublishedTicks() - 1;
+        long publishedMillis = segment.getPublishedMillis(newest);
+        if(publishedMillis < 0 || System.currentTimeMillis() - publishedMillis > maxTickAgeMillis)
+            return null;
+        return segment.readPrice(newest);
+    }
+
+    //the publisher may still be fetching the candle that just closed
+    private CandleBuffer readClosedCandles(MarketDataSegment segment, CandleGranularity granularity, int quantity) {
+        CandleBuffer candles = segment.readCandles(granularity, quantity);
+        long deadline = System.currentTimeMillis() + candleWaitMillis;
+        while(candles.size() >= quantity && isBehind(candles, granularity) && System.currentTimeMillis() < deadline) {
+            if(!sleep(CANDLE_RETRY_MILLIS))
+                break;
+            candles = segment.readCandles(granularity, quantity);
+        }
+        return candles;
+    }
+
+    //a candle after the newest one should have closed already, the publisher has not fetched it yet
+    private boolean isBehind(CandleBuffer candles, CandleGranularity granularity) {
+        long newestClose = candles.getTime(candles.size() - 1) + granularity.toSeconds();
+        return System.currentTimeMillis() / 1000L >= newestClose + granularity.toSeconds();
+    }
+
+    private int parseQuantity(String quantity) {
+        try {
+            return Integer.parseInt(quantity.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
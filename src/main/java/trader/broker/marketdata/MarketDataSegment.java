@@ -0,0 +1,244 @@
+package trader.broker.marketdata;
+
+import trader.entity.candlestick.CandleBuffer;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Pipettes;
+import trader.entity.price.Price;
+import trader.entity.price.PriceImpl;
+import trader.exception.NullArgumentException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Market data of one instrument in a memory-mapped file, written by one publisher process and read by any number
+ * of bot processes. The file holds a ring of the latest ticks and, for every granularity, a ring of the latest
+ * complete candles. Every tick slot and every candle ring carries a stamp that is odd while it is written, so
+ * readers retry or skip data that changed under them instead of taking locks.
+ */
+public final class MarketDataSegment implements Closeable {
+
+    public static final int TICK_CAPACITY = 4096;
+    //holds the biggest candle quantity a bot asks for
+    public static final int CANDLE_CAPACITY = 5000;
+
+    private static final int MARKER = 0x42475844;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int TICK_BYTES = 64;
+    private static final int CANDLE_BYTES = 48;
+    private static final int SERIES_HEADER_BYTES = 16;
+    private static final int SERIES_BYTES = SERIES_HEADER_BYTES + CANDLE_CAPACITY * CANDLE_BYTES;
+    private static final int TICKS_OFFSET = HEADER_BYTES;
+    private static final int SERIES_OFFSET = TICKS_OFFSET + TICK_CAPACITY * TICK_BYTES;
+    private static final int SEGMENT_BYTES = SERIES_OFFSET + CandleGranularity.values().length * SERIES_BYTES;
+    private static final int TICK_SEQUENCE_OFFSET = 16;
+    private static final int MAX_READ_ATTEMPTS = 16;
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    //Java 8 has no ordered access to mapped memory, a volatile write and read keep the buffer accesses around it
+    //from being reordered across it
+    private volatile int fence;
+
+    private MarketDataSegment(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+        if(buffer.getInt(0) != MARKER || buffer.getInt(4) != VERSION || buffer.getInt(8) != TICK_CAPACITY ||
+                buffer.getInt(12) != CANDLE_CAPACITY) {
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, TICK_CAPACITY);
+            buffer.putInt(12, CANDLE_CAPACITY);
+            fullFence();
+            buffer.putInt(0, MARKER);
+        }
+    }
+
+    public static MarketDataSegment open(Path file) {
+        if(file == null)
+            throw new NullArgumentException();
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if(directory != null)
+                Files.createDirectories(directory);
+            return new MarketDataSegment(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //the number of ticks published so far, the newest one has the sequence one less
+    public long getPublishedTicks() {
+        long published = buffer.getLong(TICK_SEQUENCE_OFFSET);
+        fullFence();
+        return published;
+    }
+
+    /**
+     * Writes the price as the next tick. Only the publisher process calls it.
+     */
+    public synchronized void publishPrice(Price price) {
+        if(price == null)
+            throw new NullArgumentException();
+        long sequence = buffer.getLong(TICK_SEQUENCE_OFFSET);
+        int offset = tickOffset(sequence);
+        buffer.putLong(offset, 2 * sequence + 1);
+        fullFence();
+        buffer.putLong(offset + 8, price.getDateTime().toEpochSecond());
+        buffer.putLong(offset + 16, price.getDateTime().getNano());
+        buffer.putLong(offset + 24, Pipettes.valueOf(price.getBid()));
+        buffer.putLong(offset + 32, Pipettes.valueOf(price.getAsk()));
+        buffer.putLong(offset + 40, price.getAvailableUnits() == null ? 0L : Pipettes.valueOf(price.getAvailableUnits()));
+        buffer.putLong(offset + 48, price.isTradable() ? 1L : 0L);
+        buffer.putLong(offset + 56, System.currentTimeMillis());
+        fullFence();
+        buffer.putLong(offset, 2 * sequence + 2);
+        fullFence();
+        buffer.putLong(TICK_SEQUENCE_OFFSET, sequence + 1);
+    }
+
+    /**
+     * Returns the tick with the sequence, or null when it is not published yet or was already overwritten.
+     */
+    public Price readPrice(long sequence) {
+        if(sequence < 0)
+            return null;
+        int offset = tickOffset(sequence);
+        long stamp = buffer.getLong(offset);
+        fullFence();
+        long epochSecond = buffer.getLong(offset + 8);
+        long nano = buffer.getLong(offset + 16);
+        long bid = buffer.getLong(offset + 24);
+        long ask = buffer.getLong(offset + 32);
+        long availableUnits = buffer.getLong(offset + 40);
+        boolean tradable = buffer.getLong(offset + 48) == 1L;
+        fullFence();
+        if(stamp != 2 * sequence + 2 || buffer.getLong(offset) != stamp)
+            return null;
+        return new PriceImpl.PriceBuilder()
+                .setDateTime(ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), UTC))
+                .setBid(Pipettes.toBigDecimal(bid))
+                .setAsk(Pipettes.toBigDecimal(ask))
+                .setAvailableUnits(Pipettes.toBigDecimal(availableUnits))
+                .setIsTradable(tradable)
+                .build();
+    }
+
+    //wall clock millis when the tick was published, or -1 when it is not readable
+    public long getPublishedMillis(long sequence) {
+        if(sequence < 0)
+            return -1L;
+        int offset = tickOffset(sequence);
+        long stamp = buffer.getLong(offset);
+        fullFence();
+        long publishedMillis = buffer.getLong(offset + 56);
+        fullFence();
+        return stamp == 2 * sequence + 2 && buffer.getLong(offset) == stamp ? publishedMillis : -1L;
+    }
+
+    /**
+     * Appends the candles newer than the last published one of the granularity. Only the publisher process calls it.
+     */
+    public synchronized void publishCandles(CandleGranularity granularity, List<Candlestick> candles) {
+        if(granularity == null || candles == null)
+            throw new NullArgumentException();
+        int series = seriesOffset(granularity);
+        //a stamp left odd by a publisher that stopped while writing is moved on to the next even one
+        long stamp = buffer.getLong(series);
+        stamp += stamp & 1L;
+        long count = buffer.getLong(series + 8);
+        long lastTime = count == 0 ? Long.MIN_VALUE : buffer.getLong(candleOffset(series, count - 1));
+        boolean writing = false;
+        for (Candlestick candle : candles) {
+            long time = candle.getDateTime().toEpochSecond();
+            if(time <= lastTime)
+                continue;
+            if(!writing) {
+                buffer.putLong(series, stamp + 1);
+                fullFence();
+                writing = true;
+            }
+            int offset = candleOffset(series, count++);
+            buffer.putLong(offset, time);
+            buffer.putLong(offset + 8, Pipettes.valueOf(candle.getOpenPrice()));
+            buffer.putLong(offset + 16, Pipettes.valueOf(candle.getHighPrice()));
+            buffer.putLong(offset + 24, Pipettes.valueOf(candle.getLowPrice()));
+            buffer.putLong(offset + 32, Pipettes.valueOf(candle.getClosePrice()));
+            buffer.putLong(offset + 40, candle.getVolume());
+            lastTime = time;
+        }
+        if(!writing)
+            return;
+        buffer.putLong(series + 8, count);
+        fullFence();
+        buffer.putLong(series, stamp + 2);
+    }
+
+    /**
+     * Returns up to {@code quantity} of the newest candles of the granularity, oldest first. The result is empty
+     * when the publisher kept rewriting the candles while they were read.
+     */
+    public CandleBuffer readCandles(CandleGranularity granularity, int quantity) {
+        if(granularity == null)
+            throw new NullArgumentException();
+        int series = seriesOffset(granularity);
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long stamp = buffer.getLong(series);
+            fullFence();
+            if(stamp % 2 != 0) {
+                Thread.yield();
+                continue;
+            }
+            long count = buffer.getLong(series + 8);
+            int size = (int) Math.min(Math.max(quantity, 0), Math.min(count, CANDLE_CAPACITY));
+            CandleBuffer candles = new CandleBuffer(size);
+            for (long i = count - size; i < count; i++) {
+                int offset = candleOffset(series, i);
+                candles.add(buffer.getLong(offset), buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                        buffer.getLong(offset + 24), buffer.getLong(offset + 32), buffer.getLong(offset + 40));
+            }
+            fullFence();
+            if(buffer.getLong(series) == stamp)
+                return candles;
+        }
+        return new CandleBuffer(0);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int tickOffset(long sequence) {
+        return TICKS_OFFSET + (int) (sequence % TICK_CAPACITY) * TICK_BYTES;
+    }
+
+    private int seriesOffset(CandleGranularity granularity) {
+        return SERIES_OFFSET + granularity.ordinal() * SERIES_BYTES;
+    }
+
+    private int candleOffset(int series, long index) {
+        return series + SERIES_HEADER_BYTES + (int) (index % CANDLE_CAPACITY) * CANDLE_BYTES;
+    }
+
+    private int fullFence() {
+        fence = 1;
+        return fence;
+    }
+}
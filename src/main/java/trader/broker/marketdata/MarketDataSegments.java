@@ -0,0 +1,53 @@
+package trader.broker.marketdata;
+
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.exception.NullArgumentException;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+//the segments of one directory, one file per instrument, opened on first use
+final class MarketDataSegments {
+
+    private static final String FILE_EXTENSION = ".marketdata";
+
+    private final Path directory;
+    private final ConcurrentMap<String, MarketDataSegment> segments;
+
+    MarketDataSegments(Path directory) {
+        if(directory == null)
+            throw new NullArgumentException();
+        this.directory = directory;
+        this.segments = new ConcurrentHashMap<>();
+    }
+
+    //null when the segment file can not be opened
+    MarketDataSegment get(String instrument) {
+        String name = instrument.trim().toUpperCase();
+        MarketDataSegment segment = segments.get(name);
+        if(segment != null)
+            return segment;
+        synchronized (segments) {
+            segment = segments.get(name);
+            if(segment == null) {
+                try {
+                    segment = MarketDataSegment.open(directory.resolve(name + FILE_EXTENSION));
+                } catch (UncheckedIOException e) {
+                    return null;
+                }
+                segments.put(name, segment);
+            }
+            return segment;
+        }
+    }
+
+    static CandleGranularity parseGranularity(String granularity) {
+        try {
+            return CandleGranularity.valueOf(granularity.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package trader.broker.marketdata.enums;
+
+public enum MarketDataMode {
+    OFF,
+    PUBLISH,
+    READ
+}
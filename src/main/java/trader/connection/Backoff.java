@@ -0,0 +1,43 @@
+package trader.connection;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter. Every delay is twice the previous one up to the maximum, and half of it is
+ * random, so callers that failed together do not retry together.
+ */
+public class Backoff {
+
+    private static final long DEFAULT_INITIAL_DELAY_MILLIS = 50L;
+    private static final long DEFAULT_MAX_DELAY_MILLIS = 5_000L;
+
+    private final long initialDelay;
+    private final long maxDelay;
+    private int attempts;
+
+    public Backoff() {
+        this(DEFAULT_INITIAL_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    public Backoff(long initialDelay, long maxDelay) {
+        if(initialDelay < 1 || maxDelay < initialDelay)
+            throw new IllegalArgumentException();
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    public synchronized long nextDelayMillis() {
+        long ceiling = Math.min(maxDelay, initialDelay << Math.min(attempts, 30));
+        attempts++;
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+
+    public synchronized void reset() {
+        attempts = 0;
+    }
+
+    public synchronized int getAttempts() {
+        return attempts;
+    }
+}
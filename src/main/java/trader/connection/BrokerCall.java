@@ -0,0 +1,7 @@
+package trader.connection;
+
+//a call to the broker, checked exceptions mean the broker could not be reached and the call may be retried
+public interface BrokerCall<T> {
+
+    T call() throws Exception;
+}
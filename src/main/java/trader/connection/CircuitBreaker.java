@@ -0,0 +1,71 @@
+package trader.connection;
+
+import trader.connection.enums.CircuitState;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops calls to an endpoint after several failures in a row. After the open time one trial call is let through:
+ * when it succeeds the circuit closes, when it fails the circuit opens again.
+ */
+public class CircuitBreaker {
+
+    private static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    private static final long DEFAULT_OPEN_MILLIS = 1_000L;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private CircuitState state;
+    private int failures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MILLIS);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        if(failureThreshold < 1 || openMillis < 0)
+            throw new IllegalArgumentException();
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.state = CircuitState.CLOSED;
+    }
+
+    public synchronized boolean allowRequest() {
+        if(state == CircuitState.OPEN && System.nanoTime() - openedAtNanos >= openNanos)
+            halfOpen();
+        if(state == CircuitState.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        return state == CircuitState.CLOSED;
+    }
+
+    //the endpoint is known to answer again, so the next call is a trial
+    public synchronized void halfOpen() {
+        if(state == CircuitState.OPEN) {
+            state = CircuitState.HALF_OPEN;
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        state = CircuitState.CLOSED;
+        failures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        failures++;
+        if(state == CircuitState.HALF_OPEN || failures >= failureThreshold) {
+            state = CircuitState.OPEN;
+            openedAtNanos = System.nanoTime();
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized CircuitState getState() {
+        return state;
+    }
+}
@@ -1,20 +1,16 @@
 package trader.connection;
 import trader.presenter.Presenter;
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-
 public class Connection {
 
-    private static final long DEFAULT_SLEEP_TIME_MILLIS = 30000;
-    private static final int BEGIN_INDEX = 8;
+    private static final ReachabilityProbe PROBE = new ReachabilityProbe();
     private static String message = "";
 
+    //waits until the host answers, checking again after a growing delay that starts at milliseconds
     public static boolean waitToConnect(String url, Presenter presenter) {
-        while (true){
-            if (verifyHostIpExistence(url, DEFAULT_SLEEP_TIME_MILLIS, presenter))
-                break;
-        }
+        Backoff backoff = new Backoff();
+        while (!PROBE.isReachable(url))
+            activateSleep(message, backoff.nextDelayMillis(), presenter);
         if(!message.equalsIgnoreCase("CONNECTED")){
             message = "CONNECTED";
             presenter.execute("CONNECTED");
@@ -23,24 +19,6 @@ public class Connection {
         return true;
     }
 
-    static boolean verifyHostIpExistence (String url, long sleepInterval, Presenter presenter) {
-        try {
-            getAddresses(extractHost(url));
-            return true;
-        } catch (UnknownHostException e) {
-            activateSleep(message, sleepInterval, presenter);
-        }
-        return false;
-    }
-
-    static String extractHost(String url) {
-        return url.substring(BEGIN_INDEX);
-    }
-
-    private static void getAddresses(String host) throws UnknownHostException {
-        InetAddress[] allByName = InetAddress.getAllByName(host);
-    }
-
     static void activateSleep(String message, long sleepInterval, Presenter presenter) {
         try {
             if(message.isEmpty() || message.equalsIgnoreCase("connected")){
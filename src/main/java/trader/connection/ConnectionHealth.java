@@ -0,0 +1,131 @@
+package trader.connection;
+
+import trader.connection.enums.CircuitState;
+import trader.exception.EmptyArgumentException;
+import trader.exception.NullArgumentException;
+import trader.exception.UnableToExecuteRequest;
+import trader.presenter.Presenter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Runs broker calls with retries. A failed call is retried after a jittered exponential backoff, and every endpoint
+ * has its own circuit breaker. While a circuit is open the host is probed, so the first call after the broker comes
+ * back goes out as soon as the host answers instead of after a fixed sleep.
+ */
+public class ConnectionHealth {
+
+    private static final String CONNECTION_LOST = "Connection Lost.Reconnecting...";
+    private static final String CONNECTED = "CONNECTED";
+    private static final long DEFAULT_INITIAL_DELAY_MILLIS = 50L;
+    private static final long DEFAULT_MAX_DELAY_MILLIS = 5_000L;
+
+    private final String url;
+    private final Presenter presenter;
+    private final ReachabilityProbe probe;
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers;
+    private final long initialDelay;
+    private final long maxDelay;
+    private volatile boolean connectionLost;
+
+    public ConnectionHealth(String url, Presenter presenter) {
+        this(url, presenter, new ReachabilityProbe(), DEFAULT_INITIAL_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    public ConnectionHealth(String url, Presenter presenter, ReachabilityProbe probe, long initialDelay, long maxDelay) {
+        if(url == null || presenter == null || probe == null)
+            throw new NullArgumentException();
+        if(url.trim().isEmpty())
+            throw new EmptyArgumentException();
+        this.url = url.trim();
+        this.presenter = presenter;
+        this.probe = probe;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.circuitBreakers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the result of the first call that does not fail with a checked exception. Runtime exceptions are not
+     * retried. Throws {@link UnableToExecuteRequest} after {@code maxAttempts} failed calls, or when the thread is
+     * interrupted, so a thread that is being stopped sends no more calls.
+     */
+    public <T> T execute(String endpoint, int maxAttempts, BrokerCall<T> call) {
+        if(endpoint == null || call == null)
+            throw new NullArgumentException();
+        if(maxAttempts < 1)
+            throw new IllegalArgumentException();
+        CircuitBreaker circuitBreaker = getCircuitBreaker(endpoint);
+        Backoff backoff = new Backoff(initialDelay, maxDelay);
+        int attempts = 0;
+        while (true) {
+            if(Thread.currentThread().isInterrupted())
+                throw new UnableToExecuteRequest();
+            if(!circuitBreaker.allowRequest()) {
+                waitForHost(circuitBreaker, backoff);
+                continue;
+            }
+            try {
+                T result = call.call();
+                circuitBreaker.recordSuccess();
+                markConnected();
+                return result;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                circuitBreaker.recordFailure();
+                markConnectionLost();
+                if(++attempts >= maxAttempts)
+                    throw new UnableToExecuteRequest();
+                sleep(backoff.nextDelayMillis());
+            }
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker(String endpoint) {
+        String key = endpoint.trim().toLowerCase();
+        CircuitBreaker circuitBreaker = circuitBreakers.get(key);
+        if(circuitBreaker == null) {
+            circuitBreakers.putIfAbsent(key, new CircuitBreaker());
+            circuitBreaker = circuitBreakers.get(key);
+        }
+        return circuitBreaker;
+    }
+
+    public boolean isConnectionLost() {
+        return connectionLost;
+    }
+
+    //a reachable host ends the open time early, while a trial call is running the others wait
+    private void waitForHost(CircuitBreaker circuitBreaker, Backoff backoff) {
+        if(circuitBreaker.getState() == CircuitState.OPEN && probe.isReachable(url)) {
+            circuitBreaker.halfOpen();
+            return;
+        }
+        sleep(backoff.nextDelayMillis());
+    }
+
+    private void markConnectionLost() {
+        if(!connectionLost) {
+            connectionLost = true;
+            presenter.execute(CONNECTION_LOST);
+        }
+    }
+
+    private void markConnected() {
+        if(connectionLost) {
+            connectionLost = false;
+            presenter.execute(CONNECTED);
+        }
+    }
+
+    private void sleep(long sleepInterval) {
+        try {
+            Thread.sleep(sleepInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnableToExecuteRequest();
+        }
+    }
+}
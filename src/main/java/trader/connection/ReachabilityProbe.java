@@ -0,0 +1,43 @@
+package trader.connection;
+
+import trader.exception.NullArgumentException;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+//the host is reachable when it answers an HTTP request, whatever the status code
+public class ReachabilityProbe {
+
+    private static final int DEFAULT_TIMEOUT_MILLIS = 2_000;
+
+    private final int timeout;
+
+    public ReachabilityProbe() {
+        this(DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public ReachabilityProbe(int timeout) {
+        if(timeout < 1)
+            throw new IllegalArgumentException();
+        this.timeout = timeout;
+    }
+
+    public boolean isReachable(String url) {
+        if(url == null)
+            throw new NullArgumentException();
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url.trim()).openConnection();
+            connection.setRequestMethod("HEAD");
+            connection.setConnectTimeout(timeout);
+            connection.setReadTimeout(timeout);
+            return connection.getResponseCode() > 0;
+        } catch (IOException | ClassCastException e) {
+            return false;
+        } finally {
+            if(connection != null)
+                connection.disconnect();
+        }
+    }
+}
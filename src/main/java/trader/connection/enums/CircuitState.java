@@ -0,0 +1,7 @@
+package trader.connection.enums;
+
+public enum CircuitState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
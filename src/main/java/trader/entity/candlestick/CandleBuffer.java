@@ -0,0 +1,152 @@
+package trader.entity.candlestick;
+
+import trader.entity.candlestick.candle.Candle;
+import trader.exception.NegativeNumberException;
+import trader.exception.NullArgumentException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Complete candles kept column by column in primitive arrays. Times are epoch seconds and prices are counts of
+ * 0.00001, so adding a candle allocates nothing until the columns have to grow.
+ */
+public final class CandleBuffer {
+
+    public static final int PRICE_SCALE = 5;
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    private long[] times;
+    private long[] openPrices;
+    private long[] highPrices;
+    private long[] lowPrices;
+    private long[] closePrices;
+    private long[] volumes;
+    private int size;
+
+    public CandleBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CandleBuffer(int capacity) {
+        if(capacity < 0)
+            throw new NegativeNumberException();
+        int columnSize = Math.max(capacity, 1);
+        times = new long[columnSize];
+        openPrices = new long[columnSize];
+        highPrices = new long[columnSize];
+        lowPrices = new long[columnSize];
+        closePrices = new long[columnSize];
+        volumes = new long[columnSize];
+    }
+
+    //the copy has its own columns, so neither buffer sees the other one change
+    public CandleBuffer(CandleBuffer other) {
+        if(other == null)
+            throw new NullArgumentException();
+        int columnSize = Math.max(other.size, 1);
+        times = Arrays.copyOf(other.times, columnSize);
+        openPrices = Arrays.copyOf(other.openPrices, columnSize);
+        highPrices = Arrays.copyOf(other.highPrices, columnSize);
+        lowPrices = Arrays.copyOf(other.lowPrices, columnSize);
+        closePrices = Arrays.copyOf(other.closePrices, columnSize);
+        volumes = Arrays.copyOf(other.volumes, columnSize);
+        size = other.size;
+    }
+
+    public void add(long epochSecond, long open, long high, long low, long close, long volume) {
+        if(size == times.length)
+            grow();
+        times[size] = epochSecond;
+        openPrices[size] = open;
+        highPrices[size] = high;
+        lowPrices[size] = low;
+        closePrices[size] = close;
+        volumes[size] = volume;
+        size++;
+    }
+
+    //keeps the columns, so a buffer can be filled again without allocation
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTime(int index) {
+        checkIndex(index);
+        return times[index];
+    }
+
+    public long getOpenPrice(int index) {
+        checkIndex(index);
+        return openPrices[index];
+    }
+
+    public long getHighPrice(int index) {
+        checkIndex(index);
+        return highPrices[index];
+    }
+
+    public long getLowPrice(int index) {
+        checkIndex(index);
+        return lowPrices[index];
+    }
+
+    public long getClosePrice(int index) {
+        checkIndex(index);
+        return closePrices[index];
+    }
+
+    public long getVolume(int index) {
+        checkIndex(index);
+        return volumes[index];
+    }
+
+    public Candlestick getCandlestick(int index) {
+        checkIndex(index);
+        return new Candle.CandleBuilder()
+                .setOpenPrice(toPrice(openPrices[index]))
+                .setHighPrice(toPrice(highPrices[index]))
+                .setLowPrice(toPrice(lowPrices[index]))
+                .setClosePrice(toPrice(closePrices[index]))
+                .setDateTime(ZonedDateTime.ofInstant(Instant.ofEpochSecond(times[index]), UTC))
+                .setVolume(volumes[index])
+                .setComplete(true)
+                .build();
+    }
+
+    public List<Candlestick> toCandlesticks() {
+        List<Candlestick> candlesticks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            candlesticks.add(getCandlestick(i));
+        return candlesticks;
+    }
+
+    private BigDecimal toPrice(long price) {
+        return BigDecimal.valueOf(price, PRICE_SCALE);
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        openPrices = Arrays.copyOf(openPrices, capacity);
+        highPrices = Arrays.copyOf(highPrices, capacity);
+        lowPrices = Arrays.copyOf(lowPrices, capacity);
+        closePrices = Arrays.copyOf(closePrices, capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size)
+            throw new IndexOutOfBoundsException();
+    }
+}
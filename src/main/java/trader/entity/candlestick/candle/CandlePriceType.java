@@ -2,6 +2,8 @@ package trader.entity.candlestick.candle;
 
 
 import trader.entity.candlestick.Candlestick;
+import trader.entity.price.Pipettes;
+
 import java.math.BigDecimal;
 
 public enum CandlePriceType {
@@ -35,6 +37,16 @@ public enum CandlePriceType {
             return medianPrice(candle.getHighPrice(), candle.getLowPrice());
         }
 
+        //the halves are only added in pipettes when no decimals are lost, otherwise the exact median is rounded
+        @Override
+        public long extractPipettes(Candlestick candle) {
+            BigDecimal high = candle.getHighPrice();
+            BigDecimal low = candle.getLowPrice();
+            if(high.scale() > Pipettes.SCALE || low.scale() > Pipettes.SCALE)
+                return Pipettes.valueOf(medianPrice(high, low));
+            return Pipettes.divideByCount(Pipettes.valueOf(high) + Pipettes.valueOf(low), 2);
+        }
+
         private BigDecimal medianPrice(BigDecimal high, BigDecimal low) {
             return high.add(low)
                     .divide(BigDecimal.valueOf(2), 5,BigDecimal.ROUND_HALF_UP);
@@ -43,4 +55,9 @@ public enum CandlePriceType {
 
 
     public abstract BigDecimal extractPrice(Candlestick candle);
+
+    //the price rounded half up to 5 decimals
+    public long extractPipettes(Candlestick candle) {
+        return Pipettes.valueOf(extractPrice(candle));
+    }
 }
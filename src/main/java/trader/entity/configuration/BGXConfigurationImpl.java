@@ -1,12 +1,17 @@
 package trader.entity.configuration;
 
+import trader.broker.marketdata.enums.MarketDataMode;
 import trader.entity.candlestick.candle.CandleGranularity;
 import trader.exception.*;
+import trader.observable.enums.EventBus;
+import trader.observable.enums.ObserverDispatch;
+import trader.observable.enums.PriceFeed;
 import trader.strategy.TradingStrategyConfiguration;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -30,6 +35,14 @@ public class BGXConfigurationImpl implements TradingStrategyConfiguration {
     private static final String DEFAULT_ORDER_STRATEGY = "standard";
     private static final String DEFAULT_EXIT_STRATEGY = "fullClose";
     private static final CandleGranularity DEFAULT_EXIT_GRANULARITY = CandleGranularity.M30;
+    private static final PriceFeed DEFAULT_PRICE_FEED = PriceFeed.POLL;
+    private static final ObserverDispatch DEFAULT_OBSERVER_DISPATCH = ObserverDispatch.SEQUENTIAL;
+    private static final EventBus DEFAULT_EVENT_BUS = EventBus.OFF;
+    private static final MarketDataMode DEFAULT_MARKET_DATA_MODE = MarketDataMode.OFF;
+    private static final String DEFAULT_MARKET_DATA_DIRECTORY = "marketdata";
+    private static final String DEFAULT_POLLING_KEY = "default";
+    private static final long DEFAULT_POLLING_PERIOD = 1000L;
+    private static final long MAX_POLLING_PERIOD = 60_000L;
 
     private List<Map<String, String>> indicators;
     private long initialCandlesQuantity;
@@ -45,6 +58,17 @@ public class BGXConfigurationImpl implements TradingStrategyConfiguration {
     private String orderStrategy;
     private String exitStrategy;
     private CandleGranularity exitGranularity;
+    private PriceFeed priceFeed;
+    private ObserverDispatch observerDispatch;
+    private EventBus eventBus;
+    private String candleStoreDirectory;
+    private CandleGranularity rollUpGranularity;
+    private MarketDataMode marketDataMode;
+    private boolean aggregateCandles;
+    private boolean adaptivePolling;
+    private String marketDataDirectory;
+    private long defaultPollingPeriod;
+    private Map<String, Long> pollingPeriods;
 
 
 
@@ -63,6 +87,13 @@ public class BGXConfigurationImpl implements TradingStrategyConfiguration {
         this.orderStrategy = DEFAULT_ORDER_STRATEGY;
         this.exitStrategy = DEFAULT_EXIT_STRATEGY;
         this.exitGranularity = DEFAULT_EXIT_GRANULARITY;
+        this.priceFeed = DEFAULT_PRICE_FEED;
+        this.observerDispatch = DEFAULT_OBSERVER_DISPATCH;
+        this.eventBus = DEFAULT_EVENT_BUS;
+        this.marketDataMode = DEFAULT_MARKET_DATA_MODE;
+        this.marketDataDirectory = DEFAULT_MARKET_DATA_DIRECTORY;
+        this.defaultPollingPeriod = DEFAULT_POLLING_PERIOD;
+        this.pollingPeriods = new HashMap<>();
     }
 
     @Override
@@ -235,6 +266,123 @@ public class BGXConfigurationImpl implements TradingStrategyConfiguration {
             this.exitGranularity = parseGranularity(strExitGranularity);
     }
 
+    @Override
+    public PriceFeed getPriceFeed() {
+        return priceFeed;
+    }
+
+    @Override
+    public void setPriceFeed(String strPriceFeed) {
+        if(haveValue(strPriceFeed))
+            this.priceFeed = parsePriceFeed(strPriceFeed);
+    }
+
+    @Override
+    public CandleGranularity getRollUpGranularity() {
+        return rollUpGranularity;
+    }
+
+    @Override
+    public void setRollUpGranularity(String strRollUpGranularity) {
+        if(haveValue(strRollUpGranularity))
+            this.rollUpGranularity = parseGranularity(strRollUpGranularity);
+    }
+
+    @Override
+    public String getCandleStoreDirectory() {
+        return candleStoreDirectory;
+    }
+
+    @Override
+    public void setCandleStoreDirectory(String candleStoreDirectory) {
+        if(haveValue(candleStoreDirectory))
+            this.candleStoreDirectory = candleStoreDirectory.trim();
+    }
+
+    @Override
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    @Override
+    public void setEventBus(String strEventBus) {
+        if(haveValue(strEventBus))
+            this.eventBus = parseEventBus(strEventBus);
+    }
+
+    @Override
+    public ObserverDispatch getObserverDispatch() {
+        return observerDispatch;
+    }
+
+    @Override
+    public void setObserverDispatch(String strObserverDispatch) {
+        if(haveValue(strObserverDispatch))
+            this.observerDispatch = parseObserverDispatch(strObserverDispatch);
+    }
+
+    @Override
+    public boolean isAggregateCandles() {
+        return aggregateCandles;
+    }
+
+    @Override
+    public void setAggregateCandles(String strAggregateCandles) {
+        if(haveValue(strAggregateCandles))
+            this.aggregateCandles = parseBoolean(strAggregateCandles);
+    }
+
+    @Override
+    public MarketDataMode getMarketDataMode() {
+        return marketDataMode;
+    }
+
+    @Override
+    public void setMarketDataMode(String strMarketDataMode) {
+        if(haveValue(strMarketDataMode))
+            this.marketDataMode = parseMarketDataMode(strMarketDataMode);
+    }
+
+    @Override
+    public String getMarketDataDirectory() {
+        return marketDataDirectory;
+    }
+
+    @Override
+    public void setMarketDataDirectory(String marketDataDirectory) {
+        if(haveValue(marketDataDirectory))
+            this.marketDataDirectory = marketDataDirectory.trim();
+    }
+
+    @Override
+    public boolean isAdaptivePolling() {
+        return adaptivePolling;
+    }
+
+    @Override
+    public void setAdaptivePolling(String strAdaptivePolling) {
+        if(haveValue(strAdaptivePolling))
+            this.adaptivePolling = parseBoolean(strAdaptivePolling);
+    }
+
+    @Override
+    public long getPollingPeriod(String instrument) {
+        Long period = instrument == null ? null : pollingPeriods.get(instrument.trim().toUpperCase());
+        return period == null ? defaultPollingPeriod : period;
+    }
+
+    @Override
+    public void setPollingPeriod(String instrument, String strPollingPeriod) {
+        if(!haveValue(instrument) || !haveValue(strPollingPeriod))
+            return;
+        long period = parseToLong(strPollingPeriod);
+        validateBoundaries(period, 0L, MAX_POLLING_PERIOD);
+        if(instrument.trim().equalsIgnoreCase(DEFAULT_POLLING_KEY))
+            this.defaultPollingPeriod = period;
+        else
+            this.pollingPeriods.put(instrument.trim().toUpperCase(), period);
+    }
+
     @Override
     public String toString() {
         return "BGXConfiguration";
@@ -275,4 +423,43 @@ public class BGXConfigurationImpl implements TradingStrategyConfiguration {
             throw new EmptyArgumentException();
         }
     }
+
+    private PriceFeed parsePriceFeed(String setting) {
+        try {
+            return PriceFeed.valueOf(setting.trim().toUpperCase());
+        } catch (Exception e) {
+            throw new BadRequestException();
+        }
+    }
+
+    private EventBus parseEventBus(String setting) {
+        try {
+            return EventBus.valueOf(setting.trim().toUpperCase());
+        } catch (Exception e) {
+            throw new BadRequestException();
+        }
+    }
+
+    private ObserverDispatch parseObserverDispatch(String setting) {
+        try {
+            return ObserverDispatch.valueOf(setting.trim().toUpperCase());
+        } catch (Exception e) {
+            throw new BadRequestException();
+        }
+    }
+
+    private boolean parseBoolean(String setting) {
+        String value = setting.trim().toLowerCase();
+        if(!value.equals("true") && !value.equals("false"))
+            throw new BadRequestException();
+        return Boolean.parseBoolean(value);
+    }
+
+    private MarketDataMode parseMarketDataMode(String setting) {
+        try {
+            return MarketDataMode.valueOf(setting.trim().toUpperCase());
+        } catch (Exception e) {
+            throw new BadRequestException();
+        }
+    }
 }
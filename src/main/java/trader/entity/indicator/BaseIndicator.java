@@ -3,22 +3,29 @@ package trader.entity.indicator;
 import trader.entity.candlestick.candle.CandleGranularity;
 import trader.entity.candlestick.candle.CandlePriceType;
 import trader.entity.candlestick.Candlestick;
+import trader.entity.price.Pipettes;
+import trader.entity.series.RingSeries;
 import trader.exception.BadRequestException;
 import trader.exception.IndicatorPeriodTooBigException;
+import trader.exception.NullArgumentException;
+
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.List;
 
 public abstract class BaseIndicator implements Indicator{
 
+    //values and candles kept beyond the period, more than the strategies look back
+    protected static final int SERIES_LOOKBACK = 64;
+
     protected long indicatorPeriod;
     protected CandlePriceType candlePriceType;
     protected CandleGranularity granularity;
     protected String position;
     protected List<Candlestick> candlestickList;
     protected List<BigDecimal> indicatorValues;
-    protected BigDecimal divisor;
+    protected long divisor;
 
 
     public BaseIndicator(long indicatorPeriod, CandlePriceType candlePriceType, CandleGranularity granularity, String position) {
@@ -26,8 +33,8 @@ public abstract class BaseIndicator implements Indicator{
         this.candlePriceType = candlePriceType;
         this.granularity = granularity;
         this.position = position;
-        this.indicatorValues = new ArrayList<>();
-        this.candlestickList = new ArrayList<>();
+        this.indicatorValues = new RingSeries<>(SERIES_LOOKBACK);
+        this.candlestickList = new RingSeries<>((int) indicatorPeriod + SERIES_LOOKBACK);
     }
 
     @Override
@@ -43,11 +50,40 @@ public abstract class BaseIndicator implements Indicator{
     @Override
     public String getPosition(){return position;}
 
+    //the first candles warm the indicator up, later only a candle a granularity after the last one is new
+    @Override
+    public void updateIndicator(List<Candlestick> candles) {
+        if(indicatorValues.size() == 0) {
+            warmUp(candles);
+            return;
+        }
+        if(isTimeToUpdate(candles.get(candles.size() - 1), lastCandlestick()))
+            addNewCandles(candles);
+    }
+
     @Override
-    public abstract void updateIndicator(List<Candlestick> candles);
+    public void warmUp(List<Candlestick> candles) {
+        if(candles == null)
+            throw new NullArgumentException();
+        verifyCalculationInput(candles);
+        addNewCandles(candles);
+    }
+
+    @Override
+    public void onBar(Candlestick candle) {
+        if(candle == null)
+            throw new NullArgumentException();
+        candlestickList.add(candle);
+        addPrice(obtainPrice(candle));
+    }
 
     protected abstract void setDivisor();
 
+    /**
+     * Moves the indicator one price on and adds the new value, once there are enough prices for one.
+     */
+    protected abstract void addPrice(long price);
+
     protected void verifyCalculationInput(List<Candlestick> candlestickList) {
         if(candlestickList.size() == 0)
             throw new BadRequestException();
@@ -55,8 +91,29 @@ public abstract class BaseIndicator implements Indicator{
             throw new IndicatorPeriodTooBigException();
     }
 
-    protected BigDecimal obtainPrice(Candlestick candle) {
-        return candlePriceType.extractPrice(candle)
-                        .setScale(5, BigDecimal.ROUND_HALF_UP);
+    protected long obtainPrice(Candlestick candle) {
+        return candlePriceType.extractPipettes(candle);
+    }
+
+    //the candles of an update overlap the stored ones, only the newer ones are fed
+    private void addNewCandles(List<Candlestick> candles) {
+        Candlestick lastCandle = candlestickList.isEmpty() ? null : lastCandlestick();
+        for (Candlestick candle : candles) {
+            if(lastCandle == null || candle.getDateTime().compareTo(lastCandle.getDateTime()) > 0)
+                onBar(candle);
+        }
+    }
+
+    private boolean isTimeToUpdate(Candlestick candlestick, Candlestick prevCandle) {
+        ZonedDateTime nextUpdateTime = prevCandle.getDateTime().plusSeconds(granularity.toSeconds());
+        return candlestick.getDateTime().compareTo(nextUpdateTime) >=0;
+    }
+
+    protected Candlestick lastCandlestick() {
+        return candlestickList.get(candlestickList.size() - 1);
+    }
+
+    protected void addValue(long pipettes) {
+        indicatorValues.add(Pipettes.toBigDecimal(pipettes));
     }
 }
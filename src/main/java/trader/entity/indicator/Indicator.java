@@ -16,4 +16,14 @@ public interface Indicator {
 
     void updateIndicator(List<Candlestick> candles);
 
+    /**
+     * Feeds a series of candles, oldest first, in one pass. The series must be longer than the period.
+     */
+    void warmUp(List<Candlestick> candles);
+
+    /**
+     * Feeds one new candle. Every candle costs the same, however long the indicator runs.
+     */
+    void onBar(Candlestick candle);
+
 }
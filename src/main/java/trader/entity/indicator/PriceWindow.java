@@ -0,0 +1,44 @@
+package trader.entity.indicator;
+
+import trader.exception.UnderflowException;
+
+/**
+ * The prices of the last period in pipettes with their running total. Once the window is full every new price
+ * replaces the oldest one.
+ */
+public final class PriceWindow {
+
+    private final long[] prices;
+    private int size;
+    private int oldestIndex;
+    private long total;
+
+    public PriceWindow(long period) {
+        if(period < 1)
+            throw new UnderflowException();
+        this.prices = new long[(int) period];
+    }
+
+    public void add(long price) {
+        if(size < prices.length) {
+            prices[size++] = price;
+            total += price;
+            return;
+        }
+        total += price - prices[oldestIndex];
+        prices[oldestIndex] = price;
+        oldestIndex = oldestIndex + 1 == prices.length ? 0 : oldestIndex + 1;
+    }
+
+    public boolean isFull() {
+        return size == prices.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -3,40 +3,25 @@ package trader.entity.indicator.ma;
 
 import trader.entity.candlestick.candle.CandleGranularity;
 import trader.entity.candlestick.candle.CandlePriceType;
-import trader.entity.candlestick.Candlestick;
 import trader.entity.indicator.BaseIndicator;
-import java.math.BigDecimal;
-import java.time.ZonedDateTime;
-import java.util.List;
+import trader.entity.indicator.PriceWindow;
+import trader.entity.price.Pipettes;
 
 public final class ExponentialMovingAverage extends BaseIndicator {
 
-    private static final BigDecimal SMOOTH_FACTOR_CONSTANT = BigDecimal.valueOf(2);
+    private static final long SMOOTH_FACTOR_CONSTANT = Pipettes.valueOf(2L);
 
-    private BigDecimal smoothFactor;
-    private BigDecimal smoothMultiplier;
+    private final PriceWindow initialWindow;
+    private long smoothFactor;
+    private long smoothMultiplier;
+    private long lastValue;
 
     ExponentialMovingAverage(long indicatorPeriod, CandlePriceType candlePriceType, CandleGranularity granularity, String position) {
         super(indicatorPeriod, candlePriceType, granularity, position);
         setDivisor();
         setSmoothFactor();
         setSmoothMultiplier();
-
-    }
-
-    @Override
-    public void updateIndicator(List<Candlestick> candles) {
-        if(indicatorValues.size() == 0){
-            candlestickList.addAll(candles);
-            setEMAValues(candles);
-        } else {
-            Candlestick lastIndicatorCandle = getLastCandlestick(candlestickList, candlestickList.size() - 1);
-            if(isTimeToUpdate(candles.get(candles.size()-1), lastIndicatorCandle)) {
-                Candlestick candlestick = candles.get(candles.size() - 1);
-                candlestickList.add(candlestick);
-                indicatorValues.add(currentPriceSmoothed(candlestick).add(previousEMASmoothed()));
-            }
-        }
+        initialWindow = new PriceWindow(indicatorPeriod);
     }
 
     @Override
@@ -51,26 +36,15 @@ public final class ExponentialMovingAverage extends BaseIndicator {
 
     @Override
     protected void setDivisor(){
-        divisor = BigDecimal.valueOf(indicatorPeriod);
-    }
-
-    private boolean isTimeToUpdate(Candlestick candlestick, Candlestick prevCandle) {
-        ZonedDateTime nextUpdateTime = prevCandle.getDateTime().plusSeconds(granularity.toSeconds());
-        return candlestick.getDateTime().compareTo(nextUpdateTime) >=0;
-    }
-
-    private Candlestick getLastCandlestick(List<Candlestick> candlestickList, int candleIndex) {
-        return candlestickList.get(candleIndex);
+        divisor = indicatorPeriod;
     }
 
     private void setSmoothFactor(){
-        smoothFactor = SMOOTH_FACTOR_CONSTANT.divide(
-                BigDecimal.valueOf(indicatorPeriod + 1L), 5, BigDecimal.ROUND_HALF_UP);
+        smoothFactor = Pipettes.divideByCount(SMOOTH_FACTOR_CONSTANT, indicatorPeriod + 1L);
     }
 
     private void setSmoothMultiplier(){
-        smoothMultiplier = BigDecimal.ONE.subtract(smoothFactor)
-                .setScale(5, BigDecimal.ROUND_HALF_UP);
+        smoothMultiplier = Pipettes.ONE - smoothFactor;
     }
 
     /**
@@ -83,37 +57,27 @@ public final class ExponentialMovingAverage extends BaseIndicator {
      *
      * }
      */
-    private void setEMAValues(List<Candlestick> candlestickList){
-        verifyCalculationInput(candlestickList);
-        setSMAValue(candlestickList);
-        setRemainingValues(candlestickList);
-    }
-
-    private void setSMAValue(List<Candlestick> candlestickList) {
-        BigDecimal smaValue = BigDecimal.ZERO;
-        for (int candleIndex = 0; candleIndex <= indicatorPeriod -1 ; candleIndex++) {
-            smaValue = smaValue.add(obtainPrice(candlestickList.get(candleIndex)));
+    @Override
+    protected void addPrice(long price) {
+        if (initialWindow.isFull()) {
+            addEMAValue(currentPriceSmoothed(price) + previousEMASmoothed());
+            return;
         }
-        this.indicatorValues.add(smaValue.divide(divisor, 5, BigDecimal.ROUND_HALF_UP));
+        initialWindow.add(price);
+        if (initialWindow.isFull())
+            addEMAValue(Pipettes.divideByCount(initialWindow.getTotal(), divisor));
     }
 
-    private void setRemainingValues(List<Candlestick> candlestickList) {
-        for (int index = (int) indicatorPeriod; index < candlestickList.size() ; index++) {
-            Candlestick candlestick = candlestickList.get(index);
-            indicatorValues.add(currentPriceSmoothed(candlestick).add(previousEMASmoothed()));
-        }
+    private void addEMAValue(long emaValue) {
+        lastValue = emaValue;
+        addValue(emaValue);
     }
 
-    private BigDecimal currentPriceSmoothed(Candlestick candlestick) {
-        return obtainPrice(candlestick)
-                .multiply(smoothFactor)
-                .setScale(5, BigDecimal.ROUND_HALF_UP);
+    private long currentPriceSmoothed(long price) {
+        return Pipettes.multiply(price, smoothFactor);
     }
 
-    private BigDecimal previousEMASmoothed() {
-        int lastIndex = indicatorValues.size()-1;
-        return indicatorValues.get(lastIndex)
-                .multiply(smoothMultiplier)
-                .setScale(5, BigDecimal.ROUND_HALF_UP);
+    private long previousEMASmoothed() {
+        return Pipettes.multiply(lastValue, smoothMultiplier);
     }
 }
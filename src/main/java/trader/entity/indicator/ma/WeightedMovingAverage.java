@@ -2,32 +2,19 @@ package trader.entity.indicator.ma;
 
 import trader.entity.candlestick.candle.CandleGranularity;
 import trader.entity.candlestick.candle.CandlePriceType;
-import trader.entity.candlestick.Candlestick;
 import trader.entity.indicator.BaseIndicator;
-
-import java.math.BigDecimal;
-import java.time.ZonedDateTime;
-import java.util.List;
+import trader.entity.indicator.PriceWindow;
+import trader.entity.price.Pipettes;
 
 public final class WeightedMovingAverage extends BaseIndicator {
 
+    private final PriceWindow window;
+    private long weightedTotal;
+
     WeightedMovingAverage(long indicatorPeriod, CandlePriceType candlePriceType, CandleGranularity granularity, String position) {
         super(indicatorPeriod, candlePriceType, granularity, position);
         setDivisor();
-    }
-
-    @Override
-    public void updateIndicator(List<Candlestick> candles) {
-        if(indicatorValues.size() == 0){
-            candlestickList.addAll(candles);
-            setWMAValues(candles);
-        } else {
-            Candlestick lastIndicatorCandle = getLastCandlestick(candlestickList, candlestickList.size() - 1);
-            if(isTimeToUpdate(candles.get(candles.size()-1), lastIndicatorCandle)) {
-                candlestickList.add(candles.get(candles.size() - 1));
-                indicatorValues.add(calculateWMAValue(candlestickList, candlestickList.size() - 1));
-            }
-        }
+        window = new PriceWindow(indicatorPeriod);
     }
 
     @Override
@@ -42,29 +29,22 @@ public final class WeightedMovingAverage extends BaseIndicator {
 
     @Override
     protected void setDivisor(){
-        divisor = BigDecimal.valueOf(indicatorPeriod)
-                .add(BigDecimal.ONE)
-                .divide(BigDecimal.valueOf(2), 5, BigDecimal.ROUND_HALF_UP)
-                .multiply(BigDecimal.valueOf(indicatorPeriod)).setScale(5, BigDecimal.ROUND_HALF_UP);
-    }
-
-    private boolean isTimeToUpdate(Candlestick candlestick, Candlestick prevCandle) {
-        ZonedDateTime nextUpdateTime = prevCandle.getDateTime().plusSeconds(granularity.toSeconds());
-        return candlestick.getDateTime().compareTo(nextUpdateTime) >=0;
+        divisor = indicatorPeriod * (indicatorPeriod + 1) / 2;
     }
 
-    private Candlestick getLastCandlestick(List<Candlestick> candlestickList, int candleIndex) {
-        return candlestickList.get(candleIndex);
-    }
-
-    private void setWMAValues(List<Candlestick> candlestickList){
-        verifyCalculationInput(candlestickList);
-        for (int candleIndex = candlestickList.size()-1; candleIndex >= lastCandlestickIndex() ; candleIndex--)
-            indicatorValues.add(0, calculateWMAValue(candlestickList, candleIndex));
-    }
-
-    private long lastCandlestickIndex() {
-        return indicatorPeriod-1;
+    /**
+     * Slides the window by one price. Every price already in the window loses one weight, which is the same as
+     * subtracting the plain total, and the new price gets the full period as weight.
+     */
+    @Override
+    protected void addPrice(long price) {
+        if (window.isFull())
+            weightedTotal += price * indicatorPeriod - window.getTotal();
+        else
+            weightedTotal += price * (window.size() + 1);
+        window.add(price);
+        if (window.isFull())
+            addValue(calculateWMAValue());
     }
 
     /**
@@ -72,20 +52,11 @@ public final class WeightedMovingAverage extends BaseIndicator {
      * {@code
      * WMA: (Period*PriceImpl) + (Period-1)*PrevPrice + ... + PriceImpl(Period-1)*1)/(Period*(Period + 1)/2)
      * }
-     * @param candlestickList list of available candlesticks
-     * @return {@link BigDecimal} current WMA value
+     * @return current WMA value in pipettes
      */
-    private BigDecimal calculateWMAValue(List<Candlestick> candlestickList, int candleIndex){
-        long wmaPeriod = indicatorPeriod;
-        BigDecimal wmaValue = BigDecimal.ZERO;
-        for (int i = candleIndex; i >= candleIndex - lastCandlestickIndex(); i--) {
-            wmaValue = obtainPrice(candlestickList.get(i))
-                    .multiply(BigDecimal.valueOf(wmaPeriod--))
-                    .add(wmaValue)
-                    .setScale(5, BigDecimal.ROUND_HALF_UP);
-        }
-        if (candlestickList.size() > 0 && divisor.compareTo(BigDecimal.ZERO) != 0)
-            return wmaValue.divide(divisor, 5, BigDecimal.ROUND_HALF_UP);
-        return wmaValue;
+    private long calculateWMAValue(){
+        if (divisor != 0L)
+            return Pipettes.divideByCount(weightedTotal, divisor);
+        return weightedTotal;
     }
 }
@@ -13,5 +13,7 @@ public interface Order {
 
     BigDecimal getUnits();
 
+    BigDecimal getPrice();
+
     BigDecimal getStopLossPrice();
 }
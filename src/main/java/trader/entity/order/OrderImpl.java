@@ -11,15 +11,17 @@ public class OrderImpl implements Order {
     private OrderType orderType;
     private String instrument;
     private BigDecimal units;
+    private BigDecimal price;
     private BigDecimal stopLossPrice;
 
-    public OrderImpl(String id, OrderType orderType, String instrument, BigDecimal units, BigDecimal stopLossPrice) {
-        if(id == null || orderType == null || instrument == null || units == null || stopLossPrice == null)
+    public OrderImpl(String id, OrderType orderType, String instrument, BigDecimal units, BigDecimal price, BigDecimal stopLossPrice) {
+        if(id == null || orderType == null || instrument == null || units == null || price == null || stopLossPrice == null)
             throw new NullArgumentException();
         this.id = id;
         this.orderType = orderType;
         this.instrument = instrument;
         this.units = units;
+        this.price = price;
         this.stopLossPrice = stopLossPrice;
     }
 
@@ -43,6 +45,11 @@ public class OrderImpl implements Order {
         return units;
     }
 
+    @Override
+    public BigDecimal getPrice() {
+        return price;
+    }
+
     @Override
     public BigDecimal getStopLossPrice() {
         return stopLossPrice;
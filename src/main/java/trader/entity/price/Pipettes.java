@@ -0,0 +1,63 @@
+package trader.entity.price;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point prices held as a long count of pipettes (1e-5). Every operation rounds half up to 5 decimals, like
+ * {@code setScale(5, BigDecimal.ROUND_HALF_UP)} and {@code divide(divisor, 5, BigDecimal.ROUND_HALF_UP)} do, so
+ * the results are the same as the BigDecimal calculations they replace, without creating objects on the way.
+ */
+public final class Pipettes {
+
+    public static final int SCALE = 5;
+    public static final long ONE = 100_000L;
+
+    private Pipettes() { }
+
+    public static long valueOf(BigDecimal price) {
+        return price.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long valueOf(long units) {
+        return Math.multiplyExact(units, ONE);
+    }
+
+    public static BigDecimal toBigDecimal(long pipettes) {
+        return BigDecimal.valueOf(pipettes, SCALE);
+    }
+
+    public static long multiply(long pipettesA, long pipettesB) {
+        try {
+            return divideHalfUp(Math.multiplyExact(pipettesA, pipettesB), ONE);
+        } catch (ArithmeticException e) {
+            return valueOf(toBigDecimal(pipettesA).multiply(toBigDecimal(pipettesB)));
+        }
+    }
+
+    public static long divide(long pipettesA, long pipettesB) {
+        if(pipettesB == 0L)
+            throw new ArithmeticException("Division by zero");
+        try {
+            return divideHalfUp(Math.multiplyExact(pipettesA, ONE), pipettesB);
+        } catch (ArithmeticException e) {
+            return valueOf(toBigDecimal(pipettesA).divide(toBigDecimal(pipettesB), SCALE, RoundingMode.HALF_UP));
+        }
+    }
+
+    //divides by a plain count, for example an indicator period
+    public static long divideByCount(long pipettes, long count) {
+        if(count == 0L)
+            throw new ArithmeticException("Division by zero");
+        return divideHalfUp(pipettes, count);
+    }
+
+    //ties are rounded away from zero, as RoundingMode.HALF_UP does
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        if(remainder >= Math.abs(divisor) - remainder)
+            return (dividend < 0) == (divisor < 0) ? quotient + 1 : quotient - 1;
+        return quotient;
+    }
+}
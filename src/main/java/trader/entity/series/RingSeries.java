@@ -0,0 +1,86 @@
+package trader.entity.series;
+
+import trader.exception.NullArgumentException;
+import trader.exception.UnderflowException;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Fixed-capacity series of the latest elements, oldest first. Once the series is full every added element
+ * overwrites the oldest one, so appending and reading by index or from the end never grow the heap.
+ */
+public final class RingSeries<T> extends AbstractList<T> implements RandomAccess {
+
+    private final Object[] elements;
+    private int head;
+    private int size;
+
+    public RingSeries(int capacity) {
+        if(capacity < 1)
+            throw new UnderflowException();
+        this.elements = new Object[capacity];
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    public boolean isFull() {
+        return size == elements.length;
+    }
+
+    //always true, when the series is full the oldest element is dropped
+    @Override
+    public boolean add(T element) {
+        if(element == null)
+            throw new NullArgumentException();
+        elements[index(size == elements.length ? 0 : size)] = element;
+        if(size == elements.length)
+            head = index(1);
+        else
+            size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public T get(int index) {
+        if(index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return element(index(index));
+    }
+
+    //the element n places from the end, last(1) is the newest one
+    public T last(int n) {
+        return get(size - n);
+    }
+
+    public T last() {
+        return last(1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            elements[index(i)] = null;
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    private int index(int offset) {
+        int index = head + offset;
+        return index < elements.length ? index : index - elements.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int position) {
+        return (T) elements[position];
+    }
+}
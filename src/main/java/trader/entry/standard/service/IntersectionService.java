@@ -1,13 +1,17 @@
 package trader.entry.standard.service;
 
 
+import trader.entity.price.Pipettes;
 import trader.entity.trade.point.Point;
 import trader.entity.trade.point.PointImpl;
 import trader.entity.trade.segment.LineSegment;
 import trader.exception.NullArgumentException;
 
-import java.math.BigDecimal;
 
+/**
+ * Line segment calculations in pipettes. The points carry 5 decimal prices and whole times, like the indicator
+ * values the segments are built from.
+ */
 public final class IntersectionService {
 
     private IntersectionService(){ }
@@ -32,33 +36,31 @@ public final class IntersectionService {
         if(pointA2.getPrice().compareTo(pointB2.getPrice()) == 0)
             return true;
 
-        BigDecimal alpha = calculateParts(
+        long alpha = calculateParts(
                 subtractPrice(pointB2, pointB1),
                 subtractTime(pointB1, pointA1),
                 subtractTime(pointB2, pointB1),
                 subtractPrice(pointB1, pointA1));
 
-        BigDecimal beta = calculateParts(
+        long beta = calculateParts(
                 subtractTime(pointA1, pointA2),
                 subtractPrice(pointB1, pointA1),
                 subtractPrice(pointA1, pointA2),
                 subtractTime(pointB1, pointA1));
 
-        BigDecimal denominator = calculateParts(
+        long denominator = calculateParts(
                 subtractPrice(pointA1, pointA2),
                 subtractTime(pointB2, pointB1),
                 subtractTime(pointA1, pointA2),
                 subtractPrice(pointB2, pointB1));
 
-        int denominatorZeroCompare = denominator.compareTo(BigDecimal.ZERO);
+        int denominatorZeroCompare = Long.signum(denominator);
         if(denominatorZeroCompare > 0){
-            if (alpha.compareTo(BigDecimal.ZERO) < 0 || alpha.compareTo(denominator) > 0 ||
-                    beta.compareTo(BigDecimal.ZERO) < 0 || beta.compareTo(denominator) > 0){
+            if (alpha < 0L || alpha > denominator || beta < 0L || beta > denominator){
                 return false;
             }
         }else if (denominatorZeroCompare < 0){
-            if (alpha.compareTo(BigDecimal.ZERO) > 0 || alpha.compareTo(denominator) < 0 ||
-                    beta.compareTo(BigDecimal.ZERO) > 0 || beta.compareTo(denominator) < 0){
+            if (alpha > 0L || alpha < denominator || beta > 0L || beta < denominator){
                 return false;
             }
         }
@@ -112,26 +114,18 @@ public final class IntersectionService {
         return true;
     }
 
-    private static BigDecimal calculateParts(BigDecimal subtractResultA, BigDecimal subtractResultB, BigDecimal subtractResultC, BigDecimal subtractResultD) {
-        BigDecimal multiplyA = subtractResultA
-                .multiply(subtractResultB)
-                .setScale(5, BigDecimal.ROUND_HALF_UP);
-        BigDecimal multiplyB = subtractResultC
-                .multiply(subtractResultD)
-                .setScale(5, BigDecimal.ROUND_HALF_UP);
-        return multiplyA
-                .subtract(multiplyB)
-                .setScale(5, BigDecimal.ROUND_HALF_UP);
+    private static long calculateParts(long subtractResultA, long subtractResultB, long subtractResultC, long subtractResultD) {
+        long multiplyA = Pipettes.multiply(subtractResultA, subtractResultB);
+        long multiplyB = Pipettes.multiply(subtractResultC, subtractResultD);
+        return multiplyA - multiplyB;
     }
 
-    private static BigDecimal subtractPrice(Point pointA1, Point pointA2) {
-        return pointA2.getPrice().subtract(pointA1.getPrice())
-                    .setScale(5, BigDecimal.ROUND_HALF_UP);
+    private static long subtractPrice(Point pointA1, Point pointA2) {
+        return Pipettes.valueOf(pointA2.getPrice()) - Pipettes.valueOf(pointA1.getPrice());
     }
 
-    private static BigDecimal subtractTime(Point pointA1, Point pointA2) {
-        return pointA2.getTime().subtract(pointA1.getTime())
-                    .setScale(5, BigDecimal.ROUND_HALF_UP);
+    private static long subtractTime(Point pointA1, Point pointA2) {
+        return Pipettes.valueOf(pointA2.getTime()) - Pipettes.valueOf(pointA1.getTime());
     }
 
     /**
@@ -154,42 +148,37 @@ public final class IntersectionService {
         Point pointB1 = segmentB.getPointB();
         Point pointB2 = segmentB.getPointA();
 
+        long timeA2 = Pipettes.valueOf(pointA2.getTime());
+        long priceA2 = Pipettes.valueOf(pointA2.getPrice());
+        long timeB2 = Pipettes.valueOf(pointB2.getTime());
+        long priceB2 = Pipettes.valueOf(pointB2.getPrice());
+
         //calculating Slope
-        BigDecimal slopeSegmentA = IntersectionService
-                .calculateSlope(pointA1.getTime(), pointA1.getPrice(), pointA2.getTime(), pointA2.getPrice());
-        BigDecimal slopeSegmentB = IntersectionService
-                .calculateSlope(pointB1.getTime(), pointB1.getPrice(), pointB2.getTime(),  pointB2.getPrice());
+        long slopeSegmentA = IntersectionService.calculateSlope(
+                Pipettes.valueOf(pointA1.getTime()), Pipettes.valueOf(pointA1.getPrice()), timeA2, priceA2);
+        long slopeSegmentB = IntersectionService.calculateSlope(
+                Pipettes.valueOf(pointB1.getTime()), Pipettes.valueOf(pointB1.getPrice()), timeB2, priceB2);
         //calculating b for y = m*x + b
-        BigDecimal bForSegmentA = IntersectionService
-                .calculatingB(slopeSegmentA, pointA2.getTime(), pointA2.getPrice());
-        BigDecimal bForSegmentB = IntersectionService
-                .calculatingB(slopeSegmentB, pointB2.getTime(), pointB2.getPrice());
+        long bForSegmentA = IntersectionService.calculatingB(slopeSegmentA, timeA2, priceA2);
+        long bForSegmentB = IntersectionService.calculatingB(slopeSegmentB, timeB2, priceB2);
         //calculating x for the intersection point x = (b2-b1)/(m1-m2)
         //b2-b1
-        BigDecimal yInterceptDifference = bForSegmentB
-                .subtract(bForSegmentA)
-                .setScale(5, BigDecimal.ROUND_HALF_UP);
+        long yInterceptDifference = bForSegmentB - bForSegmentA;
         //m1 - m2
-        BigDecimal slopeDifference = slopeSegmentA
-                .subtract(slopeSegmentB)
-                .setScale(5, BigDecimal.ROUND_HALF_UP);
+        long slopeDifference = slopeSegmentA - slopeSegmentB;
 
-        BigDecimal xIntersectPoint;
-        if (slopeDifference.compareTo(BigDecimal.ZERO) == 0)
-            xIntersectPoint = BigDecimal.ZERO;
+        long xIntersectPoint;
+        if (slopeDifference == 0L)
+            xIntersectPoint = 0L;
         else
-            xIntersectPoint = yInterceptDifference.divide(slopeDifference, 5, BigDecimal.ROUND_HALF_UP);
+            xIntersectPoint = Pipettes.divide(yInterceptDifference, slopeDifference);
 
         //calculate y = m1*((b2-b1)/(m1-m2)) + b1
-        BigDecimal m1x = slopeSegmentA
-                .multiply(xIntersectPoint)
-                .setScale(5, BigDecimal.ROUND_HALF_UP);
-        BigDecimal yIntersectPoint = m1x
-                .add(bForSegmentA)
-                .setScale(5, BigDecimal.ROUND_HALF_UP);
+        long m1x = Pipettes.multiply(slopeSegmentA, xIntersectPoint);
+        long yIntersectPoint = m1x + bForSegmentA;
 
         //Time is irrelevant. So the x. Set default time of 1 for the intersection point.
-        return new PointImpl(yIntersectPoint);
+        return new PointImpl(Pipettes.toBigDecimal(yIntersectPoint));
     }
 
     /**
@@ -198,19 +187,19 @@ public final class IntersectionService {
      * @param y - price of the start point
      * @param x1 - time intervals of the end point
      * @param y1 - price of the end point
-     * @return {@link BigDecimal} slope
+     * @return slope in pipettes
      */
-    private static BigDecimal calculateSlope(BigDecimal x, BigDecimal y, BigDecimal x1, BigDecimal y1){
+    private static long calculateSlope(long x, long y, long x1, long y1){
         //calculating Slope m = (y-y1)/(x-x1)
         //y-y1
-        BigDecimal yy1 = y.subtract(y1).setScale(5, BigDecimal.ROUND_HALF_UP);
+        long yy1 = y - y1;
         //x-x1
-        BigDecimal xx1 = x.subtract(x1).setScale(5, BigDecimal.ROUND_HALF_UP);
-        if(xx1.compareTo(BigDecimal.ZERO) == 0)
-            return BigDecimal.ZERO;
+        long xx1 = x - x1;
+        if(xx1 == 0L)
+            return 0L;
         else
             //m = (y-y1)/(x-x1)
-            return yy1.divide(xx1,5, BigDecimal.ROUND_HALF_UP);
+            return Pipettes.divide(yy1, xx1);
     }
 
     /**
@@ -220,14 +209,14 @@ public final class IntersectionService {
      * @param m slope of the segment
      * @param x1 time interval of the end point
      * @param y1 price of the end point
-     * @return {@link BigDecimal} b value
+     * @return b value in pipettes
      */
-    private static BigDecimal calculatingB(BigDecimal m, BigDecimal x1, BigDecimal y1){
+    private static long calculatingB(long m, long x1, long y1){
         //b = y1 - m*x1
         //m*x1
-        BigDecimal mx1 = m.multiply(x1).setScale(5, BigDecimal.ROUND_HALF_UP);
+        long mx1 = Pipettes.multiply(m, x1);
         //b = y1 - m*x1
-        return y1.subtract(mx1).setScale(5, BigDecimal.ROUND_HALF_UP);
+        return y1 - mx1;
     }
 
 }
@@ -1,6 +1,7 @@
 package trader.exit;
 
 import trader.broker.BrokerGateway;
+import trader.broker.candle.CandleRepository;
 import trader.strategy.TradingStrategyConfiguration;
 import trader.exception.NullArgumentException;
 import trader.exit.service.UpdateCandlesService;
@@ -12,6 +13,7 @@ public abstract class BaseExitStrategy implements ExitStrategy {
     protected UpdateCandlesService updateCandlesService;
     protected TradingStrategyConfiguration configuration;
     protected BrokerGateway brokerGateway;
+    protected CandleRepository candleRepository;
     protected Presenter presenter;
 
     public BaseExitStrategy() {
@@ -32,6 +34,13 @@ public abstract class BaseExitStrategy implements ExitStrategy {
         this.brokerGateway = brokerGateway;
     }
 
+    @Override
+    public void setCandleRepository(CandleRepository candleRepository) {
+        if(candleRepository == null)
+            throw new NullArgumentException();
+        this.candleRepository = candleRepository;
+    }
+
     @Override
     public  void setPresenter(Presenter presenter){
         if(presenter == null)
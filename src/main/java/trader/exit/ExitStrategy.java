@@ -1,6 +1,7 @@
 package trader.exit;
 
 import trader.broker.BrokerGateway;
+import trader.broker.candle.CandleRepository;
 import trader.strategy.TradingStrategyConfiguration;
 import trader.entity.price.Price;
 import trader.presenter.Presenter;
@@ -14,5 +15,7 @@ public interface ExitStrategy {
 
     void setBrokerGateway(BrokerGateway brokerGateway);
 
+    void setCandleRepository(CandleRepository candleRepository);
+
     void setPresenter(Presenter presenter);
 }
@@ -23,7 +23,7 @@ public final class FullCloseExitStrategy extends BaseExitStrategy {
     }
 
     public void execute(Price price) {
-        updateCandlesService.updateCandles(brokerGateway, configuration);
+        updateCandlesService.updateCandles(candleRepository, configuration);
         BrokerTradeDetails tradeDetails = brokerGateway.getTradeDetails(FIRST_TRADE);
         movePositionToBreakEven(price, tradeDetails);
         closePosition(price, tradeDetails);
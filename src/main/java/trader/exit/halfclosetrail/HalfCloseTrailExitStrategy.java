@@ -38,7 +38,7 @@ public final class HalfCloseTrailExitStrategy extends BaseExitStrategy{
 
     @Override
     public void execute(Price price) {
-        updateCandlesService.updateCandles(brokerGateway, configuration);
+        updateCandlesService.updateCandles(candleRepository, configuration);
         BrokerTradeDetails tradeDetails = brokerGateway.getTradeDetails(FIRST_TRADE);
         movePositionToBreakEven(price, tradeDetails);
         closePositionFirstHalf(price, tradeDetails);
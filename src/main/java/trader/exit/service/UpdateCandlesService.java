@@ -1,21 +1,25 @@
 package trader.exit.service;
 
-import trader.broker.BrokerGateway;
+import trader.broker.candle.CandleRepository;
 import trader.strategy.TradingStrategyConfiguration;
 import trader.entity.candlestick.Candlestick;
+import trader.entity.series.RingSeries;
 
-import java.util.ArrayList;
+import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.List;
 
 public class UpdateCandlesService {
 
+    //the exit strategies look back two candles, 64 leave room for one that looks further, older ones are dropped
+    private static final int CANDLES_LOOKBACK = 64;
+
     private HashMap<String, String> settings;
-    private List<Candlestick> candlesticks;
+    private RingSeries<Candlestick> candlesticks;
 
     public UpdateCandlesService() {
         this.settings = new HashMap<>();
-        candlesticks = new ArrayList<>();
+        candlesticks = new RingSeries<>(CANDLES_LOOKBACK);
     }
 
     public List<Candlestick> getCandlesticks() {
@@ -26,17 +30,23 @@ public class UpdateCandlesService {
         return settings;
     }
 
-    public boolean updateCandles(BrokerGateway brokerGateway, TradingStrategyConfiguration configuration) {
+    public boolean updateCandles(CandleRepository candleRepository, TradingStrategyConfiguration configuration) {
         setCandlesQuantity(configuration);
-        setCandlesticks(brokerGateway.getCandles(settings));
+        setCandlesticks(candleRepository.getCandles(settings));
         return true;
     }
 
+    //an update adds only the candles that closed after the last one kept, the same candle is never kept twice
     private void setCandlesticks(List<Candlestick> candles) {
-        if(candlesticks.size() >0)
-            candlesticks.add(candles.get(candles.size()-1));
-        else
+        if(candlesticks.size() == 0) {
             candlesticks.addAll(candles);
+            return;
+        }
+        ZonedDateTime lastTime = candlesticks.get(candlesticks.size() - 1).getDateTime();
+        for (Candlestick candle : candles) {
+            if(candle.getDateTime().isAfter(lastTime))
+                candlesticks.add(candle);
+        }
     }
 
     private void setCandlesQuantity(TradingStrategyConfiguration configuration) {
@@ -41,6 +41,11 @@ public class CreateBGXConfigurationUseCase implements UseCase {
             setEntryStrategy(bgxConfiguration, settings);
             setOrderStrategy(bgxConfiguration, settings);
             setExitStrategy(bgxConfiguration, settings);
+            setPriceFeed(bgxConfiguration, settings);
+            setCandleStore(bgxConfiguration, settings);
+            setRollUp(bgxConfiguration, settings);
+            setMarketData(bgxConfiguration, settings);
+            setPolling(bgxConfiguration, settings);
         return bgxConfiguration;
     }
 
@@ -104,6 +109,57 @@ public class CreateBGXConfigurationUseCase implements UseCase {
         }
     }
 
+    void setPriceFeed(TradingStrategyConfiguration bgxConfiguration, Map<String, Map<String, String>> bgxSettings) {
+        if(fieldExist(bgxSettings, Constants.PRICE.toString())) {
+            Map<String, String> priceValues = bgxSettings.get(Constants.PRICE.toString());
+            if (fieldExist(priceValues, Constants.PRICE_FEED.toString()))
+                bgxConfiguration.setPriceFeed(getEntryValue(priceValues, Constants.PRICE_FEED.toString()));
+            if (fieldExist(priceValues, Constants.AGGREGATE_CANDLES.toString()))
+                bgxConfiguration.setAggregateCandles(getEntryValue(priceValues, Constants.AGGREGATE_CANDLES.toString()));
+            if (fieldExist(priceValues, Constants.DISPATCH.toString()))
+                bgxConfiguration.setObserverDispatch(getEntryValue(priceValues, Constants.DISPATCH.toString()));
+            if (fieldExist(priceValues, Constants.EVENT_BUS.toString()))
+                bgxConfiguration.setEventBus(getEntryValue(priceValues, Constants.EVENT_BUS.toString()));
+            if (fieldExist(priceValues, Constants.ADAPTIVE_POLLING.toString()))
+                bgxConfiguration.setAdaptivePolling(getEntryValue(priceValues, Constants.ADAPTIVE_POLLING.toString()));
+        }
+    }
+
+    void setCandleStore(TradingStrategyConfiguration bgxConfiguration, Map<String, Map<String, String>> bgxSettings) {
+        if(fieldExist(bgxSettings, Constants.CANDLE_STORE.toString())) {
+            Map<String, String> candleStoreValues = bgxSettings.get(Constants.CANDLE_STORE.toString());
+            if (fieldExist(candleStoreValues, Constants.DIRECTORY.toString()))
+                bgxConfiguration.setCandleStoreDirectory(getEntryValue(candleStoreValues, Constants.DIRECTORY.toString()));
+        }
+    }
+
+    void setRollUp(TradingStrategyConfiguration bgxConfiguration, Map<String, Map<String, String>> bgxSettings) {
+        if(fieldExist(bgxSettings, Constants.ROLL_UP.toString())) {
+            Map<String, String> rollUpValues = bgxSettings.get(Constants.ROLL_UP.toString());
+            if (fieldExist(rollUpValues, Constants.BASE_GRANULARITY.toString()))
+                bgxConfiguration.setRollUpGranularity(getEntryValue(rollUpValues, Constants.BASE_GRANULARITY.toString()));
+        }
+    }
+
+    void setMarketData(TradingStrategyConfiguration bgxConfiguration, Map<String, Map<String, String>> bgxSettings) {
+        if(fieldExist(bgxSettings, Constants.MARKET_DATA.toString())) {
+            Map<String, String> marketDataValues = bgxSettings.get(Constants.MARKET_DATA.toString());
+            if (fieldExist(marketDataValues, Constants.MODE.toString()))
+                bgxConfiguration.setMarketDataMode(getEntryValue(marketDataValues, Constants.MODE.toString()));
+            if (fieldExist(marketDataValues, Constants.DIRECTORY.toString()))
+                bgxConfiguration.setMarketDataDirectory(getEntryValue(marketDataValues, Constants.DIRECTORY.toString()));
+        }
+    }
+
+    //every entry is an instrument and its polling period, the default entry covers the other instruments
+    void setPolling(TradingStrategyConfiguration bgxConfiguration, Map<String, Map<String, String>> bgxSettings) {
+        if(fieldExist(bgxSettings, Constants.POLLING.toString())) {
+            Map<String, String> pollingValues = bgxSettings.get(Constants.POLLING.toString());
+            for (Map.Entry<String, String> entry : pollingValues.entrySet())
+                bgxConfiguration.setPollingPeriod(entry.getKey(), entry.getValue());
+        }
+    }
+
     private boolean fieldExist(Map<?, ?> collection, String fieldName) {
         return collection.containsKey(fieldName);
     }
@@ -102,5 +102,83 @@ public enum Constants {
         public String toString() {
             return "entryFilter";
         }
+    },
+    PRICE {
+        @Override
+        public String toString() {
+            return "price";
+        }
+    },
+    PRICE_FEED {
+        @Override
+        public String toString() {
+            return "priceFeed";
+        }
+    },
+    AGGREGATE_CANDLES {
+        @Override
+        public String toString() {
+            return "aggregateCandles";
+        }
+    },
+    DISPATCH {
+        @Override
+        public String toString() {
+            return "dispatch";
+        }
+    },
+    EVENT_BUS {
+        @Override
+        public String toString() {
+            return "eventBus";
+        }
+    },
+    CANDLE_STORE {
+        @Override
+        public String toString() {
+            return "candleStore";
+        }
+    },
+    DIRECTORY {
+        @Override
+        public String toString() {
+            return "directory";
+        }
+    },
+    ROLL_UP {
+        @Override
+        public String toString() {
+            return "rollUp";
+        }
+    },
+    BASE_GRANULARITY {
+        @Override
+        public String toString() {
+            return "baseGranularity";
+        }
+    },
+    MARKET_DATA {
+        @Override
+        public String toString() {
+            return "marketData";
+        }
+    },
+    MODE {
+        @Override
+        public String toString() {
+            return "mode";
+        }
+    },
+    ADAPTIVE_POLLING {
+        @Override
+        public String toString() {
+            return "adaptivePolling";
+        }
+    },
+    POLLING {
+        @Override
+        public String toString() {
+            return "polling";
+        }
     };
 }
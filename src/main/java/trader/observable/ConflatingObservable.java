@@ -0,0 +1,184 @@
+package trader.observable;
+
+import trader.entity.price.Price;
+import trader.exception.NullArgumentException;
+import trader.observer.Observer;
+import trader.presenter.Presenter;
+import trader.strategy.Observable;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands the prices of a source observable to the observers through a single slot that keeps only the newest price.
+ * The observers run one after another on their own thread, and while they are busy every new price replaces the
+ * waiting one, so they always act on the freshest price and a slow broker call can never build a backlog. A source
+ * observable takes the prices of one instrument, so the slot holds the newest price of that instrument. The
+ * replaced prices are counted, and the age of the waiting price tells how far the observers are behind. Observers
+ * that must see every tick, such as the ones building candles, are registered with
+ * {@link #registerTickObserver(Observer)} and run on the price thread before the price goes into the slot. An
+ * observer that fails on a price is reported and counted, and the observers after it still get the price.
+ */
+public final class ConflatingObservable implements Observable {
+
+    private static final long STOP_TIMEOUT_MILLIS = 10_000L;
+
+    private final Observable source;
+    private final Presenter presenter;
+    private final CopyOnWriteArrayList<Observer> observers;
+    private final CopyOnWriteArrayList<Observer> tickObservers;
+    private final AtomicReference<PendingPrice> pending;
+    private final AtomicLong droppedPrices;
+    private final AtomicLong failedUpdates;
+    private volatile Thread consumer;
+    private volatile boolean running;
+
+    public ConflatingObservable(Observable source, Presenter presenter) {
+        if(source == null || presenter == null)
+            throw new NullArgumentException();
+        this.source = source;
+        this.presenter = presenter;
+        this.observers = new CopyOnWriteArrayList<>();
+        this.tickObservers = new CopyOnWriteArrayList<>();
+        this.pending = new AtomicReference<>();
+        this.droppedPrices = new AtomicLong();
+        this.failedUpdates = new AtomicLong();
+    }
+
+    @Override
+    public void registerObserver(Observer observer) {
+        if(observer == null)
+            throw new NullArgumentException();
+        observers.add(observer);
+    }
+
+    //the observer gets every price on the price thread, before the observers behind the slot
+    public void registerTickObserver(Observer observer) {
+        if(observer == null)
+            throw new NullArgumentException();
+        tickObservers.add(observer);
+    }
+
+    @Override
+    public void unregisterObserver(Observer observer) {
+        if(observer != null) {
+            observers.remove(observer);
+            tickObservers.remove(observer);
+        }
+    }
+
+    /**
+     * Hands the price to the tick observers, then leaves it for the observers in place of a price they have not
+     * taken yet.
+     */
+    @Override
+    public void notifyObservers(Price price) {
+        if(price == null)
+            throw new NullArgumentException();
+        for (Observer tickObserver : tickObservers)
+            update(tickObserver, price);
+        if(pending.getAndSet(new PendingPrice(price, System.nanoTime())) != null)
+            droppedPrices.incrementAndGet();
+        Thread waiting = consumer;
+        if(waiting != null)
+            LockSupport.unpark(waiting);
+    }
+
+    /**
+     * Starts the observer thread and runs the source on the calling thread.
+     */
+    @Override
+    public void execute() {
+        running = true;
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                consume();
+            }
+        }, "ConflatingObserver");
+        thread.setDaemon(true);
+        consumer = thread;
+        thread.start();
+        source.registerObserver(new Observer() {
+            @Override
+            public void updateObserver(Price price) {
+                notifyObservers(price);
+            }
+        });
+        source.execute();
+    }
+
+    //the source stops first, the observers are stopped after the price they are working on
+    @Override
+    public void stop() {
+        source.stop();
+        shutdown();
+    }
+
+    //waits up to ten seconds for the observers to finish the price they are working on
+    public void shutdown() {
+        running = false;
+        Thread waiting = consumer;
+        if(waiting == null)
+            return;
+        LockSupport.unpark(waiting);
+        if(waiting == Thread.currentThread())
+            return;
+        try {
+            waiting.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //the prices replaced before the observers took them
+    public long getDroppedPrices() {
+        return droppedPrices.get();
+    }
+
+    //the prices an observer failed on
+    public long getFailedUpdates() {
+        return failedUpdates.get();
+    }
+
+    //how long the waiting price has waited for the observers, 0 when no price is waiting
+    public long getStalePriceAgeMillis() {
+        PendingPrice waiting = pending.get();
+        return waiting == null ? 0L : (System.nanoTime() - waiting.arrivalNanos) / 1_000_000L;
+    }
+
+    private void consume() {
+        while(running && !Thread.currentThread().isInterrupted()) {
+            PendingPrice next = pending.getAndSet(null);
+            if(next == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            for (Observer observer : observers)
+                update(observer, next.price);
+        }
+    }
+
+    //an observer failing on one price must not stop the prices after it
+    private void update(Observer observer, Price price) {
+        try {
+            observer.updateObserver(price);
+        } catch (RuntimeException e) {
+            failedUpdates.incrementAndGet();
+            presenter.execute("Price update failed: " + e);
+        }
+    }
+
+    private static final class PendingPrice {
+
+        private final Price price;
+        private final long arrivalNanos;
+
+        PendingPrice(Price price, long arrivalNanos) {
+            this.price = price;
+            this.arrivalNanos = arrivalNanos;
+        }
+    }
+}
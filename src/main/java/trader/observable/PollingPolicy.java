@@ -0,0 +1,119 @@
+package trader.observable;
+
+import trader.entity.price.Price;
+import trader.exception.NullArgumentException;
+import trader.exception.UnderflowException;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Chooses how long to wait before the next price poll. While a trade or order is open, or the price has moved a lot
+ * in the last minute, the prices are polled every 250 milliseconds. In the quiet hours before London opens they are
+ * polled at four times the configured period, and during the rest of the trading day at the configured period.
+ * Between the weekly close on Friday at 17:00 New York time and the weekly open on Sunday at 17:00 polling almost
+ * stops, and it returns to the configured period a minute before the open.
+ */
+public final class PollingPolicy {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    private static final LocalTime WEEKLY_OPEN = LocalTime.of(17, 0);
+    private static final LocalTime LONDON_OPEN = LocalTime.of(3, 0);
+    private static final long ACTIVE_PERIOD = 250L;
+    private static final long QUIET_FACTOR = 4L;
+    private static final long MAX_CLOSED_PERIOD = 900_000L;
+    private static final Duration OPEN_LEAD = Duration.ofMinutes(1);
+    private static final Duration VOLATILITY_WINDOW = Duration.ofMinutes(1);
+    private static final BigDecimal VOLATILE_RANGE = BigDecimal.valueOf(0.0005);
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private final long basePeriod;
+    private final Deque<Quote> quotes;
+    private boolean positionOpen;
+    private boolean tradable;
+
+    public PollingPolicy(long basePeriod) {
+        if(basePeriod <= 0)
+            throw new UnderflowException();
+        this.basePeriod = basePeriod;
+        this.quotes = new ArrayDeque<>();
+        this.tradable = true;
+    }
+
+    /**
+     * Records the polled price and whether a trade or order is open.
+     */
+    public void update(Price price, boolean positionOpen, ZonedDateTime time) {
+        if(price == null || time == null)
+            throw new NullArgumentException();
+        this.positionOpen = positionOpen;
+        this.tradable = price.isTradable();
+        if(tradable && price.getAsk() != null && price.getBid() != null)
+            quotes.addLast(new Quote(time, price.getAsk().add(price.getBid()).divide(TWO)));
+        while(!quotes.isEmpty() && quotes.peekFirst().time.isBefore(time.minus(VOLATILITY_WINDOW)))
+            quotes.removeFirst();
+    }
+
+    public long nextPeriod(ZonedDateTime time) {
+        if(time == null)
+            throw new NullArgumentException();
+        ZonedDateTime marketTime = time.withZoneSameInstant(NEW_YORK);
+        if(isWeekend(marketTime))
+            return untilWeeklyOpen(marketTime);
+        if(tradable && (positionOpen || isVolatile()))
+            return Math.min(ACTIVE_PERIOD, basePeriod);
+        //an untradable price on a trading day is a holiday, it is polled like a quiet session
+        if(!tradable || isQuietSession(marketTime))
+            return basePeriod * QUIET_FACTOR;
+        return basePeriod;
+    }
+
+    private boolean isWeekend(ZonedDateTime time) {
+        DayOfWeek day = time.getDayOfWeek();
+        boolean afterWeeklyClose = day == DayOfWeek.FRIDAY && !time.toLocalTime().isBefore(WEEKLY_OPEN);
+        boolean beforeWeeklyOpen = day == DayOfWeek.SUNDAY && time.toLocalTime().isBefore(WEEKLY_OPEN);
+        return afterWeeklyClose || day == DayOfWeek.SATURDAY || beforeWeeklyOpen;
+    }
+
+    //the trading day starts at 17:00 and is quiet until London opens
+    private boolean isQuietSession(ZonedDateTime time) {
+        LocalTime localTime = time.toLocalTime();
+        return !localTime.isBefore(WEEKLY_OPEN) || localTime.isBefore(LONDON_OPEN);
+    }
+
+    private boolean isVolatile() {
+        if(quotes.size() < 2)
+            return false;
+        BigDecimal high = quotes.peekFirst().mid;
+        BigDecimal low = high;
+        for (Quote quote : quotes) {
+            high = high.max(quote.mid);
+            low = low.min(quote.mid);
+        }
+        return high.subtract(low).compareTo(VOLATILE_RANGE) >= 0;
+    }
+
+    private long untilWeeklyOpen(ZonedDateTime time) {
+        ZonedDateTime weeklyOpen = time.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)).with(WEEKLY_OPEN);
+        long untilOpen = Duration.between(time, weeklyOpen.minus(OPEN_LEAD)).toMillis();
+        return Math.max(basePeriod, Math.min(MAX_CLOSED_PERIOD, untilOpen));
+    }
+
+    private static final class Quote {
+
+        private final ZonedDateTime time;
+        private final BigDecimal mid;
+
+        Quote(ZonedDateTime time, BigDecimal mid) {
+            this.time = time;
+            this.mid = mid;
+        }
+    }
+}
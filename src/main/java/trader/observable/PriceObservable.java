@@ -1,33 +1,71 @@
 package trader.observable;
 
 import trader.broker.BrokerGateway;
+import trader.observable.enums.PriceFeed;
+import trader.presenter.Presenter;
 import trader.strategy.TradingStrategyConfiguration;
 import trader.observer.Observer;
+import trader.observer.PositionObserver;
 import trader.exception.NullArgumentException;
 import trader.entity.price.Price;
 import trader.entity.price.PriceImpl;
 import trader.strategy.Observable;
 
+import java.time.ZonedDateTime;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 
+/**
+ * Takes the prices of the configured instrument from the broker's price stream, or polls them at the fixed rate
+ * configured for the instrument, and passes every new tradable price to the observers. The first poll runs on the
+ * calling thread, the later ones on a {@link TickScheduler}. With adaptive polling a {@link PollingPolicy} changes
+ * the period after every poll, and whether a position is open is taken from the {@link PositionObserver}, so no
+ * broker request is added to the poll. Stopping ends the stream, lets the running poll finish and waits up to ten seconds
+ * for {@link #execute()} to return.
+ */
 public final class PriceObservable implements Observable {
 
-    private long threadSleepInterval = 1000L;
+    private static final long STOP_TIMEOUT_MILLIS = 10_000L;
+
+    private long pollingPeriod;
     private BrokerGateway brokerGateway;
     private Price oldPrice;
     private CopyOnWriteArrayList<Observer> observers;
     private TradingStrategyConfiguration configuration;
+    private Presenter presenter;
+    private final TickScheduler scheduler;
+    private PollingPolicy pollingPolicy;
+    private PositionObserver positionObserver;
+    private final CountDownLatch finished;
+    private volatile Thread executingThread;
+    private volatile Thread streamingThread;
+    private volatile boolean stopped;
 
-    private PriceObservable(BrokerGateway brokerGateway, TradingStrategyConfiguration configuration){
+    private PriceObservable(BrokerGateway brokerGateway, TradingStrategyConfiguration configuration, Presenter presenter){
         this.brokerGateway = brokerGateway;
+        this.presenter = presenter;
         oldPrice = new PriceImpl.PriceBuilder().build();
         observers = new CopyOnWriteArrayList<>();
         this.configuration = configuration;
+        this.pollingPeriod = configuration.getPollingPeriod(configuration.getInstrument());
+        this.scheduler = new TickScheduler("PricePoll", presenter);
+        this.finished = new CountDownLatch(1);
+    }
+
+    public static PriceObservable create(BrokerGateway brokerGateway, TradingStrategyConfiguration configuration, Presenter presenter){
+        return create(brokerGateway, configuration, presenter, null);
     }
 
-    public static PriceObservable create(BrokerGateway brokerGateway, TradingStrategyConfiguration configuration){
-        return new PriceObservable(brokerGateway, configuration);
+    //without a position observer adaptive polling takes no position as open
+    public static PriceObservable create(BrokerGateway brokerGateway, TradingStrategyConfiguration configuration, Presenter presenter,
+                                         PositionObserver positionObserver){
+        PriceObservable observable = new PriceObservable(brokerGateway, configuration, presenter);
+        observable.positionObserver = positionObserver;
+        if(configuration.isAdaptivePolling())
+            observable.pollingPolicy = new PollingPolicy(observable.pollingPeriod);
+        return observable;
     }
 
     @Override
@@ -51,25 +89,111 @@ public final class PriceObservable implements Observable {
 
     @Override
     public void execute() {
-        while(true){
-            Price newPrice = brokerGateway.getPrice(configuration.getInstrument());
-            notifyEveryone(newPrice);
-            sleepThread(threadSleepInterval);
+        executingThread = Thread.currentThread();
+        try {
+            if (PriceFeed.STREAM.equals(configuration.getPriceFeed()))
+                streamPrices();
+            if(stopped)
+                return;
+            //polling is the fallback when the stream is unavailable
+            poll();
+            if(!startPolling())
+                return;
+            scheduler.awaitStop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (this) {
+            stopped = true;
+        }
+        scheduler.stop(STOP_TIMEOUT_MILLIS);
+        //a price stream ends when the thread reading it is interrupted
+        Thread thread = streamingThread;
+        if(thread != null)
+            thread.interrupt();
+        awaitExecute();
+    }
+
+    //the polls that were due while a slow poll was still running
+    public long getMissedPolls() {
+        return scheduler.getMissedTicks();
+    }
+
+    private void streamPrices() {
+        streamingThread = Thread.currentThread();
+        try {
+            if(!stopped)
+                brokerGateway.streamPrices(configuration.getInstrument(), new StreamedPriceObserver());
+        } catch (RuntimeException e) {
+            presenter.execute("Price stream failed, polling prices: " + e);
+        } finally {
+            streamingThread = null;
         }
     }
 
+    //a stop during the first poll comes before the start or after it, never between the check and the start
+    private synchronized boolean startPolling() {
+        if(stopped)
+            return false;
+        scheduler.start(new Runnable() {
+            @Override
+            public void run() {
+                poll();
+            }
+        }, pollingPeriod);
+        return true;
+    }
+
+    //an observer stopping the observable on the price thread does not wait for itself
+    private void awaitExecute() {
+        Thread executing = executingThread;
+        if(executing == null || executing == Thread.currentThread())
+            return;
+        try {
+            finished.await(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void poll() {
+        Price newPrice = brokerGateway.getPrice(configuration.getInstrument());
+        notifyEveryone(newPrice);
+        if(pollingPolicy != null)
+            adaptPollingPeriod(newPrice);
+    }
+
+    //behind an event bus the position observer may not have taken the last price yet, the flag is then a price old
+    private void adaptPollingPeriod(Price newPrice) {
+        boolean positionOpen = positionObserver != null && positionObserver.isPositionOpen();
+        ZonedDateTime now = ZonedDateTime.now();
+        pollingPolicy.update(newPrice, positionOpen, now);
+        long period = pollingPolicy.nextPeriod(now);
+        if(scheduler.isRunning())
+            scheduler.setPeriod(period);
+        else
+            pollingPeriod = period;
+    }
+
     private void notifyEveryone(Price newPrice) {
         if (newPrice.isTradable() && !newPrice.equals(oldPrice)) {
             oldPrice = newPrice;
+            brokerGateway.invalidateAccountSnapshot();
             this.notifyObservers(newPrice);
         }
     }
 
-    private void sleepThread(long sleepInterval){
-        try {
-            Thread.sleep(sleepInterval);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+    private final class StreamedPriceObserver implements Observer {
+
+        @Override
+        public void updateObserver(Price price) {
+            notifyEveryone(price);
         }
     }
 }
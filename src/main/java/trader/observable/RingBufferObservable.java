@@ -0,0 +1,245 @@
+package trader.observable;
+
+import trader.entity.price.Price;
+import trader.exception.BadRequestException;
+import trader.exception.NullArgumentException;
+import trader.observable.enums.EventBus;
+import trader.observer.Observer;
+import trader.presenter.Presenter;
+import trader.strategy.Observable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands the prices of a source observable to the observers through a preallocated ring of reused slots, so the
+ * thread taking prices from the broker never runs the observers itself. Every registered observer consumes the
+ * ring on its own thread, and it sees a price only after the observer registered before it is done with it: the
+ * stage of an observer reads no further than the sequence of the stage before it. The observers therefore see
+ * each price in the order they registered, as they would on one thread, so an observer registered after the
+ * indicators never acts on a price the indicators have not taken yet. A slow observer holds up only the ones
+ * after it, and an observer that fails on a price is reported and counted and still passes the price on. The
+ * source thread is the only producer; it waits only when the slowest observer is a whole ring behind. How the
+ * threads wait for each other is chosen by the {@link EventBus} mode: blocking on a lock, yielding, or busy spinning.
+ */
+public final class RingBufferObservable implements Observable {
+
+    private static final long INITIAL_SEQUENCE = -1L;
+    private static final long STOP_TIMEOUT_MILLIS = 10_000L;
+
+    private final Observable source;
+    private final EventBus mode;
+    private final Presenter presenter;
+    private final PriceEvent[] slots;
+    private final int mask;
+    private final AtomicLong cursor;
+    private final List<Stage> stages;
+    private final List<Thread> threads;
+    private final ReentrantLock lock;
+    private final Condition advanced;
+    private final AtomicLong failedUpdates;
+    private volatile boolean running;
+
+    public RingBufferObservable(Observable source, int capacity, EventBus mode, Presenter presenter) {
+        if(source == null || mode == null || presenter == null)
+            throw new NullArgumentException();
+        if(capacity < 2 || Integer.bitCount(capacity) != 1 || mode == EventBus.OFF || mode == EventBus.CONFLATING)
+            throw new BadRequestException();
+        this.source = source;
+        this.mode = mode;
+        this.presenter = presenter;
+        this.slots = new PriceEvent[capacity];
+        for (int i = 0; i < capacity; i++)
+            slots[i] = new PriceEvent();
+        this.mask = capacity - 1;
+        this.cursor = new AtomicLong(INITIAL_SEQUENCE);
+        this.stages = new ArrayList<>();
+        this.threads = new ArrayList<>();
+        this.lock = new ReentrantLock();
+        this.advanced = lock.newCondition();
+        this.failedUpdates = new AtomicLong();
+    }
+
+    //observers join before the ring runs, each after the one registered before it
+    @Override
+    public synchronized void registerObserver(Observer observer) {
+        if(observer == null)
+            throw new NullArgumentException();
+        if(running)
+            throw new BadRequestException();
+        AtomicLong dependency = stages.isEmpty() ? cursor : stages.get(stages.size() - 1).sequence;
+        stages.add(new Stage(observer, dependency));
+    }
+
+    //the stage of the observer stays in the ring and passes the prices on without calling it
+    @Override
+    public synchronized void unregisterObserver(Observer observer) {
+        for (Stage stage : stages)
+            if(stage.observer == observer)
+                stage.active = false;
+    }
+
+    /**
+     * Publishes the price to the ring. Only the source thread calls it.
+     */
+    @Override
+    public void notifyObservers(Price price) {
+        if(price == null)
+            throw new NullArgumentException();
+        long next = cursor.get() + 1;
+        if(!stages.isEmpty()) {
+            AtomicLong last = stages.get(stages.size() - 1).sequence;
+            int idle = 0;
+            while(next - last.get() > slots.length && running && !Thread.currentThread().isInterrupted())
+                idle = waitFor(idle);
+        }
+        slots[(int) next & mask].price = price;
+        cursor.lazySet(next);
+        signal();
+    }
+
+    /**
+     * Starts one thread per observer and runs the source on the calling thread.
+     */
+    @Override
+    public void execute() {
+        synchronized (this) {
+            running = true;
+            for (int i = 0; i < stages.size(); i++) {
+                Thread thread = new Thread(stages.get(i), "RingBufferObserver-" + (i + 1));
+                thread.setDaemon(true);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+        source.registerObserver(new Observer() {
+            @Override
+            public void updateObserver(Price price) {
+                notifyObservers(price);
+            }
+        });
+        source.execute();
+    }
+
+    //the source stops first, the observers are stopped after the price they are working on
+    @Override
+    public void stop() {
+        source.stop();
+        shutdown();
+    }
+
+    //waits up to ten seconds for the observers to finish the price they are working on
+    public void shutdown() {
+        running = false;
+        signal();
+        List<Thread> stageThreads;
+        synchronized (this) {
+            stageThreads = new ArrayList<>(threads);
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STOP_TIMEOUT_MILLIS);
+        try {
+            for (Thread thread : stageThreads) {
+                long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if(left <= 0)
+                    return;
+                //an observer stopping the ring on its own thread does not wait for itself
+                if(thread != Thread.currentThread())
+                    thread.join(left);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //the prices an observer failed on
+    public long getFailedUpdates() {
+        return failedUpdates.get();
+    }
+
+    private void signal() {
+        if(mode != EventBus.BLOCKING)
+            return;
+        lock.lock();
+        try {
+            advanced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //one wait of the mode, the yielding mode spins a hundred rounds before it yields
+    private int waitFor(int idle) {
+        if(mode == EventBus.BUSY_SPIN)
+            return idle;
+        if(mode == EventBus.YIELDING) {
+            if(idle < 100)
+                return idle + 1;
+            Thread.yield();
+            return idle;
+        }
+        lock.lock();
+        try {
+            //a signal between the check and the wait is missed, the timeout bounds the delay
+            advanced.awaitNanos(1_000_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        return idle;
+    }
+
+    private final class Stage implements Runnable {
+
+        private final Observer observer;
+        private final AtomicLong dependency;
+        private final AtomicLong sequence;
+        private volatile boolean active;
+
+        Stage(Observer observer, AtomicLong dependency) {
+            this.observer = observer;
+            this.dependency = dependency;
+            this.sequence = new AtomicLong(INITIAL_SEQUENCE);
+            this.active = true;
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int idle = 0;
+            while(running && !Thread.currentThread().isInterrupted()) {
+                long available = dependency.get();
+                if(available < next) {
+                    idle = waitFor(idle);
+                    continue;
+                }
+                idle = 0;
+                for (; next <= available; next++)
+                    update(slots[(int) next & mask].price);
+                sequence.lazySet(available);
+                signal();
+            }
+        }
+
+        //an observer failing on one price must not stop the prices after it
+        private void update(Price price) {
+            if(!active)
+                return;
+            try {
+                observer.updateObserver(price);
+            } catch (RuntimeException e) {
+                failedUpdates.incrementAndGet();
+                presenter.execute("Price update failed: " + e);
+            }
+        }
+    }
+
+    private static final class PriceEvent {
+
+        private Price price;
+    }
+}
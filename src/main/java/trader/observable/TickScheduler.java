@@ -0,0 +1,157 @@
+package trader.observable;
+
+import trader.exception.NullArgumentException;
+import trader.presenter.Presenter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a task at a fixed rate on a named scheduler thread. Ticks are due at whole periods from the start, so the
+ * time the task takes does not move the next tick. A tick that is not reached because the task before it ran too
+ * long is skipped and counted as missed, instead of being run late in a burst. A tick that fails is reported and
+ * counted, and the ticks after it still run. Stopping lets the running tick finish and starts no new one.
+ */
+public final class TickScheduler {
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Presenter presenter;
+    private final AtomicLong ticks;
+    private final AtomicLong missedTicks;
+    private final AtomicLong failedTicks;
+    private final CountDownLatch stopped;
+    private Runnable task;
+    private long periodNanos;
+    private long startNanos;
+    private long lastTick;
+    private volatile boolean running;
+
+    public TickScheduler(final String name, Presenter presenter) {
+        if(name == null || presenter == null)
+            throw new NullArgumentException();
+        this.presenter = presenter;
+        this.executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        //the waiting tick is dropped on stop, only a running one is waited for
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.ticks = new AtomicLong();
+        this.missedTicks = new AtomicLong();
+        this.failedTicks = new AtomicLong();
+        this.stopped = new CountDownLatch(1);
+    }
+
+    /**
+     * Runs the task every period, the first time one period after the start.
+     */
+    public synchronized void start(Runnable task, long periodMillis) {
+        if(task == null)
+            throw new NullArgumentException();
+        if(periodMillis <= 0 || running || stopped.getCount() == 0)
+            throw new IllegalArgumentException();
+        this.task = task;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        this.startNanos = System.nanoTime();
+        this.lastTick = 0L;
+        this.running = true;
+        scheduleNext();
+    }
+
+    /**
+     * Changes the period from the tick that is due or running, the ticks after it are due at whole new periods.
+     */
+    public synchronized void setPeriod(long periodMillis) {
+        if(periodMillis <= 0)
+            throw new IllegalArgumentException();
+        long newPeriodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        if(!running || newPeriodNanos == periodNanos)
+            return;
+        startNanos += lastTick * periodNanos;
+        lastTick = 0L;
+        periodNanos = newPeriodNanos;
+    }
+
+    public synchronized long getPeriodMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(periodNanos);
+    }
+
+    /**
+     * Starts no new tick and waits up to the timeout for the running one to finish.
+     */
+    public void stop(long timeoutMillis) {
+        synchronized (this) {
+            running = false;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            stopped.countDown();
+        }
+    }
+
+    //blocks the calling thread until the scheduler is stopped
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getTicks() {
+        return ticks.get();
+    }
+
+    public long getMissedTicks() {
+        return missedTicks.get();
+    }
+
+    public long getFailedTicks() {
+        return failedTicks.get();
+    }
+
+    private void tick() {
+        if(!running)
+            return;
+        ticks.incrementAndGet();
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            //a failing tick must not cancel the ticks after it
+            failedTicks.incrementAndGet();
+            presenter.execute("Scheduled task failed: " + e);
+        } finally {
+            scheduleNext();
+        }
+    }
+
+    private synchronized void scheduleNext() {
+        if(!running)
+            return;
+        long now = System.nanoTime();
+        long nextTick = Math.max(lastTick + 1, (now - startNanos) / periodNanos + 1);
+        missedTicks.addAndGet(nextTick - lastTick - 1);
+        lastTick = nextTick;
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        }, startNanos + nextTick * periodNanos - now, TimeUnit.NANOSECONDS);
+    }
+}
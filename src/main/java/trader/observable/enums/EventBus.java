@@ -0,0 +1,9 @@
+package trader.observable.enums;
+
+public enum EventBus {
+    OFF,
+    CONFLATING,
+    BLOCKING,
+    YIELDING,
+    BUSY_SPIN
+}
@@ -0,0 +1,6 @@
+package trader.observable.enums;
+
+public enum PriceFeed {
+    STREAM,
+    POLL
+}
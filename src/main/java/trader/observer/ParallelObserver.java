@@ -0,0 +1,93 @@
+package trader.observer;
+
+import trader.entity.price.Price;
+import trader.exception.NullArgumentException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Passes every price to a group of independent observers at once and returns only when all of them are done, so
+ * the observers registered after the group see everything the group did. Indicator updates that each wait for a
+ * candle download then cost the slowest download instead of the sum of them. The calling thread updates the last
+ * observer itself, the others run on one pool thread each. When observers fail, the first failure is rethrown
+ * after the whole group is done.
+ */
+public final class ParallelObserver implements Observer {
+
+    private final List<Observer> observers;
+    private final ExecutorService executor;
+
+    public ParallelObserver(List<Observer> observers) {
+        if(observers == null || observers.contains(null))
+            throw new NullArgumentException();
+        this.observers = Collections.unmodifiableList(new ArrayList<>(observers));
+        //the observers block on broker calls, so every one gets its own thread instead of a fork join worker
+        this.executor = Executors.newFixedThreadPool(Math.max(1, observers.size() - 1), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ParallelObserver-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public List<Observer> getObservers() {
+        return observers;
+    }
+
+    @Override
+    public void updateObserver(final Price price) {
+        if(price == null)
+            throw new NullArgumentException();
+        if(observers.isEmpty())
+            return;
+        List<Future<?>> updates = new ArrayList<>(observers.size() - 1);
+        for (final Observer observer : observers.subList(0, observers.size() - 1))
+            updates.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    observer.updateObserver(price);
+                }
+            }));
+        RuntimeException failure = null;
+        try {
+            observers.get(observers.size() - 1).updateObserver(price);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        for (Future<?> update : updates)
+            failure = await(update, failure);
+        if(failure != null)
+            throw failure;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private RuntimeException await(Future<?> update, RuntimeException failure) {
+        try {
+            update.get();
+            return failure;
+        } catch (InterruptedException e) {
+            update.cancel(true);
+            Thread.currentThread().interrupt();
+            return failure;
+        } catch (ExecutionException e) {
+            if(failure != null)
+                return failure;
+            return e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+        }
+    }
+}
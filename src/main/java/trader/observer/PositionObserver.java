@@ -19,6 +19,7 @@ public class PositionObserver extends BaseObserver {
     private EntryStrategy entryStrategy;
     private OrderStrategy orderStrategy;
     private ExitStrategy exitStrategy;
+    private volatile boolean positionOpen;
 
     public PositionObserver(BrokerGateway brokerGateway,
                             EntryStrategy entryStrategy,
@@ -36,11 +37,19 @@ public class PositionObserver extends BaseObserver {
 
     @Override
     public void updateObserver(Price price) {
-        if(brokerGateway.totalOpenTradesSize() > 0){
+        int openTrades = brokerGateway.totalOpenTradesSize();
+        int openOrders = brokerGateway.totalOpenOrdersSize();
+        positionOpen = openTrades > 0 || openOrders > 0;
+        if(openTrades > 0){
             exitStrategy.execute(price);
-        }else if(brokerGateway.totalOpenOrdersSize() > 0) {
-            orderStrategy.closeUnfilledOrders(brokerGateway, price);
-        }else if(brokerGateway.totalOpenTradesSize() == 0 && brokerGateway.totalOpenOrdersSize() == 0){
+        }else if(openOrders > 0) {
+            //a new signal replaces the pending order, an order that was not replaced is checked against the price
+            Trade newTrade = entryStrategy.generateTrade();
+            if(newTrade != null)
+                setTradableForThreshold(price, newTrade);
+            if(newTrade == null || !isTradable(newTrade) || !orderStrategy.placeTradeAsOrder(brokerGateway, price, newTrade, configuration))
+                orderStrategy.closeUnfilledOrders(brokerGateway, price);
+        }else {
             Trade newTrade = entryStrategy.generateTrade();
             setTradableForThreshold(price, newTrade);
             if(isTradable(newTrade))
@@ -48,6 +57,11 @@ public class PositionObserver extends BaseObserver {
         }
     }
 
+    //whether a trade or order was open at the last price, read without a broker call
+    public boolean isPositionOpen() {
+        return positionOpen;
+    }
+
     private boolean isTradable(Trade newTrade) {
         return newTrade.getTradable() && !newTrade.getDirection().equals(Direction.FLAT);
     }
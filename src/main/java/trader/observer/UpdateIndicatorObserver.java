@@ -1,6 +1,6 @@
 package trader.observer;
 
-import trader.broker.BrokerGateway;
+import trader.broker.candle.CandleRepository;
 import trader.strategy.TradingStrategyConfiguration;
 import trader.controller.enums.SettingsFieldNames;
 import trader.entity.candlestick.Candlestick;
@@ -11,7 +11,7 @@ import trader.entity.price.Price;
 import java.util.HashMap;
 import java.util.List;
 
-public final class UpdateIndicatorObserver extends BaseObserver {
+public final class UpdateIndicatorObserver implements Observer {
 
     private static final String INSTRUMENT = SettingsFieldNames.INSTRUMENT.toString();
     private static final String QUANTITY = SettingsFieldNames.QUANTITY.toString();
@@ -20,12 +20,14 @@ public final class UpdateIndicatorObserver extends BaseObserver {
 
     private final Indicator indicator;
     private final TradingStrategyConfiguration configuration;
+    private final CandleRepository candleRepository;
     private HashMap<String, String> settings;
+    private Candlestick lastUpdateCandle;
 
-    public UpdateIndicatorObserver(Indicator indicator, TradingStrategyConfiguration configuration, BrokerGateway gateway){
-        super(gateway);
-        if(configuration == null || indicator == null)
+    public UpdateIndicatorObserver(Indicator indicator, TradingStrategyConfiguration configuration, CandleRepository candleRepository){
+        if(configuration == null || indicator == null || candleRepository == null)
             throw new NullArgumentException();
+        this.candleRepository = candleRepository;
         this.configuration = configuration;
         this.indicator = indicator;
         this.settings = initializeSettings();
@@ -36,10 +38,20 @@ public final class UpdateIndicatorObserver extends BaseObserver {
         if (price == null)
             throw new NullArgumentException();
         setUpdateQuantityInSettings();
-        List<Candlestick> candles = brokerGateway.getCandles(settings);
+        List<Candlestick> candles = candleRepository.getCandles(settings);
+        if(isAlreadyUpdated(candles))
+            return;
         indicator.updateIndicator(candles);
     }
 
+    //between candle closes the repository returns the same candles, so the indicator is already up to date
+    private boolean isAlreadyUpdated(List<Candlestick> candles) {
+        Candlestick lastCandle = candles.isEmpty() ? null : candles.get(candles.size() - 1);
+        boolean updated = lastCandle != null && lastCandle == lastUpdateCandle && indicator.getValues().size() != 0;
+        lastUpdateCandle = lastCandle;
+        return updated;
+    }
+
     private void setUpdateQuantityInSettings() {
         if(indicator.getValues().size() != 0)
             settings.put(QUANTITY, String.valueOf(configuration.getUpdateCandlesQuantity()));
@@ -10,7 +10,8 @@ import java.math.BigDecimal;
 
 public interface OrderStrategy {
 
-    void placeTradeAsOrder(BrokerGateway brokerGateway, Price price, Trade trade, TradingStrategyConfiguration configuration);
+    //returns whether an order was placed or a pending one replaced
+    boolean placeTradeAsOrder(BrokerGateway brokerGateway, Price price, Trade trade, TradingStrategyConfiguration configuration);
 
     BigDecimal calculateUnitsSize(BrokerGateway brokerGateway, Price price, Trade trade, TradingStrategyConfiguration configuration);
 
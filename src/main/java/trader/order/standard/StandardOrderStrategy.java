@@ -6,6 +6,7 @@ import trader.entity.order.Order;
 import trader.entity.order.enums.OrderType;
 import trader.entity.trade.Direction;
 import trader.entity.trade.Trade;
+import trader.exception.BadRequestException;
 import trader.exception.EmptyArgumentException;
 import trader.exception.NullArgumentException;
 import trader.order.OrderStrategy;
@@ -47,7 +48,7 @@ public class StandardOrderStrategy implements OrderStrategy {
     }
 
     @Override
-    public void placeTradeAsOrder(BrokerGateway brokerGateway, Price price, Trade trade, TradingStrategyConfiguration configuration){
+    public boolean placeTradeAsOrder(BrokerGateway brokerGateway, Price price, Trade trade, TradingStrategyConfiguration configuration){
         if(brokerGateway == null || price == null || trade == null || configuration == null)
             throw new NullArgumentException();
 
@@ -57,17 +58,26 @@ public class StandardOrderStrategy implements OrderStrategy {
         BigDecimal futureMargin = brokerGateway.getMarginUsed().add(tradeMargin).setScale(5, BigDecimal.ROUND_HALF_UP);
         if (availableMargin.compareTo(futureMargin)>0 && isNotZero(unitsSize)){
             HashMap<String, String> settings = gatherOrderSettings(trade, configuration, unitsSize);
+            Order pendingOrder = brokerGateway.getOrder(OrderType.MARKET_IF_TOUCHED);
+            if(pendingOrder != null)
+                return replacePendingOrder(brokerGateway, pendingOrder, settings, trade, unitsSize);
             lastOrderTransactionID = brokerGateway.placeOrder(settings, MARKET_IF_TOUCHED_ORDER);
             presenter.execute( "ORDER",configuration.getInstrument(),trade.toString(), unitsSize.toString());
+            return true;
         }
+        return false;
     }
 
     @Override
     public BigDecimal calculateUnitsSize(BrokerGateway brokerGateway, Price price, Trade trade, TradingStrategyConfiguration configuration) {
         if(brokerGateway == null || price == null || trade == null || configuration == null)
             throw new NullArgumentException();
+        return calculateUnitsSize(brokerGateway.getBalance(), price, trade, configuration);
+    }
+
+    private BigDecimal calculateUnitsSize(BigDecimal balance, Price price, Trade trade, TradingStrategyConfiguration configuration) {
         //(balance * risk)/(stopSize*pipValue)
-        BigDecimal unitsSize = multiply(brokerGateway.getBalance(), configuration.getRiskPerTrade());
+        BigDecimal unitsSize = multiply(balance, configuration.getRiskPerTrade());
         BigDecimal divider = multiply(calculateStopSize(trade), getPipValue(price));
         //for short trades units must be negative number
         if(isShort(trade))
@@ -113,6 +123,31 @@ public class StandardOrderStrategy implements OrderStrategy {
         this.presenter = presenter;
     }
 
+    //a new signal moves the pending order in one request, the same signal leaves it alone
+    private boolean replacePendingOrder(BrokerGateway brokerGateway, Order pendingOrder, HashMap<String, String> settings, Trade trade, BigDecimal unitsSize) {
+        if(isSameOrder(pendingOrder, trade, unitsSize))
+            return false;
+        try {
+            lastOrderTransactionID = brokerGateway.replaceOrder(pendingOrder.getId(), settings);
+            presenter.execute("ORDER REPLACED", settings.get(INSTRUMENT), trade.toString(), unitsSize.toString());
+            return true;
+        } catch (BadRequestException e) {
+            presenter.execute("Order replace rejected");
+            return false;
+        }
+    }
+
+    //prices are compared to the pipette, the broker may send them back with another scale
+    private boolean isSameOrder(Order order, Trade trade, BigDecimal unitsSize) {
+        return order.getUnits().compareTo(unitsSize) == 0
+                && toPipette(order.getPrice()).compareTo(toPipette(trade.getEntryPrice())) == 0
+                && toPipette(order.getStopLossPrice()).compareTo(toPipette(trade.getStopLossPrice())) == 0;
+    }
+
+    private BigDecimal toPipette(BigDecimal price) {
+        return price.setScale(5, BigDecimal.ROUND_HALF_UP);
+    }
+
     private BigDecimal calculateStopLossAndPriceDelta(Order order, Price price){
         BigDecimal delta = null;
         if(order.getUnits().compareTo(BigDecimal.ZERO) < 0)
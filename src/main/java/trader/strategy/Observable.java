@@ -9,5 +9,7 @@ public interface Observable {
     void unregisterObserver(Observer observer);
     void notifyObservers(Price price);
     void execute();
+    //ends execute once the running notification is done
+    void stop();
 
 }
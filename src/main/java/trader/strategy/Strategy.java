@@ -3,4 +3,7 @@ package trader.strategy;
 public interface Strategy {
 
     default void execute(){};
+
+    //stops taking prices and lets the running price finish
+    default void stop(){};
 }
@@ -1,6 +1,10 @@
 package trader.strategy;
 
+import trader.broker.marketdata.enums.MarketDataMode;
 import trader.entity.candlestick.candle.CandleGranularity;
+import trader.observable.enums.EventBus;
+import trader.observable.enums.ObserverDispatch;
+import trader.observable.enums.PriceFeed;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -60,5 +64,45 @@ public interface TradingStrategyConfiguration {
 
     void setExitGranularity(String exitGranularity);
 
+    PriceFeed getPriceFeed();
+
+    void setPriceFeed(String priceFeed);
+
+    EventBus getEventBus();
+
+    void setEventBus(String eventBus);
+
+    ObserverDispatch getObserverDispatch();
+
+    void setObserverDispatch(String observerDispatch);
+
+    boolean isAggregateCandles();
+
+    void setAggregateCandles(String aggregateCandles);
+
+    CandleGranularity getRollUpGranularity();
+
+    void setRollUpGranularity(String rollUpGranularity);
+
+    String getCandleStoreDirectory();
+
+    void setCandleStoreDirectory(String candleStoreDirectory);
+
+    MarketDataMode getMarketDataMode();
+
+    void setMarketDataMode(String marketDataMode);
+
+    String getMarketDataDirectory();
+
+    void setMarketDataDirectory(String marketDataDirectory);
+
+    boolean isAdaptivePolling();
+
+    void setAdaptivePolling(String adaptivePolling);
+
+    long getPollingPeriod(String instrument);
+
+    void setPollingPeriod(String instrument, String pollingPeriod);
+
     String toString();
 }
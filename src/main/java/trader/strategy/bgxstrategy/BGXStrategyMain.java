@@ -1,11 +1,22 @@
 package trader.strategy.bgxstrategy;
 
 import trader.broker.BrokerGateway;
+import trader.broker.candle.CandleAggregator;
+import trader.broker.candle.CandleRepository;
+import trader.broker.marketdata.MarketDataPublisher;
+import trader.broker.marketdata.MarketDataReader;
+import trader.broker.marketdata.enums.MarketDataMode;
 import trader.connection.Connection;
+import trader.entity.candlestick.candle.CandleGranularity;
 import trader.entity.indicator.Indicator;
 import trader.entry.EntryStrategy;
 import trader.interactor.UseCaseFactoryImpl;
+import trader.observable.ConflatingObservable;
+import trader.observable.RingBufferObservable;
+import trader.observable.enums.EventBus;
+import trader.observable.enums.ObserverDispatch;
 import trader.observer.Observer;
+import trader.observer.ParallelObserver;
 import trader.observer.PositionObserver;
 import trader.observer.UpdateIndicatorObserver;
 import trader.presenter.ConsolePresenter;
@@ -21,21 +32,29 @@ import trader.exit.ExitStrategy;
 import trader.observable.PricePull;
 import trader.validation.Validator;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 
 public final class BGXStrategyMain implements Strategy {
 
+    private static final int EVENT_BUS_CAPACITY = 1024;
+
     private Presenter presenter;
     private UseCaseFactory useCaseFactory;
     private List<Indicator> indicatorList;
     private TradingStrategyConfiguration configuration;
     private BrokerGateway brokerGateway;
+    private CandleRepository candleRepository;
     private Observable priceObservable;
     private EntryStrategy entryStrategy;
     private OrderStrategy orderStrategy;
-    private Observer positionObserver;
+    private PositionObserver positionObserver;
     private ExitStrategy exitStrategy;
 
 
@@ -46,13 +65,14 @@ public final class BGXStrategyMain implements Strategy {
         useCaseFactory = new UseCaseFactoryImpl();
         presenter = new ConsolePresenter();
         configuration = setConfiguration(configurationFileName);
-        brokerGateway = setBrokerGateway(brokerName, brokerConfigurationFileName);
+        brokerGateway = setMarketData(setBrokerGateway(brokerName, brokerConfigurationFileName));
+        candleRepository = setCandleRepository();
         indicatorList = setIndicators(configuration.getIndicators());
-        priceObservable = PriceObservable.create(brokerGateway, configuration);
         entryStrategy = setEntryStrategy();
         orderStrategy = setOrderStrategy();
         exitStrategy = setExitStrategy();
         positionObserver = setPositionObserver(brokerGateway, entryStrategy, orderStrategy, configuration, exitStrategy);
+        priceObservable = setPriceObservable();
     }
 
 
@@ -60,7 +80,13 @@ public final class BGXStrategyMain implements Strategy {
     public void execute() {
         Connection.waitToConnect(brokerGateway.getConnector().getUrl(), presenter);
         brokerGateway.validateConnector();
+        //candles must be marked stale before the indicators read them
+        registerTickObserver(candleRepository);
+        //closing candles are built before the indicators ask for them
+        if(configuration.isAggregateCandles())
+            registerTickObserver(setCandleAggregator());
         addIndicatorsToObservable(priceObservable, indicatorList);
+        //every event bus hands a price to an observer only after the ones registered before it are done
         priceObservable.registerObserver(positionObserver);
 
         new PricePull("PricePull", priceObservable);
@@ -68,6 +94,11 @@ public final class BGXStrategyMain implements Strategy {
 
     }
 
+    @Override
+    public void stop() {
+        priceObservable.stop();
+    }
+
     @Override
     public String toString() {
         return "bgxstrategy";
@@ -83,6 +114,48 @@ public final class BGXStrategyMain implements Strategy {
         return brokerService.createBrokerGateway(brokerName, brokerConfigurationFileName);
     }
 
+    //one publisher process shares its prices and candles with the reader processes on the same machine
+    private BrokerGateway setMarketData(BrokerGateway brokerGateway) {
+        Path directory = Paths.get(configuration.getMarketDataDirectory());
+        if(MarketDataMode.PUBLISH.equals(configuration.getMarketDataMode()))
+            return new MarketDataPublisher(brokerGateway, directory);
+        if(MarketDataMode.READ.equals(configuration.getMarketDataMode()))
+            return new MarketDataReader(brokerGateway, directory);
+        return brokerGateway;
+    }
+
+    //with an event bus the price thread only takes prices, the observers run on their own threads
+    private Observable setPriceObservable() {
+        Observable observable = PriceObservable.create(brokerGateway, configuration, presenter, positionObserver);
+        EventBus eventBus = configuration.getEventBus();
+        if(eventBus == null || EventBus.OFF.equals(eventBus))
+            return observable;
+        if(EventBus.CONFLATING.equals(eventBus))
+            return new ConflatingObservable(observable, presenter);
+        return new RingBufferObservable(observable, EVENT_BUS_CAPACITY, eventBus, presenter);
+    }
+
+    //a conflating event bus drops prices, the candles are built from every tick before it
+    private void registerTickObserver(Observer observer) {
+        if(priceObservable instanceof ConflatingObservable)
+            ((ConflatingObservable) priceObservable).registerTickObserver(observer);
+        else
+            priceObservable.registerObserver(observer);
+    }
+
+    private CandleRepository setCandleRepository() {
+        String storeDirectory = configuration.getCandleStoreDirectory();
+        Path storePath = storeDirectory == null ? null : Paths.get(storeDirectory);
+        return new CandleRepository(brokerGateway, configuration, storePath);
+    }
+
+    private CandleAggregator setCandleAggregator() {
+        Set<CandleGranularity> granularities = EnumSet.of(configuration.getExitGranularity());
+        for (Indicator indicator : indicatorList)
+            granularities.add(indicator.getGranularity());
+        return new CandleAggregator(candleRepository, configuration.getInstrument(), granularities);
+    }
+
     private List<Indicator> setIndicators(List<Map<String, String>> indicators){
         IndicatorService indicatorService = new IndicatorService(useCaseFactory, presenter);
         return indicatorService.createIndicators(indicators);
@@ -99,22 +172,30 @@ public final class BGXStrategyMain implements Strategy {
     }
 
     private ExitStrategy setExitStrategy() {
-        ExitService exitService = new ExitService(useCaseFactory, presenter, brokerGateway, configuration);
+        ExitService exitService = new ExitService(useCaseFactory, presenter, brokerGateway, candleRepository, configuration);
         return exitService.createExitStrategy(configuration.getExitStrategy());
     }
 
+    //the parallel indicator updates all finish before the observers registered after them run
     void addIndicatorsToObservable(Observable observable, List<Indicator> indicators){
+        List<Observer> indicatorObservers = new ArrayList<>();
         for (Indicator indicator:indicators) {
-            observable.registerObserver(
-                    new UpdateIndicatorObserver(indicator, configuration, brokerGateway));
+            indicatorObservers.add(
+                    new UpdateIndicatorObserver(indicator, configuration, candleRepository));
+        }
+        if(ObserverDispatch.PARALLEL.equals(configuration.getObserverDispatch()) && indicatorObservers.size() > 1) {
+            observable.registerObserver(new ParallelObserver(indicatorObservers));
+            return;
         }
+        for (Observer indicatorObserver : indicatorObservers)
+            observable.registerObserver(indicatorObserver);
     }
 
-    Observer setPositionObserver(BrokerGateway brokerGateway,
-                                 EntryStrategy entryStrategy,
-                                 OrderStrategy orderStrategy,
-                                 TradingStrategyConfiguration configuration,
-                                 ExitStrategy exitStrategy){
+    PositionObserver setPositionObserver(BrokerGateway brokerGateway,
+                                         EntryStrategy entryStrategy,
+                                         OrderStrategy orderStrategy,
+                                         TradingStrategyConfiguration configuration,
+                                         ExitStrategy exitStrategy){
 
        return new PositionObserver(brokerGateway, entryStrategy, orderStrategy, configuration, exitStrategy);
     }
@@ -1,6 +1,7 @@
 package trader.strategy.bgxstrategy.service;
 
 import trader.broker.BrokerGateway;
+import trader.broker.candle.CandleRepository;
 import trader.strategy.TradingStrategyConfiguration;
 import trader.controller.CreateExitStrategyController;
 import trader.controller.TraderController;
@@ -18,12 +19,15 @@ public class ExitService {
     private UseCaseFactory useCaseFactory;
     private Presenter presenter;
     private BrokerGateway brokerGateway;
+    private CandleRepository candleRepository;
     private TradingStrategyConfiguration configuration;
 
-    public ExitService(UseCaseFactory useCaseFactory, Presenter presenter, BrokerGateway brokerGateway, TradingStrategyConfiguration configuration) {
+    public ExitService(UseCaseFactory useCaseFactory, Presenter presenter, BrokerGateway brokerGateway,
+                       CandleRepository candleRepository, TradingStrategyConfiguration configuration) {
         this.useCaseFactory = useCaseFactory;
         this.presenter = presenter;
         this.brokerGateway = brokerGateway;
+        this.candleRepository = candleRepository;
         this.configuration = configuration;
     }
 
@@ -39,6 +43,7 @@ public class ExitService {
         ExitStrategy strategy = exitStrategyResponse.getBody();
         strategy.setPresenter(presenter);
         strategy.setBrokerGateway(brokerGateway);
+        strategy.setCandleRepository(candleRepository);
         strategy.setConfiguration(configuration);
         return strategy;
     }
@@ -17,6 +17,8 @@ public class OandaAPIMockOrder extends OandaAPIMock {
     private OrderCancelResponse mockOrderCancelResponse;
     private OrderCreateRequest mockOrderCreateRequest;
     private OrderCreateResponse mockOrderCreateResponse;
+    private OrderReplaceRequest mockOrderReplaceRequest;
+    private OrderReplaceResponse mockOrderReplaceResponse;
     private MarketIfTouchedOrder mockMarketIfTouchedOrder;
     private OrderID mockOrderID;
 
@@ -35,6 +37,8 @@ public class OandaAPIMockOrder extends OandaAPIMock {
         mockMarketIfTouchedOrder = mock(MarketIfTouchedOrder.class);
         mockOrderCancelResponse = mock(OrderCancelResponse.class);
         mockOrderCreateResponse = mock(OrderCreateResponse.class);
+        mockOrderReplaceRequest = mock(OrderReplaceRequest.class);
+        mockOrderReplaceResponse = mock(OrderReplaceResponse.class);
         init();
 
     }
@@ -51,6 +55,14 @@ public class OandaAPIMockOrder extends OandaAPIMock {
         return mockOrderCreateResponse;
     }
 
+    public OrderReplaceRequest getMockOrderReplaceRequest() {
+        return mockOrderReplaceRequest;
+    }
+
+    public OrderReplaceResponse getMockOrderReplaceResponse() {
+        return mockOrderReplaceResponse;
+    }
+
     public OrderCancelResponse getMockOrderCancelResponse() {
         return mockOrderCancelResponse;
     }
@@ -75,6 +87,10 @@ public class OandaAPIMockOrder extends OandaAPIMock {
         when(mockContext.order.create(mockOrderCreateRequest)).thenThrow(exception);
     }
 
+    public <T extends Throwable> void setMockOrderReplaceResponseToThrowException(Class<T> exception) throws ExecuteException, RequestException {
+        when(mockContext.order.replace(mockOrderReplaceRequest)).thenThrow(exception);
+    }
+
     public <T extends Throwable> void setMockOrderCancelResponseToThrowException(Class<T> exception) throws ExecuteException, RequestException {
         when(mockContext.order.cancel(any(AccountID.class), any(OrderSpecifier.class))).thenThrow(exception);
     }
@@ -86,6 +102,7 @@ public class OandaAPIMockOrder extends OandaAPIMock {
                 .thenReturn(mockOrderID);
         try {
             when(mockOrderContext.create(mockOrderCreateRequest)).thenReturn(mockOrderCreateResponse);
+            when(mockOrderContext.replace(mockOrderReplaceRequest)).thenReturn(mockOrderReplaceResponse);
         } catch (RequestException | ExecuteException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,109 @@
+package trader.broker.candle;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Price;
+import trader.entity.price.PriceImpl;
+import trader.exception.NullArgumentException;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CandleAggregatorTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.parse("2018-06-06T10:10:00Z[UTC]");
+    private static final ZonedDateTime CANDLE_TIME = ZonedDateTime.parse("2018-06-06T10:30:00Z[UTC]");
+
+    private CandleRepository candleRepositoryMock;
+    private CandleAggregator aggregator;
+
+    @Before
+    public void setUp() {
+        candleRepositoryMock = mock(CandleRepository.class);
+        aggregator = new CandleAggregator(candleRepositoryMock, "EUR_USD", Collections.singletonList(CandleGranularity.M30));
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullRepository_WhenCreate_ThenException() {
+        new CandleAggregator(null, "EUR_USD", Collections.singletonList(CandleGranularity.M30));
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullPrice_WhenCallUpdateObserver_ThenException() {
+        aggregator.updateObserver(null);
+    }
+
+    @Test
+    public void givenCandleInProgressAtStart_WhenItCloses_ThenLeaveItToTheBroker() {
+        aggregator.updateObserver(price(START, "1.16800"));
+
+        aggregator.updateObserver(price(CANDLE_TIME, "1.16810"));
+
+        verify(candleRepositoryMock, never()).addCandle(anyString(), any(CandleGranularity.class), any(Candlestick.class));
+    }
+
+    @Test
+    public void givenTicksOfWholeCandle_WhenNextCandleStarts_ThenHandOverMidPriceCandle() {
+        aggregator.updateObserver(price(START, "1.16800"));
+        aggregator.updateObserver(price(CANDLE_TIME, "1.16810"));
+        aggregator.updateObserver(price(CANDLE_TIME.plusMinutes(5), "1.16850"));
+        aggregator.updateObserver(price(CANDLE_TIME.plusMinutes(10), "1.16790"));
+        aggregator.updateObserver(price(CANDLE_TIME.plusMinutes(29), "1.16820"));
+
+        aggregator.updateObserver(price(CANDLE_TIME.plusMinutes(30), "1.16830"));
+
+        ArgumentCaptor<Candlestick> captor = ArgumentCaptor.forClass(Candlestick.class);
+        verify(candleRepositoryMock, times(1)).addCandle(eq("EUR_USD"), eq(CandleGranularity.M30), captor.capture());
+        Candlestick candle = captor.getValue();
+        assertEquals(CANDLE_TIME.toInstant(), candle.getDateTime().toInstant());
+        assertEquals(new BigDecimal("1.16816"), candle.getOpenPrice());
+        assertEquals(new BigDecimal("1.16856"), candle.getHighPrice());
+        assertEquals(new BigDecimal("1.16796"), candle.getLowPrice());
+        assertEquals(new BigDecimal("1.16826"), candle.getClosePrice());
+        assertEquals(4L, candle.getVolume());
+        assertEquals(1800L, candle.getTimeFrame());
+    }
+
+    @Test
+    public void givenSeveralGranularities_WhenTicksPassCloses_ThenHandOverEveryGranularity() {
+        aggregator = new CandleAggregator(candleRepositoryMock, "EUR_USD", Arrays.asList(CandleGranularity.M1, CandleGranularity.M5));
+        for (int minute = 0; minute <= 11; minute++)
+            aggregator.updateObserver(price(CANDLE_TIME.plusMinutes(minute).plusSeconds(1), "1.16800"));
+
+        verify(candleRepositoryMock, times(10)).addCandle(eq("EUR_USD"), eq(CandleGranularity.M1), any(Candlestick.class));
+        verify(candleRepositoryMock, times(1)).addCandle(eq("EUR_USD"), eq(CandleGranularity.M5), any(Candlestick.class));
+    }
+
+    @Test
+    public void givenLateTick_WhenCallUpdateObserver_ThenLeaveItOut() {
+        aggregator.updateObserver(price(START, "1.16800"));
+        aggregator.updateObserver(price(CANDLE_TIME, "1.16810"));
+        aggregator.updateObserver(price(START, "1.20000"));
+
+        aggregator.updateObserver(price(CANDLE_TIME.plusMinutes(30), "1.16830"));
+
+        ArgumentCaptor<Candlestick> captor = ArgumentCaptor.forClass(Candlestick.class);
+        verify(candleRepositoryMock).addCandle(eq("EUR_USD"), eq(CandleGranularity.M30), captor.capture());
+        assertEquals(new BigDecimal("1.16816"), captor.getValue().getHighPrice());
+        assertEquals(1L, captor.getValue().getVolume());
+    }
+
+    private Price price(ZonedDateTime time, String bid) {
+        return new PriceImpl.PriceBuilder()
+                .setDateTime(time)
+                .setBid(new BigDecimal(bid))
+                .setAsk(new BigDecimal(bid).add(new BigDecimal("0.00012")))
+                .build();
+    }
+}
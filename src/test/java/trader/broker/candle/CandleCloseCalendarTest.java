@@ -0,0 +1,125 @@
+package trader.broker.candle;
+
+import org.junit.Before;
+import org.junit.Test;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.exception.NullArgumentException;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+
+public class CandleCloseCalendarTest {
+
+    private CandleCloseCalendar calendar;
+
+    @Before
+    public void setUp() {
+        calendar = new CandleCloseCalendar();
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullGranularity_WhenCallNextClose_ThenThrowException() {
+        calendar.nextClose(null, time("2018-06-06T10:10:00Z"));
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullTime_WhenCallNextClose_ThenThrowException() {
+        calendar.nextClose(CandleGranularity.M30, null);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullGranularity_WhenCallOpenTime_ThenThrowException() {
+        calendar.openTime(null, time("2018-06-06T10:10:00Z"));
+    }
+
+    @Test
+    public void givenTimeInsideCandle_WhenCallOpenTime_ThenReturnCandleTime() {
+        assertEquals(time("2018-06-06T10:00:00Z"), calendar.openTime(CandleGranularity.M30, time("2018-06-06T10:10:00Z")));
+        assertEquals(time("2018-06-06T10:30:00Z"), calendar.openTime(CandleGranularity.M30, time("2018-06-06T10:30:00Z")));
+        assertEquals(time("2018-06-06T09:00:00Z"), calendar.openTime(CandleGranularity.H4, time("2018-06-06T10:10:00Z")));
+    }
+
+    @Test
+    public void givenD_WhenCallOpenTime_ThenReturnNewYorkFivePmBefore() {
+        assertEquals(time("2018-06-05T21:00:00Z"), calendar.openTime(CandleGranularity.D, time("2018-06-06T10:10:00Z")));
+        assertEquals(time("2018-06-06T21:00:00Z"), calendar.openTime(CandleGranularity.D, time("2018-06-06T21:00:00Z")));
+    }
+
+    @Test
+    public void givenWeekend_WhenCallOpenTime_ThenReturnWeeklyOpen() {
+        assertEquals(time("2018-06-10T21:00:00Z"), calendar.openTime(CandleGranularity.H1, time("2018-06-09T12:00:00Z")));
+    }
+
+    @Test
+    public void givenWAndM_WhenCallOpenTime_ThenReturnCloseBefore() {
+        assertEquals(time("2018-06-01T21:00:00Z"), calendar.openTime(CandleGranularity.W, time("2018-06-06T10:10:00Z")));
+        assertEquals(time("2018-05-31T21:00:00Z"), calendar.openTime(CandleGranularity.M, time("2018-06-06T10:10:00Z")));
+        assertEquals(time("2018-06-29T21:00:00Z"), calendar.openTime(CandleGranularity.M, time("2018-06-29T21:00:00Z")));
+    }
+
+    @Test
+    public void givenTimeInsideCandle_WhenCallNextClose_ThenReturnCandleClose() {
+        assertEquals(time("2018-06-06T10:30:00Z"), calendar.nextClose(CandleGranularity.M30, time("2018-06-06T10:10:00Z")));
+    }
+
+    @Test
+    public void givenTimeOnCandleClose_WhenCallNextClose_ThenReturnFollowingClose() {
+        assertEquals(time("2018-06-06T11:00:00Z"), calendar.nextClose(CandleGranularity.M30, time("2018-06-06T10:30:00Z")));
+    }
+
+    @Test
+    public void givenH4_WhenCallNextClose_ThenAlignToNewYorkTradingDay() {
+        //trading day starts at 21:00 UTC in summer, H4 candles close at 01, 05, 09, 13, 17 and 21
+        assertEquals(time("2018-06-06T13:00:00Z"), calendar.nextClose(CandleGranularity.H4, time("2018-06-06T10:10:00Z")));
+    }
+
+    @Test
+    public void givenD_WhenCallNextClose_ThenReturnNewYorkFivePm() {
+        assertEquals(time("2018-06-06T21:00:00Z"), calendar.nextClose(CandleGranularity.D, time("2018-06-06T10:10:00Z")));
+        assertEquals(time("2018-01-10T22:00:00Z"), calendar.nextClose(CandleGranularity.D, time("2018-01-10T10:10:00Z")));
+    }
+
+    @Test
+    public void givenDayAfterDaylightSavingChange_WhenCallNextClose_ThenReturnNewYorkFivePm() {
+        assertEquals(time("2018-11-05T22:00:00Z"), calendar.nextClose(CandleGranularity.D, time("2018-11-04T21:30:00Z")));
+    }
+
+    @Test
+    public void givenWeeklyClose_WhenCallNextClose_ThenReturnFirstCloseAfterWeeklyOpen() {
+        //Friday 17:00 New York
+        assertEquals(time("2018-06-10T21:30:00Z"), calendar.nextClose(CandleGranularity.M30, time("2018-06-08T21:00:00Z")));
+    }
+
+    @Test
+    public void givenWeekend_WhenCallNextClose_ThenReturnFirstCloseAfterWeeklyOpen() {
+        assertEquals(time("2018-06-10T22:00:00Z"), calendar.nextClose(CandleGranularity.H1, time("2018-06-09T12:00:00Z")));
+        assertEquals(time("2018-06-11T21:00:00Z"), calendar.nextClose(CandleGranularity.D, time("2018-06-10T12:00:00Z")));
+    }
+
+    @Test
+    public void givenW_WhenCallNextClose_ThenReturnFridayClose() {
+        assertEquals(time("2018-06-08T21:00:00Z"), calendar.nextClose(CandleGranularity.W, time("2018-06-06T10:10:00Z")));
+        assertEquals(time("2018-06-15T21:00:00Z"), calendar.nextClose(CandleGranularity.W, time("2018-06-08T21:00:00Z")));
+    }
+
+    @Test
+    public void givenM_WhenCallNextClose_ThenReturnLastTradingDayOfMonth() {
+        assertEquals(time("2018-06-29T21:00:00Z"), calendar.nextClose(CandleGranularity.M, time("2018-06-06T10:10:00Z")));
+        assertEquals(time("2018-07-31T21:00:00Z"), calendar.nextClose(CandleGranularity.M, time("2018-06-29T21:00:00Z")));
+    }
+
+    @Test
+    public void givenTimeZone_WhenCallNextClose_ThenReturnCloseInSameZone() {
+        ZonedDateTime time = ZonedDateTime.parse("2018-06-06T12:10:00+02:00[Europe/Berlin]");
+
+        ZonedDateTime close = calendar.nextClose(CandleGranularity.M30, time);
+
+        assertEquals(time.getZone(), close.getZone());
+        assertEquals(time("2018-06-06T10:30:00Z").toInstant(), close.toInstant());
+    }
+
+    private ZonedDateTime time(String time) {
+        return ZonedDateTime.parse(time);
+    }
+}
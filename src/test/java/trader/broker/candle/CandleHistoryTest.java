@@ -0,0 +1,116 @@
+package trader.broker.candle;
+
+import org.junit.Before;
+import org.junit.Test;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.Candle;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CandleHistoryTest {
+
+    private static final ZonedDateTime FIRST_CANDLE_TIME = ZonedDateTime.parse("2018-06-01T10:00:00Z[UTC]");
+
+    private CandleHistory history;
+
+    @Before
+    public void setUp() {
+        history = new CandleHistory();
+    }
+
+    @Test
+    public void givenNewHistory_WhenCallLast_ThenNull() {
+        assertTrue(history.isEmpty());
+        assertNull(history.last());
+        assertEquals(0, history.view().size());
+    }
+
+    @Test
+    public void givenMoreCandlesThanTheLimit_WhenCallReplaceAll_ThenKeepTheNewest() {
+        history.replaceAll(candles(0, 10), 4);
+
+        assertEquals(4, history.size());
+        assertEquals(time(6), history.get(0).getDateTime());
+        assertEquals(time(9), history.last().getDateTime());
+    }
+
+    @Test
+    public void givenFullHistory_WhenCallAppend_ThenDropTheOldestAndKeepTheLimit() {
+        history.replaceAll(candles(0, 4), 4);
+
+        for (Candlestick candle : candles(4, 20))
+            history.append(candle);
+
+        assertEquals(4, history.size());
+        assertEquals(time(20), history.get(0).getDateTime());
+        assertEquals(time(23), history.last().getDateTime());
+    }
+
+    @Test
+    public void givenView_WhenCallAppend_ThenViewIsNotChanged() {
+        history.replaceAll(candles(0, 4), 4);
+        List<Candlestick> view = history.view();
+
+        for (Candlestick candle : candles(4, 20))
+            history.append(candle);
+
+        assertEquals(4, view.size());
+        assertEquals(time(0), view.get(0).getDateTime());
+        assertEquals(time(3), view.get(3).getDateTime());
+    }
+
+    @Test
+    public void givenView_WhenCallSet_ThenOnlyTheHistoryIsChanged() {
+        history.replaceAll(candles(0, 4), 4);
+        List<Candlestick> view = history.view();
+        Candlestick replacement = candles(2, 1).get(0);
+
+        history.set(2, replacement);
+
+        assertSame(replacement, history.get(2));
+        assertNotSame(replacement, view.get(2));
+    }
+
+    @Test
+    public void givenQuantity_WhenCallLast_ThenReturnTheNewestCandles() {
+        history.replaceAll(candles(0, 4), 4);
+
+        List<Candlestick> last = history.last(2);
+        List<Candlestick> all = history.last(10);
+
+        assertEquals(2, last.size());
+        assertEquals(time(2), last.get(0).getDateTime());
+        assertEquals(4, all.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void givenView_WhenModify_ThenThrowException() {
+        history.replaceAll(candles(0, 4), 4);
+
+        history.view().add(candles(4, 1).get(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void givenView_WhenReadPastTheEnd_ThenThrowException() {
+        history.replaceAll(candles(0, 4), 4);
+        List<Candlestick> view = history.last(2);
+        history.append(candles(4, 1).get(0));
+
+        view.get(2);
+    }
+
+    private ZonedDateTime time(int index) {
+        return FIRST_CANDLE_TIME.plusMinutes(30L * index);
+    }
+
+    private List<Candlestick> candles(int fromIndex, int quantity) {
+        List<Candlestick> candles = new ArrayList<>();
+        for (int i = fromIndex; i < fromIndex + quantity; i++)
+            candles.add(new Candle.CandleBuilder().setDateTime(time(i)).build());
+        return candles;
+    }
+}
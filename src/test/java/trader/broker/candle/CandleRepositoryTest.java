@@ -0,0 +1,494 @@
+package trader.broker.candle;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import trader.broker.BrokerGateway;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.Candle;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Price;
+import trader.exception.BadRequestException;
+import trader.exception.NullArgumentException;
+import trader.strategy.TradingStrategyConfiguration;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CandleRepositoryTest {
+
+    private static final ZonedDateTime FIRST_CANDLE_TIME = ZonedDateTime.parse("2018-06-01T10:00:00Z[UTC]");
+    //ten candles from FIRST_CANDLE_TIME are complete, the 15:00 candle is in progress
+    private static final ZonedDateTime LOAD_TIME = ZonedDateTime.parse("2018-06-01T15:10:00Z[UTC]");
+    private static final ZonedDateTime CANDLE_CLOSE = ZonedDateTime.parse("2018-06-01T15:30:00Z[UTC]");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BrokerGateway brokerGatewayMock;
+    private TradingStrategyConfiguration configurationMock;
+    private Price priceMock;
+    private CandleRepository repository;
+
+    @Before
+    public void setUp() {
+        brokerGatewayMock = mock(BrokerGateway.class);
+        configurationMock = mock(TradingStrategyConfiguration.class);
+        priceMock = mock(Price.class);
+        when(configurationMock.getUpdateCandlesQuantity()).thenReturn(2L);
+        repository = new CandleRepository(brokerGatewayMock, configurationMock);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullBrokerGateway_WhenCreate_ThenThrowException() {
+        new CandleRepository(null, configurationMock);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullConfiguration_WhenCreate_ThenThrowException() {
+        new CandleRepository(brokerGatewayMock, null);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullPrice_WhenCallUpdateObserver_ThenThrowException() {
+        repository.updateObserver(null);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenSettingsWithoutGranularity_WhenCallGetCandles_ThenThrowException() {
+        HashMap<String, String> settings = settings("EUR_USD", "10", "M30");
+        settings.remove("granularity");
+        repository.getCandles(settings);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenNotANumberQuantity_WhenCallGetCandles_ThenThrowException() {
+        repository.getCandles(settings("EUR_USD", "x", "M30"));
+    }
+
+    @Test
+    public void givenSameSeries_WhenReadSeveralTimesInOneTick_ThenFetchOnce() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10));
+
+        List<Candlestick> first = repository.getCandles(settings("EUR_USD", "10", "M30"));
+        List<Candlestick> second = repository.getCandles(settings("EUR_USD", "10", "M30"));
+        List<Candlestick> update = repository.getCandles(settings("EUR_USD", "2", "M30"));
+
+        verify(brokerGatewayMock, times(1)).getCandles(any(HashMap.class));
+        assertEquals(10, first.size());
+        assertEquals(first, second);
+        assertEquals(2, update.size());
+        assertSame(first.get(9), update.get(1));
+    }
+
+    @Test
+    public void givenDifferentGranularities_WhenCallGetCandles_ThenFetchEverySeries() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10));
+
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+        repository.getCandles(settings("EUR_USD", "10", "D"));
+        repository.getCandles(settings("EUR_USD", "10", "m30"));
+
+        verify(brokerGatewayMock, times(2)).getCandles(any(HashMap.class));
+    }
+
+    @Test
+    public void givenTickBeforeCandleClose_WhenCallGetCandles_ThenDoNotFetch() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10));
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        tick(CANDLE_CLOSE.minusSeconds(1));
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        verify(brokerGatewayMock, times(1)).getCandles(any(HashMap.class));
+    }
+
+    @Test
+    public void givenTickAfterCandleClose_WhenCallGetCandles_ThenFetchUpdateQuantityAndMergeByTime() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10), candles(9, 2));
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        tick(CANDLE_CLOSE.plusSeconds(1));
+        List<Candlestick> candles = repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        ArgumentCaptor<HashMap> captor = ArgumentCaptor.forClass(HashMap.class);
+        verify(brokerGatewayMock, times(2)).getCandles(captor.capture());
+        assertEquals("2", captor.getAllValues().get(1).get("quantity"));
+        assertEquals("M30", captor.getAllValues().get(1).get("granularity"));
+        assertEquals(10, candles.size());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 10), candles.get(9).getDateTime());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30), candles.get(0).getDateTime());
+    }
+
+    @Test
+    public void givenPublishedCandle_WhenTickAgainBeforeNextClose_ThenDoNotFetch() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10), candles(9, 2));
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+        tick(CANDLE_CLOSE.plusSeconds(1));
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        tick(CANDLE_CLOSE.plusSeconds(5));
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        verify(brokerGatewayMock, times(2)).getCandles(any(HashMap.class));
+    }
+
+    @Test
+    public void givenNoNewCandle_WhenCallGetCandlesAfterClose_ThenSeriesIsUnchanged() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10), candles(8, 2));
+        tick(LOAD_TIME);
+        List<Candlestick> before = repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        tick(CANDLE_CLOSE.plusSeconds(1));
+        List<Candlestick> after = repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        assertEquals(before, after);
+    }
+
+    @Test
+    public void givenCompletedCandleNotPublished_WhenTickAfterRetryInterval_ThenFetchAgain() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10), candles(8, 2), candles(9, 2));
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+        tick(CANDLE_CLOSE.plusSeconds(1));
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        tick(CANDLE_CLOSE.plusSeconds(2));
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+        verify(brokerGatewayMock, times(2)).getCandles(any(HashMap.class));
+
+        tick(CANDLE_CLOSE.plusSeconds(3));
+        List<Candlestick> candles = repository.getCandles(settings("EUR_USD", "10", "M30"));
+        verify(brokerGatewayMock, times(3)).getCandles(any(HashMap.class));
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 10), candles.get(9).getDateTime());
+    }
+
+    @Test
+    public void givenCompletedCandleNeverPublished_WhenRetriesAreExhausted_ThenWaitForNextClose() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10), candles(8, 2));
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        for (int i = 0; i < 10; i++) {
+            tick(CANDLE_CLOSE.plusSeconds(1 + i * 3));
+            repository.getCandles(settings("EUR_USD", "10", "M30"));
+        }
+        verify(brokerGatewayMock, times(6)).getCandles(any(HashMap.class));
+
+        tick(CANDLE_CLOSE.plusMinutes(30).plusSeconds(1));
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+        verify(brokerGatewayMock, times(7)).getCandles(any(HashMap.class));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenUnknownGranularity_WhenCallGetCandles_ThenThrowException() {
+        repository.getCandles(settings("EUR_USD", "10", "M7"));
+    }
+
+    @Test
+    public void givenBiggerQuantity_WhenCallGetCandles_ThenReloadSeries() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 2), candles(0, 10));
+        repository.getCandles(settings("EUR_USD", "2", "M30"));
+
+        List<Candlestick> candles = repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        assertEquals(10, candles.size());
+    }
+
+    @Test
+    public void givenReturnedView_WhenSeriesGrows_ThenViewIsUnchanged() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10), candles(10, 1));
+        tick(LOAD_TIME);
+        List<Candlestick> view = repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        tick(CANDLE_CLOSE.plusSeconds(1));
+        repository.getCandles(settings("EUR_USD", "2", "M30"));
+
+        assertEquals(10, view.size());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 9), view.get(9).getDateTime());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void givenReturnedView_WhenModify_ThenThrowException() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10));
+        List<Candlestick> view = repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        view.remove(0);
+    }
+
+    @Test
+    public void givenAppendedCandles_WhenCallGetCandles_ThenSeriesKeepsTheLargestRequestedQuantity() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10));
+        tick(LOAD_TIME);
+        List<Candlestick> before = repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        for (Candlestick candle : candles(10, 25))
+            assertTrue(repository.addCandle("EUR_USD", CandleGranularity.M30, candle));
+        List<Candlestick> after = repository.getCandles(settings("EUR_USD", "10", "M30"));
+        List<Candlestick> fewer = repository.getCandles(settings("EUR_USD", "5", "M30"));
+
+        assertEquals(10, before.size());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 9), before.get(9).getDateTime());
+        assertEquals(10, after.size());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 25), after.get(0).getDateTime());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 34), after.get(9).getDateTime());
+        assertEquals(5, fewer.size());
+        assertSame(after.get(9), fewer.get(4));
+    }
+
+    @Test
+    public void givenStoredCandles_WhenRestart_ThenFetchOnlyTheGap() {
+        Path storeDirectory = folder.getRoot().toPath();
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(pricedCandles(0, 10), pricedCandles(8, 3));
+        repository = new CandleRepository(brokerGatewayMock, configurationMock, storeDirectory);
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        repository = new CandleRepository(brokerGatewayMock, configurationMock, storeDirectory);
+        tick(CANDLE_CLOSE.plusSeconds(1));
+        List<Candlestick> candles = repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        ArgumentCaptor<HashMap> captor = ArgumentCaptor.forClass(HashMap.class);
+        verify(brokerGatewayMock, times(2)).getCandles(captor.capture());
+        assertEquals("4", captor.getAllValues().get(1).get("quantity"));
+        assertEquals(10, candles.size());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30).toEpochSecond(), candles.get(0).getDateTime().toEpochSecond());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 10).toEpochSecond(), candles.get(9).getDateTime().toEpochSecond());
+        assertEquals(BigDecimal.valueOf(116810, 5), candles.get(9).getClosePrice());
+    }
+
+    @Test
+    public void givenGapNotJoiningStoredCandles_WhenRestart_ThenFetchAllCandles() {
+        Path storeDirectory = folder.getRoot().toPath();
+        when(brokerGatewayMock.getCandles(any(HashMap.class)))
+                .thenReturn(pricedCandles(0, 10), pricedCandles(20, 3), pricedCandles(13, 10));
+        repository = new CandleRepository(brokerGatewayMock, configurationMock, storeDirectory);
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        repository = new CandleRepository(brokerGatewayMock, configurationMock, storeDirectory);
+        tick(LOAD_TIME);
+        List<Candlestick> candles = repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        ArgumentCaptor<HashMap> captor = ArgumentCaptor.forClass(HashMap.class);
+        verify(brokerGatewayMock, times(3)).getCandles(captor.capture());
+        assertEquals("10", captor.getAllValues().get(2).get("quantity"));
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 22).toEpochSecond(), candles.get(9).getDateTime().toEpochSecond());
+    }
+
+    @Test
+    public void givenFewerStoredCandlesThanQuantity_WhenRestart_ThenFetchAllCandles() {
+        Path storeDirectory = folder.getRoot().toPath();
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(pricedCandles(0, 5), pricedCandles(0, 10));
+        repository = new CandleRepository(brokerGatewayMock, configurationMock, storeDirectory);
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "5", "M30"));
+
+        repository = new CandleRepository(brokerGatewayMock, configurationMock, storeDirectory);
+        tick(LOAD_TIME);
+        List<Candlestick> candles = repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        ArgumentCaptor<HashMap> captor = ArgumentCaptor.forClass(HashMap.class);
+        verify(brokerGatewayMock, times(2)).getCandles(captor.capture());
+        assertEquals("10", captor.getAllValues().get(1).get("quantity"));
+        assertEquals(10, candles.size());
+    }
+
+    @Test
+    public void givenStoreAndCandleClose_WhenCallGetCandles_ThenNewCandlesAreStored() {
+        Path storeDirectory = folder.getRoot().toPath();
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(pricedCandles(0, 10), pricedCandles(9, 2));
+        repository = new CandleRepository(brokerGatewayMock, configurationMock, storeDirectory);
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        tick(CANDLE_CLOSE.plusSeconds(1));
+        repository.getCandles(settings("EUR_USD", "2", "M30"));
+
+        CandleStore store = CandleStore.open(storeDirectory.resolve("EUR_USD_M30.candles"));
+        assertEquals(11, store.size());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 10).toEpochSecond(), store.lastTime());
+        store.close();
+    }
+
+    @Test
+    public void givenSeriesNotLoaded_WhenAddCandle_ThenCandleIsNotUsed() {
+        assertFalse(repository.addCandle("EUR_USD", CandleGranularity.M30, candles(10, 1).get(0)));
+    }
+
+    @Test
+    public void givenLocalCandleOfClosedCandle_WhenTickAfterClose_ThenDoNotFetch() {
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10));
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+        Candlestick localCandle = candles(10, 1).get(0);
+
+        assertTrue(repository.addCandle("EUR_USD", CandleGranularity.M30, localCandle));
+        assertFalse(repository.addCandle("EUR_USD", CandleGranularity.M30, candles(9, 1).get(0)));
+        tick(CANDLE_CLOSE.plusSeconds(1));
+        List<Candlestick> candles = repository.getCandles(settings("EUR_USD", "2", "M30"));
+
+        verify(brokerGatewayMock, times(1)).getCandles(any(HashMap.class));
+        assertSame(localCandle, candles.get(1));
+    }
+
+    @Test
+    public void givenLocalCandlesOfSeveralCloses_WhenReconcile_ThenBrokerCandlesReplaceLocalOnes() {
+        List<Candlestick> brokerCandles = new ArrayList<>();
+        for (int i = 10; i < 20; i++)
+            brokerCandles.add(new Candle.CandleBuilder().setDateTime(FIRST_CANDLE_TIME.plusMinutes(30L * i)).setVolume(7L).build());
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles(0, 10), brokerCandles);
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "10", "M30"));
+
+        List<Candlestick> candles = null;
+        for (int i = 0; i < 10; i++) {
+            repository.addCandle("EUR_USD", CandleGranularity.M30, candles(10 + i, 1).get(0));
+            tick(CANDLE_CLOSE.plusMinutes(30L * i).plusSeconds(1));
+            candles = repository.getCandles(settings("EUR_USD", "10", "M30"));
+        }
+
+        ArgumentCaptor<HashMap> captor = ArgumentCaptor.forClass(HashMap.class);
+        verify(brokerGatewayMock, times(2)).getCandles(captor.capture());
+        assertEquals("11", captor.getAllValues().get(1).get("quantity"));
+        assertEquals(10, candles.size());
+        for (Candlestick candle : candles)
+            assertEquals(7L, candle.getVolume());
+    }
+
+    @Test
+    public void givenRollUpGranularity_WhenCoarserCandleCloses_ThenBuildItFromBaseCandles() {
+        when(configurationMock.getRollUpGranularity()).thenReturn(CandleGranularity.M30);
+        List<Candlestick> hourly = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            hourly.add(new Candle.CandleBuilder().setDateTime(FIRST_CANDLE_TIME.plusHours(i)).build());
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(hourly, pricedCandles(8, 4));
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "5", "H1"));
+
+        tick(FIRST_CANDLE_TIME.plusHours(6).plusSeconds(1));
+        List<Candlestick> candles = repository.getCandles(settings("EUR_USD", "5", "H1"));
+
+        ArgumentCaptor<HashMap> captor = ArgumentCaptor.forClass(HashMap.class);
+        verify(brokerGatewayMock, times(2)).getCandles(captor.capture());
+        assertEquals("M30", captor.getAllValues().get(1).get("granularity"));
+        assertEquals("5", captor.getAllValues().get(1).get("quantity"));
+        Candlestick candle = candles.get(4);
+        assertEquals(FIRST_CANDLE_TIME.plusHours(5).toInstant(), candle.getDateTime().toInstant());
+        assertEquals(new BigDecimal("1.16810"), candle.getOpenPrice());
+        assertEquals(new BigDecimal("1.16811"), candle.getClosePrice());
+        assertEquals(2L, candle.getVolume());
+    }
+
+    @Test
+    public void givenRollUpGranularity_WhenBaseSeriesIsLoaded_ThenLaterClosesFetchOnlyBaseCandles() {
+        when(configurationMock.getRollUpGranularity()).thenReturn(CandleGranularity.M30);
+        List<Candlestick> hourly = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            hourly.add(new Candle.CandleBuilder().setDateTime(FIRST_CANDLE_TIME.plusHours(i)).build());
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(hourly, pricedCandles(8, 4), pricedCandles(12, 2));
+        tick(LOAD_TIME);
+        repository.getCandles(settings("EUR_USD", "5", "H1"));
+        tick(FIRST_CANDLE_TIME.plusHours(6).plusSeconds(1));
+        repository.getCandles(settings("EUR_USD", "5", "H1"));
+
+        tick(FIRST_CANDLE_TIME.plusHours(7).plusSeconds(1));
+        List<Candlestick> candles = repository.getCandles(settings("EUR_USD", "5", "H1"));
+
+        ArgumentCaptor<HashMap> captor = ArgumentCaptor.forClass(HashMap.class);
+        verify(brokerGatewayMock, times(3)).getCandles(captor.capture());
+        assertEquals("M30", captor.getAllValues().get(2).get("granularity"));
+        assertEquals(FIRST_CANDLE_TIME.plusHours(6).toInstant(), candles.get(4).getDateTime().toInstant());
+    }
+
+    @Test
+    public void givenSlowFetchOfOneSeries_WhenOtherSeriesIsRead_ThenItIsNotBlocked() throws Exception {
+        final CountDownLatch slowFetchStarted = new CountDownLatch(1);
+        final CountDownLatch dailyFetched = new CountDownLatch(1);
+        final AtomicBoolean waitedForDaily = new AtomicBoolean();
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenAnswer(new Answer<List<Candlestick>>() {
+            @Override
+            public List<Candlestick> answer(InvocationOnMock invocation) throws InterruptedException {
+                HashMap<String, String> request = invocation.getArgument(0);
+                if("D".equals(request.get("granularity")))
+                    dailyFetched.countDown();
+                else {
+                    slowFetchStarted.countDown();
+                    waitedForDaily.set(dailyFetched.await(5, TimeUnit.SECONDS));
+                }
+                return candles(0, 10);
+            }
+        });
+        tick(LOAD_TIME);
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                repository.getCandles(settings("EUR_USD", "10", "M30"));
+            }
+        });
+        reader.start();
+        slowFetchStarted.await(5, TimeUnit.SECONDS);
+
+        repository.getCandles(settings("EUR_USD", "10", "D"));
+        reader.join();
+
+        assertTrue(waitedForDaily.get());
+    }
+
+    private void tick(ZonedDateTime time) {
+        when(priceMock.getDateTime()).thenReturn(time);
+        repository.updateObserver(priceMock);
+    }
+
+    private HashMap<String, String> settings(String instrument, String quantity, String granularity) {
+        HashMap<String, String> settings = new HashMap<>();
+        settings.put("instrument", instrument);
+        settings.put("quantity", quantity);
+        settings.put("granularity", granularity);
+        return settings;
+    }
+
+    private List<Candlestick> candles(int fromIndex, int quantity) {
+        List<Candlestick> candles = new ArrayList<>();
+        for (int i = fromIndex; i < fromIndex + quantity; i++) {
+            candles.add(new Candle.CandleBuilder()
+                    .setDateTime(FIRST_CANDLE_TIME.plusMinutes(30L * i))
+                    .build());
+        }
+        return candles;
+    }
+
+    private List<Candlestick> pricedCandles(int fromIndex, int quantity) {
+        List<Candlestick> candles = new ArrayList<>();
+        for (int i = fromIndex; i < fromIndex + quantity; i++) {
+            BigDecimal price = BigDecimal.valueOf(116800 + i, 5);
+            candles.add(new Candle.CandleBuilder()
+                    .setDateTime(FIRST_CANDLE_TIME.plusMinutes(30L * i))
+                    .setOpenPrice(price)
+                    .setHighPrice(price)
+                    .setLowPrice(price)
+                    .setClosePrice(price)
+                    .setComplete(true)
+                    .build());
+        }
+        return candles;
+    }
+}
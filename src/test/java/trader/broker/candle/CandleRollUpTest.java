@@ -0,0 +1,120 @@
+package trader.broker.candle;
+
+import org.junit.Before;
+import org.junit.Test;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.Candle;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.exception.NullArgumentException;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CandleRollUpTest {
+
+    //17:00 New York on a Tuesday, the start of a trading day
+    private static final ZonedDateTime DAY_START = ZonedDateTime.parse("2018-06-05T21:00:00Z[UTC]");
+
+    private CandleRollUp rollUp;
+
+    @Before
+    public void setUp() {
+        rollUp = new CandleRollUp(new CandleCloseCalendar());
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullCalendar_WhenCreate_ThenException() {
+        new CandleRollUp(null);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullBaseCandles_WhenRollUp_ThenException() {
+        rollUp.rollUp(null, CandleGranularity.H1, CandleGranularity.D, DAY_START);
+    }
+
+    @Test
+    public void givenBaseDividingGranularity_WhenCanRollUp_ThenTrue() {
+        assertTrue(CandleRollUp.canRollUp(CandleGranularity.M5, CandleGranularity.M30));
+        assertTrue(CandleRollUp.canRollUp(CandleGranularity.M5, CandleGranularity.H4));
+        assertTrue(CandleRollUp.canRollUp(CandleGranularity.H4, CandleGranularity.D));
+        assertTrue(CandleRollUp.canRollUp(CandleGranularity.M5, CandleGranularity.W));
+        assertTrue(CandleRollUp.canRollUp(CandleGranularity.D, CandleGranularity.M));
+    }
+
+    @Test
+    public void givenBaseNotDividingGranularity_WhenCanRollUp_ThenFalse() {
+        assertFalse(CandleRollUp.canRollUp(null, CandleGranularity.H1));
+        assertFalse(CandleRollUp.canRollUp(CandleGranularity.H1, CandleGranularity.M30));
+        assertFalse(CandleRollUp.canRollUp(CandleGranularity.M30, CandleGranularity.M30));
+        assertFalse(CandleRollUp.canRollUp(CandleGranularity.H4, CandleGranularity.H6));
+        assertFalse(CandleRollUp.canRollUp(CandleGranularity.W, CandleGranularity.M));
+    }
+
+    @Test
+    public void givenBaseCandlesOfTradingDay_WhenRollUpToDaily_ThenDailyCandleStartsAtNewYorkClose() {
+        List<Candlestick> hourly = hourlyCandles(DAY_START, 26);
+
+        List<Candlestick> daily = rollUp.rollUp(hourly, CandleGranularity.H1, CandleGranularity.D, DAY_START.minusDays(1));
+
+        assertEquals(1, daily.size());
+        Candlestick candle = daily.get(0);
+        assertEquals(DAY_START.toInstant(), candle.getDateTime().toInstant());
+        assertEquals(new BigDecimal("1.16800"), candle.getOpenPrice());
+        assertEquals(new BigDecimal("1.16823"), candle.getHighPrice());
+        assertEquals(new BigDecimal("1.16799"), candle.getLowPrice());
+        assertEquals(new BigDecimal("1.16824"), candle.getClosePrice());
+        assertEquals(24L, candle.getVolume());
+        assertEquals(CandleGranularity.D.toSeconds(), candle.getTimeFrame());
+    }
+
+    @Test
+    public void givenBaseCandlesStartingInsideCandle_WhenRollUp_ThenPartialCandleIsDropped() {
+        List<Candlestick> hourly = hourlyCandles(DAY_START.plusHours(1), 24);
+
+        List<Candlestick> daily = rollUp.rollUp(hourly, CandleGranularity.H1, CandleGranularity.D, DAY_START.minusDays(1));
+
+        assertTrue(daily.isEmpty());
+    }
+
+    @Test
+    public void givenTime_WhenRollUp_ThenOnlyCandlesOpeningAfterItAreBuilt() {
+        List<Candlestick> hourly = hourlyCandles(DAY_START, 8);
+
+        List<Candlestick> candles = rollUp.rollUp(hourly, CandleGranularity.H1, CandleGranularity.H4, DAY_START);
+
+        assertEquals(1, candles.size());
+        assertEquals(DAY_START.plusHours(4).toInstant(), candles.get(0).getDateTime().toInstant());
+        assertEquals(4L, candles.get(0).getVolume());
+    }
+
+    @Test
+    public void givenLastBaseCandleNotClosingCandle_WhenRollUp_ThenCandleInProgressIsNotBuilt() {
+        List<Candlestick> hourly = hourlyCandles(DAY_START, 7);
+
+        List<Candlestick> candles = rollUp.rollUp(hourly, CandleGranularity.H1, CandleGranularity.H4, DAY_START.minusDays(1));
+
+        assertEquals(1, candles.size());
+        assertEquals(DAY_START.toInstant(), candles.get(0).getDateTime().toInstant());
+    }
+
+    private List<Candlestick> hourlyCandles(ZonedDateTime from, int quantity) {
+        List<Candlestick> candles = new ArrayList<>();
+        for (int i = 0; i < quantity; i++) {
+            long index = ChronoUnit.HOURS.between(DAY_START, from) + i;
+            candles.add(new Candle.CandleBuilder()
+                    .setDateTime(from.plusHours(i))
+                    .setTimeFrame(CandleGranularity.H1.toSeconds())
+                    .setOpenPrice(BigDecimal.valueOf(116800 + index, 5))
+                    .setHighPrice(BigDecimal.valueOf(116800 + index, 5))
+                    .setLowPrice(BigDecimal.valueOf(116799 + index, 5))
+                    .setClosePrice(BigDecimal.valueOf(116801 + index, 5))
+                    .build());
+        }
+        return candles;
+    }
+}
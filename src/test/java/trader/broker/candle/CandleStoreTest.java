@@ -0,0 +1,153 @@
+package trader.broker.candle;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import trader.entity.candlestick.CandleBuffer;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.Candle;
+import trader.exception.NullArgumentException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CandleStoreTest {
+
+    private static final ZonedDateTime FIRST_CANDLE_TIME = ZonedDateTime.parse("2018-06-01T10:00:00Z[UTC]");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private CandleStore store;
+
+    @Before
+    public void setUp() {
+        file = folder.getRoot().toPath().resolve("EUR_USD_M30.candles");
+        store = CandleStore.open(file);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullFile_WhenOpen_ThenException() {
+        CandleStore.open(null);
+    }
+
+    @Test
+    public void givenNewFile_WhenOpen_ThenEmpty() {
+        assertEquals(0, store.size());
+        assertEquals(Long.MIN_VALUE, store.lastTime());
+        assertEquals(0, store.load(10).size());
+    }
+
+    @Test
+    public void givenAppendedCandles_WhenLoad_ThenSamePricesTimesAndVolumes() {
+        store.append(candles(0, 3));
+
+        CandleBuffer loaded = store.load(3);
+
+        assertEquals(3, loaded.size());
+        Candlestick candle = loaded.getCandlestick(2);
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(60).toEpochSecond(), candle.getDateTime().toEpochSecond());
+        assertEquals(new BigDecimal("1.16802"), candle.getOpenPrice());
+        assertEquals(new BigDecimal("1.16852"), candle.getHighPrice());
+        assertEquals(new BigDecimal("1.16752"), candle.getLowPrice());
+        assertEquals(new BigDecimal("1.16822"), candle.getClosePrice());
+        assertEquals(102L, candle.getVolume());
+    }
+
+    @Test
+    public void givenOverlappingCandles_WhenAppend_ThenOnlyNewerAreWritten() {
+        store.append(candles(0, 5));
+
+        int written = store.append(candles(3, 4));
+
+        assertEquals(2, written);
+        assertEquals(7, store.size());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 6).toEpochSecond(), store.lastTime());
+    }
+
+    @Test
+    public void givenMoreStoredCandles_WhenLoad_ThenNewestOldestFirst() {
+        store.append(candles(0, 10));
+
+        CandleBuffer loaded = store.load(4);
+
+        assertEquals(4, loaded.size());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 6).toEpochSecond(), loaded.getTime(0));
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 9).toEpochSecond(), loaded.getTime(3));
+    }
+
+    @Test
+    public void givenStoredCandles_WhenReopen_ThenCandlesAreKept() {
+        store.append(candles(0, 10));
+        store.close();
+
+        store = CandleStore.open(file);
+
+        assertEquals(10, store.size());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 9).toEpochSecond(), store.lastTime());
+    }
+
+    @Test
+    public void givenMoreCandlesThanMappedCapacity_WhenAppend_ThenFileGrows() {
+        store.append(candles(0, 3000));
+        store.close();
+
+        store = CandleStore.open(file);
+
+        assertEquals(3000, store.size());
+        assertEquals(FIRST_CANDLE_TIME.plusMinutes(30 * 2999).toEpochSecond(), store.load(1).getTime(0));
+    }
+
+    @Test
+    public void givenStoredCandles_WhenReplace_ThenOnlyNewCandlesAreKept() {
+        store.append(candles(100, 10));
+
+        store.replace(candles(0, 4));
+
+        assertEquals(4, store.size());
+        assertEquals(FIRST_CANDLE_TIME.toEpochSecond(), store.load(4).getTime(0));
+    }
+
+    @Test
+    public void givenForeignFile_WhenOpen_ThenStartEmpty() throws IOException {
+        store.close();
+        Path foreign = folder.newFile("foreign.candles").toPath();
+        Files.write(foreign, "not a candle store, only some text".getBytes("UTF-8"));
+
+        store = CandleStore.open(foreign);
+
+        assertEquals(0, store.size());
+    }
+
+    private List<Candlestick> candles(int fromIndex, int quantity) {
+        List<Candlestick> candles = new ArrayList<>();
+        for (int i = fromIndex; i < fromIndex + quantity; i++) {
+            BigDecimal open = BigDecimal.valueOf(116800 + i, 5);
+            candles.add(new Candle.CandleBuilder()
+                    .setDateTime(FIRST_CANDLE_TIME.plusMinutes(30L * i))
+                    .setOpenPrice(open)
+                    .setHighPrice(open.add(new BigDecimal("0.0005")))
+                    .setLowPrice(open.subtract(new BigDecimal("0.0005")))
+                    .setClosePrice(open.add(new BigDecimal("0.0002")))
+                    .setVolume(100 + i)
+                    .setComplete(true)
+                    .build());
+        }
+        return candles;
+    }
+}
@@ -0,0 +1,166 @@
+package trader.broker.connector.oanda;
+
+import com.oanda.v20.account.Account;
+import com.oanda.v20.account.AccountChanges;
+import com.oanda.v20.account.AccountChangesResponse;
+import com.oanda.v20.account.AccountChangesState;
+import com.oanda.v20.order.MarketIfTouchedOrder;
+import com.oanda.v20.order.Order;
+import com.oanda.v20.order.StopLossOrder;
+import com.oanda.v20.primitives.AccountUnits;
+import com.oanda.v20.trade.TradeSummary;
+import com.oanda.v20.transaction.TransactionID;
+import org.junit.Before;
+import org.junit.Test;
+import trader.exception.NullArgumentException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OandaAccountStateTest {
+
+    private OandaAccountState accountState;
+    private Account account;
+
+    @Before
+    public void setUp() {
+        accountState = new OandaAccountState();
+        account = new Account()
+                .setBalance(new AccountUnits("1000.50"))
+                .setMarginUsed(new AccountUnits("20"))
+                .setMarginAvailable(new AccountUnits("980.50"))
+                .setUnrealizedPL(new AccountUnits("0"))
+                .setOrders(orders(new MarketIfTouchedOrder().setId("3")))
+                .setTrades(new ArrayList<TradeSummary>())
+                .setLastTransactionID("6");
+    }
+
+    @Test
+    public void givenNewState_WhenCallIsLoaded_ThenReturnFalse() {
+        assertFalse(accountState.isLoaded());
+        assertNull(accountState.getLastTransactionID());
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullAccount_WhenCallLoad_ThenThrowException() {
+        accountState.load(null);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullChanges_WhenCallApplyChanges_ThenThrowException() {
+        accountState.applyChanges(null);
+    }
+
+    @Test
+    public void givenAccount_WhenCallLoad_ThenCopyAccountValues() {
+        accountState.load(account);
+
+        assertTrue(accountState.isLoaded());
+        assertEquals("6", accountState.getLastTransactionID());
+        assertEquals(new BigDecimal("1000.50"), accountState.getBalance());
+        assertEquals(new BigDecimal("20"), accountState.getMarginUsed());
+        assertEquals(new BigDecimal("980.50"), accountState.getMarginAvailable());
+        assertEquals(1, accountState.getOrders().size());
+        assertEquals(0, accountState.getTrades().size());
+    }
+
+    @Test
+    public void givenFilledOrder_WhenCallApplyChanges_ThenOrderBecomesTradeWithStopLoss() {
+        accountState.load(account);
+        AccountChanges changes = new AccountChanges()
+                .setOrdersFilled(orders(new MarketIfTouchedOrder().setId("3")))
+                .setOrdersCreated(orders(new StopLossOrder().setId("8").setTradeID("7")))
+                .setTradesOpened(trades(new TradeSummary().setId("7").setStopLossOrderID("8")));
+        accountState.applyChanges(changesResponse(changes, null, "8"));
+
+        assertEquals(1, accountState.getOrders().size());
+        assertEquals("8", accountState.getOrders().get(0).getId().toString());
+        assertEquals(1, accountState.getTrades().size());
+        assertEquals("7", accountState.getTrades().get(0).getId().toString());
+        assertEquals("8", accountState.getLastTransactionID());
+    }
+
+    @Test
+    public void givenReplacedStopLoss_WhenCallApplyChanges_ThenTradePointsToNewStopLoss() {
+        account.setOrders(orders(new StopLossOrder().setId("8").setTradeID("7")))
+                .setTrades(trades(new TradeSummary().setId("7").setStopLossOrderID("8")));
+        accountState.load(account);
+        AccountChanges changes = new AccountChanges()
+                .setOrdersCancelled(orders(new StopLossOrder().setId("8").setTradeID("7")))
+                .setOrdersCreated(orders(new StopLossOrder().setId("9").setTradeID("7")));
+        accountState.applyChanges(changesResponse(changes, null, "9"));
+
+        assertEquals("9", accountState.getOrders().get(0).getId().toString());
+        assertEquals("9", accountState.getTrades().get(0).getStopLossOrderID().toString());
+    }
+
+    @Test
+    public void givenReducedAndClosedTrades_WhenCallApplyChanges_ThenKeepOnlyOpenTradesInOpeningOrder() {
+        account.setTrades(trades(new TradeSummary().setId("4").setCurrentUnits("100"),
+                new TradeSummary().setId("5"), new TradeSummary().setId("7")));
+        accountState.load(account);
+        AccountChanges changes = new AccountChanges()
+                .setTradesReduced(trades(new TradeSummary().setId("4").setCurrentUnits("50")))
+                .setTradesClosed(trades(new TradeSummary().setId("5")));
+        accountState.applyChanges(changesResponse(changes, null, "10"));
+
+        List<TradeSummary> trades = accountState.getTrades();
+        assertEquals(2, trades.size());
+        assertEquals("4", trades.get(0).getId().toString());
+        assertEquals("50", trades.get(0).getCurrentUnits().toString());
+        assertEquals("7", trades.get(1).getId().toString());
+    }
+
+    @Test
+    public void givenChangesState_WhenCallApplyChanges_ThenUpdateMarginAndBalance() {
+        accountState.load(account);
+        AccountChangesState state = new AccountChangesState()
+                .setMarginUsed(new AccountUnits("40"))
+                .setMarginAvailable(new AccountUnits("950"))
+                .setUnrealizedPL(new AccountUnits("-10.50"))
+                .setNAV(new AccountUnits("990"));
+        accountState.applyChanges(changesResponse(null, state, "11"));
+
+        assertEquals(new BigDecimal("40"), accountState.getMarginUsed());
+        assertEquals(new BigDecimal("950"), accountState.getMarginAvailable());
+        assertEquals(new BigDecimal("1000.50"), accountState.getBalance());
+        assertEquals(1, accountState.getOrders().size());
+    }
+
+    @Test
+    public void givenLoadedState_WhenCallClear_ThenStateIsNotLoaded() {
+        accountState.load(account);
+        accountState.clear();
+
+        assertFalse(accountState.isLoaded());
+        assertEquals(0, accountState.getOrders().size());
+        assertEquals(BigDecimal.ZERO, accountState.getBalance());
+    }
+
+    private AccountChangesResponse changesResponse(AccountChanges changes, AccountChangesState state, String lastTransactionID) {
+        AccountChangesResponse changesResponse = mock(AccountChangesResponse.class);
+        when(changesResponse.getChanges()).thenReturn(changes);
+        when(changesResponse.getState()).thenReturn(state);
+        when(changesResponse.getLastTransactionID()).thenReturn(new TransactionID(lastTransactionID));
+        return changesResponse;
+    }
+
+    private List<Order> orders(Order... orders) {
+        List<Order> orderList = new ArrayList<>();
+        for (Order order : orders)
+            orderList.add(order);
+        return orderList;
+    }
+
+    private List<TradeSummary> trades(TradeSummary... trades) {
+        List<TradeSummary> tradeList = new ArrayList<>();
+        for (TradeSummary trade : trades)
+            tradeList.add(trade);
+        return tradeList;
+    }
+}
@@ -0,0 +1,349 @@
+package trader.broker.connector.oanda;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import trader.CommonTestClassMembers;
+import trader.broker.connector.BaseConnector;
+import trader.broker.connector.BaseGateway;
+import trader.broker.connector.BrokerConnector;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.order.enums.OrderType;
+import trader.entity.price.Price;
+import trader.entity.trade.BrokerTradeDetails;
+import trader.exception.BadRequestException;
+import trader.observer.Observer;
+import trader.presenter.Presenter;
+import trader.simulator.TickReplay;
+import trader.simulator.V20Simulator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class OandaGatewaySimulatorTest {
+
+    private static final String ENTRY_PRICE = "1.16700";
+    private static final String STOP_LOSS_PRICE = "1.16400";
+    private static final long MIN_REQUESTS_PER_SECOND = 200L;
+
+    private V20Simulator simulator;
+    private OandaGateway oandaGateway;
+    private CommonTestClassMembers commonMembers;
+
+    @Before
+    public void before() throws Exception {
+        simulator = new V20Simulator.Builder().build().start();
+        oandaGateway = createGateway(simulator);
+        commonMembers = new CommonTestClassMembers();
+    }
+
+    @After
+    public void after() {
+        simulator.stop();
+    }
+
+    @Test
+    public void givenSimulator_WhenCallValidateConnector_ThenAccountIsValid() {
+        oandaGateway.validateConnector();
+
+        assertEquals(0, new BigDecimal("10000").compareTo(oandaGateway.getBalance()));
+        assertEquals(0, oandaGateway.totalOpenOrdersSize());
+        assertEquals(0, oandaGateway.totalOpenTradesSize());
+    }
+
+    @Test
+    public void givenTickReplay_WhenCallGetPrice_ThenReturnTicksInOrder() {
+        TickReplay.Tick first = simulator.getTicks().next();
+        TickReplay.Tick second = simulator.getTicks().next();
+        simulator = restart(new V20Simulator.Builder().setTicks(replayOf(first, second)));
+
+        Price firstPrice = oandaGateway.getPrice("EUR_USD");
+        Price secondPrice = oandaGateway.getPrice("EUR_USD");
+
+        assertEquals(0, first.getAsk().compareTo(firstPrice.getAsk()));
+        assertEquals(0, first.getBid().compareTo(firstPrice.getBid()));
+        assertEquals(first.getTime(), firstPrice.getDateTime().toInstant());
+        assertEquals(0, second.getBid().compareTo(secondPrice.getBid()));
+        assertTrue(firstPrice.isTradable());
+    }
+
+    @Test
+    public void givenSeveralInstruments_WhenCallGetPrices_ThenPriceAllInOneRequest() {
+        Map<String, Price> prices = oandaGateway.getPrices(Arrays.asList("EUR_USD", "GBP_USD", "USD_JPY"));
+
+        assertEquals(3, prices.size());
+        assertTrue(prices.get("GBP_USD").isTradable());
+        assertTrue(prices.get("USD_JPY").isTradable());
+        assertEquals(1, simulator.getRequestCount());
+    }
+
+    @Test
+    public void givenRequestsSent_WhenCallRequestCounters_ThenCountersAreReported() {
+        oandaGateway.getPrice("EUR_USD");
+        oandaGateway.getPrice("EUR_USD");
+
+        assertEquals(2, oandaGateway.getScheduledRequests());
+        assertEquals(0, oandaGateway.getCoalescedRequests());
+        assertEquals(0, oandaGateway.getRequestQueueDepth());
+        assertTrue(oandaGateway.getMaxRequestWaitMillis() >= oandaGateway.getAverageRequestWaitMillis());
+    }
+
+    @Test
+    public void givenCandleRequest_WhenCallGetCandles_ThenReturnOnlyCompleteCandles() {
+        HashMap<String, String> settings = new HashMap<>();
+        settings.put("instrument", "EUR_USD");
+        settings.put("quantity", "20");
+        settings.put("granularity", "M30");
+
+        List<Candlestick> candles = oandaGateway.getCandles(settings);
+
+        assertEquals(19, candles.size());
+        for (Candlestick candle : candles) {
+            assertTrue(candle.getHighPrice().compareTo(candle.getLowPrice()) >= 0);
+            assertTrue(candle.isComplete());
+        }
+        assertTrue(candles.get(0).getDateTime().isBefore(candles.get(18).getDateTime()));
+    }
+
+    @Test
+    public void givenDirectDecoding_WhenCallGetCandles_ThenSameCandlesAsV20Response() {
+        HashMap<String, String> settings = new HashMap<>();
+        settings.put("instrument", "EUR_USD");
+        settings.put("quantity", "50");
+        settings.put("granularity", "M30");
+        List<Candlestick> expected = oandaGateway.getCandles(settings);
+
+        oandaGateway.setDirectDecoding(true);
+        List<Candlestick> decoded = oandaGateway.getCandles(settings);
+
+        assertEquals(expected.size(), decoded.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(0, expected.get(i).getClosePrice().compareTo(decoded.get(i).getClosePrice()));
+            assertEquals(0, expected.get(i).getLowPrice().compareTo(decoded.get(i).getLowPrice()));
+            assertEquals(expected.get(i).getDateTime(), decoded.get(i).getDateTime());
+            assertEquals(expected.get(i).getVolume(), decoded.get(i).getVolume());
+        }
+        assertEquals(expected.size(), oandaGateway.getCandleBuffer(settings).size());
+    }
+
+    @Test
+    public void givenDirectDecoding_WhenCallGetPrices_ThenPriceAllInOneRequest() {
+        TickReplay.Tick tick = simulator.getTicks().next();
+        simulator = restart(new V20Simulator.Builder().setTicks(replayOf(tick)));
+        oandaGateway.setDirectDecoding(true);
+
+        Map<String, Price> prices = oandaGateway.getPrices(Arrays.asList("EUR_USD", "GBP_USD"));
+        Price price = oandaGateway.getPrice("EUR_USD");
+
+        assertEquals(2, prices.size());
+        assertEquals(0, tick.getAsk().compareTo(prices.get("GBP_USD").getAsk()));
+        assertEquals(tick.getTime(), price.getDateTime().toInstant());
+        assertTrue(price.isTradable());
+        assertEquals(2, simulator.getRequestCount());
+    }
+
+    @Test
+    public void givenPlacedOrder_WhenCallCancelOrder_ThenOrderIsRemoved() {
+        String orderID = oandaGateway.placeOrder(marketIfTouchedSettings(), "marketIfTouchedOrder");
+
+        assertEquals(1, oandaGateway.totalOpenOrdersSize());
+        assertEquals(orderID, simulator.getPendingOrderIDs().get(0));
+
+        oandaGateway.cancelOrder(orderID);
+
+        assertEquals(0, oandaGateway.totalOpenOrdersSize());
+        assertTrue(simulator.getPendingOrderIDs().isEmpty());
+    }
+
+    @Test
+    public void givenPlacedOrder_WhenCallReplaceOrder_ThenOnlyNewOrderIsPending() {
+        String orderID = oandaGateway.placeOrder(marketIfTouchedSettings(), "marketIfTouchedOrder");
+        HashMap<String, String> settings = marketIfTouchedSettings();
+        settings.put("unitsSize", "2000");
+
+        String newOrderID = oandaGateway.replaceOrder(orderID, settings);
+
+        assertNotEquals(orderID, newOrderID);
+        assertEquals(newOrderID, simulator.getPendingOrderIDs().get(0));
+        assertEquals(1, oandaGateway.totalOpenOrdersSize());
+        assertEquals(0, new BigDecimal("2000").compareTo(oandaGateway.getOrder(OrderType.MARKET_IF_TOUCHED).getUnits()));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenCancelledOrder_WhenCallReplaceOrder_ThenThrowException() {
+        String orderID = oandaGateway.placeOrder(marketIfTouchedSettings(), "marketIfTouchedOrder");
+        oandaGateway.cancelOrder(orderID);
+
+        oandaGateway.replaceOrder(orderID, marketIfTouchedSettings());
+    }
+
+    @Test
+    public void givenFilledOrder_WhenCallSetTradeStopLossPrice_ThenTradeHasNewStopLoss() {
+        oandaGateway.getBalance();
+        String orderID = oandaGateway.placeOrder(marketIfTouchedSettings(), "marketIfTouchedOrder");
+        String tradeID = simulator.fillOrder(orderID);
+        oandaGateway.invalidateAccountSnapshot();
+
+        BrokerTradeDetails openedTrade = oandaGateway.getTradeDetails(0);
+        assertEquals(tradeID, openedTrade.getTradeID());
+        assertEquals(0, new BigDecimal(STOP_LOSS_PRICE).compareTo(openedTrade.getStopLossPrice()));
+
+        oandaGateway.setTradeStopLossPrice(tradeID, "1.16600");
+        BrokerTradeDetails movedTrade = oandaGateway.getTradeDetails(0);
+
+        assertEquals("1.16600", simulator.getStopLossPrice(tradeID));
+        assertEquals(0, new BigDecimal("1.16600").compareTo(movedTrade.getStopLossPrice()));
+        assertEquals(1, oandaGateway.totalOpenTradesSize());
+        assertEquals(1, oandaGateway.totalOpenOrdersSize());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenRejectedCancel_WhenCallCancelOrder_ThenThrowBadRequest() {
+        String orderID = oandaGateway.placeOrder(marketIfTouchedSettings(), "marketIfTouchedOrder");
+        simulator.failNextRequests(1, 400);
+
+        oandaGateway.cancelOrder(orderID);
+    }
+
+    @Test
+    public void givenRejectedStopLossUpdate_WhenCallSetTradeStopLossPrice_ThenThrowBadRequestAndKeepStopLoss() {
+        String orderID = oandaGateway.placeOrder(marketIfTouchedSettings(), "marketIfTouchedOrder");
+        String tradeID = simulator.fillOrder(orderID);
+        simulator.failNextRequests(1, 400);
+
+        try {
+            oandaGateway.setTradeStopLossPrice(tradeID, "1.16600");
+            fail();
+        } catch (BadRequestException e) {
+            assertEquals(1, simulator.getInjectedErrorCount());
+            assertEquals(0, new BigDecimal(STOP_LOSS_PRICE).compareTo(new BigDecimal(simulator.getStopLossPrice(tradeID))));
+        }
+    }
+
+    @Test
+    public void givenInjectedServerErrors_WhenCallGetPrice_ThenRetryUntilSuccess() {
+        simulator.failNextRequests(2, 503);
+
+        Price price = oandaGateway.getPrice("EUR_USD");
+
+        assertTrue(price.isTradable());
+        assertEquals(2, simulator.getInjectedErrorCount());
+        assertEquals(3, simulator.getRequestCount());
+    }
+
+    @Test(timeout = 10_000)
+    public void givenPriceStream_WhenStream_ThenObserverReceivesReplayedPrices() {
+        final AtomicInteger prices = new AtomicInteger();
+        OandaPriceStream priceStream = new OandaPriceStream(simulator.getUrl(), connectorOf(simulator),
+                mock(Presenter.class), 2_000, 10L, 1);
+
+        priceStream.stream("EUR_USD", new Observer() {
+            @Override
+            public void updateObserver(Price price) {
+                assertTrue(price.isTradable());
+                //the stream stops once the calling thread is interrupted
+                if(prices.incrementAndGet() == 5)
+                    Thread.currentThread().interrupt();
+            }
+        });
+        Thread.interrupted();
+
+        assertEquals(5, prices.get());
+        assertEquals(1, priceStream.getSubscriptions());
+    }
+
+    @Test(timeout = 30_000)
+    public void givenManyThreads_WhenCallGatewayConcurrently_ThenEveryCallSucceedsAboveThroughputFloor() throws Exception {
+        final int threads = 8;
+        final long start = System.nanoTime();
+        final long deadline = System.currentTimeMillis() + 2_000L;
+        //the default limit is the one of the real broker, the simulator takes far more
+        commonMembers.changeFieldObject(getResponseBuilder(), "requestScheduler", new OandaRequestScheduler(100_000, 1_000));
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            final boolean readsAccount = i % 2 == 0;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while (System.currentTimeMillis() < deadline) {
+                            if(readsAccount)
+                                oandaGateway.invalidateAccountSnapshot();
+                            if(oandaGateway.getPrice("EUR_USD") == null || (readsAccount && oandaGateway.getBalance() == null))
+                                failures.incrementAndGet();
+                            calls.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+
+        assertTrue(done.await(20, TimeUnit.SECONDS));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long requestsPerSecond = Math.round(simulator.getRequestCount() / seconds);
+        System.out.println("Simulator load test: " + simulator.getRequestCount() + " requests, " + requestsPerSecond + " requests/s");
+        assertEquals(0, failures.get());
+        //a single core does 500 to 1300 requests a second, the floor leaves room for a loaded build machine
+        assertTrue("only " + requestsPerSecond + " requests/s", requestsPerSecond >= MIN_REQUESTS_PER_SECOND);
+    }
+
+    private OandaGateway createGateway(V20Simulator simulator) {
+        return (OandaGateway) BaseGateway.create("Oanda", connectorOf(simulator), mock(Presenter.class));
+    }
+
+    private BrokerConnector connectorOf(V20Simulator simulator) {
+        BrokerConnector connector = BaseConnector.create("Oanda");
+        connector.setUrl(simulator.getUrl());
+        connector.setToken("simulator-token");
+        connector.setAccountID(simulator.getAccountID());
+        connector.setLeverage("0.02");
+        return connector;
+    }
+
+    private V20Simulator restart(V20Simulator.Builder builder) {
+        simulator.stop();
+        try {
+            V20Simulator restarted = builder.build().start();
+            oandaGateway = createGateway(restarted);
+            return restarted;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private TickReplay replayOf(TickReplay.Tick... ticks) {
+        List<TickReplay.Tick> list = new ArrayList<>();
+        for (TickReplay.Tick tick : ticks)
+            list.add(tick);
+        return new TickReplay(list);
+    }
+
+    private HashMap<String, String> marketIfTouchedSettings() {
+        HashMap<String, String> settings = new HashMap<>();
+        settings.put("instrument", "EUR_USD");
+        settings.put("unitsSize", "1000");
+        settings.put("tradeEntryPrice", ENTRY_PRICE);
+        settings.put("tradeStopLossPrice", STOP_LOSS_PRICE);
+        return settings;
+    }
+
+    private OandaResponseBuilder getResponseBuilder() {
+        return (OandaResponseBuilder) commonMembers.extractFieldObject(oandaGateway, "oandaResponseBuilder");
+    }
+}
@@ -2,10 +2,13 @@ package trader.broker.connector.oanda;
 
 import com.oanda.v20.Context;
 import com.oanda.v20.account.Account;
+import com.oanda.v20.account.AccountChanges;
+import com.oanda.v20.account.AccountChangesResponse;
 import com.oanda.v20.order.*;
 import com.oanda.v20.pricing_common.PriceValue;
 import com.oanda.v20.primitives.AccountUnits;
 import com.oanda.v20.trade.TradeSetDependentOrdersResponse;
+import com.oanda.v20.trade.TradeID;
 import com.oanda.v20.trade.TradeSummary;
 import com.oanda.v20.transaction.Transaction;
 import com.oanda.v20.transaction.TransactionID;
@@ -25,14 +28,18 @@ import trader.entity.trade.BrokerTradeDetails;
 import trader.exception.BadRequestException;
 import trader.exception.EmptyArgumentException;
 import trader.exception.NullArgumentException;
+import trader.observer.Observer;
 import trader.presenter.Presenter;
 import trader.requestor.Request;
 import trader.responder.Response;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static junit.framework.TestCase.assertSame;
 import static org.junit.Assert.*;
@@ -75,6 +82,7 @@ public class OandaGatewayTest {
         mockRequestBuilder = mock(OandaRequestBuilder.class);
         argument = ArgumentCaptor.forClass(HashMap.class);
         accountMock = mock(Account.class);
+        when(accountMock.getLastTransactionID()).thenReturn(new TransactionID("6"));
         oandaTransformerMock = mock(OandaTransformer.class);
         presenterMock = mock(Presenter.class);
         oandaGateway = (OandaGateway) BaseGateway.create("Oanda", connectorMock, presenterMock);
@@ -148,6 +156,38 @@ public class OandaGatewayTest {
         assertEquals(mockPrice, actualPrice);
     }
 
+    @Test(expected = NullArgumentException.class)
+    public void givenNullInstruments_WhenCallGetPrices_ThenThrowException(){
+        oandaGateway.getPrices(null);
+    }
+
+    @Test(expected = EmptyArgumentException.class)
+    public void givenNoInstruments_WhenCallGetPrices_ThenThrowException(){
+        oandaGateway.getPrices(new ArrayList<String>());
+    }
+
+    @Test(expected = EmptyArgumentException.class)
+    public void givenBlankInstrument_WhenCallGetPrices_ThenThrowException(){
+        oandaGateway.getPrices(Arrays.asList("EUR_USD", " "));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenSeveralInstruments_WhenCallGetPrices_ThenBuildOneRequestForAll(){
+        HashMap<String, Price> prices = new HashMap<>();
+        prices.put("EUR_USD", mockPrice);
+        setFakeContext();
+        setFakeBuilders();
+        setFakeTransformer();
+        when(oandaTransformerMock.transformToPrices(responseMock)).thenReturn(prices);
+
+        Map<String, Price> actualPrices = oandaGateway.getPrices(Arrays.asList("EUR_USD", " GBP_USD", "EUR_USD"));
+
+        verify(mockRequestBuilder, times(1)).build(eq("price"), argument.capture());
+        assertEquals("EUR_USD,GBP_USD", argument.getValue().get("instrument"));
+        assertEquals(prices, actualPrices);
+    }
+
     @Test
     public void testGetCandlesToReturnCorrectValue(){
         List<Candlestick> candles = new ArrayList<>();
@@ -258,6 +298,45 @@ public class OandaGatewayTest {
         assertEquals(FAKE_ACCOUNT_ID, settings.get("accountID"));
     }
 
+    @Test
+    public void givenPendingOrder_WhenCallReplaceOrder_ThenReturnNewOrderID(){
+        makeFakeReplacedOrder("21");
+        String result = oandaGateway.replaceOrder("18", new HashMap<String, String>());
+
+        assertEquals("21", result);
+    }
+
+    @Test
+    public void givenPendingOrder_WhenCallReplaceOrder_ThenSendOrderAndAccountIDs(){
+        makeFakeReplacedOrder("21");
+        HashMap<String, String> orderSettings = new HashMap<>();
+        orderSettings.put("unitsSize", "100");
+        oandaGateway.replaceOrder("18", orderSettings);
+        verify(mockRequestBuilder).build(eq("replaceOrder"), argument.capture());
+        HashMap<String, String> settings = argument.getValue();
+
+        assertEquals(3, settings.size());
+        assertEquals(FAKE_ACCOUNT_ID, settings.get("accountID"));
+        assertEquals("18", settings.get("orderID"));
+        assertEquals(1, orderSettings.size());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenRejectedReplace_WhenCallReplaceOrder_ThenThrowException(){
+        makeFakeReplacedOrder("21");
+        when(mockResponseBuilder.buildResponse(anyString(), any(Request.class))).thenReturn(null);
+        oandaGateway.replaceOrder("18", new HashMap<String, String>());
+    }
+
+    @Test
+    public void WhenCallReplaceOrder_ThenAccountSnapshotIsInvalidated(){
+        makeFakeReplacedOrder("21");
+        long version = getAccountVersion();
+        oandaGateway.replaceOrder("18", new HashMap<String, String>());
+
+        assertEquals(version + 1, getAccountVersion());
+    }
+
     @Test(expected = BadRequestException.class)
     public void WhenCallGetTradeDetailsAndThereAreNoTrades_ThrowException(){
         setFakeContext();
@@ -274,6 +353,7 @@ public class OandaGatewayTest {
         setFakeContext();
         setFakeBuilders();
         TradeSummary tradeSummaryMock = mock(TradeSummary.class);
+        when(tradeSummaryMock.getId()).thenReturn(new TradeID("5"));
         BrokerTradeDetails tradeDetailsMock = mock(BrokerTradeDetails.class);
         List<TradeSummary> tradesList = new ArrayList<>();
         tradesList.add(tradeSummaryMock);
@@ -451,6 +531,7 @@ public class OandaGatewayTest {
 
     private MarketIfTouchedOrder setFakeMarketIFTouchedOrder() {
         MarketIfTouchedOrder orderMock = mock(MarketIfTouchedOrder.class);
+        when(orderMock.getId()).thenReturn(new OrderID("3"));
         when(orderMock.getType()).thenReturn(OrderType.MARKET_IF_TOUCHED);
         return orderMock;
     }
@@ -466,6 +547,16 @@ public class OandaGatewayTest {
         //return oandaGateway.placeMarketIfTouchedOrder(new HashMap<>());
     }
 
+    private void makeFakeReplacedOrder(String transactionID) {
+        setFakeContext();
+        setFakeBuilders();
+        setFakeConnector();
+        setFakeTransaction(transactionID);
+        OrderReplaceResponse replaceResponseMock = mock(OrderReplaceResponse.class);
+        when(replaceResponseMock.getOrderCreateTransaction()).thenReturn(transactionMock);
+        when(responseMock.getBody()).thenReturn(replaceResponseMock);
+    }
+
     private void setFakeTransaction(String expectedID) {
         when(transactionIDMock.toString()).thenReturn(expectedID);
         when(transactionMock.getId()).thenReturn(transactionIDMock);
@@ -535,4 +626,175 @@ public class OandaGatewayTest {
     private void setFakeContext() {
         commonMembers.changeFieldObject(oandaGateway, "context", contextMock);
     }
+    @Test(expected = NullArgumentException.class)
+    public void givenNullInstrument_WhenCallStreamPrices_ThenThrowException(){
+        oandaGateway.streamPrices(null, mock(Observer.class));
+    }
+
+    @Test(expected = EmptyArgumentException.class)
+    public void givenEmptyInstrument_WhenCallStreamPrices_ThenThrowException(){
+        oandaGateway.streamPrices(" ", mock(Observer.class));
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullObserver_WhenCallStreamPrices_ThenThrowException(){
+        oandaGateway.streamPrices("EUR_USD", null);
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallStreamPrices_ThenDelegateToPriceStream(){
+        OandaPriceStream priceStreamMock = mock(OandaPriceStream.class);
+        Observer observerMock = mock(Observer.class);
+        commonMembers.changeFieldObject(oandaGateway, "oandaPriceStream", priceStreamMock);
+        oandaGateway.streamPrices("EUR_USD", observerMock);
+
+        verify(priceStreamMock, times(1)).stream("EUR_USD", observerMock);
+    }
+
+    @Test
+    public void givenRestUrl_WhenCreate_ThenStreamUrlPointsToStreamHost(){
+        when(connectorMock.getUrl()).thenReturn("https://api-fxpractice.oanda.com");
+        OandaGateway gateway = (OandaGateway) BaseGateway.create("Oanda", connectorMock, presenterMock);
+        Object priceStream = commonMembers.extractFieldObject(gateway, "oandaPriceStream");
+
+        assertEquals("https://stream-fxpractice.oanda.com", commonMembers.extractFieldObject(priceStream, "streamUrl"));
+    }
+
+    @Test
+    public void givenOneTick_WhenCallSeveralAccountQueries_ThenFetchAccountOnce(){
+        List<TradeSummary> trades = new ArrayList<>();
+        setFakeTradeSummaryList(trades);
+        when(accountMock.getOrders()).thenReturn(new ArrayList<Order>());
+
+        oandaGateway.totalOpenTradesSize();
+        oandaGateway.totalOpenOrdersSize();
+        oandaGateway.totalOpenTradesSize();
+        oandaGateway.getTradeStopLossPrice("1");
+
+        verify(mockResponseBuilder, times(1)).buildResponse(eq("accountID"), any(Request.class));
+    }
+
+    @Test
+    public void givenInvalidatedSnapshot_WhenCallAccountQuery_ThenFetchOnlyAccountChanges(){
+        List<TradeSummary> trades = new ArrayList<>();
+        setFakeTradeSummaryList(trades);
+        AccountChangesResponse changesResponseMock = mock(AccountChangesResponse.class);
+        when(changesResponseMock.getLastTransactionID()).thenReturn(new TransactionID("7"));
+
+        oandaGateway.totalOpenTradesSize();
+        when(responseMock.getBody()).thenReturn(changesResponseMock);
+        oandaGateway.invalidateAccountSnapshot();
+        oandaGateway.totalOpenTradesSize();
+        oandaGateway.totalOpenTradesSize();
+
+        verify(mockResponseBuilder, times(1)).buildResponse(eq("accountID"), any(Request.class));
+        verify(mockResponseBuilder, times(1)).buildResponse(eq("accountChanges"), any(Request.class));
+        verify(mockRequestBuilder).build(eq("accountChanges"), argument.capture());
+        assertEquals("6", argument.getValue().get("sinceTransactionID"));
+    }
+
+    @Test
+    public void givenAccountChanges_WhenCallAccountQueries_ThenReadTheUpdatedAccount(){
+        setFakeTradeSummaryList(new ArrayList<TradeSummary>());
+        assertEquals(0, oandaGateway.totalOpenTradesSize());
+
+        AccountChangesResponse changesResponseMock = mock(AccountChangesResponse.class);
+        AccountChanges changes = new AccountChanges();
+        List<TradeSummary> opened = new ArrayList<>();
+        opened.add(new TradeSummary().setId("8"));
+        changes.setTradesOpened(opened);
+        when(changesResponseMock.getChanges()).thenReturn(changes);
+        when(changesResponseMock.getLastTransactionID()).thenReturn(new TransactionID("8"));
+        when(responseMock.getBody()).thenReturn(changesResponseMock);
+        oandaGateway.invalidateAccountSnapshot();
+
+        assertEquals(1, oandaGateway.totalOpenTradesSize());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void givenLostAccountChanges_WhenCallAccountQuery_ThenLoadWholeAccount(){
+        setFakeTradeSummaryList(new ArrayList<TradeSummary>());
+        oandaGateway.totalOpenTradesSize();
+        Request changesRequestMock = mock(Request.class);
+        when(mockRequestBuilder.build(eq("accountChanges"), any(HashMap.class))).thenReturn(changesRequestMock);
+        when(mockResponseBuilder.buildResponse("accountChanges", changesRequestMock)).thenReturn(null);
+        oandaGateway.invalidateAccountSnapshot();
+        oandaGateway.totalOpenTradesSize();
+
+        verify(mockResponseBuilder, times(2)).buildResponse(eq("accountID"), any(Request.class));
+    }
+
+    @Test
+    public void givenNullAccount_WhenCallAccountQuery_ThenThrowExceptionAndLoadItOnTheNextQuery(){
+        setFakeContext();
+        setFakeBuilders();
+        when(responseMock.getBody()).thenReturn(null).thenReturn(accountMock);
+        when(accountMock.getTrades()).thenReturn(new ArrayList<TradeSummary>());
+
+        try {
+            oandaGateway.totalOpenTradesSize();
+            fail();
+        } catch (BadRequestException e) {
+            assertEquals(0, oandaGateway.totalOpenTradesSize());
+        }
+    }
+
+    @Test
+    public void givenExistingTrade_WhenCallGetTradeDetails_ThenTradesAndOrdersComeFromOneAccount(){
+        TradeSummary tradeSummaryMock = mock(TradeSummary.class);
+        when(tradeSummaryMock.getId()).thenReturn(new TradeID("5"));
+        List<TradeSummary> tradesList = new ArrayList<>();
+        tradesList.add(tradeSummaryMock);
+        setFakeTradeSummaryList(tradesList);
+        setFakeTransformer();
+
+        oandaGateway.getTradeDetails(0);
+
+        verify(mockResponseBuilder, times(1)).buildResponse(eq("accountID"), any(Request.class));
+    }
+
+    @Test
+    public void WhenCallPlaceOrder_ThenAccountSnapshotIsInvalidated(){
+        makeFakeOrder("18");
+        long version = getAccountVersion();
+        oandaGateway.placeOrder(new HashMap<>(), "marketOrder");
+
+        assertEquals(version + 1, getAccountVersion());
+    }
+
+    @Test
+    public void WhenCallCancelOrder_ThenAccountSnapshotIsInvalidated(){
+        setFakeContext();
+        setFakeConnector();
+        setFakeBuilders();
+        OrderCancelResponse orderCancelResponseMock = mock(OrderCancelResponse.class);
+        TransactionID transactionID = setFakeTransactionID("14");
+        when(orderCancelResponseMock.getLastTransactionID()).thenReturn(transactionID);
+        when(responseMock.getBody()).thenReturn(orderCancelResponseMock);
+        long version = getAccountVersion();
+        oandaGateway.cancelOrder("12");
+
+        assertEquals(version + 1, getAccountVersion());
+    }
+
+    @Test
+    public void WhenCallSetTradeStopLossPrice_ThenAccountSnapshotIsInvalidated(){
+        setFakeContext();
+        setFakeConnector();
+        setFakeBuilders();
+        TradeSetDependentOrdersResponse dependentOrdersResponseMock = mock(TradeSetDependentOrdersResponse.class);
+        TransactionID transactionID = setFakeTransactionID("14");
+        when(dependentOrdersResponseMock.getLastTransactionID()).thenReturn(transactionID);
+        when(responseMock.getBody()).thenReturn(dependentOrdersResponseMock);
+        long version = getAccountVersion();
+        oandaGateway.setTradeStopLossPrice("12", "1.12345");
+
+        assertEquals(version + 1, getAccountVersion());
+    }
+
+    private long getAccountVersion() {
+        return ((AtomicLong) commonMembers.extractFieldObject(oandaGateway, "accountVersion")).get();
+    }
+
 }
@@ -0,0 +1,209 @@
+package trader.broker.connector.oanda;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import trader.broker.connector.BrokerConnector;
+import trader.entity.price.Price;
+import trader.exception.NullArgumentException;
+import trader.observer.Observer;
+import trader.presenter.Presenter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+public class OandaPriceStreamTest {
+
+    private static final String ACCOUNT_ID = "101-004-1234567-001";
+    private static final String TOKEN = "token";
+    private static final String INSTRUMENT = "EUR_USD";
+    private static final String HEARTBEAT = "{\"type\":\"HEARTBEAT\",\"time\":\"2012-06-30T12:30:45.000000000Z\"}\n";
+    private static final String PRICE = "{\"type\":\"PRICE\",\"time\":\"2012-06-30T12:30:40.000000000Z\"," +
+            "\"bids\":[{\"price\":\"1.13510\",\"liquidity\":10000000}]," +
+            "\"asks\":[{\"price\":\"1.13524\",\"liquidity\":10000000}]," +
+            "\"tradeable\":true,\"instrument\":\"EUR_USD\"}\n";
+
+    private HttpServer server;
+    private BrokerConnector connectorMock;
+    private Presenter presenterMock;
+    private Observer observerMock;
+    private AtomicInteger requests;
+    private volatile String requestPath;
+    private volatile String authorization;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        connectorMock = mock(BrokerConnector.class);
+        when(connectorMock.getAccountID()).thenReturn(ACCOUNT_ID);
+        when(connectorMock.getToken()).thenReturn(TOKEN);
+        presenterMock = mock(Presenter.class);
+        observerMock = mock(Observer.class);
+        requests = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullStreamUrl_WhenCreate_ThenThrowException() {
+        new OandaPriceStream(null, connectorMock, presenterMock);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullConnector_WhenCreate_ThenThrowException() {
+        new OandaPriceStream("http://localhost", null, presenterMock);
+    }
+
+    @Test
+    public void givenStreamWithPriceAndHeartbeat_WhenCallStream_ThenPushPriceAndRecordHeartbeat() {
+        server.createContext("/", new OneStreamHandler(HEARTBEAT + PRICE));
+        OandaPriceStream priceStream = startStream(5_000, 1);
+
+        priceStream.stream(INSTRUMENT, observerMock);
+
+        ArgumentCaptor<Price> priceCaptor = ArgumentCaptor.forClass(Price.class);
+        verify(observerMock, times(1)).updateObserver(priceCaptor.capture());
+        assertEquals(new BigDecimal("1.13524"), priceCaptor.getValue().getAsk());
+        assertEquals(new BigDecimal("1.13510"), priceCaptor.getValue().getBid());
+        assertTrue(priceStream.getLastHeartbeatMillis() > 0);
+        assertEquals(1, priceStream.getSubscriptions());
+    }
+
+    @Test
+    public void givenObserverFailingOnFirstPrice_WhenCallStream_ThenReportAndPushTheNextPrice() {
+        server.createContext("/", new OneStreamHandler(PRICE + PRICE));
+        doThrow(new IllegalStateException("order rejected")).doNothing()
+                .when(observerMock).updateObserver(any(Price.class));
+        OandaPriceStream priceStream = startStream(5_000, 1);
+
+        priceStream.stream(INSTRUMENT, observerMock);
+
+        verify(observerMock, times(2)).updateObserver(any(Price.class));
+        verify(presenterMock, times(1)).execute("Price update failed: java.lang.IllegalStateException: order rejected");
+        assertEquals(1, priceStream.getSubscriptions());
+    }
+
+    @Test
+    public void givenUnreadablePrice_WhenCallStream_ThenReportAndKeepStreaming() {
+        String badPrice = PRICE.replace("2012-06-30T12:30:40.000000000Z", "yesterday");
+        server.createContext("/", new OneStreamHandler(badPrice + PRICE));
+        OandaPriceStream priceStream = startStream(5_000, 1);
+
+        priceStream.stream(INSTRUMENT, observerMock);
+
+        verify(observerMock, times(1)).updateObserver(any(Price.class));
+        verify(presenterMock, atLeastOnce()).execute(startsWith("Price update failed: "));
+    }
+
+    @Test
+    public void givenStream_WhenCallStream_ThenSubscribeToTheInstrumentWithToken() {
+        server.createContext("/", new OneStreamHandler(HEARTBEAT));
+        OandaPriceStream priceStream = startStream(5_000, 1);
+
+        priceStream.stream(INSTRUMENT, observerMock);
+
+        assertEquals("/v3/accounts/" + ACCOUNT_ID + "/pricing/stream?instruments=" + INSTRUMENT, requestPath);
+        assertEquals("Bearer " + TOKEN, authorization);
+    }
+
+    @Test
+    public void givenDroppedStream_WhenCallStream_ThenResubscribe() {
+        server.createContext("/", new OneStreamHandler(PRICE));
+        OandaPriceStream priceStream = startStream(5_000, 1);
+
+        priceStream.stream(INSTRUMENT, observerMock);
+
+        assertEquals(2, requests.get());
+        verify(presenterMock, atLeastOnce()).execute("Price stream lost. Resubscribing...");
+    }
+
+    @Test
+    public void givenSilentStream_WhenHeartbeatTimeoutExpires_ThenResubscribeAndGiveUpAfterMaxFailures() {
+        server.createContext("/", new SilentStreamHandler());
+        OandaPriceStream priceStream = startStream(100, 2);
+
+        priceStream.stream(INSTRUMENT, observerMock);
+
+        assertEquals(2, priceStream.getSubscriptions());
+        verify(observerMock, never()).updateObserver(any(Price.class));
+        verify(presenterMock, times(1)).execute("Price stream unavailable.");
+    }
+
+    @Test
+    public void givenInterruptedThread_WhenCallStream_ThenReturnWithoutSubscribing() {
+        server.createContext("/", new OneStreamHandler(PRICE));
+        OandaPriceStream priceStream = startStream(5_000, 1);
+
+        Thread.currentThread().interrupt();
+        priceStream.stream(INSTRUMENT, observerMock);
+
+        assertTrue(Thread.interrupted());
+        assertEquals(0, requests.get());
+    }
+
+    private OandaPriceStream startStream(int heartbeatTimeout, int maxFailedSubscriptions) {
+        server.start();
+        String streamUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new OandaPriceStream(streamUrl, connectorMock, presenterMock,
+                heartbeatTimeout, 1L, maxFailedSubscriptions);
+    }
+
+    //serves the lines once, every following subscription is refused
+    private final class OneStreamHandler implements HttpHandler {
+
+        private final String lines;
+
+        OneStreamHandler(String lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            requestPath = exchange.getRequestURI().toString();
+            authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (requests.incrementAndGet() > 1) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(lines.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private final class SilentStreamHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, 0);
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        }
+    }
+}
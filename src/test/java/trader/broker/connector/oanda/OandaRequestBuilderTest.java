@@ -1,8 +1,10 @@
 package trader.broker.connector.oanda;
 
+import com.oanda.v20.account.AccountChangesRequest;
 import com.oanda.v20.account.AccountID;
 import com.oanda.v20.instrument.InstrumentCandlesRequest;
 import com.oanda.v20.order.OrderCreateRequest;
+import com.oanda.v20.order.OrderReplaceRequest;
 import com.oanda.v20.order.OrderSpecifier;
 import com.oanda.v20.pricing.PricingGetRequest;
 import com.oanda.v20.trade.TradeSetDependentOrdersRequest;
@@ -70,6 +72,25 @@ public class OandaRequestBuilderTest {
         assertEquals(EXPECTED_INSTRUMENT, getRequestInstrument(pricingRequest));
     }
 
+    @Test
+    public void givenSeveralInstruments_WhenBuildPriceRequest_ThenRequestEveryInstrument(){
+        settings.put(ACCOUNT_ID,EXPECTED_ACCOUNT_ID);
+        settings.put(INSTRUMENT, "EUR_USD, GBP_USD,,USD_JPY");
+        PricingGetRequest pricingRequest = (PricingGetRequest) this.request.build("price", settings).getBody();
+
+        ArrayList instrumentsList = (ArrayList) pricingRequest.getQueryParams().get(INSTRUMENT +"s");
+        assertEquals(3, instrumentsList.size());
+        assertEquals("GBP_USD", instrumentsList.get(1).toString());
+        assertEquals("USD_JPY", instrumentsList.get(2).toString());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenOnlySeparators_WhenBuildPriceRequest_ThenThrowException(){
+        settings.put(ACCOUNT_ID,EXPECTED_ACCOUNT_ID);
+        settings.put(INSTRUMENT, " , ");
+        this.request.build("price", settings);
+    }
+
     @Test(expected = BadRequestException.class)
     public void WhenCallBuildForCandlesWithNotExistingGranularity_Exception(){
         settings.put(QUANTITY, "xxx");
@@ -122,6 +143,23 @@ public class OandaRequestBuilderTest {
         assertEquals(accountId, requestDataStructure.toString());
     }
 
+    @Test
+    public void WhenCallBuildForAccountChangesWithCorrectSettings_CorrectResult(){
+        settings.put(ACCOUNT_ID, "17");
+        settings.put("sinceTransactionID", " 6 ");
+        Request<?> accountChangesRequest = request.build("accountChanges", settings);
+        AccountChangesRequest requestDataStructure = (AccountChangesRequest) accountChangesRequest.getBody();
+
+        assertEquals("17", requestDataStructure.getPathParams().get(ACCOUNT_ID).toString());
+        assertEquals("6", requestDataStructure.getQueryParams().get("sinceTransactionID").toString());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void WhenCallBuildForAccountChangesWithoutSinceTransactionID_Exception(){
+        settings.put(ACCOUNT_ID, "17");
+        request.build("accountChanges", settings);
+    }
+
     @Test(expected = BadRequestException.class)
     public void WhenCallBuildForCreateMarketIfTouchedOrderWithNotANumberUnitsSize_Exception(){
         settings.put("accountID", "xxx");
@@ -165,6 +203,29 @@ public class OandaRequestBuilderTest {
         assertEquals("12", accountID.toString());
     }
 
+    @Test(expected = BadRequestException.class)
+    public void givenNoOrderID_WhenCallBuildForReplaceOrder_ThenThrowException(){
+        settings.put("accountID", "12");
+        settings.put("instrument", "EUR_USD");
+        this.request.build("replaceOrder", settings);
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallBuildForReplaceOrder_ThenReplaceTheGivenOrder(){
+        settings.put("accountID", "12");
+        settings.put("orderID", "34");
+        settings.put("instrument", "EUR_USD");
+        settings.put("unitsSize", "100");
+        settings.put("tradeEntryPrice", "1.1200");
+        settings.put("tradeStopLossPrice", "1.1980");
+        Request<?> replaceRequest = this.request.build("replaceOrder", settings);
+        OrderReplaceRequest request = (OrderReplaceRequest) replaceRequest.getBody();
+        HashMap<String, Object> pathParams = request.getPathParams();
+
+        assertEquals("12", pathParams.get("accountID").toString());
+        assertEquals("34", pathParams.get("orderSpecifier").toString());
+    }
+
     @Test
     public void WhenCallBuildOrderSpecifierRequestWithCorrectSettings_CorrectResult(){
         String accountID = "12";
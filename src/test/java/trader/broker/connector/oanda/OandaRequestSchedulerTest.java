@@ -0,0 +1,270 @@
+package trader.broker.connector.oanda;
+
+import org.junit.Test;
+import trader.exception.BadRequestException;
+import trader.exception.NullArgumentException;
+import trader.exception.UnableToExecuteRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class OandaRequestSchedulerTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenZeroRate_WhenCreate_ThenThrowException() {
+        new OandaRequestScheduler(0, 1);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullCall_WhenExecute_ThenThrowException() {
+        new OandaRequestScheduler().execute("price", "key", null);
+    }
+
+    @Test
+    public void givenOrderTypes_WhenCallPriorityOf_ThenReturnWrite() {
+        assertEquals(OandaRequestScheduler.RequestPriority.WRITE, OandaRequestScheduler.priorityOf("marketIfTouchedOrder"));
+        assertEquals(OandaRequestScheduler.RequestPriority.WRITE, OandaRequestScheduler.priorityOf(" orderSpecifier "));
+        assertEquals(OandaRequestScheduler.RequestPriority.WRITE, OandaRequestScheduler.priorityOf("setStopLossPrice"));
+        assertEquals(OandaRequestScheduler.RequestPriority.WRITE, OandaRequestScheduler.priorityOf("replaceOrder"));
+        assertEquals(OandaRequestScheduler.RequestPriority.READ, OandaRequestScheduler.priorityOf("candle"));
+        assertEquals(OandaRequestScheduler.RequestPriority.READ, OandaRequestScheduler.priorityOf("accountChanges"));
+    }
+
+    @Test
+    public void givenCall_WhenExecute_ThenReturnResultAndCountRequest() {
+        OandaRequestScheduler scheduler = new OandaRequestScheduler();
+
+        String result = scheduler.execute("price", "price-key", constant("1.2"));
+
+        assertEquals("1.2", result);
+        assertEquals(1, scheduler.getScheduledRequests());
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    public void givenBurstIsUsed_WhenExecute_ThenWaitForNextToken() {
+        OandaRequestScheduler scheduler = new OandaRequestScheduler(10, 2);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < 4; i++)
+            scheduler.execute("candle", null, constant(i));
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 150);
+        assertTrue(scheduler.getMaxWaitNanos() > 0);
+        assertTrue(scheduler.getTotalWaitNanos() >= scheduler.getMaxWaitNanos());
+    }
+
+    @Test
+    public void givenQueuedReadAndWrite_WhenTokenIsFree_ThenWriteGoesFirst() throws Exception {
+        final OandaRequestScheduler scheduler = new OandaRequestScheduler(5, 1);
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        scheduler.execute("candle", null, constant("burst"));
+
+        Thread read = start(scheduler, "candle", "read", order);
+        waitForQueueDepth(scheduler, 1);
+        Thread write = start(scheduler, "cancelOrder", "write", order);
+        waitForQueueDepth(scheduler, 2);
+        read.join(2000);
+        write.join(2000);
+
+        assertEquals("write", order.get(0));
+        assertEquals("read", order.get(1));
+    }
+
+    @Test
+    public void givenIdenticalPendingRead_WhenExecute_ThenShareOneCall() throws Exception {
+        final OandaRequestScheduler scheduler = new OandaRequestScheduler();
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final Supplier<Integer> slowRead = new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                calls.incrementAndGet();
+                await(release);
+                return 7;
+            }
+        };
+        final Integer[] results = new Integer[2];
+        Thread first = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                results[0] = scheduler.execute("price", "price-key", slowRead);
+            }
+        });
+        first.start();
+        while (calls.get() == 0)
+            Thread.sleep(1);
+        Thread second = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                results[1] = scheduler.execute("price", "price-key", slowRead);
+            }
+        });
+        second.start();
+        while (scheduler.getCoalescedRequests() == 0)
+            Thread.sleep(1);
+        release.countDown();
+        first.join(2000);
+        second.join(2000);
+
+        assertEquals(1, calls.get());
+        assertEquals(Integer.valueOf(7), results[0]);
+        assertEquals(Integer.valueOf(7), results[1]);
+        assertEquals(1, scheduler.getCoalescedRequests());
+    }
+
+    @Test
+    public void givenSameKeyWrites_WhenExecute_ThenDoNotShareCall() {
+        OandaRequestScheduler scheduler = new OandaRequestScheduler();
+        AtomicInteger calls = new AtomicInteger();
+
+        scheduler.execute("cancelOrder", "key", counting(calls));
+        scheduler.execute("cancelOrder", "key", counting(calls));
+
+        assertEquals(2, calls.get());
+        assertEquals(0, scheduler.getCoalescedRequests());
+    }
+
+    @Test
+    public void givenFinishedRead_WhenExecuteSameRead_ThenCallAgain() {
+        OandaRequestScheduler scheduler = new OandaRequestScheduler();
+        AtomicInteger calls = new AtomicInteger();
+
+        scheduler.execute("price", "price-key", counting(calls));
+        scheduler.execute("price", "price-key", counting(calls));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void givenBurstIsUsed_WhenCallAcquire_ThenWaitForNextTokenAndCountRequest() {
+        OandaRequestScheduler scheduler = new OandaRequestScheduler(10, 1);
+        scheduler.execute("price", null, constant("burst"));
+        long start = System.nanoTime();
+
+        scheduler.acquire("price");
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+        assertEquals(2, scheduler.getScheduledRequests());
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullType_WhenCallAcquire_ThenThrowException() {
+        new OandaRequestScheduler().acquire(null);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenFailingCall_WhenExecute_ThenThrowCallException() {
+        new OandaRequestScheduler().execute("price", "price-key", new Supplier<Object>() {
+            @Override
+            public Object get() {
+                throw new BadRequestException();
+            }
+        });
+    }
+
+    @Test(timeout = 5_000)
+    public void givenReadThrowingError_WhenSharedByAnotherCall_ThenBothCallsFail() throws InterruptedException {
+        final OandaRequestScheduler scheduler = new OandaRequestScheduler();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        final Supplier<Integer> failingRead = new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                calls.incrementAndGet();
+                await(release);
+                throw new AssertionError("broken read");
+            }
+        };
+        final Throwable[] failures = new Throwable[2];
+        Thread first = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    scheduler.execute("price", "price-key", failingRead);
+                } catch (Throwable e) {
+                    failures[0] = e;
+                }
+            }
+        });
+        first.start();
+        while (calls.get() == 0)
+            Thread.sleep(1);
+        Thread second = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    scheduler.execute("price", "price-key", failingRead);
+                } catch (Throwable e) {
+                    failures[1] = e;
+                }
+            }
+        });
+        second.start();
+        while (scheduler.getCoalescedRequests() == 0)
+            Thread.sleep(1);
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertTrue(failures[0] instanceof AssertionError);
+        assertTrue(failures[1] instanceof UnableToExecuteRequest);
+        assertEquals(1, calls.get());
+    }
+
+    private Thread start(final OandaRequestScheduler scheduler, final String type, final String name, final List<String> order) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                scheduler.execute(type, null, new Supplier<Object>() {
+                    @Override
+                    public Object get() {
+                        order.add(name);
+                        return name;
+                    }
+                });
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void waitForQueueDepth(OandaRequestScheduler scheduler, int depth) throws InterruptedException {
+        while (scheduler.getQueueDepth() < depth)
+            Thread.sleep(1);
+    }
+
+    private <T> Supplier<T> constant(final T value) {
+        return new Supplier<T>() {
+            @Override
+            public T get() {
+                return value;
+            }
+        };
+    }
+
+    private Supplier<Integer> counting(final AtomicInteger calls) {
+        return new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                return calls.incrementAndGet();
+            }
+        };
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,9 +3,15 @@ package trader.broker.connector.oanda;
 import com.oanda.v20.Context;
 import com.oanda.v20.ExecuteException;
 import com.oanda.v20.RequestException;
+import com.oanda.v20.account.Account;
+import com.oanda.v20.account.AccountChangesRequest;
+import com.oanda.v20.account.AccountChangesResponse;
 import com.oanda.v20.account.AccountID;
+import com.oanda.v20.primitives.AccountUnits;
+import com.oanda.v20.instrument.InstrumentCandlesRequest;
 import com.oanda.v20.instrument.InstrumentCandlesResponse;
 import com.oanda.v20.order.OrderSpecifier;
+import com.oanda.v20.pricing.PricingGetRequest;
 import com.oanda.v20.pricing.PricingGetResponse;
 import org.junit.Before;
 import org.junit.Test;
@@ -16,19 +22,24 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import trader.CommonTestClassMembers;
 import trader.OandaAPIMock.*;
 import trader.connection.Connection;
+import trader.entity.candlestick.CandleBuffer;
+import trader.entity.price.Price;
 import trader.exception.EmptyArgumentException;
 import trader.exception.NoSuchDataStructureException;
 import trader.exception.NullArgumentException;
+import trader.exception.UnableToExecuteRequest;
 import trader.presenter.Presenter;
 import trader.requestor.Request;
 import trader.responder.Response;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest(Connection.class)
@@ -119,6 +130,51 @@ public class OandaResponseBuilderTest {
         responseBuilder.buildResponse("kar", requestMock);
     }
 
+    @Test(expected = NoSuchDataStructureException.class)
+    public void givenNoRestReader_WhenBuildDecodedPriceResponse_ThenThrowException(){
+        responseBuilder.buildResponse("decodedPrice", requestMock);
+    }
+
+    @Test
+    public void givenRestReader_WhenBuildDecodedPriceResponse_ThenReturnDecodedPrices() throws IOException {
+        OandaRestReader restReaderMock = mock(OandaRestReader.class);
+        Map<String, Price> prices = new HashMap<>();
+        when(restReaderMock.readPrices(any(PricingGetRequest.class))).thenReturn(prices);
+        OandaResponseBuilder decodingBuilder = new OandaResponseBuilder(contextMock, URL, presenterMock, restReaderMock);
+
+        Response<Map<String, Price>> response = decodingBuilder.buildResponse("decodedPrice", requestMock);
+
+        assertEquals(prices, response.getBody());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void givenRestReader_WhenChangeDecodedPrices_ThenThrowException() throws IOException {
+        OandaRestReader restReaderMock = mock(OandaRestReader.class);
+        when(restReaderMock.readPrices(any(PricingGetRequest.class))).thenReturn(new HashMap<String, Price>());
+        OandaResponseBuilder decodingBuilder = new OandaResponseBuilder(contextMock, URL, presenterMock, restReaderMock);
+
+        Response<Map<String, Price>> response = decodingBuilder.buildResponse("decodedPrice", requestMock);
+
+        response.getBody().put("EUR_USD", mock(Price.class));
+    }
+
+    @Test
+    public void givenRestReader_WhenBuildDecodedCandleResponseTwice_ThenEveryCallerGetsItsOwnCandles() throws IOException {
+        OandaRestReader restReaderMock = mock(OandaRestReader.class);
+        CandleBuffer candles = new CandleBuffer();
+        candles.add(1L, 1L, 1L, 1L, 1L, 1L);
+        when(restReaderMock.readCandles(any(InstrumentCandlesRequest.class))).thenReturn(candles);
+        when(requestMock.getBody()).thenReturn(mock(InstrumentCandlesRequest.class));
+        OandaResponseBuilder decodingBuilder = new OandaResponseBuilder(contextMock, URL, presenterMock, restReaderMock);
+
+        Response<CandleBuffer> first = decodingBuilder.buildResponse("decodedCandle", requestMock);
+        Response<CandleBuffer> second = decodingBuilder.buildResponse("decodedCandle", requestMock);
+        first.getBody().clear();
+
+        assertNotSame(candles, second.getBody());
+        assertEquals(1, second.getBody().size());
+    }
+
     @Test
     public void WhenCallBuildResponseWithCorrectValues_ReturnCorrectResult(){
         Response<PricingGetResponse> actualResponse = this.responseBuilder.buildResponse("price", requestMock);
@@ -143,6 +199,13 @@ public class OandaResponseBuilderTest {
         this.responseBuilder.buildResponse("price", requestMock);
     }
 
+    @Test(expected = NoSuchDataStructureException.class)
+    public void givenRuntimeException_WhenBuildResponse_ThenRethrowItUnchanged() throws RequestException, ExecuteException {
+        when(contextMock.pricing.get(oandaAPIMockPricing.getMockPricingGetRequest())).thenThrow(new NoSuchDataStructureException());
+
+        responseBuilder.buildResponse("price", requestMock);
+    }
+
     @Test
     public void WhenCallBuildResponseWithCandle_CorrectResponse(){
         OandaResponseBuilder responseBuilder = new OandaResponseBuilder(oandaAPIMockInstrument.getContext(), URL, presenterMock);
@@ -191,6 +254,38 @@ public class OandaResponseBuilderTest {
         assertNull(response);
     }
 
+    @Test
+    public void givenReplaceRequest_WhenCallBuildResponse_ThenReturnReplaceResponse(){
+        createFakeOrderReplaceRequest();
+        Response response = responseBuilder.buildResponse("replaceOrder", requestMock);
+
+        assertEquals(oandaAPIMockOrder.getMockOrderReplaceResponse(), response.getBody());
+    }
+
+    @Test
+    public void givenRejectedReplace_WhenCallBuildResponse_ThenReturnNull() throws RequestException, ExecuteException {
+        createFakeOrderReplaceRequest();
+        oandaAPIMockOrder.setMockOrderReplaceResponseToThrowException(RequestException.class);
+        Response response = responseBuilder.buildResponse("replaceOrder", requestMock);
+
+        assertNull(response);
+    }
+
+    @Test
+    public void givenExecuteException_WhenBuildOrderReplaceResponse_ThenDoNotRetry() throws RequestException, ExecuteException {
+        createFakeOrderReplaceRequest();
+        when(oandaAPIMockOrder.getContext().order.replace(oandaAPIMockOrder.getMockOrderReplaceRequest()))
+                .thenThrow(new ExecuteException(new IOException()))
+                .thenReturn(oandaAPIMockOrder.getMockOrderReplaceResponse());
+
+        try {
+            responseBuilder.buildResponse("replaceOrder", requestMock);
+            fail();
+        } catch (UnableToExecuteRequest e) {
+            verify(oandaAPIMockOrder.getContext().order, times(1)).replace(oandaAPIMockOrder.getMockOrderReplaceRequest());
+        }
+    }
+
     @Test
     public void WhenCallBuildResponseWithResponseForCancelOrderResponse_CorrectResponse(){
         createFakeOrderCancelRequest();
@@ -243,14 +338,17 @@ public class OandaResponseBuilderTest {
     }
 
     @Test
-    public void givenAccountID_WhenCallBuildResponse_ThenReturnCorrectResponse(){
+    public void givenAccountID_WhenCallBuildResponse_ThenReturnCorrectResponse() throws RequestException, ExecuteException {
         AccountID accountID = mock(AccountID.class);
         when(accountID.toString()).thenReturn("123243432");
         when(requestMock.getBody()).thenReturn(accountID);
         createFakeAccountCreateRequest();
-        Response response = responseBuilder.buildResponse("accountID", requestMock);
+        Account account = new Account().setBalance(new AccountUnits(1000));
+        when(oandaAPIMockAccount.getMockAccountContext().get(accountID).getAccount()).thenReturn(account);
+        Response<Account> response = responseBuilder.buildResponse("accountID", requestMock);
 
-        assertEquals(oandaAPIMockAccount.getMockAccount(), response.getBody());
+        assertNotSame(account, response.getBody());
+        assertEquals(account.getBalance().toString(), response.getBody().getBalance().toString());
     }
 
     @Test(expected = RuntimeException.class)
@@ -262,6 +360,88 @@ public class OandaResponseBuilderTest {
 
     }
 
+    @Test
+    public void givenAccountChangesRequest_WhenCallBuildResponse_ThenReturnCorrectResponse() throws RequestException, ExecuteException {
+        AccountChangesRequest changesRequest = new AccountChangesRequest(new AccountID("123243432")).setSinceTransactionID("6");
+        AccountChangesResponse changesResponse = mock(AccountChangesResponse.class);
+        when(oandaAPIMockAccount.getMockAccountContext().changes(changesRequest)).thenReturn(changesResponse);
+        when(requestMock.getBody()).thenReturn(changesRequest);
+        createFakeAccountCreateRequest();
+        Response response = responseBuilder.buildResponse("accountChanges", requestMock);
+
+        assertEquals(changesResponse, response.getBody());
+    }
+
+    @Test
+    public void givenExecuteException_WhenBuildPriceResponse_ThenRetryAndReturnResponse() throws RequestException, ExecuteException {
+        when(contextMock.pricing.get(oandaAPIMockPricing.getMockPricingGetRequest()))
+                .thenThrow(new ExecuteException(new IOException()))
+                .thenReturn(oandaAPIMockPricing.getMockPricingGetResponse());
+
+        Response<PricingGetResponse> response = responseBuilder.buildResponse("price", requestMock);
+
+        assertEquals(oandaAPIMockPricing.getMockPricingGetResponse(), response.getBody());
+        verify(contextMock.pricing, times(2)).get(oandaAPIMockPricing.getMockPricingGetRequest());
+        verify(presenterMock).execute("Connection Lost.Reconnecting...");
+        verify(presenterMock).execute("CONNECTED");
+    }
+
+    @Test
+    public void givenExecuteException_WhenBuildPriceResponse_ThenEveryAttemptTakesAToken() throws RequestException, ExecuteException {
+        when(contextMock.pricing.get(oandaAPIMockPricing.getMockPricingGetRequest()))
+                .thenThrow(new ExecuteException(new IOException()))
+                .thenThrow(new ExecuteException(new IOException()))
+                .thenReturn(oandaAPIMockPricing.getMockPricingGetResponse());
+
+        responseBuilder.buildResponse("price", requestMock);
+
+        assertEquals(3, responseBuilder.getRequestScheduler().getScheduledRequests());
+    }
+
+    @Test
+    public void givenServerError_WhenBuildPriceResponse_ThenRetryAndReturnResponse() throws RequestException, ExecuteException {
+        when(contextMock.pricing.get(oandaAPIMockPricing.getMockPricingGetRequest()))
+                .thenThrow(new RequestException(503) {})
+                .thenReturn(oandaAPIMockPricing.getMockPricingGetResponse());
+
+        Response<PricingGetResponse> response = responseBuilder.buildResponse("price", requestMock);
+
+        assertEquals(oandaAPIMockPricing.getMockPricingGetResponse(), response.getBody());
+    }
+
+    @Test
+    public void givenBadRequest_WhenBuildPriceResponse_ThenDoNotRetry() throws RequestException, ExecuteException {
+        when(contextMock.pricing.get(oandaAPIMockPricing.getMockPricingGetRequest())).thenThrow(new RequestException(400) {});
+
+        Response<PricingGetResponse> response = responseBuilder.buildResponse("price", requestMock);
+
+        assertNull(response);
+        verify(contextMock.pricing, times(1)).get(oandaAPIMockPricing.getMockPricingGetRequest());
+    }
+
+    @Test
+    public void givenExecuteException_WhenBuildOrderCreateResponse_ThenDoNotRetry() throws RequestException, ExecuteException {
+        createFakeOrderCreateRequest();
+        when(oandaAPIMockOrder.getContext().order.create(oandaAPIMockOrder.getMockOrderCreateRequest()))
+                .thenThrow(new ExecuteException(new IOException()))
+                .thenReturn(oandaAPIMockOrder.getMockOrderCreateResponse());
+
+        try {
+            responseBuilder.buildResponse("marketIfTouchedOrder", requestMock);
+            fail();
+        } catch (UnableToExecuteRequest e) {
+            verify(oandaAPIMockOrder.getContext().order, times(1)).create(oandaAPIMockOrder.getMockOrderCreateRequest());
+        }
+    }
+
+    @Test(expected = UnableToExecuteRequest.class)
+    public void givenCancelKeepsFailing_WhenBuildCancelOrderResponse_ThenThrowAfterAttempts() throws RequestException, ExecuteException {
+        createFakeOrderCancelRequest();
+        oandaAPIMockOrder.setMockOrderCancelResponseToThrowException(ExecuteException.class);
+
+        responseBuilder.buildResponse("cancelOrder", requestMock);
+    }
+
     private void setFakeTradeSetDependentRequest() {
         responseBuilder = new OandaResponseBuilder(oandaAPIMockTrade.getContext(), URL, presenterMock);
         when(requestMock.getBody()).thenReturn(oandaAPIMockTrade.getTradeSetDependentOrdersRequestMock());
@@ -300,6 +480,11 @@ public class OandaResponseBuilderTest {
         when(requestMock.getBody()).thenReturn(oandaAPIMockOrder.getMockOrderCreateRequest());
     }
 
+    private void createFakeOrderReplaceRequest() {
+        responseBuilder = new OandaResponseBuilder(oandaAPIMockOrder.getContext(), URL, presenterMock);
+        when(requestMock.getBody()).thenReturn(oandaAPIMockOrder.getMockOrderReplaceRequest());
+    }
+
     private void createFakeAccountCreateRequest() {
         responseBuilder = new OandaResponseBuilder(oandaAPIMockAccount.getContext(), URL, presenterMock);
        // when(requestMock.getBody()).thenReturn(oandaAPIMockOrder.getMockOrderCreateRequest());
@@ -0,0 +1,88 @@
+package trader.broker.connector.oanda;
+
+import com.oanda.v20.account.AccountID;
+import com.oanda.v20.instrument.CandlestickGranularity;
+import com.oanda.v20.instrument.InstrumentCandlesRequest;
+import com.oanda.v20.pricing.PricingGetRequest;
+import com.oanda.v20.primitives.InstrumentName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import trader.broker.connector.BaseConnector;
+import trader.broker.connector.BrokerConnector;
+import trader.entity.candlestick.CandleBuffer;
+import trader.entity.price.Price;
+import trader.exception.NullArgumentException;
+import trader.simulator.V20Simulator;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class OandaRestReaderTest {
+
+    private V20Simulator simulator;
+    private OandaRestReader restReader;
+
+    @Before
+    public void before() throws Exception {
+        simulator = new V20Simulator.Builder().build().start();
+        BrokerConnector connector = BaseConnector.create("Oanda");
+        connector.setUrl(simulator.getUrl());
+        connector.setToken("simulator-token");
+        connector.setAccountID(simulator.getAccountID());
+        restReader = new OandaRestReader(simulator.getUrl(), connector);
+    }
+
+    @After
+    public void after() {
+        simulator.stop();
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullConnector_WhenCreate_ThenThrowException() {
+        new OandaRestReader("url", null);
+    }
+
+    @Test
+    public void givenCandlesRequest_WhenCallReadCandles_ThenReturnCompleteCandles() throws IOException {
+        CandleBuffer candles = restReader.readCandles(candlesRequest(20L));
+
+        assertEquals(19, candles.size());
+        assertEquals(1_800L, candles.getTime(1) - candles.getTime(0));
+        assertTrue(candles.getHighPrice(0) >= candles.getLowPrice(0));
+        assertEquals(1, simulator.getRequestCount());
+    }
+
+    @Test
+    public void givenPricingRequest_WhenCallReadPrices_ThenReturnEveryInstrument() throws IOException {
+        PricingGetRequest request = new PricingGetRequest(new AccountID(simulator.getAccountID()), Arrays.asList("EUR_USD", "GBP_USD"));
+
+        Map<String, Price> prices = restReader.readPrices(request);
+
+        assertEquals(2, prices.size());
+        assertTrue(prices.get("EUR_USD").isTradable());
+        assertEquals(0, prices.get("EUR_USD").getBid().compareTo(simulator.getTicks().current().getBid()));
+    }
+
+    @Test
+    public void givenRejectedRequest_WhenCallReadCandles_ThenReturnNull() throws IOException {
+        assertNull(restReader.readCandles(candlesRequest(6_000L)));
+    }
+
+    @Test(expected = IOException.class)
+    public void givenServerError_WhenCallReadPrices_ThenThrowException() throws IOException {
+        simulator.failNextRequests(1, 503);
+
+        restReader.readPrices(new PricingGetRequest(new AccountID(simulator.getAccountID()), Arrays.asList("EUR_USD")));
+    }
+
+    private InstrumentCandlesRequest candlesRequest(long count) {
+        return new InstrumentCandlesRequest(new InstrumentName("EUR_USD"))
+                .setCount(count)
+                .setGranularity(CandlestickGranularity.M30)
+                .setSmooth(false);
+    }
+}
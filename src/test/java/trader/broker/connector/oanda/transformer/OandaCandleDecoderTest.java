@@ -0,0 +1,144 @@
+package trader.broker.connector.oanda.transformer;
+
+import com.google.gson.Gson;
+import com.oanda.v20.Context;
+import com.oanda.v20.ContextBuilder;
+import com.oanda.v20.instrument.InstrumentCandlesResponse;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import trader.CommonTestClassMembers;
+import trader.entity.candlestick.CandleBuffer;
+import trader.entity.candlestick.Candlestick;
+import trader.exception.NullArgumentException;
+import trader.interactor.ResponseImpl;
+import trader.responder.Response;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OandaCandleDecoderTest {
+
+    private static final int BENCHMARK_CANDLES = 4_999;
+    private static final String CANDLES = "{\"instrument\":\"EUR_USD\",\"granularity\":\"M30\",\"candles\":[" +
+            "{\"complete\":true,\"volume\":42,\"time\":\"2018-06-01T15:00:00.000000000Z\"," +
+            "\"bid\":{\"o\":\"1.1\",\"h\":\"1.1\",\"l\":\"1.1\",\"c\":\"1.1\"}," +
+            "\"mid\":{\"o\":\"1.16512\",\"h\":\"1.16601\",\"l\":\"1.16443\",\"c\":\"1.16570\"}}," +
+            "{\"complete\":true,\"volume\":7,\"time\":\"2018-06-01T15:30:00.000000000Z\"," +
+            "\"mid\":{\"o\":\"110.573\",\"h\":\"110.6\",\"l\":\"110.5\",\"c\":\"110.58\"}}," +
+            "{\"complete\":false,\"volume\":1,\"time\":\"2018-06-01T16:00:00.000000000Z\"," +
+            "\"mid\":{\"o\":\"1.16512\",\"h\":\"1.16601\",\"l\":\"1.16443\",\"c\":\"1.16570\"}}]}";
+
+    private OandaCandleDecoder decoder;
+
+    @Before
+    public void setUp() {
+        decoder = new OandaCandleDecoder();
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullSource_WhenDecode_ThenThrowException() throws IOException {
+        decoder.decode(null, new CandleBuffer());
+    }
+
+    @Test
+    public void givenCandlesResponse_WhenDecode_ThenKeepOnlyCompleteMidCandles() throws IOException {
+        CandleBuffer buffer = decoder.decode(new StringReader(CANDLES), new CandleBuffer());
+
+        assertEquals(2, buffer.size());
+        assertEquals(Instant.parse("2018-06-01T15:00:00Z").getEpochSecond(), buffer.getTime(0));
+        assertEquals(116_512L, buffer.getOpenPrice(0));
+        assertEquals(116_601L, buffer.getHighPrice(0));
+        assertEquals(116_443L, buffer.getLowPrice(0));
+        assertEquals(116_570L, buffer.getClosePrice(0));
+        assertEquals(42L, buffer.getVolume(0));
+        assertEquals(11_057_300L, buffer.getOpenPrice(1));
+        assertEquals(11_058_000L, buffer.getClosePrice(1));
+    }
+
+    @Test
+    public void givenEmptyResponse_WhenDecode_ThenBufferIsEmpty() throws IOException {
+        CandleBuffer buffer = decoder.decode(new StringReader("{\"instrument\":\"EUR_USD\",\"candles\":[]}"), new CandleBuffer());
+
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void givenCandlesResponse_WhenDecode_ThenSameCandlesAsV20Transformer() throws IOException {
+        String json = createCandlesJson(200);
+
+        List<Candlestick> expected = new OandaCandleTransformer().transformCandlesticks(parseWithV20(json));
+        CandleBuffer buffer = decoder.decode(new StringReader(json), new CandleBuffer());
+
+        assertEquals(expected.size(), buffer.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Candlestick candle = buffer.getCandlestick(i);
+            assertEquals(0, expected.get(i).getOpenPrice().compareTo(candle.getOpenPrice()));
+            assertEquals(0, expected.get(i).getHighPrice().compareTo(candle.getHighPrice()));
+            assertEquals(0, expected.get(i).getLowPrice().compareTo(candle.getLowPrice()));
+            assertEquals(0, expected.get(i).getClosePrice().compareTo(candle.getClosePrice()));
+            assertEquals(expected.get(i).getDateTime(), candle.getDateTime());
+            assertEquals(expected.get(i).getVolume(), candle.getVolume());
+        }
+    }
+
+    @Test
+    public void givenLargeResponse_WhenDecode_ThenAllocateAtLeastFiveTimesLessPerCandle() throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        String json = createCandlesJson(BENCHMARK_CANDLES);
+        OandaCandleTransformer transformer = new OandaCandleTransformer();
+        CandleBuffer buffer = new CandleBuffer(BENCHMARK_CANDLES);
+        long v20Bytes = Long.MAX_VALUE;
+        long decoderBytes = Long.MAX_VALUE;
+        //the first rounds warm up, the lowest count of each path is compared
+        for (int round = 0; round < 5; round++) {
+            long start = allocatedBytes(threads);
+            assertEquals(BENCHMARK_CANDLES, transformer.transformCandlesticks(parseWithV20(json)).size());
+            long middle = allocatedBytes(threads);
+            buffer.clear();
+            assertEquals(BENCHMARK_CANDLES, decoder.decode(new StringReader(json), buffer).size());
+            long end = allocatedBytes(threads);
+            v20Bytes = Math.min(v20Bytes, middle - start);
+            decoderBytes = Math.min(decoderBytes, end - middle);
+        }
+
+        long v20BytesPerCandle = v20Bytes / BENCHMARK_CANDLES;
+        long decoderBytesPerCandle = Math.max(1, decoderBytes / BENCHMARK_CANDLES);
+        assertTrue(v20BytesPerCandle + " against " + decoderBytesPerCandle + " bytes per candle",
+                v20BytesPerCandle >= 5 * decoderBytesPerCandle);
+    }
+
+    private long allocatedBytes(com.sun.management.ThreadMXBean threads) {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private Response<InstrumentCandlesResponse> parseWithV20(String json) {
+        Context context = new ContextBuilder("http://localhost").setToken("token").setApplication("test").build();
+        Gson gson = (Gson) new CommonTestClassMembers().extractFieldObject(context, "gson");
+        Response<InstrumentCandlesResponse> response = new ResponseImpl<>();
+        response.setBody(gson.fromJson(new StringReader(json), InstrumentCandlesResponse.class));
+        return response;
+    }
+
+    private String createCandlesJson(int count) {
+        StringBuilder json = new StringBuilder("{\"instrument\":\"EUR_USD\",\"granularity\":\"M30\",\"candles\":[");
+        long start = Instant.parse("2018-06-01T15:00:00Z").getEpochSecond();
+        for (int i = 0; i < count; i++) {
+            if(i > 0)
+                json.append(',');
+            json.append("{\"complete\":true,\"volume\":").append(1 + i % 90)
+                    .append(",\"time\":\"").append(Instant.ofEpochSecond(start + i * 1_800L).toString().replace("Z", ".000000000Z"))
+                    .append("\",\"mid\":{\"o\":\"1.1").append(6000 + i % 1000)
+                    .append("\",\"h\":\"1.1").append(7000 + i % 1000)
+                    .append("\",\"l\":\"1.1").append(5000 + i % 1000)
+                    .append("\",\"c\":\"1.1").append(6500 + i % 1000).append("\"}}");
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,73 @@
+package trader.broker.connector.oanda.transformer;
+
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class OandaJsonReaderTest {
+
+    @Test
+    public void givenObject_WhenReadMembers_ThenReturnNamesAndValues() throws IOException {
+        OandaJsonReader reader = new OandaJsonReader(new StringReader(" { \"a\" : \"x\\\"y\\u0041\", \"b\": -12 , \"c\":true } "));
+
+        reader.beginObject();
+        assertTrue(reader.hasNext());
+        assertTrue(OandaJsonReader.matches(reader.nextName(), "a"));
+        assertEquals("x\"yA", reader.nextString());
+        assertTrue(reader.hasNext());
+        assertEquals("b", reader.nextName().toString());
+        assertEquals(-12L, reader.nextLong());
+        assertTrue(reader.hasNext());
+        reader.nextName();
+        assertTrue(reader.nextBoolean());
+        assertFalse(reader.hasNext());
+        reader.endObject();
+    }
+
+    @Test
+    public void givenNestedValues_WhenSkipValue_ThenContinueAfterThem() throws IOException {
+        OandaJsonReader reader = new OandaJsonReader(new StringReader(
+                "{\"skip\":{\"x\":[1,{\"y\":\"]}\"}],\"z\":null},\"n\":null,\"keep\":7}"));
+
+        reader.beginObject();
+        reader.nextName();
+        reader.skipValue();
+        assertTrue(reader.hasNext());
+        reader.nextName();
+        reader.skipValue();
+        assertTrue(reader.hasNext());
+        assertEquals("keep", reader.nextName().toString());
+        assertEquals(7L, reader.nextLong());
+        reader.endObject();
+    }
+
+    @Test
+    public void givenLongValue_WhenReadString_ThenTokenGrows() throws IOException {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 500; i++)
+            value.append((char) ('a' + i % 26));
+        OandaJsonReader reader = new OandaJsonReader(new StringReader("[\"" + value + "\"]"));
+
+        reader.beginArray();
+        assertEquals(value.toString(), reader.nextString());
+        reader.endArray();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void givenArray_WhenBeginObject_ThenThrowException() throws IOException {
+        new OandaJsonReader(new StringReader("[]")).beginObject();
+    }
+
+    @Test(expected = EOFException.class)
+    public void givenTruncatedObject_WhenRead_ThenThrowException() throws IOException {
+        OandaJsonReader reader = new OandaJsonReader(new StringReader("{\"a\":\"unfinished"));
+
+        reader.beginObject();
+        reader.nextName();
+        reader.nextString();
+    }
+}
@@ -0,0 +1,60 @@
+package trader.broker.connector.oanda.transformer;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+
+public class OandaJsonValuesTest {
+
+    @Test
+    public void givenFiveDecimals_WhenCallToPipettes_ThenReturnUnscaledValue() {
+        assertEquals(116_512L, OandaJsonValues.toPipettes("1.16512"));
+    }
+
+    @Test
+    public void givenFewerDecimals_WhenCallToPipettes_ThenPadToFiveDecimals() {
+        assertEquals(11_057_300L, OandaJsonValues.toPipettes("110.573"));
+        assertEquals(200_000L, OandaJsonValues.toPipettes("2"));
+    }
+
+    @Test
+    public void givenMoreDecimals_WhenCallToPipettes_ThenRoundLikeBigDecimal() {
+        String[] values = {"1.165125", "1.165124999", "-1.165125", "0.000005", "1.1651249"};
+        for (String value : values) {
+            long expected = new BigDecimal(value).setScale(5, RoundingMode.HALF_UP).unscaledValue().longValue();
+            assertEquals(value, expected, OandaJsonValues.toPipettes(value));
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void givenNotANumber_WhenCallToPipettes_ThenThrowException() {
+        OandaJsonValues.toPipettes("1.1a");
+    }
+
+    @Test
+    public void givenRfc3339Times_WhenCallToEpochSecond_ThenMatchInstantParse() {
+        String[] times = {"2018-06-01T15:10:00.000000000Z", "1970-01-01T00:00:00Z", "2000-02-29T23:59:59.5Z",
+                "1969-12-31T23:59:59Z", "2100-03-01T00:00:00.123Z"};
+        for (String time : times) {
+            assertEquals(time, Instant.parse(time).getEpochSecond(), OandaJsonValues.toEpochSecond(time));
+            assertEquals(time, Instant.parse(time).getNano(), OandaJsonValues.toNanoOfSecond(time));
+        }
+    }
+
+    @Test
+    public void givenUnixTime_WhenCallToEpochSecond_ThenReturnSecondsAndNanos() {
+        assertEquals(1_527_865_800L, OandaJsonValues.toEpochSecond("1527865800.250000000"));
+        assertEquals(250_000_000, OandaJsonValues.toNanoOfSecond("1527865800.250000000"));
+        assertEquals(0, OandaJsonValues.toNanoOfSecond("1527865800"));
+    }
+
+    @Test
+    public void givenOffsetTime_WhenCallToEpochSecond_ThenConvertToUtc() {
+        assertEquals(Instant.parse("2018-06-01T15:10:00Z").getEpochSecond(), OandaJsonValues.toEpochSecond("2018-06-01T17:10+02:00"));
+        assertEquals(500_000_000, OandaJsonValues.toNanoOfSecond("2018-06-01T17:10:00.5+02:00"));
+    }
+}
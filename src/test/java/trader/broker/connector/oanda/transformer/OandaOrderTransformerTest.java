@@ -58,12 +58,14 @@ public class OandaOrderTransformerTest {
         String instrument ="EUR_USD";
         BigDecimal stopLossPrice = BigDecimal.valueOf(1.2020);
         BigDecimal units = BigDecimal.valueOf(100);
-        setFakeMarketIfTouchedOrder(id, instrument, stopLossPrice, units);
+        BigDecimal entryPrice = BigDecimal.valueOf(1.2040);
+        setFakeMarketIfTouchedOrder(id, instrument, entryPrice, stopLossPrice, units);
 
         Order order = transformer.transformOrder(orderMock);
 
         assertEquals(id, order.getId());
         assertEquals(instrument, order.getInstrument());
+        assertEquals(entryPrice, order.getPrice());
         assertEquals(stopLossPrice, order.getStopLossPrice());
         assertEquals(units, order.getUnits());
     }
@@ -92,7 +94,10 @@ public class OandaOrderTransformerTest {
         when(stopLossOrderMock.getPrice()).thenReturn(priceValueMock);
     }
 
-    private void setFakeMarketIfTouchedOrder(String id, String instrument, BigDecimal stopLossPrice, BigDecimal units) {
+    private void setFakeMarketIfTouchedOrder(String id, String instrument, BigDecimal entryPrice, BigDecimal stopLossPrice, BigDecimal units) {
+        PriceValue entryPriceMock = mock(PriceValue.class);
+        when(entryPriceMock.bigDecimalValue()).thenReturn(entryPrice);
+        when(orderMock.getPrice()).thenReturn(entryPriceMock);
         when(decimalNumberMock.bigDecimalValue()).thenReturn(units);
         when(priceValueMock.bigDecimalValue()).thenReturn(stopLossPrice);
         when(stopLossDetailsMock.getPrice()).thenReturn(priceValueMock);
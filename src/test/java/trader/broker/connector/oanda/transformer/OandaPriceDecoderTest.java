@@ -0,0 +1,77 @@
+package trader.broker.connector.oanda.transformer;
+
+import org.junit.Before;
+import org.junit.Test;
+import trader.entity.price.Price;
+import trader.exception.NullArgumentException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class OandaPriceDecoderTest {
+
+    private static final String PRICES = "{\"time\":\"2018-06-01T15:10:00.000000000Z\",\"prices\":[" +
+            "{\"type\":\"PRICE\",\"instrument\":\"EUR_USD\",\"time\":\"2018-06-01T15:09:59.250000000Z\",\"tradeable\":true," +
+            "\"bids\":[{\"price\":\"1.16500\",\"liquidity\":10000000},{\"price\":\"1.16490\",\"liquidity\":10000000}]," +
+            "\"asks\":[{\"price\":\"1.16510\",\"liquidity\":10000000}],\"closeoutBid\":\"1.16490\"," +
+            "\"unitsAvailable\":{\"default\":{\"long\":\"2500\",\"short\":\"2600\"},\"openOnly\":{\"long\":\"1\",\"short\":\"1\"}}}," +
+            "{\"type\":\"PRICE\",\"instrument\":\"USD_JPY\",\"time\":\"2018-06-01T15:09:58.000000000Z\",\"tradeable\":false," +
+            "\"bids\":[{\"price\":\"110.573\",\"liquidity\":1}],\"asks\":[{\"price\":\"110.583\",\"liquidity\":1}]}," +
+            "{\"type\":\"PRICE\",\"instrument\":\"GBP_USD\",\"time\":\"2018-06-01T15:09:58.000000000Z\",\"tradeable\":true," +
+            "\"bids\":[],\"asks\":[]}]}";
+
+    private OandaPriceDecoder decoder;
+
+    @Before
+    public void setUp() {
+        decoder = new OandaPriceDecoder();
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullSource_WhenDecode_ThenThrowException() throws IOException {
+        decoder.decode(null);
+    }
+
+    @Test
+    public void givenPricingResponse_WhenDecode_ThenReturnPricesInResponseOrder() throws IOException {
+        Map<String, Price> prices = decoder.decode(new StringReader(PRICES));
+
+        assertEquals(3, prices.size());
+        assertEquals("EUR_USD", prices.keySet().iterator().next());
+    }
+
+    @Test
+    public void givenPricingResponse_WhenDecode_ThenReadTopOfBook() throws IOException {
+        Price price = decoder.decode(new StringReader(PRICES)).get("EUR_USD");
+
+        assertEquals(new BigDecimal("1.16500"), price.getBid());
+        assertEquals(new BigDecimal("1.16510"), price.getAsk());
+        assertEquals(ZonedDateTime.parse("2018-06-01T15:09:59.25Z[UTC]"), price.getDateTime());
+        assertEquals(new BigDecimal("2500"), price.getAvailableUnits());
+        assertTrue(price.isTradable());
+    }
+
+    @Test
+    public void givenClosedMarket_WhenDecode_ThenPriceIsNotTradable() throws IOException {
+        Price price = decoder.decode(new StringReader(PRICES)).get("USD_JPY");
+
+        assertEquals(0, new BigDecimal("110.573").compareTo(price.getBid()));
+        assertEquals(0, price.getAvailableUnits().signum());
+        assertFalse(price.isTradable());
+    }
+
+    @Test
+    public void givenEmptyBook_WhenDecode_ThenPriceIsNotTradable() throws IOException {
+        assertFalse(decoder.decode(new StringReader(PRICES)).get("GBP_USD").isTradable());
+    }
+
+    @Test
+    public void givenNoPrices_WhenDecode_ThenReturnEmptyMap() throws IOException {
+        assertTrue(decoder.decode(new StringReader("{\"prices\":[],\"time\":\"1527865800.000000000\"}")).isEmpty());
+    }
+}
@@ -1,6 +1,7 @@
 package trader.broker.connector.oanda.transformer;
 
 import com.oanda.v20.order.UnitsAvailable;
+import com.oanda.v20.primitives.InstrumentName;
 import com.oanda.v20.order.UnitsAvailableDetails;
 import com.oanda.v20.pricing.ClientPrice;
 import com.oanda.v20.pricing.PricingGetResponse;
@@ -18,6 +19,7 @@ import java.math.RoundingMode;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -83,6 +85,43 @@ public class OandaPriceTransformerTest {
         assertEquals(price.getAvailableUnits(), BigDecimal.ZERO);
     }
 
+    @Test
+    public void givenNullResponse_WhenCallTransformToPrices_ThenReturnEmptyMap(){
+        assertTrue(priceTransformer.transformToPrices(null).isEmpty());
+    }
+
+    @Test
+    public void givenNullPricesInsideResponse_WhenCallTransformToPrices_ThenReturnEmptyMap(){
+        when(responseMock.getPrices()).thenReturn(null);
+
+        assertTrue(priceTransformer.transformToPrices(response).isEmpty());
+    }
+
+    @Test
+    public void givenPricesOfTwoInstruments_WhenCallTransformToPrices_ThenReturnPriceByInstrument(){
+        List<ClientPrice> prices = new ArrayList<>();
+        prices.add(setInstrumentPrice("EUR_USD", DEFAULT_ASK));
+        prices.add(setInstrumentPrice("GBP_USD", DEFAULT_BID));
+        when(responseMock.getPrices()).thenReturn(prices);
+
+        Map<String, Price> instrumentPrices = priceTransformer.transformToPrices(response);
+
+        assertEquals(2, instrumentPrices.size());
+        assertEquals(DEFAULT_ASK, instrumentPrices.get("EUR_USD").getAsk());
+        assertEquals(DEFAULT_BID, instrumentPrices.get("GBP_USD").getAsk());
+        assertEquals("EUR_USD", instrumentPrices.keySet().iterator().next());
+    }
+
+    private ClientPrice setInstrumentPrice(String instrument, BigDecimal ask) {
+        List<PriceBucket> askPriceBuckets = createPriceBuckets(setPriceBucket("ask", setPriceValue(ask)));
+        List<PriceBucket> bidPriceBuckets = createPriceBuckets(setPriceBucket("bid", setPriceValue(DEFAULT_BID)));
+        ClientPrice clientPriceMock = setClientPrice(setDateTime(), askPriceBuckets, bidPriceBuckets);
+        InstrumentName instrumentNameMock = mock(InstrumentName.class);
+        when(instrumentNameMock.toString()).thenReturn(instrument);
+        when(clientPriceMock.getInstrument()).thenReturn(instrumentNameMock);
+        return clientPriceMock;
+    }
+
     private void setFakePrice() {
         DateTime dateTimeMock = setDateTime();
         PriceValue askPriceValueMock = setPriceValue(DEFAULT_ASK);
@@ -0,0 +1,76 @@
+package trader.broker.connector.oanda.transformer;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Before;
+import org.junit.Test;
+import trader.entity.price.Price;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OandaStreamPriceTransformerTest {
+
+    private static final String STREAM_PRICE = "{\"type\":\"PRICE\",\"time\":\"2012-06-30T12:30:40.123456789Z\"," +
+            "\"bids\":[{\"price\":\"1.13510\",\"liquidity\":10000000}]," +
+            "\"asks\":[{\"price\":\"1.13524\",\"liquidity\":10000000}]," +
+            "\"closeoutBid\":\"1.13495\",\"closeoutAsk\":\"1.13539\",\"status\":\"tradeable\",\"tradeable\":true," +
+            "\"instrument\":\"EUR_USD\"}";
+
+    private OandaStreamPriceTransformer streamPriceTransformer;
+
+    @Before
+    public void setUp() {
+        streamPriceTransformer = new OandaStreamPriceTransformer();
+    }
+
+    @Test
+    public void whenCallTransformToPriceWithNull_TransformedPriceIsNotTradable() {
+        Price price = streamPriceTransformer.transformToPrice(null);
+
+        assertFalse(price.isTradable());
+    }
+
+    @Test
+    public void whenCallTransformToPriceWithoutAsks_TransformedPriceIsNotTradable() {
+        JsonObject streamPrice = parse(STREAM_PRICE);
+        streamPrice.remove("asks");
+        Price price = streamPriceTransformer.transformToPrice(streamPrice);
+
+        assertFalse(price.isTradable());
+    }
+
+    @Test
+    public void whenCallTransformToPriceWithEmptyBids_TransformedPriceIsNotTradable() {
+        Price price = streamPriceTransformer.transformToPrice(parse(STREAM_PRICE.replace(
+                "[{\"price\":\"1.13510\",\"liquidity\":10000000}]", "[]")));
+
+        assertFalse(price.isTradable());
+    }
+
+    @Test
+    public void whenCallTransformToPriceWithHaltedInstrument_TransformedPriceIsNotTradable() {
+        Price price = streamPriceTransformer.transformToPrice(parse(STREAM_PRICE.replace(
+                "\"tradeable\":true", "\"tradeable\":false")));
+
+        assertFalse(price.isTradable());
+    }
+
+    @Test
+    public void whenCallTransformToPrice_ThenReturnCorrectValues() {
+        Price price = streamPriceTransformer.transformToPrice(parse(STREAM_PRICE));
+
+        assertEquals(new BigDecimal("1.13524"), price.getAsk());
+        assertEquals(new BigDecimal("1.13510"), price.getBid());
+        assertEquals(ZonedDateTime.parse("2012-06-30T12:30:40.123456789Z[UTC]"), price.getDateTime());
+        assertTrue(price.isTradable());
+    }
+
+    private JsonObject parse(String json) {
+        return new JsonParser().parse(json).getAsJsonObject();
+    }
+}
@@ -11,7 +11,9 @@ import trader.entity.trade.BrokerTradeDetails;
 import trader.responder.Response;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -89,4 +91,14 @@ public class OandaTransformerTest {
         assertEquals(priceMock, price);
     }
 
+    @Test
+    public void WhenCallTransformForPrices_CorrectResult(){
+        Map<String, Price> prices = new HashMap<>();
+        prices.put("EUR_USD", priceMock);
+        when(priceTransformerMock.transformToPrices(responseMock)).thenReturn(prices);
+        commonMembers.changeFieldObject(transformer, "oandaPriceTransformer", priceTransformerMock);
+
+        assertEquals(prices, transformer.transformToPrices(responseMock));
+    }
+
 }
\ No newline at end of file
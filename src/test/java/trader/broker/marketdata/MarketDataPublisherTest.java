@@ -0,0 +1,161 @@
+package trader.broker.marketdata;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import trader.broker.BrokerGateway;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.Candle;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Price;
+import trader.entity.price.PriceImpl;
+import trader.exception.NullArgumentException;
+import trader.observer.Observer;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class MarketDataPublisherTest {
+
+    private static final ZonedDateTime FIRST_TIME = ZonedDateTime.parse("2018-06-01T10:00:00Z[UTC]");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BrokerGateway brokerGatewayMock;
+    private MarketDataPublisher publisher;
+    private MarketDataSegment segment;
+
+    @Before
+    public void setUp() {
+        brokerGatewayMock = mock(BrokerGateway.class);
+        publisher = new MarketDataPublisher(brokerGatewayMock, folder.getRoot().toPath());
+        segment = MarketDataSegment.open(folder.getRoot().toPath().resolve("EUR_USD.marketdata"));
+    }
+
+    @After
+    public void tearDown() {
+        segment.close();
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullBrokerGateway_WhenCreate_ThenException() {
+        new MarketDataPublisher(null, folder.getRoot().toPath());
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullDirectory_WhenCreate_ThenException() {
+        new MarketDataPublisher(brokerGatewayMock, null);
+    }
+
+    @Test
+    public void givenBrokerPrice_WhenGetPrice_ThenReturnAndPublishIt() {
+        Price price = price();
+        when(brokerGatewayMock.getPrice("EUR_USD")).thenReturn(price);
+
+        assertSame(price, publisher.getPrice("EUR_USD"));
+        assertEquals(1L, segment.getPublishedTicks());
+        assertEquals(price.getBid(), segment.readPrice(0L).getBid());
+    }
+
+    @Test
+    public void givenBrokerPrices_WhenGetPrices_ThenPublishEveryInstrument() {
+        Map<String, Price> prices = new HashMap<>();
+        prices.put("EUR_USD", price());
+        prices.put("GBP_USD", price());
+        when(brokerGatewayMock.getPrices(any())).thenReturn(prices);
+
+        publisher.getPrices(new ArrayList<>(prices.keySet()));
+
+        assertEquals(1L, segment.getPublishedTicks());
+        MarketDataSegment pound = MarketDataSegment.open(folder.getRoot().toPath().resolve("GBP_USD.marketdata"));
+        assertEquals(1L, pound.getPublishedTicks());
+        pound.close();
+    }
+
+    @Test
+    public void givenStreamedPrice_WhenStreamPrices_ThenPublishAndPassOn() {
+        Observer observerMock = mock(Observer.class);
+        ArgumentCaptor<Observer> captor = ArgumentCaptor.forClass(Observer.class);
+        publisher.streamPrices("EUR_USD", observerMock);
+        verify(brokerGatewayMock).streamPrices(eq("EUR_USD"), captor.capture());
+
+        Price price = price();
+        captor.getValue().updateObserver(price);
+
+        verify(observerMock).updateObserver(price);
+        assertEquals(1L, segment.getPublishedTicks());
+    }
+
+    @Test
+    public void givenBrokerCandles_WhenGetCandles_ThenPublishThemUnderTheGranularity() {
+        List<Candlestick> candles = candles(3);
+        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candles);
+
+        assertSame(candles, publisher.getCandles(settings("EUR_USD", "3", "m30")));
+        assertEquals(3, segment.readCandles(CandleGranularity.M30, 3).size());
+    }
+
+    @Test
+    public void givenPriceWithoutQuotes_WhenGetPrice_ThenReturnWithoutPublishing() {
+        Price priceMock = mock(Price.class);
+        when(brokerGatewayMock.getPrice("EUR_USD")).thenReturn(priceMock);
+
+        assertSame(priceMock, publisher.getPrice("EUR_USD"));
+        assertEquals(0L, segment.getPublishedTicks());
+    }
+
+    @Test
+    public void givenAccountAndOrderCalls_WhenCalled_ThenPassedToBroker() {
+        when(brokerGatewayMock.getBalance()).thenReturn(BigDecimal.TEN);
+        when(brokerGatewayMock.placeOrder(Collections.<String, String>emptyMap(), "MARKET")).thenReturn("1");
+
+        assertEquals(BigDecimal.TEN, publisher.getBalance());
+        assertEquals("1", publisher.placeOrder(Collections.<String, String>emptyMap(), "MARKET"));
+        verify(brokerGatewayMock, times(1)).placeOrder(any(), anyString());
+    }
+
+    private Price price() {
+        return new PriceImpl.PriceBuilder()
+                .setDateTime(FIRST_TIME)
+                .setBid(new BigDecimal("1.16800"))
+                .setAsk(new BigDecimal("1.16812"))
+                .build();
+    }
+
+    private List<Candlestick> candles(int quantity) {
+        List<Candlestick> candles = new ArrayList<>();
+        for (int i = 0; i < quantity; i++) {
+            candles.add(new Candle.CandleBuilder()
+                    .setDateTime(FIRST_TIME.plusMinutes(30L * i))
+                    .setOpenPrice(new BigDecimal("1.16800"))
+                    .setHighPrice(new BigDecimal("1.16850"))
+                    .setLowPrice(new BigDecimal("1.16750"))
+                    .setClosePrice(new BigDecimal("1.16820"))
+                    .build());
+        }
+        return candles;
+    }
+
+    private HashMap<String, String> settings(String instrument, String quantity, String granularity) {
+        HashMap<String, String> settings = new HashMap<>();
+        settings.put("instrument", instrument);
+        settings.put("quantity", quantity);
+        settings.put("granularity", granularity);
+        return settings;
+    }
+}
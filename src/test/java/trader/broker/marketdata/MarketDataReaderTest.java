@@ -0,0 +1,248 @@
+package trader.broker.marketdata;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import trader.broker.BrokerGateway;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.Candle;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Price;
+import trader.entity.price.PriceImpl;
+import trader.exception.NullArgumentException;
+import trader.observer.Observer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class MarketDataReaderTest {
+
+    private static final long HALF_HOUR = 1800L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BrokerGateway brokerGatewayMock;
+    private MarketDataSegment segment;
+    private MarketDataReader reader;
+
+    @Before
+    public void setUp() {
+        brokerGatewayMock = mock(BrokerGateway.class);
+        segment = MarketDataSegment.open(folder.getRoot().toPath().resolve("EUR_USD.marketdata"));
+        reader = new MarketDataReader(brokerGatewayMock, folder.getRoot().toPath());
+    }
+
+    @After
+    public void tearDown() {
+        segment.close();
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullDirectory_WhenCreate_ThenException() {
+        new MarketDataReader(brokerGatewayMock, null);
+    }
+
+    @Test
+    public void givenPublishedPrice_WhenGetPrice_ThenReadFromSegment() {
+        segment.publishPrice(price("1.16800"));
+
+        Price price = reader.getPrice("EUR_USD");
+
+        assertEquals(new BigDecimal("1.16800"), price.getBid());
+        verify(brokerGatewayMock, never()).getPrice(any());
+    }
+
+    @Test
+    public void givenNothingPublished_WhenGetPrice_ThenAskBroker() {
+        Price brokerPrice = price("1.20000");
+        when(brokerGatewayMock.getPrice("EUR_USD")).thenReturn(brokerPrice);
+
+        assertSame(brokerPrice, reader.getPrice("EUR_USD"));
+    }
+
+    @Test
+    public void givenStalePrice_WhenGetPrice_ThenAskBroker() {
+        reader = new MarketDataReader(brokerGatewayMock, folder.getRoot().toPath(), -1L);
+        segment.publishPrice(price("1.16800"));
+        Price brokerPrice = price("1.20000");
+        when(brokerGatewayMock.getPrice("EUR_USD")).thenReturn(brokerPrice);
+
+        assertSame(brokerPrice, reader.getPrice("EUR_USD"));
+    }
+
+    @Test
+    public void givenOneInstrumentPublished_WhenGetPrices_ThenAskBrokerForTheOthers() {
+        segment.publishPrice(price("1.16800"));
+        Map<String, Price> brokerPrices = new HashMap<>();
+        brokerPrices.put("GBP_USD", price("1.30000"));
+        when(brokerGatewayMock.getPrices(Collections.singletonList("GBP_USD"))).thenReturn(brokerPrices);
+
+        Map<String, Price> prices = reader.getPrices(Arrays.asList("EUR_USD", "GBP_USD"));
+
+        assertEquals(new BigDecimal("1.16800"), prices.get("EUR_USD").getBid());
+        assertEquals(new BigDecimal("1.30000"), prices.get("GBP_USD").getBid());
+    }
+
+    @Test
+    public void givenPublishedCandles_WhenGetCandles_ThenReadFromSegment() {
+        segment.publishCandles(CandleGranularity.M30, recentCandles(10));
+
+        List<Candlestick> candles = reader.getCandles(settings("10"));
+
+        assertEquals(10, candles.size());
+        assertEquals(new BigDecimal("1.16820"), candles.get(9).getClosePrice());
+        verify(brokerGatewayMock, never()).getCandles(any(HashMap.class));
+    }
+
+    @Test
+    public void givenFewerPublishedCandles_WhenGetCandles_ThenAskBroker() {
+        segment.publishCandles(CandleGranularity.M30, recentCandles(5));
+
+        reader.getCandles(settings("10"));
+
+        verify(brokerGatewayMock, times(1)).getCandles(any(HashMap.class));
+    }
+
+    @Test
+    public void givenCandlesBehindTheClock_WhenGetCandles_ThenAskBroker() {
+        reader = new MarketDataReader(brokerGatewayMock, folder.getRoot().toPath(), 30_000L, 50L);
+        List<Candlestick> candles = recentCandles(10);
+        segment.publishCandles(CandleGranularity.M30, candles.subList(0, 8));
+
+        reader.getCandles(settings("8"));
+
+        verify(brokerGatewayMock, times(1)).getCandles(any(HashMap.class));
+    }
+
+    @Test(timeout = 10_000)
+    public void givenPublisherFetchingClosedCandle_WhenGetCandles_ThenWaitForItInsteadOfAskingBroker() throws InterruptedException {
+        reader = new MarketDataReader(brokerGatewayMock, folder.getRoot().toPath(), 30_000L, 5_000L);
+        final List<Candlestick> candles = recentCandles(10);
+        segment.publishCandles(CandleGranularity.M30, candles.subList(0, 8));
+        //the publisher writes the closed candle only after the tick that closed it
+        Thread publisher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                segment.publishCandles(CandleGranularity.M30, candles);
+            }
+        });
+        publisher.start();
+
+        List<Candlestick> read = reader.getCandles(settings("8"));
+        publisher.join();
+
+        assertEquals(8, read.size());
+        assertEquals(candles.get(9).getDateTime().toInstant(), read.get(7).getDateTime().toInstant());
+        verify(brokerGatewayMock, never()).getCandles(any(HashMap.class));
+    }
+
+    @Test
+    public void givenTicksPublishedWhileStreaming_WhenStreamPrices_ThenPushEveryTick() throws InterruptedException {
+        segment.publishPrice(price("1.16799"));
+        final List<Price> pushed = new CopyOnWriteArrayList<>();
+        Thread streamThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                reader.streamPrices("EUR_USD", new Observer() {
+                    @Override
+                    public void updateObserver(Price price) {
+                        pushed.add(price);
+                    }
+                });
+            }
+        });
+        streamThread.start();
+        Thread.sleep(50L);
+
+        segment.publishPrice(price("1.16800"));
+        segment.publishPrice(price("1.16801"));
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while(pushed.size() < 2 && System.currentTimeMillis() < deadline)
+            Thread.sleep(5L);
+        streamThread.interrupt();
+        streamThread.join(5_000L);
+
+        assertFalse(streamThread.isAlive());
+        assertEquals(2, pushed.size());
+        assertEquals(new BigDecimal("1.16801"), pushed.get(1).getBid());
+        verify(brokerGatewayMock, never()).getPrice(any());
+    }
+
+    @Test
+    public void givenSilentPublisher_WhenStreamPrices_ThenPushBrokerPrice() throws InterruptedException {
+        final List<Price> pushed = new CopyOnWriteArrayList<>();
+        when(brokerGatewayMock.getPrice("EUR_USD")).thenReturn(price("1.20000"));
+        Thread streamThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                reader.streamPrices("EUR_USD", new Observer() {
+                    @Override
+                    public void updateObserver(Price price) {
+                        pushed.add(price);
+                    }
+                });
+            }
+        });
+        streamThread.start();
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while(pushed.isEmpty() && System.currentTimeMillis() < deadline)
+            Thread.sleep(5L);
+        streamThread.interrupt();
+        streamThread.join(5_000L);
+
+        assertEquals(new BigDecimal("1.20000"), pushed.get(0).getBid());
+    }
+
+    private Price price(String bid) {
+        return new PriceImpl.PriceBuilder()
+                .setDateTime(ZonedDateTime.now(ZoneOffset.UTC))
+                .setBid(new BigDecimal(bid))
+                .setAsk(new BigDecimal(bid).add(new BigDecimal("0.00012")))
+                .build();
+    }
+
+    //complete candles up to the one before the candle in progress
+    private List<Candlestick> recentCandles(int quantity) {
+        long current = System.currentTimeMillis() / 1000L / HALF_HOUR * HALF_HOUR;
+        List<Candlestick> candles = new ArrayList<>();
+        for (int i = quantity; i > 0; i--) {
+            candles.add(new Candle.CandleBuilder()
+                    .setDateTime(ZonedDateTime.ofInstant(Instant.ofEpochSecond(current - i * HALF_HOUR), ZoneOffset.UTC))
+                    .setOpenPrice(new BigDecimal("1.16800"))
+                    .setHighPrice(new BigDecimal("1.16850"))
+                    .setLowPrice(new BigDecimal("1.16750"))
+                    .setClosePrice(new BigDecimal("1.16820"))
+                    .build());
+        }
+        return candles;
+    }
+
+    private HashMap<String, String> settings(String quantity) {
+        HashMap<String, String> settings = new HashMap<>();
+        settings.put("instrument", "EUR_USD");
+        settings.put("quantity", quantity);
+        settings.put("granularity", "M30");
+        return settings;
+    }
+}
@@ -0,0 +1,161 @@
+package trader.broker.marketdata;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import trader.entity.candlestick.CandleBuffer;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.Candle;
+import trader.entity.candlestick.candle.CandleGranularity;
+import trader.entity.price.Price;
+import trader.entity.price.PriceImpl;
+import trader.exception.NullArgumentException;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MarketDataSegmentTest {
+
+    private static final ZonedDateTime FIRST_TIME = ZonedDateTime.parse("2018-06-01T10:00:00.250Z[UTC]");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private MarketDataSegment segment;
+
+    @Before
+    public void setUp() {
+        file = folder.getRoot().toPath().resolve("EUR_USD.marketdata");
+        segment = MarketDataSegment.open(file);
+    }
+
+    @After
+    public void tearDown() {
+        segment.close();
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullFile_WhenOpen_ThenException() {
+        MarketDataSegment.open(null);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullPrice_WhenPublishPrice_ThenException() {
+        segment.publishPrice(null);
+    }
+
+    @Test
+    public void givenNewSegment_WhenRead_ThenNothingPublished() {
+        assertEquals(0L, segment.getPublishedTicks());
+        assertNull(segment.readPrice(0L));
+        assertEquals(-1L, segment.getPublishedMillis(-1L));
+        assertEquals(0, segment.readCandles(CandleGranularity.M30, 10).size());
+    }
+
+    @Test
+    public void givenPublishedPrice_WhenReadPrice_ThenSamePrice() {
+        Price published = price(0);
+        segment.publishPrice(published);
+
+        Price read = segment.readPrice(0L);
+
+        assertEquals(1L, segment.getPublishedTicks());
+        assertEquals(published.getBid(), read.getBid());
+        assertEquals(published.getAsk(), read.getAsk());
+        assertEquals(published.getAvailableUnits().setScale(5), read.getAvailableUnits());
+        assertEquals(FIRST_TIME.toInstant(), read.getDateTime().toInstant());
+        assertTrue(read.isTradable());
+        assertTrue(segment.getPublishedMillis(0L) > 0L);
+    }
+
+    @Test
+    public void givenOverwrittenTick_WhenReadPrice_ThenNull() {
+        for (int i = 0; i <= MarketDataSegment.TICK_CAPACITY; i++)
+            segment.publishPrice(price(i));
+
+        assertNull(segment.readPrice(0L));
+        assertEquals(price(MarketDataSegment.TICK_CAPACITY).getBid(), segment.readPrice(MarketDataSegment.TICK_CAPACITY).getBid());
+    }
+
+    @Test
+    public void givenSegmentOpenedByAnotherProcess_WhenRead_ThenSeePublishedData() {
+        segment.publishPrice(price(0));
+        segment.publishCandles(CandleGranularity.M30, candles(0, 3));
+
+        MarketDataSegment reader = MarketDataSegment.open(file);
+
+        assertEquals(1L, reader.getPublishedTicks());
+        assertEquals(price(0).getBid(), reader.readPrice(0L).getBid());
+        assertEquals(3, reader.readCandles(CandleGranularity.M30, 3).size());
+        reader.close();
+    }
+
+    @Test
+    public void givenPublishedCandles_WhenReadCandles_ThenNewestOldestFirst() {
+        segment.publishCandles(CandleGranularity.M30, candles(0, 10));
+
+        CandleBuffer read = segment.readCandles(CandleGranularity.M30, 4);
+
+        assertEquals(4, read.size());
+        assertEquals(FIRST_TIME.plusMinutes(30 * 6).toEpochSecond(), read.getTime(0));
+        assertEquals(FIRST_TIME.plusMinutes(30 * 9).toEpochSecond(), read.getTime(3));
+        assertEquals(116809L, read.getClosePrice(3));
+        assertEquals(0, segment.readCandles(CandleGranularity.D, 4).size());
+    }
+
+    @Test
+    public void givenOverlappingCandles_WhenPublishCandles_ThenOnlyNewerAreAppended() {
+        segment.publishCandles(CandleGranularity.M30, candles(0, 5));
+        segment.publishCandles(CandleGranularity.M30, candles(3, 4));
+
+        CandleBuffer read = segment.readCandles(CandleGranularity.M30, 100);
+
+        assertEquals(7, read.size());
+        assertEquals(FIRST_TIME.plusMinutes(30 * 6).toEpochSecond(), read.getTime(6));
+    }
+
+    @Test
+    public void givenMoreCandlesThanCapacity_WhenReadCandles_ThenReturnTheNewestCapacity() {
+        segment.publishCandles(CandleGranularity.M1, candles(0, MarketDataSegment.CANDLE_CAPACITY + 10));
+
+        CandleBuffer read = segment.readCandles(CandleGranularity.M1, MarketDataSegment.CANDLE_CAPACITY + 10);
+
+        assertEquals(MarketDataSegment.CANDLE_CAPACITY, read.size());
+        assertEquals(FIRST_TIME.plusMinutes(30 * 10).toEpochSecond(), read.getTime(0));
+    }
+
+    private Price price(int index) {
+        BigDecimal bid = BigDecimal.valueOf(116800 + index, 5);
+        return new PriceImpl.PriceBuilder()
+                .setDateTime(FIRST_TIME.plusSeconds(index))
+                .setBid(bid)
+                .setAsk(bid.add(new BigDecimal("0.00012")))
+                .setAvailableUnits(BigDecimal.valueOf(250000))
+                .setIsTradable(true)
+                .build();
+    }
+
+    private List<Candlestick> candles(int fromIndex, int quantity) {
+        List<Candlestick> candles = new ArrayList<>();
+        for (int i = fromIndex; i < fromIndex + quantity; i++) {
+            BigDecimal price = BigDecimal.valueOf(116800 + i, 5);
+            candles.add(new Candle.CandleBuilder()
+                    .setDateTime(FIRST_TIME.plusMinutes(30L * i))
+                    .setOpenPrice(price)
+                    .setHighPrice(price)
+                    .setLowPrice(price)
+                    .setClosePrice(price)
+                    .setComplete(true)
+                    .build());
+        }
+        return candles;
+    }
+}
@@ -0,0 +1,47 @@
+package trader.connection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BackoffTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenMaxDelayBelowInitialDelay_WhenCreate_ThenThrowException() {
+        new Backoff(100, 10);
+    }
+
+    @Test
+    public void givenFirstAttempt_WhenCallNextDelay_ThenDelayIsWithinInitialDelay() {
+        Backoff backoff = new Backoff(40, 1000);
+
+        long delay = backoff.nextDelayMillis();
+
+        assertTrue(delay >= 20 && delay <= 40);
+        assertEquals(1, backoff.getAttempts());
+    }
+
+    @Test
+    public void givenSeveralAttempts_WhenCallNextDelay_ThenDelayGrowsUpToMaxDelay() {
+        Backoff backoff = new Backoff(40, 200);
+        backoff.nextDelayMillis();
+        backoff.nextDelayMillis();
+
+        long third = backoff.nextDelayMillis();
+        for (int i = 0; i < 40; i++)
+            assertTrue(backoff.nextDelayMillis() <= 200);
+
+        assertTrue(third >= 80 && third <= 160);
+    }
+
+    @Test
+    public void givenReset_WhenCallNextDelay_ThenStartAgainFromInitialDelay() {
+        Backoff backoff = new Backoff(40, 1000);
+        for (int i = 0; i < 5; i++)
+            backoff.nextDelayMillis();
+
+        backoff.reset();
+
+        assertTrue(backoff.nextDelayMillis() <= 40);
+    }
+}
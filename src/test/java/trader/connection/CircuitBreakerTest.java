@@ -0,0 +1,67 @@
+package trader.connection;
+
+import org.junit.Test;
+import trader.connection.enums.CircuitState;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void givenFailuresBelowThreshold_WhenCallAllowRequest_ThenAllow() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, 1000);
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+
+        assertTrue(circuitBreaker.allowRequest());
+        assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void givenFailuresReachThreshold_WhenCallAllowRequest_ThenReject() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, 1000);
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+
+        assertFalse(circuitBreaker.allowRequest());
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void givenOpenTimePassed_WhenCallAllowRequest_ThenAllowOneTrial() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, 20);
+        circuitBreaker.recordFailure();
+        Thread.sleep(30);
+
+        assertTrue(circuitBreaker.allowRequest());
+        assertFalse(circuitBreaker.allowRequest());
+        assertEquals(CircuitState.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void givenTrialSucceeds_WhenCallAllowRequest_ThenCircuitIsClosed() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, 1000);
+        circuitBreaker.recordFailure();
+        circuitBreaker.halfOpen();
+        circuitBreaker.allowRequest();
+
+        circuitBreaker.recordSuccess();
+
+        assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    public void givenTrialFails_WhenCallAllowRequest_ThenCircuitIsOpenAgain() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, 1000);
+        for (int i = 0; i < 3; i++)
+            circuitBreaker.recordFailure();
+        circuitBreaker.halfOpen();
+        circuitBreaker.allowRequest();
+
+        circuitBreaker.recordFailure();
+
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+}
@@ -0,0 +1,199 @@
+package trader.connection;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import trader.connection.enums.CircuitState;
+import trader.exception.BadRequestException;
+import trader.exception.NullArgumentException;
+import trader.exception.UnableToExecuteRequest;
+import trader.presenter.Presenter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ConnectionHealthTest {
+
+    private HttpServer server;
+    private String url;
+    private AtomicInteger failuresToInject;
+    private AtomicInteger requests;
+    private Presenter presenterMock;
+    private ConnectionHealth connectionHealth;
+
+    @Before
+    public void setUp() throws IOException {
+        failuresToInject = new AtomicInteger();
+        requests = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v3/price", new FailureInjectingHandler());
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+        presenterMock = mock(Presenter.class);
+        connectionHealth = new ConnectionHealth(url, presenterMock, new ReachabilityProbe(500), 5, 20);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullPresenter_WhenCreate_ThenThrowException() {
+        new ConnectionHealth(url, null);
+    }
+
+    @Test
+    public void givenHealthyServer_WhenExecute_ThenReturnResponse() {
+        String price = connectionHealth.execute("price", 10, priceCall());
+
+        assertEquals("1.2", price);
+        assertEquals(1, requests.get());
+        verify(presenterMock, never()).execute(anyString());
+    }
+
+    @Test
+    public void givenServerFailsSeveralTimes_WhenExecute_ThenRetryUntilResponse() {
+        failuresToInject.set(5);
+
+        long start = System.currentTimeMillis();
+        String price = connectionHealth.execute("price", 10, priceCall());
+
+        assertEquals("1.2", price);
+        assertTrue(System.currentTimeMillis() - start < 2_000);
+        assertEquals(CircuitState.CLOSED, connectionHealth.getCircuitBreaker("price").getState());
+        verify(presenterMock, times(1)).execute("Connection Lost.Reconnecting...");
+        verify(presenterMock, times(1)).execute("CONNECTED");
+    }
+
+    @Test
+    public void givenServerKeepsFailing_WhenExecuteWithAttempts_ThenThrowAfterAttempts() {
+        failuresToInject.set(100);
+
+        try {
+            connectionHealth.execute("price", 2, priceCall());
+            fail();
+        } catch (UnableToExecuteRequest e) {
+            assertEquals(2, requests.get());
+            assertTrue(connectionHealth.isConnectionLost());
+        }
+    }
+
+    @Test
+    public void givenFailuresOnOneEndpoint_WhenCheckOtherEndpoint_ThenItsCircuitIsClosed() {
+        failuresToInject.set(100);
+        try {
+            connectionHealth.execute("price", 3, priceCall());
+        } catch (UnableToExecuteRequest e) {
+            //expected
+        }
+
+        assertEquals(CircuitState.OPEN, connectionHealth.getCircuitBreaker("price").getState());
+        assertEquals(CircuitState.CLOSED, connectionHealth.getCircuitBreaker("candle").getState());
+    }
+
+    @Test
+    public void givenServerIsDown_WhenExecute_ThenRetryUntilServerIsBack() throws Exception {
+        final int port = server.getAddress().getPort();
+        server.stop(0);
+        Thread restart = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(300);
+                    server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+                    server.createContext("/v3/price", new FailureInjectingHandler());
+                    server.start();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        restart.start();
+
+        String price = connectionHealth.execute("price", 10, priceCall());
+        restart.join();
+
+        assertEquals("1.2", price);
+    }
+
+    @Test
+    public void givenInterruptedThread_WhenExecute_ThenThrowWithoutCalling() {
+        Thread.currentThread().interrupt();
+        try {
+            connectionHealth.execute("price", 10, priceCall());
+            fail();
+        } catch (UnableToExecuteRequest e) {
+            assertEquals(0, requests.get());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenRuntimeException_WhenExecute_ThenDoNotRetry() {
+        connectionHealth.execute("price", 10, new BrokerCall<Object>() {
+            @Override
+            public Object call() {
+                throw new BadRequestException();
+            }
+        });
+    }
+
+    @Test
+    public void givenUnusedPort_WhenProbe_ThenHostIsNotReachable() throws IOException {
+        ServerSocket socket = new ServerSocket(0);
+        int port = socket.getLocalPort();
+        socket.close();
+
+        assertFalse(new ReachabilityProbe(500).isReachable("http://127.0.0.1:" + port));
+        assertTrue(new ReachabilityProbe(500).isReachable(url));
+    }
+
+    private BrokerCall<String> priceCall() {
+        return new BrokerCall<String>() {
+            @Override
+            public String call() throws IOException {
+                HttpURLConnection connection = (HttpURLConnection) new URL(url + "/v3/price").openConnection();
+                try {
+                    if(connection.getResponseCode() != HttpURLConnection.HTTP_OK)
+                        throw new IOException();
+                    try (InputStream body = connection.getInputStream();
+                         Scanner scanner = new Scanner(body, "UTF-8")) {
+                        return scanner.next();
+                    }
+                } finally {
+                    connection.disconnect();
+                }
+            }
+        };
+    }
+
+    private final class FailureInjectingHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            boolean fail = failuresToInject.getAndDecrement() > 0;
+            byte[] body = (fail ? "unavailable" : "1.2").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(fail ? 503 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
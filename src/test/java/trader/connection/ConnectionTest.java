@@ -1,46 +1,40 @@
 package trader.connection;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
-import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
-import org.powermock.api.mockito.PowerMockito;
-import org.powermock.core.classloader.annotations.PrepareForTest;
-import org.powermock.modules.junit4.PowerMockRunner;
-import trader.CommonTestClassMembers;
+import org.mockito.InOrder;
 import trader.presenter.Presenter;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
-@RunWith(PowerMockRunner.class)
-@PrepareForTest(Thread.class)
 public class ConnectionTest {
 
-    private final String goodUrl = "https://api-fxtrade.oanda.com";
-    private final String badUrl = "https://no.com";
-
-    private PrintStream standardOut = System.out;
-    private ByteArrayOutputStream outContent;
-    private CommonTestClassMembers commonMembers;
     private Presenter presenterMock;
+    private HttpServer server;
 
     @Before
     public void setUp() throws Exception {
-        commonMembers = new CommonTestClassMembers();
-        outContent = new ByteArrayOutputStream();
         presenterMock = mock(Presenter.class);
-        System.setOut(new PrintStream(outContent));
+        resetMessage();
     }
 
     @After
-    public void tearDown(){
-        System.setOut(standardOut);
-        System.out.println(outContent.toString());
+    public void tearDown() throws Exception {
+        if(server != null)
+            server.stop(0);
+        resetMessage();
     }
 
     @Test
@@ -67,45 +61,86 @@ public class ConnectionTest {
         assertEquals(argCapture.getValue(), "Connection Lost.Reconnecting...");
     }
 
+    @Test
+    public void givenConnectionAlreadyLost_WhenCallActivateSleep_ThenDoNotPrintAgain() {
+        Connection.activateSleep("Connection Lost.Reconnecting...", 1L, presenterMock);
+
+        verify(presenterMock, never()).execute(anyString());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testActivateSleepWithNegativeSleep(){
         setFakePresenter();
-        PowerMockito.mockStatic(Thread.class);
         Connection.activateSleep("", -1L, presenterMock);
     }
 
-    @Test
-    public void testVerifyHostIpExistence() {
+    @Test(timeout = 10_000)
+    public void givenLocalServer_WhenCallWaitToConnect_ThenPrintCorrectResult() throws IOException {
         setFakePresenter();
-        boolean expectedGoodURL = Connection.verifyHostIpExistence(goodUrl, 1L, presenterMock);
-        boolean expectedBadURL = Connection.verifyHostIpExistence(badUrl, 1L, presenterMock);
+        server = startServer(freePort());
+        ArgumentCaptor<String> argCapture = ArgumentCaptor.forClass(String.class);
 
-        assertTrue(expectedGoodURL);
-        assertFalse(expectedBadURL);
-    }
+        assertTrue(Connection.waitToConnect(urlOf(server.getAddress().getPort()), presenterMock));
 
-    @Test
-    public void testExtractHost()  {
-        setFakePresenter();;
-        String badUrlExtracted = Connection.extractHost(badUrl);
+        verify(presenterMock).execute(argCapture.capture());
+        assertEquals("CONNECTED", argCapture.getValue());
+    }
 
-        assertEquals("no.com", badUrlExtracted);
+    @Test(timeout = 10_000)
+    public void givenServerStartsLater_WhenCallWaitToConnect_ThenReconnectOnceItAnswers() throws Exception {
+        final int port = freePort();
+        Thread starter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(300L);
+                    server = startServer(port);
+                } catch (InterruptedException | IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        starter.start();
+
+        assertTrue(Connection.waitToConnect(urlOf(port), presenterMock));
+        starter.join();
+
+        InOrder inOrder = inOrder(presenterMock);
+        inOrder.verify(presenterMock).execute("Connection Lost.Reconnecting...");
+        inOrder.verify(presenterMock).execute("CONNECTED");
     }
 
     private void setFakePresenter(){
         doNothing().when(presenterMock).execute(anyString());
     }
 
-    @Test
-    public void givenCorrectUrl_WhenCallWaitToConnect_ThenPrintCorrectResult(){
-        setFakePresenter();
-        ArgumentCaptor<String> argCapture = ArgumentCaptor.forClass(String.class);
+    //the last message is kept between calls, so every test starts without one
+    private void resetMessage() throws Exception {
+        Field message = Connection.class.getDeclaredField("message");
+        message.setAccessible(true);
+        message.set(null, "");
+    }
 
-        Connection.waitToConnect(goodUrl, presenterMock);
+    private HttpServer startServer(int port) throws IOException {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        httpServer.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            }
+        });
+        httpServer.start();
+        return httpServer;
+    }
 
-        verify(presenterMock, timeout(1)).execute(anyString());
-        verify(presenterMock).execute(argCapture.capture());
+    private int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
 
-        assertEquals("CONNECTED", argCapture.getValue());
+    private String urlOf(int port) {
+        return "http://127.0.0.1:" + port;
     }
 }
@@ -0,0 +1,83 @@
+package trader.connection;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import trader.exception.NullArgumentException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+
+import static org.junit.Assert.*;
+
+public class ReachabilityProbeTest {
+
+    private ReachabilityProbe probe;
+    private HttpServer server;
+    private int status;
+
+    @Before
+    public void setUp() throws IOException {
+        probe = new ReachabilityProbe(1_000);
+        status = 200;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenZeroTimeout_WhenCreate_ThenThrowException() {
+        new ReachabilityProbe(0);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullUrl_WhenCallIsReachable_ThenThrowException() {
+        probe.isReachable(null);
+    }
+
+    @Test
+    public void givenAnsweringServer_WhenCallIsReachable_ThenReturnTrue() {
+        assertTrue(probe.isReachable(urlOf(server.getAddress().getPort())));
+    }
+
+    @Test
+    public void givenServerAnswersWithError_WhenCallIsReachable_ThenReturnTrue() {
+        status = 503;
+
+        assertTrue(probe.isReachable(urlOf(server.getAddress().getPort())));
+    }
+
+    @Test
+    public void givenClosedPort_WhenCallIsReachable_ThenReturnFalse() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        assertFalse(probe.isReachable(urlOf(port)));
+    }
+
+    @Test
+    public void givenMalformedUrl_WhenCallIsReachable_ThenReturnFalse() {
+        assertFalse(probe.isReachable("not a url"));
+    }
+
+    private String urlOf(int port) {
+        return "http://127.0.0.1:" + port;
+    }
+}
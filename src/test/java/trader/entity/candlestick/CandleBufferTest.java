@@ -0,0 +1,104 @@
+package trader.entity.candlestick;
+
+import org.junit.Before;
+import org.junit.Test;
+import trader.exception.NegativeNumberException;
+import trader.exception.NullArgumentException;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CandleBufferTest {
+
+    private static final long TIME = 1_527_865_800L;
+
+    private CandleBuffer buffer;
+
+    @Before
+    public void setUp() {
+        buffer = new CandleBuffer(2);
+    }
+
+    @Test(expected = NegativeNumberException.class)
+    public void givenNegativeCapacity_WhenCreate_ThenThrowException() {
+        new CandleBuffer(-1);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullBuffer_WhenCopy_ThenThrowException() {
+        new CandleBuffer(null);
+    }
+
+    @Test
+    public void givenCopy_WhenChangeOriginal_ThenCopyKeepsItsCandles() {
+        buffer.add(TIME, 116_512L, 116_601L, 116_443L, 116_570L, 42L);
+        CandleBuffer copy = new CandleBuffer(buffer);
+        buffer.clear();
+        buffer.add(TIME + 60, 1L, 1L, 1L, 1L, 1L);
+
+        assertEquals(1, copy.size());
+        assertEquals(TIME, copy.getTime(0));
+        assertEquals(116_570L, copy.getClosePrice(0));
+    }
+
+    @Test
+    public void givenAddedCandle_WhenCallGetters_ThenReturnColumns() {
+        buffer.add(TIME, 116_512L, 116_601L, 116_443L, 116_570L, 42L);
+
+        assertEquals(1, buffer.size());
+        assertEquals(TIME, buffer.getTime(0));
+        assertEquals(116_512L, buffer.getOpenPrice(0));
+        assertEquals(116_601L, buffer.getHighPrice(0));
+        assertEquals(116_443L, buffer.getLowPrice(0));
+        assertEquals(116_570L, buffer.getClosePrice(0));
+        assertEquals(42L, buffer.getVolume(0));
+    }
+
+    @Test
+    public void givenMoreCandlesThanCapacity_WhenAdd_ThenKeepEveryCandle() {
+        for (int i = 0; i < 10; i++)
+            buffer.add(TIME + i, i, i, i, i, i);
+
+        assertEquals(10, buffer.size());
+        assertEquals(TIME + 9, buffer.getTime(9));
+        assertEquals(9L, buffer.getClosePrice(9));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void givenClearedBuffer_WhenCallGetTime_ThenThrowException() {
+        buffer.add(TIME, 1L, 1L, 1L, 1L, 1L);
+        buffer.clear();
+
+        assertEquals(0, buffer.size());
+        buffer.getTime(0);
+    }
+
+    @Test
+    public void givenCandle_WhenCallGetCandlestick_ThenPricesHaveFiveDecimals() {
+        buffer.add(TIME, 116_512L, 116_601L, 116_443L, 11_057_000L, 42L);
+
+        Candlestick candlestick = buffer.getCandlestick(0);
+
+        assertEquals(new BigDecimal("1.16512"), candlestick.getOpenPrice());
+        assertEquals(new BigDecimal("1.16601"), candlestick.getHighPrice());
+        assertEquals(new BigDecimal("1.16443"), candlestick.getLowPrice());
+        assertEquals(new BigDecimal("110.57000"), candlestick.getClosePrice());
+        assertEquals(ZonedDateTime.parse("2018-06-01T15:10:00Z[UTC]"), candlestick.getDateTime());
+        assertEquals(42L, candlestick.getVolume());
+        assertTrue(candlestick.isComplete());
+    }
+
+    @Test
+    public void givenCandles_WhenCallToCandlesticks_ThenKeepOrder() {
+        buffer.add(TIME, 1L, 1L, 1L, 1L, 1L);
+        buffer.add(TIME + 1_800L, 2L, 2L, 2L, 2L, 2L);
+
+        List<Candlestick> candlesticks = buffer.toCandlesticks();
+
+        assertEquals(2, candlesticks.size());
+        assertTrue(candlesticks.get(0).getDateTime().isBefore(candlesticks.get(1).getDateTime()));
+    }
+}
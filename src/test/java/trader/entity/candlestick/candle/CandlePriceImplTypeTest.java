@@ -60,6 +60,26 @@ public class CandlePriceImplTypeTest {
         assertEquals("Median price are not equal", 0, comparePrices(medianPrice, averagePrice()));
     }
 
+    @Test
+    public void givenPricesWithMoreDecimals_WhenExtractPipettes_ThenSameAsRoundedPrice(){
+        for (CandlePriceType type : CandlePriceType.values()) {
+            BigDecimal expected = type.extractPrice(this.mockCandlestick).setScale(5, BigDecimal.ROUND_HALF_UP);
+            assertEquals(type.toString(), expected.unscaledValue().longValue(), type.extractPipettes(this.mockCandlestick));
+        }
+    }
+
+    @Test
+    public void givenFiveDecimalPricesWithOddSum_WhenExtractPipettesForMedian_ThenRoundHalfUp(){
+        Candlestick candlestick = mock(Candlestick.class);
+        doReturn(new BigDecimal("1.17381")).when(candlestick).getHighPrice();
+        doReturn(new BigDecimal("1.16634")).when(candlestick).getLowPrice();
+
+        long medianPipettes = CandlePriceType.MEDIAN.extractPipettes(candlestick);
+
+        assertEquals(117008L, medianPipettes);
+        assertEquals(0, comparePrices(CandlePriceType.MEDIAN.extractPrice(candlestick), BigDecimal.valueOf(medianPipettes, 5)));
+    }
+
     private BigDecimal averagePrice() {
         BigDecimal high = this.mockCandlestick.getHighPrice();
         BigDecimal low = this.mockCandlestick.getLowPrice();
@@ -2,8 +2,12 @@ package trader.entity.configuration;
 
 import org.junit.Before;
 import org.junit.Test;
+import trader.broker.marketdata.enums.MarketDataMode;
 import trader.entity.candlestick.candle.CandleGranularity;
 import trader.exception.*;
+import trader.observable.enums.EventBus;
+import trader.observable.enums.ObserverDispatch;
+import trader.observable.enums.PriceFeed;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -34,6 +38,7 @@ public class BGXConfigurationImplTest {
     private static final String DEFAULT_ENTRY_STRATEGY = "standard";
     private static final String DEFAULT_ORDER_STRATEGY = "standard";
     private static final String DEFAULT_EXIT_STRATEGY = "fullClose";
+    private static final PriceFeed DEFAULT_PRICE_FEED = PriceFeed.POLL;
 
 
     private BGXConfigurationImpl config;
@@ -440,6 +445,210 @@ public class BGXConfigurationImplTest {
         assertEquals(CandleGranularity.M1, config.getExitGranularity());
     }
 
+    @Test
+    public void givenInitialSettings_WhenInitializePriceFeed_ThenDefaultValue(){
+        assertEquals(DEFAULT_PRICE_FEED, config.getPriceFeed());
+    }
+
+    @Test
+    public void givenNull_WhenCallSetPriceFeed_ThenDefaultValue(){
+        config.setPriceFeed(null);
+
+        assertEquals(DEFAULT_PRICE_FEED, config.getPriceFeed());
+    }
+
+    @Test
+    public void givenEmpty_WhenCallSetPriceFeed_ThenDefaultValue(){
+        config.setPriceFeed(" ");
+
+        assertEquals(DEFAULT_PRICE_FEED, config.getPriceFeed());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenNotExistentPriceFeed_WhenCallSetPriceFeed_ThenThrowException(){
+        config.setPriceFeed(" push ");
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallSetPriceFeed_CorrectUpdate(){
+        config.setPriceFeed(" Stream ");
+
+        assertEquals(PriceFeed.STREAM, config.getPriceFeed());
+    }
+
+    @Test
+    public void givenInitialSettings_WhenInitializeAggregateCandles_ThenFalse(){
+        assertFalse(config.isAggregateCandles());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenNotABoolean_WhenCallSetAggregateCandles_ThenThrowException(){
+        config.setAggregateCandles("yes");
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallSetAggregateCandles_CorrectUpdate(){
+        config.setAggregateCandles(" True ");
+
+        assertTrue(config.isAggregateCandles());
+    }
+
+    @Test
+    public void givenInitialSettings_WhenInitializeCandleStoreDirectory_ThenNoStore(){
+        assertNull(config.getCandleStoreDirectory());
+    }
+
+    @Test
+    public void givenEmpty_WhenCallSetCandleStoreDirectory_ThenNoStore(){
+        config.setCandleStoreDirectory(" ");
+
+        assertNull(config.getCandleStoreDirectory());
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallSetCandleStoreDirectory_CorrectUpdate(){
+        config.setCandleStoreDirectory(" candles ");
+
+        assertEquals("candles", config.getCandleStoreDirectory());
+    }
+
+    @Test
+    public void givenInitialSettings_WhenInitializeEventBus_ThenOff(){
+        assertEquals(EventBus.OFF, config.getEventBus());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenUnknownEventBus_WhenCallSetEventBus_ThenThrowException(){
+        config.setEventBus("sleeping");
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallSetEventBus_CorrectUpdate(){
+        config.setEventBus(" busy_spin ");
+
+        assertEquals(EventBus.BUSY_SPIN, config.getEventBus());
+    }
+
+    @Test
+    public void givenInitialSettings_WhenInitializeObserverDispatch_ThenSequential(){
+        assertEquals(ObserverDispatch.SEQUENTIAL, config.getObserverDispatch());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenUnknownObserverDispatch_WhenCallSetObserverDispatch_ThenThrowException(){
+        config.setObserverDispatch("async");
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallSetObserverDispatch_CorrectUpdate(){
+        config.setObserverDispatch(" parallel ");
+
+        assertEquals(ObserverDispatch.PARALLEL, config.getObserverDispatch());
+    }
+
+    @Test
+    public void givenInitialSettings_WhenInitializeRollUpGranularity_ThenNoRollUp(){
+        assertNull(config.getRollUpGranularity());
+    }
+
+    @Test(expected = EmptyArgumentException.class)
+    public void givenNotExistentGranularity_WhenCallSetRollUpGranularity_ThenThrowException(){
+        config.setRollUpGranularity(" MR ");
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallSetRollUpGranularity_CorrectUpdate(){
+        config.setRollUpGranularity(" m5 ");
+
+        assertEquals(CandleGranularity.M5, config.getRollUpGranularity());
+    }
+
+    @Test
+    public void givenInitialSettings_WhenInitializeMarketData_ThenDefaultValues(){
+        assertEquals(MarketDataMode.OFF, config.getMarketDataMode());
+        assertEquals("marketdata", config.getMarketDataDirectory());
+    }
+
+    @Test
+    public void givenEmpty_WhenCallSetMarketDataMode_ThenDefaultValue(){
+        config.setMarketDataMode(" ");
+
+        assertEquals(MarketDataMode.OFF, config.getMarketDataMode());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenNotExistentMode_WhenCallSetMarketDataMode_ThenThrowException(){
+        config.setMarketDataMode(" share ");
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallSetMarketDataMode_CorrectUpdate(){
+        config.setMarketDataMode(" Publish ");
+
+        assertEquals(MarketDataMode.PUBLISH, config.getMarketDataMode());
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallSetMarketDataDirectory_CorrectUpdate(){
+        config.setMarketDataDirectory(" /dev/shm/bgx ");
+
+        assertEquals("/dev/shm/bgx", config.getMarketDataDirectory());
+    }
+
+    @Test
+    public void givenInitialSettings_WhenInitializeAdaptivePolling_ThenFalse(){
+        assertFalse(config.isAdaptivePolling());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenNotABoolean_WhenCallSetAdaptivePolling_ThenThrowException(){
+        config.setAdaptivePolling(" yes ");
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallSetAdaptivePolling_CorrectUpdate(){
+        config.setAdaptivePolling(" True ");
+
+        assertTrue(config.isAdaptivePolling());
+    }
+
+    @Test
+    public void givenInitialSettings_WhenCallGetPollingPeriod_ThenDefaultValue(){
+        assertEquals(1000L, config.getPollingPeriod("EUR_USD"));
+    }
+
+    @Test(expected = NotANumberException.class)
+    public void givenNotANumber_WhenCallSetPollingPeriod_ThenThrowException(){
+        config.setPollingPeriod("EUR_USD", " fast ");
+    }
+
+    @Test(expected = UnderflowException.class)
+    public void givenZero_WhenCallSetPollingPeriod_ThenThrowException(){
+        config.setPollingPeriod("EUR_USD", "0");
+    }
+
+    @Test(expected = OverflowException.class)
+    public void givenTooLongPeriod_WhenCallSetPollingPeriod_ThenThrowException(){
+        config.setPollingPeriod("EUR_USD", "60001");
+    }
+
+    @Test
+    public void givenInstrumentPeriod_WhenCallGetPollingPeriod_ThenOnlyThatInstrumentIsUpdated(){
+        config.setPollingPeriod(" eur_usd ", " 250 ");
+
+        assertEquals(250L, config.getPollingPeriod("EUR_USD"));
+        assertEquals(1000L, config.getPollingPeriod("GBP_USD"));
+    }
+
+    @Test
+    public void givenDefaultPeriod_WhenCallGetPollingPeriod_ThenOtherInstrumentsAreUpdated(){
+        config.setPollingPeriod("EUR_USD", "250");
+        config.setPollingPeriod("default", "500");
+
+        assertEquals(250L, config.getPollingPeriod("EUR_USD"));
+        assertEquals(500L, config.getPollingPeriod("GBP_USD"));
+    }
+
     @Test
     public void givenCorrectSettings_WhenCallToString_ThenReturnCorrectResult(){
         assertEquals("BGXConfiguration", config.toString());
@@ -7,8 +7,6 @@ import trader.entity.candlestick.Candlestick;
 import trader.exception.BadRequestException;
 import trader.exception.IndicatorPeriodTooBigException;
 import trader.entity.indicator.BaseIndicatorTest;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
@@ -75,11 +73,10 @@ public class ExponentialMovingAverageTest extends BaseIndicatorTest {
     }
 
     @Test
-    public void testSMACalculationForCorrectness() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        commonMembers.changeFieldObject(ema, "indicatorValues", new ArrayList<Candlestick>());
-        Method setSMAValue = commonMembers
-                .getPrivateMethodForTest(ema, "setSMAValue", List.class);
-        setSMAValue.invoke(ema, indicatorUpdateHelper.getFakeCandlestickListFullOfMock());
+    public void testSMACalculationForCorrectness() {
+        List<Candlestick> candles = indicatorUpdateHelper.getFakeCandlestickListFullOfMock();
+        for (int i = 0; i < period; i++)
+            ema.onBar(candles.get(i));
 
         assertEquals(1, ema.getValues().size());
         assertEquals(BigDecimal.valueOf(1.16414).setScale(5,
@@ -7,7 +7,10 @@ import trader.entity.candlestick.candle.Candle;
 import trader.exception.BadRequestException;
 import trader.exception.IndicatorPeriodTooBigException;
 import trader.entity.indicator.BaseIndicatorTest;
+import trader.entity.series.RingSeries;
+
 import java.math.BigDecimal;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import static org.junit.Assert.*;
@@ -103,6 +106,57 @@ public class SimpleMovingAverageTest extends BaseIndicatorTest {
     }
 
 
+    @Test
+    public void givenUpdateCandlesOverlappingStoredOnes_WhenUpdateIndicator_ThenOnlyNewCandlesAreStored(){
+        List<Candlestick> candles = indicatorUpdateHelper.getFakeCandlestickListFullOfMock();
+        this.sma.updateIndicator(candles);
+        SimpleMovingAverage singleUpdate = new SimpleMovingAverage(this.period, this.candlePriceType, this.granularity, this.position);
+        singleUpdate.updateIndicator(candles);
+        int oldCandlesCount = getIndicatorCandlesticks(sma).size();
+
+        List<Candlestick> overlappingCandles = new ArrayList<>();
+        overlappingCandles.add(candles.get(candles.size() - 1));
+        overlappingCandles.addAll(getListWithSingleNewCandle(UPDATE_NEW_DATETIME_ENTRY));
+        this.sma.updateIndicator(overlappingCandles);
+        singleUpdate.updateIndicator(getListWithSingleNewCandle(UPDATE_NEW_DATETIME_ENTRY));
+
+        assertEquals(oldCandlesCount + 1, getIndicatorCandlesticks(sma).size());
+        assertEquals(singleUpdate.getValues(), sma.getValues());
+    }
+
+    @Test
+    public void givenUpdatesForMonths_WhenUpdateIndicator_ThenSeriesStayBounded(){
+        this.sma.updateIndicator(indicatorUpdateHelper.getFakeCandlestickListFullOfMock());
+        ZonedDateTime candleTime = ZonedDateTime.parse(UPDATE_NEW_DATETIME_ENTRY);
+        for (int i = 0; i < 5_000; i++) {
+            this.sma.updateIndicator(getListWithSingleNewCandle(candleTime.toString()));
+            candleTime = candleTime.plusSeconds(granularity.toSeconds());
+        }
+        RingSeries<Candlestick> candlesticks = getIndicatorCandlesticks(sma);
+
+        assertEquals(candlesticks.capacity(), candlesticks.size());
+        assertTrue(candlesticks.size() < 100);
+        assertTrue(sma.getValues().size() < 100);
+        assertEquals(BigDecimal.valueOf(1.16814), sma.getValues().get(sma.getValues().size() - 1));
+    }
+
+    @Test
+    public void givenCandlesOneByOne_WhenOnBar_ThenSameValuesAsWarmUp(){
+        List<Candlestick> candles = indicatorUpdateHelper.getFakeCandlestickListFullOfMock();
+        this.sma.warmUp(candles);
+        SimpleMovingAverage streamingSMA = new SimpleMovingAverage(this.period, this.candlePriceType, this.granularity, this.position);
+        for (Candlestick candle : candles)
+            streamingSMA.onBar(candle);
+
+        assertEquals(candles.size() - period + 1, streamingSMA.getValues().size());
+        assertEquals(sma.getValues(), streamingSMA.getValues());
+    }
+
+    @SuppressWarnings("unchecked")
+    private RingSeries<Candlestick> getIndicatorCandlesticks(SimpleMovingAverage indicator) {
+        return (RingSeries<Candlestick>) commonMembers.extractFieldObject(indicator, "candlestickList");
+    }
+
     @Test(expected = IndicatorPeriodTooBigException.class)
     public void testPeriodBiggerThanCandlesCount(){
         this.period = 200;
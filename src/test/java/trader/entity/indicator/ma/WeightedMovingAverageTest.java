@@ -5,10 +5,14 @@ import org.junit.Before;
 import org.junit.Test;
 import trader.exception.BadRequestException;
 import trader.exception.IndicatorPeriodTooBigException;
+import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.Candle;
 import trader.entity.indicator.BaseIndicatorTest;
 import java.math.BigDecimal;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import static org.junit.Assert.*;
 
 public class WeightedMovingAverageTest extends BaseIndicatorTest {
@@ -116,4 +120,47 @@ public class WeightedMovingAverageTest extends BaseIndicatorTest {
 
         assertEquals(oldSize + 1, newSize);
     }
+
+    @Test
+    public void givenWarmUpAndUpdates_WhenUpdateIndicator_ThenSameAsFullPeriodFormula() {
+        int slowPeriod = 100;
+        Random random = new Random(42L);
+        List<Candlestick> candles = new ArrayList<>();
+        ZonedDateTime time = ZonedDateTime.parse("2018-08-01T00:00:00Z");
+        for (int i = 0; i < 600; i++) {
+            candles.add(createCandle(1.1 + random.nextInt(10_000) / 100_000.0, time));
+            time = time.plusSeconds(granularity.toSeconds());
+        }
+        WeightedMovingAverage slowWMA = new WeightedMovingAverage(slowPeriod, candlePriceType, granularity, position);
+        slowWMA.updateIndicator(candles.subList(0, 500));
+        for (int i = 500; i < candles.size(); i++)
+            slowWMA.updateIndicator(candles.subList(i - 1, i + 1));
+
+        List<BigDecimal> values = slowWMA.getValues();
+        for (int i = 1; i <= values.size(); i++)
+            assertEquals(fullPeriodWMA(candles, candles.size() - i, slowPeriod), values.get(values.size() - i));
+    }
+
+    private Candlestick createCandle(double closePrice, ZonedDateTime time) {
+        return new Candle.CandleBuilder()
+                .setClosePrice(BigDecimal.valueOf(closePrice))
+                .setDateTime(time)
+                .build();
+    }
+
+    //the weighted sum over the whole period, as the indicator calculated every value before
+    private BigDecimal fullPeriodWMA(List<Candlestick> candles, int lastIndex, int wmaPeriod) {
+        BigDecimal weightedSum = BigDecimal.ZERO;
+        long weight = wmaPeriod;
+        for (int i = lastIndex; i > lastIndex - wmaPeriod; i--) {
+            weightedSum = candles.get(i).getClosePrice().setScale(5, BigDecimal.ROUND_HALF_UP)
+                    .multiply(BigDecimal.valueOf(weight--))
+                    .add(weightedSum)
+                    .setScale(5, BigDecimal.ROUND_HALF_UP);
+        }
+        BigDecimal divisor = BigDecimal.valueOf(wmaPeriod).add(BigDecimal.ONE)
+                .divide(BigDecimal.valueOf(2), 5, BigDecimal.ROUND_HALF_UP)
+                .multiply(BigDecimal.valueOf(wmaPeriod)).setScale(5, BigDecimal.ROUND_HALF_UP);
+        return weightedSum.divide(divisor, 5, BigDecimal.ROUND_HALF_UP);
+    }
 }
\ No newline at end of file
@@ -3,13 +3,17 @@ package trader.entity.indicator.rsi;
 import org.junit.Before;
 import org.junit.Test;
 import trader.entity.candlestick.Candlestick;
+import trader.entity.candlestick.candle.Candle;
 import trader.entity.indicator.IndicatorUpdateHelper;
 import trader.exception.BadRequestException;
 import trader.exception.IndicatorPeriodTooBigException;
+import trader.exception.NullArgumentException;
 import trader.entity.indicator.BaseIndicatorTest;
 import java.math.BigDecimal;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.when;
 
@@ -134,5 +138,62 @@ public class RelativeStrengthIndexTest extends BaseIndicatorTest {
         return rsiValues.get(rsiValues.size() - 1);
     }
 
+    @Test
+    public void givenWarmUpAndBars_WhenOnBar_ThenSameAsWilderFormula() {
+        int rsiPeriod = 14;
+        Random random = new Random(7L);
+        List<Candlestick> candles = new ArrayList<>();
+        ZonedDateTime time = ZonedDateTime.parse("2018-08-01T00:00:00Z");
+        for (int i = 0; i < 400; i++) {
+            candles.add(new Candle.CandleBuilder()
+                    .setClosePrice(BigDecimal.valueOf(1.1 + random.nextInt(2_000) / 100_000.0))
+                    .setDateTime(time)
+                    .build());
+            time = time.plusSeconds(granularity.toSeconds());
+        }
+        RelativeStrengthIndex streamingRSI = new RelativeStrengthIndex(rsiPeriod, candlePriceType, granularity);
+        streamingRSI.warmUp(candles.subList(0, 300));
+        for (Candlestick candle : candles.subList(300, candles.size()))
+            streamingRSI.onBar(candle);
+
+        List<BigDecimal> expected = wilderRSI(candles, rsiPeriod);
+        List<BigDecimal> values = streamingRSI.getValues();
+        for (int i = 1; i <= values.size(); i++)
+            assertEquals(expected.get(expected.size() - i), values.get(values.size() - i));
+    }
 
-}
\ No newline at end of file
+    @Test(expected = NullArgumentException.class)
+    public void givenNullCandle_WhenOnBar_ThenException() {
+        rsi.onBar(null);
+    }
+
+    //every value from the whole series in BigDecimal, as the indicator calculated them before
+    private List<BigDecimal> wilderRSI(List<Candlestick> candles, int rsiPeriod) {
+        BigDecimal gains = BigDecimal.ZERO;
+        BigDecimal losses = BigDecimal.ZERO;
+        List<BigDecimal> values = new ArrayList<>();
+        for (int i = 1; i < candles.size(); i++) {
+            BigDecimal change = candles.get(i).getClosePrice().subtract(candles.get(i - 1).getClosePrice())
+                    .setScale(5, BigDecimal.ROUND_HALF_UP);
+            BigDecimal gain = change.signum() > 0 ? change : BigDecimal.ZERO;
+            BigDecimal loss = change.signum() > 0 ? BigDecimal.ZERO : change.abs();
+            if (i < rsiPeriod) {
+                gains = gains.add(gain);
+                losses = losses.add(loss);
+                continue;
+            }
+            BigDecimal period = BigDecimal.valueOf(rsiPeriod);
+            if (i == rsiPeriod) {
+                gains = gains.add(gain).divide(period, 5, BigDecimal.ROUND_HALF_UP);
+                losses = losses.add(loss).divide(period, 5, BigDecimal.ROUND_HALF_UP);
+            } else {
+                gains = gains.multiply(BigDecimal.valueOf(rsiPeriod - 1)).add(gain).divide(period, 5, BigDecimal.ROUND_HALF_UP);
+                losses = losses.multiply(BigDecimal.valueOf(rsiPeriod - 1)).add(loss).divide(period, 5, BigDecimal.ROUND_HALF_UP);
+            }
+            BigDecimal hundred = BigDecimal.valueOf(100);
+            BigDecimal divider = BigDecimal.ONE.add(gains.divide(losses, 5, BigDecimal.ROUND_HALF_UP));
+            values.add(hundred.subtract(hundred.divide(divider, 5, BigDecimal.ROUND_HALF_UP)).setScale(5, BigDecimal.ROUND_HALF_UP));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,249 @@
+package trader.entity.price;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import trader.exception.BadRequestException;
+import trader.exception.NullArgumentException;
+import trader.observable.ConflatingObservable;
+import trader.observer.Observer;
+import trader.presenter.Presenter;
+import trader.strategy.Observable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ConflatingObservableTest {
+
+    private Observable sourceMock;
+    private Presenter presenterMock;
+    private ConflatingObservable conflatingObservable;
+    private List<Price> prices;
+
+    @Before
+    public void setUp() {
+        sourceMock = mock(Observable.class);
+        presenterMock = mock(Presenter.class);
+        conflatingObservable = new ConflatingObservable(sourceMock, presenterMock);
+        prices = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            prices.add(mock(Price.class));
+    }
+
+    @After
+    public void tearDown() {
+        conflatingObservable.shutdown();
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullSource_WhenCreate_ThenException() {
+        new ConflatingObservable(null, presenterMock);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullPresenter_WhenCreate_ThenException() {
+        new ConflatingObservable(sourceMock, null);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullObserver_WhenRegister_ThenException() {
+        conflatingObservable.registerObserver(null);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullPrice_WhenCallNotifyObservers_ThenException() {
+        conflatingObservable.notifyObservers(null);
+    }
+
+    @Test
+    public void givenExecute_WhenCalled_ThenSourceRunsOnCallingThread() {
+        conflatingObservable.execute();
+
+        verify(sourceMock, times(1)).registerObserver(any(Observer.class));
+        verify(sourceMock, times(1)).execute();
+    }
+
+    @Test
+    public void givenIdleObservers_WhenPricePublished_ThenEveryObserverGetsIt() throws InterruptedException {
+        RecordingObserver first = new RecordingObserver(null);
+        RecordingObserver second = new RecordingObserver(null);
+        conflatingObservable.registerObserver(first);
+        conflatingObservable.registerObserver(second);
+        conflatingObservable.execute();
+
+        conflatingObservable.notifyObservers(prices.get(0));
+
+        assertEquals(Collections.singletonList(prices.get(0)), first.await(1));
+        assertEquals(Collections.singletonList(prices.get(0)), second.await(1));
+        assertEquals(0L, conflatingObservable.getDroppedPrices());
+    }
+
+    @Test
+    public void givenBusyObservers_WhenPricesArrive_ThenOnlyNewestIsHandedOverAndOthersAreCounted() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver busy = new RecordingObserver(release);
+        conflatingObservable.registerObserver(busy);
+        conflatingObservable.execute();
+        conflatingObservable.notifyObservers(prices.get(0));
+        assertTrue(busy.started.await(5, TimeUnit.SECONDS));
+
+        conflatingObservable.notifyObservers(prices.get(1));
+        conflatingObservable.notifyObservers(prices.get(2));
+        conflatingObservable.notifyObservers(prices.get(3));
+        release.countDown();
+
+        assertEquals(Arrays.asList(prices.get(0), prices.get(3)), busy.await(2));
+        assertEquals(2L, conflatingObservable.getDroppedPrices());
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullTickObserver_WhenRegister_ThenException() {
+        conflatingObservable.registerTickObserver(null);
+    }
+
+    @Test
+    public void givenBusyObservers_WhenPricesArrive_ThenTickObserverGetsEveryPrice() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver busy = new RecordingObserver(release);
+        RecordingObserver ticks = new RecordingObserver(null);
+        conflatingObservable.registerObserver(busy);
+        conflatingObservable.registerTickObserver(ticks);
+        conflatingObservable.execute();
+        conflatingObservable.notifyObservers(prices.get(0));
+        assertTrue(busy.started.await(5, TimeUnit.SECONDS));
+
+        conflatingObservable.notifyObservers(prices.get(1));
+        conflatingObservable.notifyObservers(prices.get(2));
+        conflatingObservable.notifyObservers(prices.get(3));
+        release.countDown();
+
+        assertEquals(prices, ticks.await(4));
+        assertEquals(Arrays.asList(prices.get(0), prices.get(3)), busy.await(2));
+        assertEquals(2L, conflatingObservable.getDroppedPrices());
+    }
+
+    @Test
+    public void givenTickObserver_WhenPricePublished_ThenItRunsBeforeThePriceIsHandedOver() throws InterruptedException {
+        final RecordingObserver ticks = new RecordingObserver(null);
+        final List<Integer> ticksSeen = Collections.synchronizedList(new ArrayList<Integer>());
+        conflatingObservable.registerTickObserver(ticks);
+        RecordingObserver last = new RecordingObserver(null) {
+            @Override
+            public void updateObserver(Price price) {
+                ticksSeen.add(ticks.received.size());
+                super.updateObserver(price);
+            }
+        };
+        conflatingObservable.registerObserver(last);
+        conflatingObservable.execute();
+
+        conflatingObservable.notifyObservers(prices.get(0));
+
+        assertEquals(Collections.singletonList(prices.get(0)), last.await(1));
+        assertEquals(Collections.singletonList(1), ticksSeen);
+    }
+
+    @Test
+    public void givenPriceWaitingForBusyObservers_WhenCallGetStalePriceAge_ThenWaitingTimeIsReturned() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver busy = new RecordingObserver(release);
+        conflatingObservable.registerObserver(busy);
+        conflatingObservable.execute();
+        conflatingObservable.notifyObservers(prices.get(0));
+        assertTrue(busy.started.await(5, TimeUnit.SECONDS));
+        assertEquals(0L, conflatingObservable.getStalePriceAgeMillis());
+
+        conflatingObservable.notifyObservers(prices.get(1));
+        Thread.sleep(30L);
+
+        assertTrue(conflatingObservable.getStalePriceAgeMillis() >= 30L);
+        release.countDown();
+        busy.await(2);
+        assertEquals(0L, conflatingObservable.getStalePriceAgeMillis());
+    }
+
+    @Test
+    public void givenFailingObserver_WhenPricePublished_ThenNextObserverStillGetsIt() throws InterruptedException {
+        Observer failing = mock(Observer.class);
+        doThrow(BadRequestException.class).when(failing).updateObserver(prices.get(0));
+        RecordingObserver last = new RecordingObserver(null);
+        conflatingObservable.registerObserver(failing);
+        conflatingObservable.registerObserver(last);
+        conflatingObservable.execute();
+
+        conflatingObservable.notifyObservers(prices.get(0));
+
+        assertEquals(Collections.singletonList(prices.get(0)), last.await(1));
+        assertEquals(1L, conflatingObservable.getFailedUpdates());
+        verify(presenterMock, times(1)).execute(startsWith("Price update failed: "));
+    }
+
+    @Test
+    public void givenBusyObserver_WhenCallStop_ThenWaitForThePriceItIsWorkingOn() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver busy = new RecordingObserver(release);
+        conflatingObservable.registerObserver(busy);
+        conflatingObservable.execute();
+        conflatingObservable.notifyObservers(prices.get(0));
+        assertTrue(busy.started.await(5, TimeUnit.SECONDS));
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                sleep(100L);
+                release.countDown();
+            }
+        }).start();
+
+        conflatingObservable.stop();
+
+        assertEquals(Collections.singletonList(prices.get(0)), new ArrayList<>(busy.received));
+        verify(sourceMock, times(1)).stop();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingObserver implements Observer {
+
+        private final CountDownLatch release;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final List<Price> received = Collections.synchronizedList(new ArrayList<Price>());
+
+        RecordingObserver(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void updateObserver(Price price) {
+            started.countDown();
+            try {
+                if(release != null)
+                    release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(price);
+        }
+
+        List<Price> await(int quantity) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000L;
+            while(received.size() < quantity && System.currentTimeMillis() < deadline)
+                Thread.sleep(1L);
+            synchronized (received) {
+                return new ArrayList<>(received);
+            }
+        }
+    }
+}
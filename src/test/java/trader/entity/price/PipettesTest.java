@@ -0,0 +1,119 @@
+package trader.entity.price;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PipettesTest {
+
+    private static final int SAMPLES = 100_000;
+
+    private final Random random = new Random(20180601L);
+
+    @Test
+    public void givenPriceWithMoreDecimals_WhenValueOf_ThenRoundHalfUpToPipettes() {
+        assertEquals(116797L, Pipettes.valueOf(new BigDecimal("1.167965")));
+        assertEquals(116796L, Pipettes.valueOf(new BigDecimal("1.1679649")));
+        assertEquals(-116797L, Pipettes.valueOf(new BigDecimal("-1.167965")));
+        assertEquals(200000L, Pipettes.valueOf(new BigDecimal("2")));
+    }
+
+    @Test
+    public void givenUnits_WhenValueOf_ThenReturnPipettes() {
+        assertEquals(10_000_000L, Pipettes.valueOf(100L));
+    }
+
+    @Test
+    public void givenPipettes_WhenToBigDecimal_ThenScaleIsFive() {
+        BigDecimal price = Pipettes.toBigDecimal(116796L);
+
+        assertEquals(new BigDecimal("1.16796"), price);
+        assertEquals(5, price.scale());
+    }
+
+    @Test
+    public void givenRandomPrices_WhenMultiply_ThenSameAsBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long a = nextPipettes();
+            long b = nextPipettes();
+            BigDecimal expected = decimal(a).multiply(decimal(b)).setScale(5, BigDecimal.ROUND_HALF_UP);
+
+            assertEquals(expected, Pipettes.toBigDecimal(Pipettes.multiply(a, b)));
+        }
+    }
+
+    @Test
+    public void givenRandomPrices_WhenDivide_ThenSameAsBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long a = nextPipettes();
+            long b = nextNonZeroPipettes();
+            BigDecimal expected = decimal(a).divide(decimal(b), 5, BigDecimal.ROUND_HALF_UP);
+
+            assertEquals(expected, Pipettes.toBigDecimal(Pipettes.divide(a, b)));
+        }
+    }
+
+    @Test
+    public void givenRandomSums_WhenDivideByCount_ThenSameAsBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long sum = nextPipettes() * 20;
+            long count = 1 + random.nextInt(200);
+            BigDecimal expected = decimal(sum).divide(BigDecimal.valueOf(count), 5, BigDecimal.ROUND_HALF_UP);
+
+            assertEquals(expected, Pipettes.toBigDecimal(Pipettes.divideByCount(sum, count)));
+        }
+    }
+
+    @Test
+    public void givenTies_WhenDivideByCount_ThenRoundAwayFromZero() {
+        assertEquals(2L, Pipettes.divideByCount(3L, 2L));
+        assertEquals(-2L, Pipettes.divideByCount(-3L, 2L));
+        assertEquals(-2L, Pipettes.divideByCount(3L, -2L));
+        assertEquals(1L, Pipettes.divideByCount(4L, 3L));
+    }
+
+    @Test
+    public void givenProductOutOfLongRange_WhenMultiply_ThenSameAsBigDecimal() {
+        long a = Long.MAX_VALUE / 1_000;
+        long b = 300_000L;
+        BigDecimal expected = decimal(a).multiply(decimal(b)).setScale(5, BigDecimal.ROUND_HALF_UP);
+
+        assertEquals(expected, Pipettes.toBigDecimal(Pipettes.multiply(a, b)));
+    }
+
+    @Test
+    public void givenDividendOutOfLongRange_WhenDivide_ThenSameAsBigDecimal() {
+        long a = Long.MAX_VALUE / 1_000;
+        long b = 300_001L;
+        BigDecimal expected = decimal(a).divide(decimal(b), 5, BigDecimal.ROUND_HALF_UP);
+
+        assertEquals(expected, Pipettes.toBigDecimal(Pipettes.divide(a, b)));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void givenZeroDivisor_WhenDivide_ThenException() {
+        Pipettes.divide(116796L, 0L);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void givenZeroCount_WhenDivideByCount_ThenException() {
+        Pipettes.divideByCount(116796L, 0L);
+    }
+
+    //prices, price differences and slopes of up to a few units, with both signs
+    private long nextPipettes() {
+        return random.nextInt(2_000_001) - 1_000_000L;
+    }
+
+    private long nextNonZeroPipettes() {
+        long value = nextPipettes();
+        return value == 0L ? 1L : value;
+    }
+
+    private BigDecimal decimal(long pipettes) {
+        return BigDecimal.valueOf(pipettes, 5);
+    }
+}
@@ -0,0 +1,139 @@
+package trader.entity.price;
+
+import org.junit.Before;
+import org.junit.Test;
+import trader.exception.NullArgumentException;
+import trader.exception.UnderflowException;
+import trader.observable.PollingPolicy;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PollingPolicyTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    //Wednesday during the London and New York overlap
+    private static final ZonedDateTime OVERLAP = ZonedDateTime.of(2018, 11, 14, 9, 0, 0, 0, NEW_YORK);
+
+    private PollingPolicy policy;
+
+    @Before
+    public void before() {
+        policy = new PollingPolicy(1000L);
+    }
+
+    @Test(expected = UnderflowException.class)
+    public void givenNotPositivePeriod_WhenCreate_ThenThrowException() {
+        new PollingPolicy(0L);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullPrice_WhenCallUpdate_ThenThrowException() {
+        policy.update(null, false, OVERLAP);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullTime_WhenCallNextPeriod_ThenThrowException() {
+        policy.nextPeriod(null);
+    }
+
+    @Test
+    public void givenCalmMarketWithoutPosition_WhenCallNextPeriod_ThenConfiguredPeriod() {
+        policy.update(price("1.13000"), false, OVERLAP);
+        policy.update(price("1.13010"), false, OVERLAP.plusSeconds(10));
+
+        assertEquals(1000L, policy.nextPeriod(OVERLAP.plusSeconds(10)));
+    }
+
+    @Test
+    public void givenOpenPosition_WhenCallNextPeriod_ThenActivePeriod() {
+        policy.update(price("1.13000"), true, OVERLAP);
+
+        assertEquals(250L, policy.nextPeriod(OVERLAP));
+    }
+
+    @Test
+    public void givenShorterConfiguredPeriod_WhenPositionIsOpen_ThenConfiguredPeriodIsKept() {
+        policy = new PollingPolicy(100L);
+        policy.update(price("1.13000"), true, OVERLAP);
+
+        assertEquals(100L, policy.nextPeriod(OVERLAP));
+    }
+
+    @Test
+    public void givenFastMovingPrice_WhenCallNextPeriod_ThenActivePeriod() {
+        policy.update(price("1.13000"), false, OVERLAP);
+        policy.update(price("1.13060"), false, OVERLAP.plusSeconds(30));
+
+        assertEquals(250L, policy.nextPeriod(OVERLAP.plusSeconds(30)));
+    }
+
+    @Test
+    public void givenMoveOlderThanAMinute_WhenCallNextPeriod_ThenConfiguredPeriod() {
+        policy.update(price("1.13000"), false, OVERLAP);
+        policy.update(price("1.13060"), false, OVERLAP.plusSeconds(61));
+
+        assertEquals(1000L, policy.nextPeriod(OVERLAP.plusSeconds(61)));
+    }
+
+    @Test
+    public void givenAsianSession_WhenCallNextPeriod_ThenQuietPeriod() {
+        ZonedDateTime asia = ZonedDateTime.of(2018, 11, 14, 22, 0, 0, 0, NEW_YORK);
+        policy.update(price("1.13000"), false, asia);
+
+        assertEquals(4000L, policy.nextPeriod(asia));
+    }
+
+    @Test
+    public void givenUntradablePriceOnTradingDay_WhenCallNextPeriod_ThenQuietPeriod() {
+        Price price = price("1.13000");
+        when(price.isTradable()).thenReturn(false);
+        policy.update(price, true, OVERLAP);
+
+        assertEquals(4000L, policy.nextPeriod(OVERLAP));
+    }
+
+    @Test
+    public void givenWeekend_WhenCallNextPeriod_ThenLongestClosedPeriod() {
+        ZonedDateTime saturday = ZonedDateTime.of(2018, 11, 17, 12, 0, 0, 0, NEW_YORK);
+
+        assertEquals(900_000L, policy.nextPeriod(saturday));
+    }
+
+    @Test
+    public void givenWeeklyCloseWithOpenPosition_WhenCallNextPeriod_ThenClosedPeriod() {
+        ZonedDateTime friday = ZonedDateTime.of(2018, 11, 16, 17, 0, 0, 0, NEW_YORK);
+        policy.update(price("1.13000"), true, friday.minusSeconds(1));
+
+        assertEquals(900_000L, policy.nextPeriod(friday));
+    }
+
+    @Test
+    public void givenWeeklyOpenIsNear_WhenCallNextPeriod_ThenPollingResumesAMinuteBeforeTheOpen() {
+        ZonedDateTime sunday = ZonedDateTime.of(2018, 11, 18, 16, 50, 0, 0, NEW_YORK);
+
+        assertEquals(540_000L, policy.nextPeriod(sunday));
+        assertEquals(1000L, policy.nextPeriod(sunday.plusMinutes(9)));
+    }
+
+    @Test
+    public void givenOtherTimeZone_WhenCallNextPeriod_ThenNewYorkSessionIsUsed() {
+        ZonedDateTime tokyo = OVERLAP.withZoneSameInstant(ZoneId.of("Asia/Tokyo"));
+        policy.update(price("1.13000"), false, tokyo);
+
+        assertEquals(1000L, policy.nextPeriod(tokyo));
+    }
+
+    private Price price(String bid) {
+        Price price = mock(Price.class);
+        when(price.isTradable()).thenReturn(true);
+        when(price.getBid()).thenReturn(new BigDecimal(bid));
+        when(price.getAsk()).thenReturn(new BigDecimal(bid).add(BigDecimal.valueOf(0.0002)));
+        return price;
+    }
+}
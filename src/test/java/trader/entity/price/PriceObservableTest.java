@@ -6,12 +6,25 @@ import trader.broker.BrokerGateway;
 import trader.strategy.TradingStrategyConfiguration;
 import trader.exception.BadRequestException;
 import trader.observer.Observer;
+import trader.observer.PositionObserver;
 import trader.exception.NullArgumentException;
 import trader.observable.PriceObservable;
+import trader.observable.enums.PriceFeed;
+import trader.presenter.Presenter;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class PriceObservableTest {
@@ -22,6 +35,7 @@ public class PriceObservableTest {
     private BrokerGateway mockBrokerGateway;
     private TradingStrategyConfiguration configurationMock;
     private Price mockPrice;
+    private Presenter presenterMock;
 
 
     @Before
@@ -29,14 +43,15 @@ public class PriceObservableTest {
         observer = mock(Observer.class);
         mockBrokerGateway = mock(BrokerGateway.class);
         configurationMock = mock(TradingStrategyConfiguration.class);
-        priceObservable = PriceObservable.create(mockBrokerGateway, configurationMock);
+        presenterMock = mock(Presenter.class);
+        priceObservable = PriceObservable.create(mockBrokerGateway, configurationMock, presenterMock);
         commonMembers = new CommonTestClassMembers();
         mockPrice = mock(Price.class);
     }
 
     @Test
     public void WhenCreateThenNewPriceObservable_DifferentObjectcs() {
-        PriceObservable priceObservable2 = PriceObservable.create(mockBrokerGateway, configurationMock);
+        PriceObservable priceObservable2 = PriceObservable.create(mockBrokerGateway, configurationMock, presenterMock);
 
         assertNotSame(priceObservable, priceObservable2);
     }
@@ -139,10 +154,169 @@ public class PriceObservableTest {
     }
 
     @Test
-    public void testSleepThreadForCorrectSleepInterval() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        long expected = 100L;
+    public void WhenCallNotifyEveryoneWithDifferentTradablePrice_ThenInvalidateAccountSnapshotBeforeObservers() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        when(mockPrice.isTradable()).thenReturn(true);
+        priceObservable.registerObserver(observer);
+        Method notifyEveryone = extractNotify(priceObservable);
+        notifyEveryone.invoke(priceObservable, mockPrice);
+
+        InOrder inOrder = inOrder(mockBrokerGateway, observer);
+        inOrder.verify(mockBrokerGateway).invalidateAccountSnapshot();
+        inOrder.verify(observer).updateObserver(mockPrice);
+    }
+
+    @Test
+    public void WhenCallNotifyEveryoneWithNonTradablePrice_ThenAccountSnapshotIsKept() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        when(mockPrice.isTradable()).thenReturn(false);
+        Method notifyEveryone = extractNotify(priceObservable);
+        notifyEveryone.invoke(priceObservable, mockPrice);
+
+        verify(mockBrokerGateway, never()).invalidateAccountSnapshot();
+    }
+
+    @Test
+    public void givenPollingPeriod_WhenCallExecuteAndStop_ThenPollsAtThePeriodAndReturns() throws InterruptedException {
+        String instrument = "EUR_USD";
+        when(configurationMock.getInstrument()).thenReturn(instrument);
+        when(mockBrokerGateway.getPrice(instrument)).thenReturn(mockPrice);
+        commonMembers.changeFieldObject(priceObservable,"pollingPeriod",20L);
+        Thread pricePull = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                priceObservable.execute();
+            }
+        });
+        pricePull.start();
+        Thread.sleep(210L);
+        priceObservable.stop();
+        pricePull.join(1000L);
+
+        assertFalse(pricePull.isAlive());
+        verify(mockBrokerGateway, atLeast(5)).getPrice(instrument);
+        verify(mockBrokerGateway, atMost(13)).getPrice(instrument);
+    }
+
+    @Test
+    public void givenAdaptivePollingAndOpenTrade_WhenCallExecuteAndStop_ThenPollsFasterThanConfigured() throws InterruptedException {
+        String instrument = "EUR_USD";
+        when(configurationMock.getInstrument()).thenReturn(instrument);
+        when(configurationMock.isAdaptivePolling()).thenReturn(true);
+        when(configurationMock.getPollingPeriod(instrument)).thenReturn(1000L);
+        when(mockPrice.isTradable()).thenReturn(true);
+        when(mockBrokerGateway.getPrice(instrument)).thenReturn(mockPrice);
+        PositionObserver positionObserverMock = mock(PositionObserver.class);
+        when(positionObserverMock.isPositionOpen()).thenReturn(true);
+        final PriceObservable adaptiveObservable = PriceObservable.create(mockBrokerGateway, configurationMock, presenterMock, positionObserverMock);
+        Thread pricePull = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                adaptiveObservable.execute();
+            }
+        });
+        pricePull.start();
+        Thread.sleep(600L);
+        adaptiveObservable.stop();
+        pricePull.join(1000L);
+
+        assertFalse(pricePull.isAlive());
+        //the weekend is polled at most once in a minute, the trading days every 250 ms with the trade open
+        verify(mockBrokerGateway, atLeast(1)).getPrice(instrument);
+        verify(mockBrokerGateway, atMost(3)).getPrice(instrument);
+        verify(positionObserverMock, atLeast(1)).isPositionOpen();
+        verify(mockBrokerGateway, never()).totalOpenTradesSize();
+        verify(mockBrokerGateway, never()).totalOpenOrdersSize();
+    }
+
+    @Test
+    public void givenStoppedObservable_WhenCallExecute_ThenNoPoll() {
+        priceObservable.stop();
+        priceObservable.execute();
+
+        verify(mockBrokerGateway, never()).getPrice(anyString());
+    }
+
+    @Test
+    public void givenStopDuringFirstPoll_WhenPollEnds_ThenExecuteReturnsWithoutStartingThePolls() throws InterruptedException {
+        String instrument = "EUR_USD";
+        final CountDownLatch polling = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(configurationMock.getInstrument()).thenReturn(instrument);
+        when(mockBrokerGateway.getPrice(instrument)).thenAnswer(new Answer<Price>() {
+            @Override
+            public Price answer(InvocationOnMock invocation) throws InterruptedException {
+                polling.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return mockPrice;
+            }
+        });
+        commonMembers.changeFieldObject(priceObservable,"pollingPeriod",20L);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Thread pricePull = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    priceObservable.execute();
+                } catch (RuntimeException e) {
+                    failure.set(e);
+                }
+            }
+        });
+        pricePull.start();
+        assertTrue(polling.await(5, TimeUnit.SECONDS));
+        Thread stopping = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                priceObservable.stop();
+            }
+        });
+        stopping.start();
+        Thread.sleep(50L);
+        release.countDown();
+        stopping.join(5000L);
+        pricePull.join(1000L);
+
+        assertFalse(stopping.isAlive());
+        assertFalse(pricePull.isAlive());
+        assertNull(failure.get());
+        verify(mockBrokerGateway, times(1)).getPrice(instrument);
+    }
 
-        assertTrue(expected <= elapsedTime(expected));
+    @Test
+    public void givenStreamPriceFeed_WhenCallStop_ThenWaitForTheStreamToEnd() throws InterruptedException {
+        String instrument = "EUR_USD";
+        final CountDownLatch streaming = new CountDownLatch(1);
+        final AtomicBoolean streamEnded = new AtomicBoolean();
+        when(configurationMock.getInstrument()).thenReturn(instrument);
+        when(configurationMock.getPriceFeed()).thenReturn(PriceFeed.STREAM);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws InterruptedException {
+                streaming.countDown();
+                try {
+                    Thread.sleep(5000L);
+                } catch (InterruptedException e) {
+                    //the stream closes its connection before it returns
+                    Thread.sleep(100L);
+                    streamEnded.set(true);
+                }
+                return null;
+            }
+        }).when(mockBrokerGateway).streamPrices(eq(instrument), any(Observer.class));
+        Thread pricePull = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                priceObservable.execute();
+            }
+        });
+        pricePull.start();
+        assertTrue(streaming.await(5, TimeUnit.SECONDS));
+
+        priceObservable.stop();
+
+        assertTrue(streamEnded.get());
+        pricePull.join(1000L);
+        assertFalse(pricePull.isAlive());
+        verify(mockBrokerGateway, never()).getPrice(instrument);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -151,10 +325,70 @@ public class PriceObservableTest {
         when(mockPrice.isTradable()).thenReturn(true);
         when(configurationMock.getInstrument()).thenReturn(instrument);
         when(mockBrokerGateway.getPrice(instrument)).thenReturn(mockPrice);
-        commonMembers.changeFieldObject(priceObservable,"threadSleepInterval",-1L);
+        commonMembers.changeFieldObject(priceObservable,"pollingPeriod",-1L);
         priceObservable.execute();
     }
 
+    @Test
+    public void givenStreamPriceFeed_WhenCallExecute_ThenStreamedPricesNotifyObserversAndPollingIsFallback() {
+        String instrument = "EUR_USD";
+        when(mockPrice.isTradable()).thenReturn(true);
+        when(configurationMock.getInstrument()).thenReturn(instrument);
+        when(configurationMock.getPriceFeed()).thenReturn(PriceFeed.STREAM);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                Observer streamObserver = invocation.getArgument(1);
+                streamObserver.updateObserver(mockPrice);
+                return null;
+            }
+        }).when(mockBrokerGateway).streamPrices(eq(instrument), any(Observer.class));
+        when(mockBrokerGateway.getPrice(instrument)).thenReturn(mockPrice);
+        commonMembers.changeFieldObject(priceObservable,"pollingPeriod",-1L);
+        priceObservable.registerObserver(observer);
+        try {
+            priceObservable.execute();
+            fail();
+        } catch (IllegalArgumentException e) {
+            verify(observer, times(1)).updateObserver(mockPrice);
+            verify(mockBrokerGateway, times(1)).getPrice(instrument);
+        }
+    }
+
+    @Test
+    public void givenFailingPriceStream_WhenCallExecute_ThenReportAndFallBackToPolling() {
+        String instrument = "EUR_USD";
+        when(mockPrice.isTradable()).thenReturn(true);
+        when(configurationMock.getInstrument()).thenReturn(instrument);
+        when(configurationMock.getPriceFeed()).thenReturn(PriceFeed.STREAM);
+        doThrow(new IllegalStateException("order rejected"))
+                .when(mockBrokerGateway).streamPrices(eq(instrument), any(Observer.class));
+        when(mockBrokerGateway.getPrice(instrument)).thenReturn(mockPrice);
+        commonMembers.changeFieldObject(priceObservable,"pollingPeriod",-1L);
+        priceObservable.registerObserver(observer);
+        try {
+            priceObservable.execute();
+            fail();
+        } catch (IllegalArgumentException e) {
+            verify(presenterMock, times(1)).execute("Price stream failed, polling prices: java.lang.IllegalStateException: order rejected");
+            verify(observer, times(1)).updateObserver(mockPrice);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenPollPriceFeed_WhenCallExecute_ThenPriceStreamIsNotUsed() {
+        String instrument = "EUR_USD";
+        when(configurationMock.getInstrument()).thenReturn(instrument);
+        when(configurationMock.getPriceFeed()).thenReturn(PriceFeed.POLL);
+        when(mockBrokerGateway.getPrice(instrument)).thenReturn(mockPrice);
+        commonMembers.changeFieldObject(priceObservable,"pollingPeriod",-1L);
+        try {
+            priceObservable.execute();
+        } finally {
+            verify(mockBrokerGateway, never()).streamPrices(anyString(), any(Observer.class));
+        }
+    }
+
     private Method extractNotify(PriceObservable observable) throws NoSuchMethodException {
         return commonMembers.getPrivateMethodForTest(observable,"notifyEveryone", Price.class);
     }
@@ -169,14 +403,6 @@ public class PriceObservableTest {
         return (CopyOnWriteArrayList<Observer>) commonMembers.extractFieldObject(this.priceObservable, "observers");
     }
 
-    private long elapsedTime(long expected) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        Method sleepThread = commonMembers.getPrivateMethodForTest(priceObservable, "sleepThread", long.class);
-        long startTime = System.currentTimeMillis();
-        sleepThread.invoke(priceObservable, expected);
-        return System.currentTimeMillis() - startTime;
-    }
-
-
     private class MockedObserverException extends RuntimeException{};
 
 }
\ No newline at end of file
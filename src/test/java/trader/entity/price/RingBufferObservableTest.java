@@ -0,0 +1,273 @@
+package trader.entity.price;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import trader.exception.BadRequestException;
+import trader.exception.NullArgumentException;
+import trader.observable.RingBufferObservable;
+import trader.observable.enums.EventBus;
+import trader.observer.Observer;
+import trader.presenter.Presenter;
+import trader.strategy.Observable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class RingBufferObservableTest {
+
+    private static final int PRICES = 500;
+
+    private List<Price> prices;
+    private FakeSource source;
+    private List<RingBufferObservable> ringBuffers;
+    private Presenter presenterMock;
+
+    @Before
+    public void setUp() {
+        prices = new ArrayList<>();
+        for (int i = 0; i < PRICES; i++)
+            prices.add(mock(Price.class));
+        source = new FakeSource(prices);
+        ringBuffers = new ArrayList<>();
+        presenterMock = mock(Presenter.class);
+    }
+
+    @After
+    public void tearDown() {
+        for (RingBufferObservable ringBuffer : ringBuffers)
+            ringBuffer.shutdown();
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullSource_WhenCreate_ThenException() {
+        new RingBufferObservable(null, 8, EventBus.YIELDING, presenterMock);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullMode_WhenCreate_ThenException() {
+        new RingBufferObservable(source, 8, null, presenterMock);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullPresenter_WhenCreate_ThenException() {
+        new RingBufferObservable(source, 8, EventBus.YIELDING, null);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenCapacityNotPowerOfTwo_WhenCreate_ThenException() {
+        new RingBufferObservable(source, 10, EventBus.YIELDING, presenterMock);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenModeOff_WhenCreate_ThenException() {
+        new RingBufferObservable(source, 8, EventBus.OFF, presenterMock);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenModeConflating_WhenCreate_ThenException() {
+        new RingBufferObservable(source, 8, EventBus.CONFLATING, presenterMock);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullObserver_WhenRegister_ThenException() {
+        create(8, EventBus.YIELDING).registerObserver(null);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenRunningRing_WhenRegisterObserver_ThenException() throws InterruptedException {
+        RingBufferObservable ringBuffer = create(8, EventBus.YIELDING);
+        ringBuffer.registerObserver(new RecordingObserver(null));
+        run(ringBuffer);
+
+        ringBuffer.registerObserver(new RecordingObserver(null));
+    }
+
+    @Test
+    public void givenEveryMode_WhenSourcePublishes_ThenEveryObserverGetsEveryPriceInOrder() throws InterruptedException {
+        for (EventBus mode : new EventBus[]{EventBus.BLOCKING, EventBus.YIELDING, EventBus.BUSY_SPIN}) {
+            source = new FakeSource(prices);
+            RingBufferObservable ringBuffer = create(64, mode);
+            RecordingObserver first = new RecordingObserver(null);
+            RecordingObserver second = new RecordingObserver(null);
+            ringBuffer.registerObserver(first);
+            ringBuffer.registerObserver(second);
+
+            run(ringBuffer);
+
+            assertEquals(prices, first.await(PRICES));
+            assertEquals(prices, second.await(PRICES));
+            ringBuffer.shutdown();
+        }
+    }
+
+    @Test
+    public void givenTwoObservers_WhenPricePublished_ThenSecondGetsItAfterFirstIsDone() throws InterruptedException {
+        RingBufferObservable ringBuffer = create(64, EventBus.YIELDING);
+        RecordingObserver first = new RecordingObserver(null);
+        RecordingObserver second = new RecordingObserver(first);
+        ringBuffer.registerObserver(first);
+        ringBuffer.registerObserver(second);
+
+        run(ringBuffer);
+
+        assertEquals(prices, second.await(PRICES));
+        assertTrue(second.sawPredecessorDone);
+    }
+
+    @Test
+    public void givenSmallRingAndSlowObserver_WhenSourcePublishes_ThenNoPriceIsOverwritten() throws InterruptedException {
+        source = new FakeSource(prices.subList(0, 50));
+        RingBufferObservable ringBuffer = create(2, EventBus.BLOCKING);
+        RecordingObserver slow = new RecordingObserver(null);
+        slow.delayMillis = 1L;
+        ringBuffer.registerObserver(slow);
+
+        run(ringBuffer);
+
+        assertEquals(prices.subList(0, 50), slow.await(50));
+    }
+
+    @Test
+    public void givenUnregisteredObserver_WhenSourcePublishes_ThenItIsSkipped() throws InterruptedException {
+        RingBufferObservable ringBuffer = create(64, EventBus.YIELDING);
+        RecordingObserver removed = new RecordingObserver(null);
+        RecordingObserver last = new RecordingObserver(null);
+        ringBuffer.registerObserver(removed);
+        ringBuffer.registerObserver(last);
+        ringBuffer.unregisterObserver(removed);
+
+        run(ringBuffer);
+
+        assertEquals(prices, last.await(PRICES));
+        assertTrue(removed.received.isEmpty());
+    }
+
+    @Test
+    public void givenFailingObserver_WhenSourcePublishes_ThenLaterPricesStillArrive() throws InterruptedException {
+        RingBufferObservable ringBuffer = create(64, EventBus.YIELDING);
+        Observer failing = mock(Observer.class);
+        doThrow(BadRequestException.class).when(failing).updateObserver(prices.get(0));
+        RecordingObserver last = new RecordingObserver(null);
+        ringBuffer.registerObserver(failing);
+        ringBuffer.registerObserver(last);
+
+        run(ringBuffer);
+
+        assertEquals(prices, last.await(PRICES));
+        assertEquals(1L, ringBuffer.getFailedUpdates());
+        verify(presenterMock, times(1)).execute(startsWith("Price update failed: "));
+    }
+
+    @Test
+    public void givenSlowObserver_WhenCallStop_ThenWaitForThePriceItIsWorkingOn() throws InterruptedException {
+        source = new FakeSource(prices.subList(0, 1));
+        RingBufferObservable ringBuffer = create(8, EventBus.YIELDING);
+        RecordingObserver slow = new RecordingObserver(null);
+        slow.delayMillis = 200L;
+        ringBuffer.registerObserver(slow);
+        run(ringBuffer);
+        Thread.sleep(50L);
+
+        ringBuffer.stop();
+
+        assertEquals(prices.subList(0, 1), new ArrayList<>(slow.received));
+    }
+
+    private RingBufferObservable create(int capacity, EventBus mode) {
+        RingBufferObservable ringBuffer = new RingBufferObservable(source, capacity, mode, presenterMock);
+        ringBuffers.add(ringBuffer);
+        return ringBuffer;
+    }
+
+    //the source publishes all its prices on the calling thread and returns
+    private void run(final RingBufferObservable ringBuffer) throws InterruptedException {
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                ringBuffer.execute();
+            }
+        });
+        producer.start();
+        producer.join(5000L);
+    }
+
+    private static final class FakeSource implements Observable {
+
+        private final List<Price> prices;
+        private final List<Observer> observers = new CopyOnWriteArrayList<>();
+
+        FakeSource(List<Price> prices) {
+            this.prices = prices;
+        }
+
+        @Override
+        public void registerObserver(Observer observer) {
+            observers.add(observer);
+        }
+
+        @Override
+        public void unregisterObserver(Observer observer) {
+            observers.remove(observer);
+        }
+
+        @Override
+        public void notifyObservers(Price price) {
+            for (Observer observer : observers)
+                observer.updateObserver(price);
+        }
+
+        @Override
+        public void execute() {
+            for (Price price : prices)
+                notifyObservers(price);
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    private static final class RecordingObserver implements Observer {
+
+        private final RecordingObserver predecessor;
+        private final List<Price> received = Collections.synchronizedList(new ArrayList<Price>());
+        private volatile boolean sawPredecessorDone = true;
+        private long delayMillis;
+
+        RecordingObserver(RecordingObserver predecessor) {
+            this.predecessor = predecessor;
+        }
+
+        @Override
+        public void updateObserver(Price price) {
+            if(predecessor != null && !predecessor.received.contains(price))
+                sawPredecessorDone = false;
+            if(delayMillis > 0)
+                sleep(delayMillis);
+            received.add(price);
+        }
+
+        List<Price> await(int quantity) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000L;
+            while(received.size() < quantity && System.currentTimeMillis() < deadline)
+                Thread.sleep(1L);
+            synchronized (received) {
+                return new ArrayList<>(received);
+            }
+        }
+
+        private void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
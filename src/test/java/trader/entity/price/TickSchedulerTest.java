@@ -0,0 +1,196 @@
+package trader.entity.price;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import trader.exception.NullArgumentException;
+import trader.observable.TickScheduler;
+import trader.presenter.Presenter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class TickSchedulerTest {
+
+    private TickScheduler scheduler;
+    private Presenter presenterMock;
+
+    @Before
+    public void before() {
+        presenterMock = mock(Presenter.class);
+        scheduler = new TickScheduler("Test", presenterMock);
+    }
+
+    @After
+    public void after() {
+        scheduler.stop(1000L);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullName_WhenCreate_ThenThrowException() {
+        new TickScheduler(null, presenterMock);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullPresenter_WhenCreate_ThenThrowException() {
+        new TickScheduler("Test", null);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullTask_WhenCallStart_ThenThrowException() {
+        scheduler.start(null, 10L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenNotPositivePeriod_WhenCallStart_ThenThrowException() {
+        scheduler.start(new CountingTask(), 0L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenRunningScheduler_WhenCallStart_ThenThrowException() {
+        scheduler.start(new CountingTask(), 10L);
+        scheduler.start(new CountingTask(), 10L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenStoppedScheduler_WhenCallStart_ThenThrowException() {
+        scheduler.stop(1000L);
+        scheduler.start(new CountingTask(), 10L);
+    }
+
+    @Test
+    public void givenFixedPeriod_WhenTicking_ThenTicksFollowThePeriodAndRunOnTheNamedThread() throws InterruptedException {
+        CountingTask task = new CountingTask();
+        scheduler.start(task, 20L);
+        Thread.sleep(210L);
+        scheduler.stop(1000L);
+
+        assertTrue(task.count.get() >= 7);
+        assertTrue(task.count.get() <= 11);
+        assertEquals(task.count.get(), scheduler.getTicks());
+        assertEquals("Test-1", task.threadName.get());
+    }
+
+    @Test
+    public void givenTaskSlowerThanThePeriod_WhenTicking_ThenSkippedTicksAreCountedAsMissed() throws InterruptedException {
+        final AtomicInteger count = new AtomicInteger();
+        scheduler.start(new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+                sleep(35L);
+            }
+        }, 10L);
+        Thread.sleep(200L);
+        scheduler.stop(1000L);
+
+        assertTrue(scheduler.getMissedTicks() >= count.get());
+        assertTrue(scheduler.getTicks() + scheduler.getMissedTicks() <= 21);
+    }
+
+    @Test
+    public void givenNewPeriod_WhenCallSetPeriod_ThenTicksFollowTheNewPeriod() throws InterruptedException {
+        CountingTask task = new CountingTask();
+        scheduler.start(task, 500L);
+        scheduler.setPeriod(20L);
+        Thread.sleep(690L);
+        scheduler.stop(1000L);
+
+        assertEquals(20L, scheduler.getPeriodMillis());
+        assertTrue(task.count.get() >= 7);
+        assertTrue(task.count.get() <= 11);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenNotPositivePeriod_WhenCallSetPeriod_ThenThrowException() {
+        scheduler.start(new CountingTask(), 10L);
+        scheduler.setPeriod(-1L);
+    }
+
+    @Test
+    public void givenFailingTask_WhenTicking_ThenLaterTicksStillRun() throws InterruptedException {
+        final AtomicInteger count = new AtomicInteger();
+        scheduler.start(new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+                throw new IllegalStateException();
+            }
+        }, 10L);
+        Thread.sleep(100L);
+        scheduler.stop(1000L);
+
+        assertTrue(count.get() >= 3);
+        assertEquals(count.get(), scheduler.getFailedTicks());
+        verify(presenterMock, atLeast(3)).execute(startsWith("Scheduled task failed: "));
+    }
+
+    @Test
+    public void givenRunningTick_WhenCallStop_ThenTheTickFinishesAndNoNewTickStarts() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean finished = new AtomicBoolean();
+        final AtomicInteger count = new AtomicInteger();
+        scheduler.start(new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+                started.countDown();
+                sleep(100L);
+                finished.set(true);
+            }
+        }, 10L);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        scheduler.stop(1000L);
+
+        assertTrue(finished.get());
+        assertFalse(scheduler.isRunning());
+        Thread.sleep(50L);
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void givenStoppedScheduler_WhenCallAwaitStop_ThenReturn() throws InterruptedException {
+        scheduler.start(new CountingTask(), 10L);
+        Thread waiting = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    scheduler.awaitStop();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        waiting.start();
+        scheduler.stop(1000L);
+        waiting.join(1000L);
+
+        assertFalse(waiting.isAlive());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class CountingTask implements Runnable {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicReference<String> threadName = new AtomicReference<>();
+
+        @Override
+        public void run() {
+            count.incrementAndGet();
+            threadName.set(Thread.currentThread().getName());
+        }
+    }
+}
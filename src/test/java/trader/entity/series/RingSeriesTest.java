@@ -0,0 +1,98 @@
+package trader.entity.series;
+
+import org.junit.Before;
+import org.junit.Test;
+import trader.exception.NullArgumentException;
+import trader.exception.UnderflowException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RingSeriesTest {
+
+    private static final int CAPACITY = 3;
+
+    private RingSeries<Integer> series;
+
+    @Before
+    public void setUp() {
+        series = new RingSeries<>(CAPACITY);
+    }
+
+    @Test(expected = UnderflowException.class)
+    public void givenZeroCapacity_WhenCreate_ThenException() {
+        new RingSeries<Integer>(0);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullElement_WhenAdd_ThenException() {
+        series.add(null);
+    }
+
+    @Test
+    public void givenNewSeries_WhenCreate_ThenEmpty() {
+        assertEquals(0, series.size());
+        assertEquals(CAPACITY, series.capacity());
+        assertFalse(series.isFull());
+    }
+
+    @Test
+    public void givenFewerElementsThanCapacity_WhenAdd_ThenKeepAllOldestFirst() {
+        series.add(1);
+        series.add(2);
+
+        assertEquals(Arrays.asList(1, 2), series);
+        assertFalse(series.isFull());
+    }
+
+    @Test
+    public void givenFullSeries_WhenAdd_ThenOldestIsOverwritten() {
+        series.addAll(Arrays.asList(1, 2, 3, 4, 5));
+
+        assertEquals(Arrays.asList(3, 4, 5), series);
+        assertEquals(CAPACITY, series.size());
+        assertTrue(series.isFull());
+    }
+
+    @Test
+    public void givenWrappedSeries_WhenLast_ThenCountFromNewest() {
+        series.addAll(Arrays.asList(1, 2, 3, 4));
+
+        assertEquals(Integer.valueOf(4), series.last());
+        assertEquals(Integer.valueOf(4), series.last(1));
+        assertEquals(Integer.valueOf(2), series.last(3));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void givenMoreThanSize_WhenLast_ThenException() {
+        series.add(1);
+        series.last(2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void givenEmptySeries_WhenGet_ThenException() {
+        series.get(0);
+    }
+
+    @Test
+    public void givenWrappedSeries_WhenIterate_ThenOldestFirst() {
+        series.addAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+        List<Integer> iterated = new ArrayList<>();
+        for (Integer element : series)
+            iterated.add(element);
+
+        assertEquals(Arrays.asList(5, 6, 7), iterated);
+    }
+
+    @Test
+    public void givenFilledSeries_WhenClear_ThenEmptyAndReusable() {
+        series.addAll(Arrays.asList(1, 2, 3, 4));
+        series.clear();
+        series.add(9);
+
+        assertEquals(Arrays.asList(9), series);
+    }
+}
@@ -3,6 +3,7 @@ package trader.exit;
 import org.junit.Before;
 import trader.CommonTestClassMembers;
 import trader.broker.BrokerGateway;
+import trader.broker.candle.CandleRepository;
 import trader.strategy.TradingStrategyConfiguration;
 import trader.entity.candlestick.Candlestick;
 import trader.entity.candlestick.candle.CandleGranularity;
@@ -24,6 +25,7 @@ public abstract class BaseExitStrategyTest {
 
     protected UpdateCandlesService updateCandlesServiceMock;
     protected BrokerGateway brokerGatewayMock;
+    protected CandleRepository candleRepositoryMock;
     protected TradingStrategyConfiguration configurationMock;
     protected CommonTestClassMembers commonMembers;
     protected BrokerTradeDetails tradeDetailsMock;
@@ -34,6 +36,7 @@ public abstract class BaseExitStrategyTest {
     public void setUp() throws Exception {
         updateCandlesServiceMock = mock(UpdateCandlesService.class);
         brokerGatewayMock = mock(BrokerGateway.class);
+        candleRepositoryMock = mock(CandleRepository.class);
         configurationMock = mock(TradingStrategyConfiguration.class);
         tradeDetailsMock = mock(BrokerTradeDetails.class);
         presenterMock = mock(Presenter.class);
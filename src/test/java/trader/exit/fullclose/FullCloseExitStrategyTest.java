@@ -37,6 +37,7 @@ public class FullCloseExitStrategyTest extends BaseExitStrategyTest {
         strategy = new FullCloseExitStrategy();
         strategy.setConfiguration(configurationMock);
         strategy.setBrokerGateway(brokerGatewayMock);
+        strategy.setCandleRepository(candleRepositoryMock);
         strategy.setPresenter(presenterMock);
         setUpdateCandlesServiceToReturnFalse();
 
@@ -54,6 +55,12 @@ public class FullCloseExitStrategyTest extends BaseExitStrategyTest {
         fullCloseExitStrategy.setBrokerGateway(null);
     }
 
+    @Test(expected = NullArgumentException.class)
+    public void WhenCallSetCandleRepositoryWithNull_Exception() {
+        FullCloseExitStrategy fullCloseExitStrategy = new FullCloseExitStrategy();
+        fullCloseExitStrategy.setCandleRepository(null);
+    }
+
     @Test
     public void WhenCallSetConfigurationWithCorrectValue_CorrectUpdate() {
         Object configuration = commonMembers.extractFieldObject(strategy, "configuration");
@@ -141,7 +148,7 @@ public class FullCloseExitStrategyTest extends BaseExitStrategyTest {
 
 
     private void setUpdateCandlesServiceToReturnFalse() {
-        when(updateCandlesServiceMock.updateCandles(brokerGatewayMock, configurationMock)).thenReturn(false);
+        when(updateCandlesServiceMock.updateCandles(candleRepositoryMock, configurationMock)).thenReturn(false);
         commonMembers.changeFieldObject(strategy, "updateCandlesService", updateCandlesServiceMock);
     }
 
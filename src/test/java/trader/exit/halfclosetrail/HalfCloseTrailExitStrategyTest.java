@@ -36,6 +36,7 @@ public class HalfCloseTrailExitStrategyTest extends BaseExitStrategyTest {
         strategy = new HalfCloseTrailExitStrategy();
         strategy.setConfiguration(configurationMock);
         strategy.setBrokerGateway(brokerGatewayMock);
+        strategy.setCandleRepository(candleRepositoryMock);
         strategy.setPresenter(presenterMock);
         setUpdateCandlesServiceToReturnFalse();
 
@@ -183,7 +184,7 @@ public class HalfCloseTrailExitStrategyTest extends BaseExitStrategyTest {
     }
 
     private void setUpdateCandlesServiceToReturnFalse() {
-        when(updateCandlesServiceMock.updateCandles(brokerGatewayMock, configurationMock)).thenReturn(false);
+        when(updateCandlesServiceMock.updateCandles(candleRepositoryMock, configurationMock)).thenReturn(false);
         commonMembers.changeFieldObject(strategy, "updateCandlesService", updateCandlesServiceMock);
     }
 
@@ -2,16 +2,19 @@ package trader.exit.service;
 
 import org.junit.Before;
 import org.junit.Test;
-import trader.broker.BrokerGateway;
+import trader.broker.candle.CandleRepository;
 import trader.strategy.TradingStrategyConfiguration;
 import trader.entity.candlestick.Candlestick;
 import trader.entity.candlestick.candle.CandleGranularity;
 
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -19,12 +22,12 @@ import static org.mockito.Mockito.when;
 public class UpdateCandlesServiceTest {
 
     private UpdateCandlesService service;
-    private BrokerGateway brokerGatewayMock;
+    private CandleRepository candleRepositoryMock;
     private TradingStrategyConfiguration configurationMock;
 
     @Before
     public void setUp() throws Exception {
-        brokerGatewayMock = mock(BrokerGateway.class);
+        candleRepositoryMock = mock(CandleRepository.class);
         configurationMock = mock(TradingStrategyConfiguration.class);
         service = new UpdateCandlesService();
     }
@@ -35,7 +38,7 @@ public class UpdateCandlesServiceTest {
         setFakeBrokerGatewayCandlesUpdate(candlesCount);
         setFakeConfigurations("EUR_USD", 200, CandleGranularity.M10, 2 );
         int initialSize = service.getSettings().size();
-        service.updateCandles(brokerGatewayMock, configurationMock);
+        service.updateCandles(candleRepositoryMock, configurationMock);
         int actualSize = service.getSettings().size();
 
 
@@ -50,10 +53,10 @@ public class UpdateCandlesServiceTest {
         int candlesCount = 10;
         setFakeBrokerGatewayCandlesUpdate(candlesCount);
         setFakeConfigurations("EUR_USD", 200, CandleGranularity.M10, 2 );
-        service.updateCandles(brokerGatewayMock, configurationMock);
+        service.updateCandles(candleRepositoryMock, configurationMock);
 
         int initialSize = service.getSettings().size();
-        service.updateCandles(brokerGatewayMock, configurationMock);
+        service.updateCandles(candleRepositoryMock, configurationMock);
         int actualSize = service.getSettings().size();
 
 
@@ -69,7 +72,7 @@ public class UpdateCandlesServiceTest {
         setFakeBrokerGatewayCandlesUpdate(candlesCount);
         setFakeConfigurations("EUR_USD", 200, CandleGranularity.M10, 2 );
         int initialSize = service.getCandlesticks().size();
-        service.updateCandles(brokerGatewayMock, configurationMock);
+        service.updateCandles(candleRepositoryMock, configurationMock);
         int actualSize = service.getCandlesticks().size();
 
         assertEquals(candlesCount, actualSize-initialSize);
@@ -78,29 +81,52 @@ public class UpdateCandlesServiceTest {
     @Test
     public void givenFilledSettings_WhenCallUpdateCandles_ThenCandlesticksListMustAddOnlyLastCandle() {
         int candlesCount = 10;
-        setFakeBrokerGatewayCandlesUpdate(candlesCount);
+        List<Candlestick> candles = setTimedCandlestickList(candlesCount + 1);
+        when(candleRepositoryMock.getCandles(any(Map.class))).thenReturn(candles.subList(0, candlesCount));
         setFakeConfigurations("EUR_USD", 200, CandleGranularity.M10, 2 );
-        service.updateCandles(brokerGatewayMock, configurationMock);
+        service.updateCandles(candleRepositoryMock, configurationMock);
 
+        when(candleRepositoryMock.getCandles(any(Map.class))).thenReturn(candles.subList(candlesCount - 1, candlesCount + 1));
         int initialSize = service.getCandlesticks().size();
-        service.updateCandles(brokerGatewayMock, configurationMock);
+        service.updateCandles(candleRepositoryMock, configurationMock);
         int actualSize = service.getCandlesticks().size();
 
 
         assertEquals( candlesCount + 1, actualSize);
         assertEquals(  1, actualSize - initialSize);
+        assertSame(candles.get(candlesCount), service.getCandlesticks().get(actualSize - 1));
+    }
+
+    @Test
+    public void givenNoNewCandle_WhenCallUpdateCandles_ThenLastCandleIsNotAddedAgain() {
+        int candlesCount = 10;
+        List<Candlestick> candles = setTimedCandlestickList(candlesCount);
+        when(candleRepositoryMock.getCandles(any(Map.class))).thenReturn(candles);
+        setFakeConfigurations("EUR_USD", 200, CandleGranularity.M10, 2 );
+        service.updateCandles(candleRepositoryMock, configurationMock);
+
+        service.updateCandles(candleRepositoryMock, configurationMock);
+        service.updateCandles(candleRepositoryMock, configurationMock);
+        List<Candlestick> kept = service.getCandlesticks();
+
+        assertEquals(candlesCount, kept.size());
+        assertSame(candles.get(candlesCount - 2), kept.get(kept.size() - 2));
     }
 
     private void setFakeBrokerGatewayCandlesUpdate(int candlesCount) {
-        List<Candlestick> targetList = setFakeCandlestickList(candlesCount);
-        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(targetList);
+        List<Candlestick> targetList = setTimedCandlestickList(candlesCount);
+        when(candleRepositoryMock.getCandles(any(Map.class))).thenReturn(targetList);
     }
 
-    private List<Candlestick> setFakeCandlestickList(int candlesQuantity){
+    //ten minutes apart, the oldest first
+    private List<Candlestick> setTimedCandlestickList(int candlesQuantity){
+        ZonedDateTime start = ZonedDateTime.of(2018, 1, 2, 10, 0, 0, 0, ZoneOffset.UTC);
         List<Candlestick> candlesticks = new ArrayList<>();
-        Candlestick candlestickMock = mock(Candlestick.class);
-        for (int i = 0; i < candlesQuantity ; i++)
+        for (int i = 0; i < candlesQuantity ; i++) {
+            Candlestick candlestickMock = mock(Candlestick.class);
+            when(candlestickMock.getDateTime()).thenReturn(start.plusMinutes(10L * i));
             candlesticks.add(candlestickMock);
+        }
         return candlesticks;
     }
 
@@ -238,6 +238,121 @@ public class CreateBGXConfigurationUseCaseTest {
         verify(configurationMock, times(1)).setExitGranularity(anyString());
     }
 
+    @Test
+    public void givenNotExistingPrice_WhenCallSetPriceFeed_ThenNoUpdate(){
+        createBgxConfigurationUseCase.setPriceFeed(configurationMock, setSettings("", "", ""));
+
+        verify(configurationMock, times(0)).setPriceFeed(anyString());
+    }
+
+    @Test
+    public void givenNonExistingSettings_WhenCallSetPriceFeed_ThenNoUpdate(){
+        createBgxConfigurationUseCase.setPriceFeed(configurationMock, setSettings("price", "", ""));
+
+        verify(configurationMock, times(0)).setPriceFeed(anyString());
+    }
+
+    @Test
+    public void givenCorrectPriceFeedValue_WhenCallSetPriceFeed_ThenUpdate(){
+        createBgxConfigurationUseCase.setPriceFeed(configurationMock, setSettings("price", "priceFeed", "stream"));
+
+        verify(configurationMock, times(1)).setPriceFeed("stream");
+    }
+
+    @Test
+    public void givenCorrectAggregateCandlesValue_WhenCallSetPriceFeed_ThenUpdate(){
+        createBgxConfigurationUseCase.setPriceFeed(configurationMock, setSettings("price", "aggregateCandles", "true"));
+
+        verify(configurationMock, times(1)).setAggregateCandles("true");
+        verify(configurationMock, times(0)).setPriceFeed(anyString());
+    }
+
+    @Test
+    public void givenCorrectDispatchValue_WhenCallSetPriceFeed_ThenUpdate(){
+        createBgxConfigurationUseCase.setPriceFeed(configurationMock, setSettings("price", "dispatch", "parallel"));
+
+        verify(configurationMock, times(1)).setObserverDispatch("parallel");
+    }
+
+    @Test
+    public void givenCorrectEventBusValue_WhenCallSetPriceFeed_ThenUpdate(){
+        createBgxConfigurationUseCase.setPriceFeed(configurationMock, setSettings("price", "eventBus", "yielding"));
+
+        verify(configurationMock, times(1)).setEventBus("yielding");
+    }
+
+    @Test
+    public void givenNotExistingCandleStore_WhenCallSetCandleStore_ThenNoUpdate(){
+        createBgxConfigurationUseCase.setCandleStore(configurationMock, setSettings("", "", ""));
+
+        verify(configurationMock, times(0)).setCandleStoreDirectory(anyString());
+    }
+
+    @Test
+    public void givenCorrectDirectory_WhenCallSetCandleStore_ThenUpdate(){
+        createBgxConfigurationUseCase.setCandleStore(configurationMock, setSettings("candleStore", "directory", "candles"));
+
+        verify(configurationMock, times(1)).setCandleStoreDirectory("candles");
+    }
+
+    @Test
+    public void givenNotExistingRollUp_WhenCallSetRollUp_ThenNoUpdate(){
+        createBgxConfigurationUseCase.setRollUp(configurationMock, setSettings("", "", ""));
+
+        verify(configurationMock, times(0)).setRollUpGranularity(anyString());
+    }
+
+    @Test
+    public void givenCorrectBaseGranularity_WhenCallSetRollUp_ThenUpdate(){
+        createBgxConfigurationUseCase.setRollUp(configurationMock, setSettings("rollUp", "baseGranularity", "M5"));
+
+        verify(configurationMock, times(1)).setRollUpGranularity("M5");
+    }
+
+    @Test
+    public void givenNotExistingMarketData_WhenCallSetMarketData_ThenNoUpdate(){
+        createBgxConfigurationUseCase.setMarketData(configurationMock, setSettings("", "", ""));
+
+        verify(configurationMock, times(0)).setMarketDataMode(anyString());
+        verify(configurationMock, times(0)).setMarketDataDirectory(anyString());
+    }
+
+    @Test
+    public void givenCorrectMode_WhenCallSetMarketData_ThenUpdate(){
+        createBgxConfigurationUseCase.setMarketData(configurationMock, setSettings("marketData", "mode", "read"));
+
+        verify(configurationMock, times(1)).setMarketDataMode("read");
+        verify(configurationMock, times(0)).setMarketDataDirectory(anyString());
+    }
+
+    @Test
+    public void givenCorrectDirectory_WhenCallSetMarketData_ThenUpdate(){
+        createBgxConfigurationUseCase.setMarketData(configurationMock, setSettings("marketData", "directory", "shared"));
+
+        verify(configurationMock, times(1)).setMarketDataDirectory("shared");
+    }
+
+    @Test
+    public void givenAdaptivePollingSettings_WhenCallSetPriceFeed_ThenUpdateAdaptivePolling(){
+        createBgxConfigurationUseCase.setPriceFeed(configurationMock, setSettings("price", "adaptivePolling", "true"));
+
+        verify(configurationMock, times(1)).setAdaptivePolling("true");
+    }
+
+    @Test
+    public void givenNonExistingSettings_WhenCallSetPolling_ThenNoUpdate(){
+        createBgxConfigurationUseCase.setPolling(configurationMock, setSettings("", "", ""));
+
+        verify(configurationMock, times(0)).setPollingPeriod(anyString(), anyString());
+    }
+
+    @Test
+    public void givenCorrectSettings_WhenCallSetPolling_ThenUpdatePollingPeriod(){
+        createBgxConfigurationUseCase.setPolling(configurationMock, setSettings("polling", "EUR_USD", "250"));
+
+        verify(configurationMock, times(1)).setPollingPeriod("EUR_USD", "250");
+    }
+
     @Test
     public void givenNotExistingIndicator_WhenCallSetIndicators_ThenNoUpdate(){
         createBgxConfigurationUseCase.setIndicators(configurationMock, setSettings("", "", ""));
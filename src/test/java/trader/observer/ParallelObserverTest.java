@@ -0,0 +1,134 @@
+package trader.observer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import trader.entity.price.Price;
+import trader.exception.BadRequestException;
+import trader.exception.NullArgumentException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ParallelObserverTest {
+
+    private Price priceMock;
+    private List<ParallelObserver> parallelObservers;
+
+    @Before
+    public void setUp() {
+        priceMock = mock(Price.class);
+        parallelObservers = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        for (ParallelObserver parallelObserver : parallelObservers)
+            parallelObserver.shutdown();
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullObservers_WhenCreate_ThenException() {
+        new ParallelObserver(null);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullObserverInGroup_WhenCreate_ThenException() {
+        new ParallelObserver(Arrays.asList(mock(Observer.class), null));
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void givenNullPrice_WhenCallUpdateObserver_ThenException() {
+        create(mock(Observer.class)).updateObserver(null);
+    }
+
+    @Test
+    public void givenGroup_WhenCallUpdateObserver_ThenEveryObserverGetsThePrice() {
+        Observer first = mock(Observer.class);
+        Observer second = mock(Observer.class);
+        Observer third = mock(Observer.class);
+
+        create(first, second, third).updateObserver(priceMock);
+
+        verify(first, times(1)).updateObserver(priceMock);
+        verify(second, times(1)).updateObserver(priceMock);
+        verify(third, times(1)).updateObserver(priceMock);
+    }
+
+    @Test
+    public void givenObserversWaitingForEachOther_WhenCallUpdateObserver_ThenTheyRunAtOnce() {
+        CountDownLatch started = new CountDownLatch(3);
+        AtomicBoolean allStarted = new AtomicBoolean(true);
+
+        create(waitingObserver(started, allStarted), waitingObserver(started, allStarted),
+                waitingObserver(started, allStarted)).updateObserver(priceMock);
+
+        assertTrue(allStarted.get());
+    }
+
+    @Test
+    public void givenSlowObserver_WhenCallUpdateObserver_ThenReturnAfterItIsDone() {
+        final AtomicBoolean done = new AtomicBoolean();
+        Observer slow = new Observer() {
+            @Override
+            public void updateObserver(Price price) {
+                sleep(50L);
+                done.set(true);
+            }
+        };
+
+        create(slow, mock(Observer.class)).updateObserver(priceMock);
+
+        assertTrue(done.get());
+    }
+
+    @Test
+    public void givenFailingObserver_WhenCallUpdateObserver_ThenOthersFinishAndFailureIsRethrown() {
+        Observer failing = mock(Observer.class);
+        doThrow(BadRequestException.class).when(failing).updateObserver(priceMock);
+        Observer other = mock(Observer.class);
+
+        try {
+            create(failing, other).updateObserver(priceMock);
+            fail();
+        } catch (BadRequestException e) {
+            verify(other, times(1)).updateObserver(priceMock);
+        }
+    }
+
+    private ParallelObserver create(Observer... observers) {
+        ParallelObserver parallelObserver = new ParallelObserver(Arrays.asList(observers));
+        parallelObservers.add(parallelObserver);
+        return parallelObserver;
+    }
+
+    private Observer waitingObserver(final CountDownLatch started, final AtomicBoolean allStarted) {
+        return new Observer() {
+            @Override
+            public void updateObserver(Price price) {
+                started.countDown();
+                try {
+                    if(!started.await(5, TimeUnit.SECONDS))
+                        allStarted.set(false);
+                } catch (InterruptedException e) {
+                    allStarted.set(false);
+                }
+            }
+        };
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
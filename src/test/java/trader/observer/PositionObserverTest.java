@@ -16,7 +16,9 @@ import trader.entity.price.Price;
 import java.math.BigDecimal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -184,6 +186,44 @@ public class PositionObserverTest extends BaseObserverTest {
         positionObserver.updateObserver(priceMock);
     }
 
+    @Test
+    public void givenOpenOrderAndNewSignal_WhenCallUpdateObserver_ThenPlaceTradeAsOrder(){
+        when(brokerGatewayMock.totalOpenOrdersSize()).thenReturn(1);
+        when(entryStrategyMock.generateTrade()).thenReturn(tradeMock);
+        when(priceMock.getAsk()).thenReturn(BigDecimal.valueOf(1.2005));
+        setTradableTrade(Direction.UP, BigDecimal.valueOf(1.2000));
+        when(orderStrategyMock.placeTradeAsOrder(brokerGatewayMock, priceMock, tradeMock, configurationMock)).thenReturn(true);
+        positionObserver.updateObserver(priceMock);
+
+        verify(orderStrategyMock, times(1)).placeTradeAsOrder(brokerGatewayMock, priceMock, tradeMock, configurationMock);
+        verify(orderStrategyMock, never()).closeUnfilledOrders(brokerGatewayMock, priceMock);
+    }
+
+    @Test
+    public void givenOpenOrderAndSameSignalWithStopCrossed_WhenCallUpdateObserver_ThenCloseUnfilledOrders(){
+        when(brokerGatewayMock.totalOpenOrdersSize()).thenReturn(1);
+        when(entryStrategyMock.generateTrade()).thenReturn(tradeMock);
+        when(priceMock.getAsk()).thenReturn(BigDecimal.valueOf(1.2005));
+        setTradableTrade(Direction.UP, BigDecimal.valueOf(1.2000));
+        //the same signal leaves the pending order as it is
+        when(orderStrategyMock.placeTradeAsOrder(brokerGatewayMock, priceMock, tradeMock, configurationMock)).thenReturn(false);
+        positionObserver.updateObserver(priceMock);
+
+        verify(orderStrategyMock, times(1)).placeTradeAsOrder(brokerGatewayMock, priceMock, tradeMock, configurationMock);
+        verify(orderStrategyMock, times(1)).closeUnfilledOrders(brokerGatewayMock, priceMock);
+    }
+
+    @Test
+    public void givenOpenOrderAndNoSignal_WhenCallUpdateObserver_ThenCloseUnfilledOrders(){
+        when(brokerGatewayMock.totalOpenOrdersSize()).thenReturn(1);
+        when(entryStrategyMock.generateTrade()).thenReturn(tradeMock);
+        when(tradeMock.getTradable()).thenReturn(false);
+        positionObserver.updateObserver(priceMock);
+
+        verify(orderStrategyMock, never()).placeTradeAsOrder(brokerGatewayMock, priceMock, tradeMock, configurationMock);
+        verify(orderStrategyMock, times(1)).closeUnfilledOrders(brokerGatewayMock, priceMock);
+    }
+
     @Test
     public void givenOpenTrades_WhenCallUpdateObserver_ThenCallExitStrategyExecute(){
 
@@ -195,6 +235,25 @@ public class PositionObserverTest extends BaseObserverTest {
 
     }
 
+    @Test
+    public void givenOpenOrder_WhenCallUpdateObserver_ThenPositionIsOpen(){
+        when(brokerGatewayMock.totalOpenOrdersSize()).thenReturn(1);
+        when(entryStrategyMock.generateTrade()).thenReturn(null);
+        positionObserver.updateObserver(priceMock);
+
+        assertTrue(positionObserver.isPositionOpen());
+    }
+
+    @Test
+    public void givenNoTradesAndOrders_WhenCallUpdateObserver_ThenPositionIsNotOpen(){
+        setZeroTradesAndOrders();
+        when(entryStrategyMock.generateTrade()).thenReturn(tradeMock);
+        when(tradeMock.getTradable()).thenReturn(false);
+        positionObserver.updateObserver(priceMock);
+
+        assertFalse(positionObserver.isPositionOpen());
+    }
+
     private void setZeroTradesAndOrders(){
         when(brokerGatewayMock.totalOpenTradesSize()).thenReturn(0);
         when(brokerGatewayMock.totalOpenOrdersSize()).thenReturn(0);
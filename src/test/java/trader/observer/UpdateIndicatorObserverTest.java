@@ -5,6 +5,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import trader.broker.candle.CandleRepository;
 import trader.strategy.TradingStrategyConfiguration;
 import trader.entity.candlestick.Candlestick;
 import trader.entity.candlestick.candle.CandleGranularity;
@@ -30,6 +31,7 @@ public class UpdateIndicatorObserverTest extends BaseObserverTest {
     private TradingStrategyConfiguration mockConfiguration;
     private Indicator mockMA;
     private Price mockPrice;
+    private CandleRepository candleRepositoryMock;
 
     @Before
     public void before(){
@@ -39,22 +41,23 @@ public class UpdateIndicatorObserverTest extends BaseObserverTest {
         this.mockMA = mock(Indicator.class);
         setMockMA();
         mockPrice = mock(Price.class);
-        this.observer = new UpdateIndicatorObserver(this.mockMA, mockConfiguration, brokerGatewayMock);
+        candleRepositoryMock = mock(CandleRepository.class);
+        this.observer = new UpdateIndicatorObserver(this.mockMA, mockConfiguration, candleRepositoryMock);
 
     }
 
     @Test(expected = NullArgumentException.class)
     public void whenCreateUpdateIndicatorControllerWithNullIndicator_ThrowException(){
-       new UpdateIndicatorObserver(null, mockConfiguration, brokerGatewayMock);
+       new UpdateIndicatorObserver(null, mockConfiguration, candleRepositoryMock);
     }
 
     @Test(expected = NullArgumentException.class)
     public void WhenCreateUpdateIndicatorControllerWithNullConfiguration_Exception(){
-        new UpdateIndicatorObserver(mockMA, null, brokerGatewayMock);
+        new UpdateIndicatorObserver(mockMA, null, candleRepositoryMock);
     }
 
     @Test(expected = NullArgumentException.class)
-    public void WhenCreateUpdateIndicatorControllerWithNullBrokerGateway_Exception(){
+    public void WhenCreateUpdateIndicatorControllerWithNullCandleRepository_Exception(){
         new UpdateIndicatorObserver(mockMA, mockConfiguration, null);
     }
 
@@ -77,7 +80,7 @@ public class UpdateIndicatorObserverTest extends BaseObserverTest {
         List<Candlestick> candlesticks = new ArrayList<>();
         exception.expect(RuntimeException.class);
        // exception.expectMessage("Update OK");
-        when(brokerGatewayMock.getCandles(any(HashMap.class))).thenReturn(candlesticks);
+        when(candleRepositoryMock.getCandles(any(Map.class))).thenReturn(candlesticks);
         doThrow(RuntimeException.class).when(mockMA).updateIndicator(candlesticks);
         observer.updateObserver(mockPrice);
     }
@@ -116,6 +119,43 @@ public class UpdateIndicatorObserverTest extends BaseObserverTest {
         assertEquals(String.valueOf(UPDATE_QUANTITY), newSettings.get(QUANTITY));
     }
 
+    @Test
+    public void givenSameLastCandle_WhenCallUpdateObserverAgain_ThenDoNotUpdateIndicator() {
+        List<Candlestick> candlesticks = Collections.singletonList(mock(Candlestick.class));
+        when(candleRepositoryMock.getCandles(any(Map.class))).thenReturn(candlesticks);
+        makeMockMAToHaveValues(BigDecimal.TEN);
+
+        observer.updateObserver(mockPrice);
+        observer.updateObserver(mockPrice);
+
+        verify(mockMA, times(1)).updateIndicator(candlesticks);
+    }
+
+    @Test
+    public void givenNewLastCandle_WhenCallUpdateObserver_ThenUpdateIndicator() {
+        List<Candlestick> first = Collections.singletonList(mock(Candlestick.class));
+        List<Candlestick> second = Collections.singletonList(mock(Candlestick.class));
+        when(candleRepositoryMock.getCandles(any(Map.class))).thenReturn(first, second);
+        makeMockMAToHaveValues(BigDecimal.TEN);
+
+        observer.updateObserver(mockPrice);
+        observer.updateObserver(mockPrice);
+
+        verify(mockMA, times(1)).updateIndicator(first);
+        verify(mockMA, times(1)).updateIndicator(second);
+    }
+
+    @Test
+    public void givenIndicatorWithoutValues_WhenCallUpdateObserverWithSameCandles_ThenUpdateIndicator() {
+        List<Candlestick> candlesticks = Collections.singletonList(mock(Candlestick.class));
+        when(candleRepositoryMock.getCandles(any(Map.class))).thenReturn(candlesticks);
+
+        observer.updateObserver(mockPrice);
+        observer.updateObserver(mockPrice);
+
+        verify(mockMA, times(2)).updateIndicator(candlesticks);
+    }
+
     private void setConfiguration() {
         when(mockConfiguration.getInstrument()).thenReturn(INSTRUMENT_VALUE);
         when(mockConfiguration.getInitialCandlesQuantity()).thenReturn(INITIAL_QUANTITY);
@@ -10,6 +10,7 @@ import trader.entity.order.Order;
 import trader.entity.order.enums.OrderType;
 import trader.entity.trade.Direction;
 import trader.entity.trade.Trade;
+import trader.exception.BadRequestException;
 import trader.exception.EmptyArgumentException;
 import trader.exception.NullArgumentException;
 import trader.entity.price.Price;
@@ -22,6 +23,7 @@ import java.util.HashMap;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class StandardOrderStrategyTest {
@@ -216,6 +218,59 @@ public class StandardOrderStrategyTest {
         assertEquals(expectedID, lastID);
     }
 
+    @Test
+    public void givenPendingOrderAndNewSignal_WhenCallPlaceTradeAsOrder_ThenReplaceOrder(){
+        setFakePendingOrderAndSignal();
+        setFalseOrder("15", 1.1950, 100);
+        when(brokerGatewayMock.replaceOrder(anyString(), any(HashMap.class))).thenReturn("1133");
+
+        assertTrue(orderStrategy.placeTradeAsOrder(brokerGatewayMock, priceMock, tradeMock, configurationMock));
+
+        verify(brokerGatewayMock, times(1)).replaceOrder(eq("15"), any(HashMap.class));
+        verify(brokerGatewayMock, never()).placeOrder(any(HashMap.class), anyString());
+        verify(brokerGatewayMock, never()).cancelOrder(anyString());
+        assertEquals("1133", commonMembers.extractFieldObject(orderStrategy, "lastOrderTransactionID"));
+    }
+
+    @Test
+    public void givenPendingOrderForSameSignal_WhenCallPlaceTradeAsOrder_ThenKeepOrder(){
+        setFakePendingOrderAndSignal();
+        BigDecimal unitsSize = orderStrategy.calculateUnitsSize(brokerGatewayMock, priceMock, tradeMock, configurationMock);
+        setFalseOrder("15", 1.1980, unitsSize.doubleValue());
+        when(orderMock.getPrice()).thenReturn(new BigDecimal("1.200000"));
+
+        assertFalse(orderStrategy.placeTradeAsOrder(brokerGatewayMock, priceMock, tradeMock, configurationMock));
+
+        verify(brokerGatewayMock, never()).replaceOrder(anyString(), any(HashMap.class));
+        verify(brokerGatewayMock, never()).placeOrder(any(HashMap.class), anyString());
+    }
+
+    @Test
+    public void givenPendingOrderWithOtherEntryPrice_WhenCallPlaceTradeAsOrder_ThenReplaceOrder(){
+        setFakePendingOrderAndSignal();
+        BigDecimal unitsSize = orderStrategy.calculateUnitsSize(brokerGatewayMock, priceMock, tradeMock, configurationMock);
+        setFalseOrder("15", 1.1980, unitsSize.doubleValue());
+        when(orderMock.getPrice()).thenReturn(BigDecimal.valueOf(1.2003));
+        when(brokerGatewayMock.replaceOrder(anyString(), any(HashMap.class))).thenReturn("1133");
+
+        orderStrategy.placeTradeAsOrder(brokerGatewayMock, priceMock, tradeMock, configurationMock);
+
+        verify(brokerGatewayMock, times(1)).replaceOrder(eq("15"), any(HashMap.class));
+        verify(brokerGatewayMock, never()).placeOrder(any(HashMap.class), anyString());
+    }
+
+    @Test
+    public void givenRejectedReplace_WhenCallPlaceTradeAsOrder_ThenReportRejection(){
+        setFakePendingOrderAndSignal();
+        setFalseOrder("15", 1.1950, 100);
+        when(brokerGatewayMock.replaceOrder(anyString(), any(HashMap.class))).thenThrow(new BadRequestException());
+
+        assertFalse(orderStrategy.placeTradeAsOrder(brokerGatewayMock, priceMock, tradeMock, configurationMock));
+
+        verify(presenterMock, times(1)).execute("Order replace rejected");
+        verify(brokerGatewayMock, never()).placeOrder(any(HashMap.class), anyString());
+    }
+
     @Test
     public void WhenCallCloseUnfilledOrdersAndNoWaitingOrders_NothingToRemove(){
         when(brokerGatewayMock.getOrder(any(OrderType.class))).thenReturn(null);
@@ -281,6 +336,15 @@ public class StandardOrderStrategyTest {
         assertEquals(presenterMock, presenter);
     }
 
+    private void setFakePendingOrderAndSignal() {
+        setFakeTrade(Direction.UP, 1.2000, 1.1980);
+        setFakeBrokerGateway(2000, 200, 1000 );
+        setFalseInputForCalculatingUnitsSize(1.2000, 0.01);
+        when(connectorMock.getLeverage()).thenReturn("30");
+        when(configurationMock.getInstrument()).thenReturn("EUR_USD");
+        when(brokerGatewayMock.getOrder(OrderType.MARKET_IF_TOUCHED)).thenReturn(orderMock);
+    }
+
     private void setFakePrice(double askPrice, double bidPrice) {
         when(priceMock.getAsk()).thenReturn(BigDecimal.valueOf(askPrice));
         when(priceMock.getBid()).thenReturn(BigDecimal.valueOf(bidPrice));
@@ -0,0 +1,111 @@
+package trader.simulator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of the prices served by {@link V20Simulator}. Every call of {@link #next()} returns the next tick and the
+ * replay starts again from the first tick after the last one.
+ */
+public class TickReplay {
+
+    private static final int SCALE = 5;
+    private static final BigDecimal PIP = new BigDecimal("0.0001");
+
+    private final List<Tick> ticks;
+    private final AtomicLong cursor;
+
+    public TickReplay(List<Tick> ticks) {
+        if(ticks == null)
+            throw new NullPointerException();
+        if(ticks.isEmpty())
+            throw new IllegalArgumentException();
+        this.ticks = Collections.unmodifiableList(new ArrayList<>(ticks));
+        this.cursor = new AtomicLong();
+    }
+
+    /**
+     * Reads one tick per line in the form {@code time,bid,ask}, for example
+     * {@code 2018-06-01T15:10:00Z,1.16500,1.16510}. Empty lines and lines starting with {@code #} are skipped.
+     */
+    public static TickReplay fromCsv(Reader source) throws IOException {
+        List<Tick> ticks = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if(line.isEmpty() || line.startsWith("#"))
+                continue;
+            String[] fields = line.split(",");
+            if(fields.length != 3)
+                throw new IllegalArgumentException(line);
+            ticks.add(new Tick(Instant.parse(fields[0].trim()), new BigDecimal(fields[1].trim()), new BigDecimal(fields[2].trim())));
+        }
+        return new TickReplay(ticks);
+    }
+
+    //random walk one second apart, the same seed always gives the same ticks
+    public static TickReplay randomWalk(Instant start, BigDecimal startBid, int count, long seed) {
+        Random random = new Random(seed);
+        List<Tick> ticks = new ArrayList<>(count);
+        BigDecimal bid = startBid.setScale(SCALE, RoundingMode.HALF_UP);
+        for (int i = 0; i < count; i++) {
+            BigDecimal spread = PIP.multiply(BigDecimal.valueOf(1 + random.nextInt(3)));
+            ticks.add(new Tick(start.plusSeconds(i), bid, bid.add(spread)));
+            bid = bid.add(PIP.multiply(BigDecimal.valueOf(random.nextInt(5) - 2)));
+        }
+        return new TickReplay(ticks);
+    }
+
+    public Tick next() {
+        return ticks.get((int) (cursor.getAndIncrement() % ticks.size()));
+    }
+
+    public Tick current() {
+        return ticks.get((int) (Math.max(0, cursor.get() - 1) % ticks.size()));
+    }
+
+    public int size() {
+        return ticks.size();
+    }
+
+    public static final class Tick {
+
+        private final Instant time;
+        private final BigDecimal bid;
+        private final BigDecimal ask;
+
+        public Tick(Instant time, BigDecimal bid, BigDecimal ask) {
+            if(time == null || bid == null || ask == null)
+                throw new NullPointerException();
+            this.time = time;
+            this.bid = bid;
+            this.ask = ask;
+        }
+
+        public Instant getTime() {
+            return time;
+        }
+
+        public BigDecimal getBid() {
+            return bid;
+        }
+
+        public BigDecimal getAsk() {
+            return ask;
+        }
+
+        public BigDecimal getMid() {
+            return bid.add(ask).divide(BigDecimal.valueOf(2), SCALE + 1, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,890 @@
+package trader.simulator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local broker that speaks the part of the v20 REST protocol used by the gateway: accounts, account changes,
+ * pricing, the pricing stream, instrument candles, order create, replace and cancel, and trade dependent orders. Prices
+ * come from a {@link TickReplay}. Every request can be delayed by a fixed latency, and failed on purpose with an
+ * error rate or with {@link #failNextRequests(int, int)}. Pending orders are only filled by {@link #fillOrder(String)}.
+ */
+public class V20Simulator {
+
+    private static final String API = "v3";
+    private static final String JSON = "application/json";
+    private static final int MARGIN_SCALE = 4;
+    private static final BigDecimal MARGIN_RATE = new BigDecimal("0.02");
+    private static final BigDecimal PIP = new BigDecimal("0.0001");
+    private static final int DEFAULT_CANDLES = 500;
+    private static final int MAX_CANDLES = 5000;
+    private static final Map<String, Long> GRANULARITY_SECONDS = granularitySeconds();
+
+    //headers and body are written apart, without this every keep-alive response waits for a delayed ack
+    static {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final int port;
+    private final String accountID;
+    private final String instrument;
+    private final TickReplay ticks;
+    private final long latencyMillis;
+    private final double errorRate;
+    private final int errorStatus;
+    private final long streamIntervalMillis;
+    private final long heartbeatIntervalMillis;
+    private final int threads;
+    private final long seed;
+    private final Random errorRandom;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicInteger forcedErrors = new AtomicInteger();
+    private volatile int forcedErrorStatus;
+    private volatile boolean running;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private final Map<String, JsonObject> orders = new LinkedHashMap<>();
+    private final Map<String, JsonObject> trades = new LinkedHashMap<>();
+    private final List<Change> changes = new ArrayList<>();
+    private BigDecimal balance;
+    private long lastTransactionID;
+
+    private V20Simulator(Builder builder) {
+        this.port = builder.port;
+        this.accountID = builder.accountID;
+        this.instrument = builder.instrument;
+        this.ticks = builder.ticks;
+        this.latencyMillis = builder.latencyMillis;
+        this.errorRate = builder.errorRate;
+        this.errorStatus = builder.errorStatus;
+        this.streamIntervalMillis = builder.streamIntervalMillis;
+        this.heartbeatIntervalMillis = builder.heartbeatIntervalMillis;
+        this.threads = builder.threads;
+        this.seed = builder.seed;
+        this.errorRandom = new Random(builder.seed);
+        this.balance = builder.balance;
+        this.lastTransactionID = 1;
+    }
+
+    public V20Simulator start() throws IOException {
+        executor = Executors.newFixedThreadPool(threads, new SimulatorThreadFactory());
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.createContext("/", new Router());
+        server.setExecutor(executor);
+        running = true;
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        running = false;
+        if(server != null)
+            server.stop(0);
+        if(executor != null)
+            executor.shutdownNow();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String getAccountID() {
+        return accountID;
+    }
+
+    public String getInstrument() {
+        return instrument;
+    }
+
+    public TickReplay getTicks() {
+        return ticks;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    /**
+     * The next {@code count} requests are answered with {@code status} and an error message.
+     */
+    public void failNextRequests(int count, int status) {
+        forcedErrorStatus = status;
+        forcedErrors.set(count);
+    }
+
+    public synchronized List<String> getPendingOrderIDs() {
+        List<String> ids = new ArrayList<>();
+        for (JsonObject order : orders.values()) {
+            if(order.get("type").getAsString().equals("MARKET_IF_TOUCHED"))
+                ids.add(order.get("id").getAsString());
+        }
+        return ids;
+    }
+
+    public synchronized List<String> getOpenTradeIDs() {
+        return new ArrayList<>(trades.keySet());
+    }
+
+    public synchronized String getStopLossPrice(String tradeID) {
+        JsonObject trade = trades.get(tradeID);
+        if(trade == null || !trade.has("stopLossOrderID"))
+            return null;
+        return orders.get(trade.get("stopLossOrderID").getAsString()).get("price").getAsString();
+    }
+
+    /**
+     * Fills a pending market if touched order at its price. The fill opens a trade with the stop loss of the order
+     * and returns the id of the trade.
+     */
+    public synchronized String fillOrder(String orderID) {
+        JsonObject order = orders.get(orderID);
+        if(order == null || !order.get("type").getAsString().equals("MARKET_IF_TOUCHED"))
+            throw new IllegalArgumentException(orderID);
+        orders.remove(orderID);
+        String tradeID = nextTransactionID();
+        order.addProperty("state", "FILLED");
+        order.addProperty("filledTime", now());
+        order.addProperty("tradeOpenedID", tradeID);
+        recordChange("ordersFilled", order);
+        JsonObject trade = new JsonObject();
+        trade.addProperty("id", tradeID);
+        trade.addProperty("instrument", order.get("instrument").getAsString());
+        trade.addProperty("price", order.get("price").getAsString());
+        trade.addProperty("openTime", now());
+        trade.addProperty("state", "OPEN");
+        trade.addProperty("initialUnits", order.get("units").getAsString());
+        trade.addProperty("currentUnits", order.get("units").getAsString());
+        trade.addProperty("realizedPL", "0.0000");
+        trade.addProperty("unrealizedPL", "0.0000");
+        trade.addProperty("financing", "0.0000");
+        trades.put(tradeID, trade);
+        if(order.has("stopLossOnFill")) {
+            JsonObject stopLossOrder = createStopLossOrder(tradeID, order.getAsJsonObject("stopLossOnFill").get("price").getAsString());
+            trade.addProperty("stopLossOrderID", stopLossOrder.get("id").getAsString());
+            recordChange("tradesOpened", trade.deepCopy());
+            recordChange("ordersCreated", stopLossOrder);
+        } else {
+            recordChange("tradesOpened", trade.deepCopy());
+        }
+        return tradeID;
+    }
+
+    private final class Router implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            try {
+                delay(latencyMillis);
+                Integer failure = nextFailure();
+                if(failure != null) {
+                    injectedErrors.incrementAndGet();
+                    send(exchange, failure, error("Simulated failure"));
+                    return;
+                }
+                route(exchange);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                send(exchange, 400, error(String.valueOf(e.getMessage())));
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException, InterruptedException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        if(path.length < 2 || !path[0].equals(API)) {
+            send(exchange, 404, error("Not found"));
+            return;
+        }
+        if(path[1].equals("instruments") && path.length == 4 && path[3].equals("candles") && method.equals("GET")) {
+            send(exchange, 200, candles(path[2], query));
+            return;
+        }
+        if(!path[1].equals("accounts")) {
+            send(exchange, 404, error("Not found"));
+            return;
+        }
+        if(path.length == 2 && method.equals("GET")) {
+            send(exchange, 200, accounts());
+            return;
+        }
+        if(!path[2].equals(accountID)) {
+            send(exchange, 404, error("The Account specified does not exist"));
+            return;
+        }
+        String resource = path.length > 3 ? path[3] : "";
+        if(path.length == 3 && method.equals("GET"))
+            send(exchange, 200, account());
+        else if(resource.equals("changes") && method.equals("GET"))
+            send(exchange, 200, changes(query.get("sinceTransactionID")));
+        else if(resource.equals("pricing") && path.length == 4 && method.equals("GET"))
+            send(exchange, 200, pricing(query.get("instruments")));
+        else if(resource.equals("pricing") && path.length == 5 && path[4].equals("stream") && method.equals("GET"))
+            stream(exchange, query.get("instruments"));
+        else if(resource.equals("orders") && path.length == 4 && method.equals("POST"))
+            reply(exchange, createOrder(readBody(exchange)));
+        else if(resource.equals("orders") && path.length == 5 && method.equals("PUT"))
+            reply(exchange, replaceOrder(path[4], readBody(exchange)));
+        else if(resource.equals("orders") && path.length == 6 && path[5].equals("cancel") && method.equals("PUT"))
+            reply(exchange, cancelOrder(path[4]));
+        else if(resource.equals("trades") && path.length == 6 && path[5].equals("orders") && method.equals("PUT"))
+            reply(exchange, setDependentOrders(path[4], readBody(exchange)));
+        else
+            send(exchange, 404, error("Not found"));
+    }
+
+    private JsonObject accounts() {
+        JsonObject properties = new JsonObject();
+        properties.addProperty("id", accountID);
+        properties.add("tags", new JsonArray());
+        JsonArray accounts = new JsonArray();
+        accounts.add(properties);
+        JsonObject body = new JsonObject();
+        body.add("accounts", accounts);
+        return body;
+    }
+
+    private synchronized JsonObject account() {
+        BigDecimal marginUsed = marginUsed();
+        JsonObject account = new JsonObject();
+        account.addProperty("id", accountID);
+        account.addProperty("currency", "USD");
+        account.addProperty("balance", format(balance));
+        account.addProperty("createdTime", now());
+        account.addProperty("pl", "0.0000");
+        account.addProperty("unrealizedPL", "0.0000");
+        account.addProperty("NAV", format(balance));
+        account.addProperty("marginRate", MARGIN_RATE.toPlainString());
+        account.addProperty("marginUsed", format(marginUsed));
+        account.addProperty("marginAvailable", format(balance.subtract(marginUsed)));
+        account.addProperty("openTradeCount", trades.size());
+        account.addProperty("openPositionCount", 0);
+        account.addProperty("pendingOrderCount", orders.size());
+        account.addProperty("hedgingEnabled", false);
+        account.addProperty("lastTransactionID", String.valueOf(lastTransactionID));
+        account.add("trades", toArray(trades.values()));
+        account.add("orders", toArray(orders.values()));
+        account.add("positions", new JsonArray());
+        JsonObject body = new JsonObject();
+        body.add("account", account);
+        body.addProperty("lastTransactionID", String.valueOf(lastTransactionID));
+        return body;
+    }
+
+    private synchronized JsonObject changes(String sinceTransactionID) {
+        long since = Long.parseLong(sinceTransactionID);
+        JsonObject accountChanges = new JsonObject();
+        for (String name : Arrays.asList("ordersCreated", "ordersCancelled", "ordersFilled", "ordersTriggered",
+                "tradesOpened", "tradesReduced", "tradesClosed", "positions", "transactions"))
+            accountChanges.add(name, new JsonArray());
+        for (Change change : changes) {
+            if(change.transactionID > since)
+                accountChanges.getAsJsonArray(change.list).add(change.body.deepCopy());
+        }
+        BigDecimal marginUsed = marginUsed();
+        JsonObject state = new JsonObject();
+        state.addProperty("unrealizedPL", "0.0000");
+        state.addProperty("NAV", format(balance));
+        state.addProperty("marginUsed", format(marginUsed));
+        state.addProperty("marginAvailable", format(balance.subtract(marginUsed)));
+        state.add("orders", new JsonArray());
+        state.add("trades", new JsonArray());
+        state.add("positions", new JsonArray());
+        JsonObject body = new JsonObject();
+        body.add("changes", accountChanges);
+        body.add("state", state);
+        body.addProperty("lastTransactionID", String.valueOf(lastTransactionID));
+        return body;
+    }
+
+    private JsonObject pricing(String instruments) {
+        if(instruments == null || instruments.trim().isEmpty())
+            throw new IllegalArgumentException("Invalid value specified for 'instruments'");
+        TickReplay.Tick tick = ticks.next();
+        JsonArray prices = new JsonArray();
+        for (String name : instruments.split(","))
+            prices.add(price(name.trim(), tick));
+        JsonObject body = new JsonObject();
+        body.add("prices", prices);
+        body.addProperty("time", tick.getTime().toString());
+        return body;
+    }
+
+    //chunked response with one line per price, silent between prices apart from the heartbeats
+    private void stream(HttpExchange exchange, String instruments) throws IOException, InterruptedException {
+        if(instruments == null || instruments.trim().isEmpty()) {
+            send(exchange, 400, error("Invalid value specified for 'instruments'"));
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        long nextHeartbeat = System.currentTimeMillis() + heartbeatIntervalMillis;
+        try {
+            while (running) {
+                for (String name : instruments.split(","))
+                    writeLine(out, price(name.trim(), ticks.next()));
+                if(System.currentTimeMillis() >= nextHeartbeat) {
+                    JsonObject heartbeat = new JsonObject();
+                    heartbeat.addProperty("type", "HEARTBEAT");
+                    heartbeat.addProperty("time", now());
+                    writeLine(out, heartbeat);
+                    nextHeartbeat = System.currentTimeMillis() + heartbeatIntervalMillis;
+                }
+                Thread.sleep(streamIntervalMillis);
+            }
+        } catch (IOException e) {
+            //the client closed the stream
+        }
+    }
+
+    private JsonObject candles(String name, Map<String, String> query) {
+        String granularity = query.containsKey("granularity") ? query.get("granularity") : "S5";
+        Long period = GRANULARITY_SECONDS.get(granularity);
+        int count = query.containsKey("count") ? Integer.parseInt(query.get("count")) : DEFAULT_CANDLES;
+        if(period == null)
+            throw new IllegalArgumentException("Invalid value specified for 'granularity'");
+        if(count < 1 || count > MAX_CANDLES)
+            throw new IllegalArgumentException("Invalid value specified for 'count'");
+        long current = Instant.now().getEpochSecond() / period * period;
+        BigDecimal base = ticks.current().getMid();
+        JsonArray candles = new JsonArray();
+        for (long start = current - (count - 1) * period; start <= current; start += period)
+            candles.add(candle(start, base, start < current));
+        JsonObject body = new JsonObject();
+        body.addProperty("instrument", name);
+        body.addProperty("granularity", granularity);
+        body.add("candles", candles);
+        return body;
+    }
+
+    //the same start time always gives the same candle
+    private JsonObject candle(long start, BigDecimal base, boolean complete) {
+        Random random = new Random(seed * 31 + start);
+        BigDecimal open = base.add(PIP.multiply(BigDecimal.valueOf(random.nextInt(41) - 20)));
+        BigDecimal close = open.add(PIP.multiply(BigDecimal.valueOf(random.nextInt(21) - 10)));
+        BigDecimal high = open.max(close).add(PIP.multiply(BigDecimal.valueOf(random.nextInt(5))));
+        BigDecimal low = open.min(close).subtract(PIP.multiply(BigDecimal.valueOf(random.nextInt(5))));
+        JsonObject mid = new JsonObject();
+        mid.addProperty("o", price(open));
+        mid.addProperty("h", price(high));
+        mid.addProperty("l", price(low));
+        mid.addProperty("c", price(close));
+        JsonObject candle = new JsonObject();
+        candle.addProperty("time", Instant.ofEpochSecond(start).toString());
+        candle.addProperty("volume", 1 + random.nextInt(100));
+        candle.addProperty("complete", complete);
+        candle.add("mid", mid);
+        return candle;
+    }
+
+    private synchronized Reply createOrder(JsonObject body) {
+        if(body == null || !body.has("order"))
+            return new Reply(400, error("Invalid value specified for 'order'"));
+        JsonObject request = body.getAsJsonObject("order");
+        String type = request.has("type") ? request.get("type").getAsString() : "";
+        if(!request.has("instrument") || !request.has("units") || new BigDecimal(request.get("units").getAsString()).signum() == 0)
+            return new Reply(400, error("Invalid value specified for 'units'"));
+        if(type.equals("MARKET_IF_TOUCHED"))
+            return createMarketIfTouchedOrder(request);
+        if(type.equals("MARKET"))
+            return createMarketOrder(request);
+        return new Reply(400, error("Invalid value specified for 'type'"));
+    }
+
+    private Reply createMarketIfTouchedOrder(JsonObject request) {
+        if(!request.has("price"))
+            return new Reply(400, error("Invalid value specified for 'price'"));
+        String id = nextTransactionID();
+        JsonObject order = new JsonObject();
+        order.addProperty("id", id);
+        order.addProperty("createTime", now());
+        order.addProperty("state", "PENDING");
+        order.addProperty("type", "MARKET_IF_TOUCHED");
+        order.addProperty("instrument", request.get("instrument").getAsString());
+        order.addProperty("units", request.get("units").getAsString());
+        order.addProperty("price", request.get("price").getAsString());
+        order.addProperty("timeInForce", "GTC");
+        order.addProperty("positionFill", "DEFAULT");
+        order.addProperty("triggerCondition", "DEFAULT");
+        if(request.has("stopLossOnFill"))
+            order.add("stopLossOnFill", request.get("stopLossOnFill").deepCopy());
+        orders.put(id, order);
+        recordChange("ordersCreated", order);
+        return orderCreated(transaction(id, "MARKET_IF_TOUCHED_ORDER", request));
+    }
+
+    //a market order fills at once at the current price of the replay
+    private Reply createMarketOrder(JsonObject request) {
+        String orderID = nextTransactionID();
+        JsonObject orderTransaction = transaction(orderID, "MARKET_ORDER", request);
+        TickReplay.Tick tick = ticks.current();
+        boolean buy = new BigDecimal(request.get("units").getAsString()).signum() > 0;
+        String tradeID = nextTransactionID();
+        JsonObject trade = new JsonObject();
+        trade.addProperty("id", tradeID);
+        trade.addProperty("instrument", request.get("instrument").getAsString());
+        trade.addProperty("price", price(buy ? tick.getAsk() : tick.getBid()));
+        trade.addProperty("openTime", now());
+        trade.addProperty("state", "OPEN");
+        trade.addProperty("initialUnits", request.get("units").getAsString());
+        trade.addProperty("currentUnits", request.get("units").getAsString());
+        trade.addProperty("realizedPL", "0.0000");
+        trade.addProperty("unrealizedPL", "0.0000");
+        trades.put(tradeID, trade);
+        recordChange("tradesOpened", trade.deepCopy());
+        JsonObject fill = new JsonObject();
+        fill.addProperty("id", tradeID);
+        fill.addProperty("type", "ORDER_FILL");
+        fill.addProperty("orderID", orderID);
+        fill.addProperty("price", trade.get("price").getAsString());
+        fill.addProperty("time", now());
+        Reply reply = orderCreated(orderTransaction);
+        reply.body.add("orderFillTransaction", fill);
+        reply.body.getAsJsonArray("relatedTransactionIDs").add(tradeID);
+        return reply;
+    }
+
+    //the old order is cancelled and the new one created under the same request
+    private synchronized Reply replaceOrder(String orderID, JsonObject body) {
+        JsonObject order = orders.get(orderID);
+        if(order == null || !order.get("type").getAsString().equals("MARKET_IF_TOUCHED"))
+            return new Reply(404, error("The Order specified does not exist", "ORDER_DOESNT_EXIST"));
+        if(body == null || !body.has("order") || !isValidMarketIfTouchedOrder(body.getAsJsonObject("order")))
+            return new Reply(400, error("Invalid value specified for 'order'"));
+        orders.remove(orderID);
+        String cancelID = nextTransactionID();
+        order.addProperty("state", "CANCELLED");
+        order.addProperty("cancelledTime", now());
+        recordChange("ordersCancelled", order);
+        Reply created = createOrder(body);
+        String newID = created.body.get("lastTransactionID").getAsString();
+        order.addProperty("replacedByOrderID", newID);
+        orders.get(newID).addProperty("replacesOrderID", orderID);
+        JsonObject cancel = new JsonObject();
+        cancel.addProperty("id", cancelID);
+        cancel.addProperty("type", "ORDER_CANCEL");
+        cancel.addProperty("orderID", orderID);
+        cancel.addProperty("replacedByOrderID", newID);
+        cancel.addProperty("reason", "CLIENT_REQUEST_REPLACED");
+        cancel.addProperty("time", now());
+        created.body.add("orderCancelTransaction", cancel);
+        created.body.getAsJsonArray("relatedTransactionIDs").add(cancelID);
+        return created;
+    }
+
+    private boolean isValidMarketIfTouchedOrder(JsonObject request) {
+        return request.has("type") && request.get("type").getAsString().equals("MARKET_IF_TOUCHED")
+                && request.has("instrument") && request.has("price") && request.has("units")
+                && new BigDecimal(request.get("units").getAsString()).signum() != 0;
+    }
+
+    private synchronized Reply cancelOrder(String orderID) {
+        JsonObject order = orders.get(orderID);
+        if(order == null || !order.get("state").getAsString().equals("PENDING"))
+            return new Reply(404, error("The Order specified does not exist", "ORDER_DOESNT_EXIST"));
+        orders.remove(orderID);
+        String id = nextTransactionID();
+        order.addProperty("state", "CANCELLED");
+        order.addProperty("cancelledTime", now());
+        recordChange("ordersCancelled", order);
+        JsonObject cancel = new JsonObject();
+        cancel.addProperty("id", id);
+        cancel.addProperty("type", "ORDER_CANCEL");
+        cancel.addProperty("orderID", orderID);
+        cancel.addProperty("reason", "CLIENT_REQUEST");
+        cancel.addProperty("time", now());
+        JsonObject body = new JsonObject();
+        body.add("orderCancelTransaction", cancel);
+        body.add("relatedTransactionIDs", ids(id));
+        body.addProperty("lastTransactionID", id);
+        return new Reply(200, body);
+    }
+
+    //a new stop loss replaces the old one, the trade points to the new order
+    private synchronized Reply setDependentOrders(String tradeID, JsonObject request) {
+        JsonObject trade = trades.get(tradeID);
+        if(trade == null)
+            return new Reply(404, error("The Trade specified does not exist", "TRADE_DOESNT_EXIST"));
+        if(request == null || !request.has("stopLoss") || !request.getAsJsonObject("stopLoss").has("price"))
+            return new Reply(400, error("Invalid value specified for 'stopLoss'"));
+        JsonObject body = new JsonObject();
+        JsonArray related = new JsonArray();
+        if(trade.has("stopLossOrderID")) {
+            JsonObject oldOrder = orders.remove(trade.get("stopLossOrderID").getAsString());
+            String cancelID = nextTransactionID();
+            oldOrder.addProperty("state", "CANCELLED");
+            oldOrder.addProperty("cancelledTime", now());
+            recordChange("ordersCancelled", oldOrder);
+            JsonObject cancel = new JsonObject();
+            cancel.addProperty("id", cancelID);
+            cancel.addProperty("type", "ORDER_CANCEL");
+            cancel.addProperty("orderID", oldOrder.get("id").getAsString());
+            cancel.addProperty("reason", "CLIENT_REQUEST_REPLACED");
+            cancel.addProperty("time", now());
+            body.add("stopLossOrderCancelTransaction", cancel);
+            related.add(cancelID);
+        }
+        JsonObject stopLossOrder = createStopLossOrder(tradeID, request.getAsJsonObject("stopLoss").get("price").getAsString());
+        String id = stopLossOrder.get("id").getAsString();
+        trade.addProperty("stopLossOrderID", id);
+        recordChange("ordersCreated", stopLossOrder);
+        JsonObject transaction = new JsonObject();
+        transaction.addProperty("id", id);
+        transaction.addProperty("type", "STOP_LOSS_ORDER");
+        transaction.addProperty("tradeID", tradeID);
+        transaction.addProperty("price", stopLossOrder.get("price").getAsString());
+        transaction.addProperty("reason", "REPLACEMENT");
+        transaction.addProperty("time", now());
+        body.add("stopLossOrderTransaction", transaction);
+        related.add(id);
+        body.add("relatedTransactionIDs", related);
+        body.addProperty("lastTransactionID", id);
+        return new Reply(200, body);
+    }
+
+    private JsonObject createStopLossOrder(String tradeID, String price) {
+        String id = nextTransactionID();
+        JsonObject order = new JsonObject();
+        order.addProperty("id", id);
+        order.addProperty("createTime", now());
+        order.addProperty("state", "PENDING");
+        order.addProperty("type", "STOP_LOSS");
+        order.addProperty("tradeID", tradeID);
+        order.addProperty("price", price);
+        order.addProperty("timeInForce", "GTC");
+        order.addProperty("triggerCondition", "DEFAULT");
+        orders.put(id, order);
+        return order;
+    }
+
+    private JsonObject price(String name, TickReplay.Tick tick) {
+        JsonObject units = new JsonObject();
+        units.addProperty("long", "100000");
+        units.addProperty("short", "100000");
+        JsonObject unitsAvailable = new JsonObject();
+        unitsAvailable.add("default", units);
+        unitsAvailable.add("openOnly", units.deepCopy());
+        unitsAvailable.add("reduceFirst", units.deepCopy());
+        unitsAvailable.add("reduceOnly", units.deepCopy());
+        JsonObject price = new JsonObject();
+        price.addProperty("type", "PRICE");
+        price.addProperty("instrument", name);
+        price.addProperty("time", tick.getTime().toString());
+        price.addProperty("tradeable", true);
+        price.add("bids", bucket(tick.getBid()));
+        price.add("asks", bucket(tick.getAsk()));
+        price.addProperty("closeoutBid", price(tick.getBid()));
+        price.addProperty("closeoutAsk", price(tick.getAsk()));
+        price.add("unitsAvailable", unitsAvailable);
+        return price;
+    }
+
+    private JsonArray bucket(BigDecimal value) {
+        JsonObject level = new JsonObject();
+        level.addProperty("price", price(value));
+        level.addProperty("liquidity", 10000000);
+        JsonArray bucket = new JsonArray();
+        bucket.add(level);
+        return bucket;
+    }
+
+    private JsonObject transaction(String id, String type, JsonObject request) {
+        JsonObject transaction = request.deepCopy();
+        transaction.addProperty("id", id);
+        transaction.addProperty("type", type);
+        transaction.addProperty("accountID", accountID);
+        transaction.addProperty("reason", "CLIENT_ORDER");
+        transaction.addProperty("time", now());
+        return transaction;
+    }
+
+    private Reply orderCreated(JsonObject transaction) {
+        String id = transaction.get("id").getAsString();
+        JsonObject body = new JsonObject();
+        body.add("orderCreateTransaction", transaction);
+        body.add("relatedTransactionIDs", ids(id));
+        body.addProperty("lastTransactionID", id);
+        return new Reply(201, body);
+    }
+
+    //margin of the open trades at their open price
+    private BigDecimal marginUsed() {
+        BigDecimal margin = BigDecimal.ZERO;
+        for (JsonObject trade : trades.values()) {
+            BigDecimal units = new BigDecimal(trade.get("currentUnits").getAsString()).abs();
+            margin = margin.add(units.multiply(new BigDecimal(trade.get("price").getAsString())).multiply(MARGIN_RATE));
+        }
+        return margin;
+    }
+
+    private void recordChange(String list, JsonObject body) {
+        changes.add(new Change(lastTransactionID, list, body.deepCopy()));
+    }
+
+    private String nextTransactionID() {
+        return String.valueOf(++lastTransactionID);
+    }
+
+    private Integer nextFailure() {
+        while (true) {
+            int remaining = forcedErrors.get();
+            if(remaining <= 0)
+                break;
+            if(forcedErrors.compareAndSet(remaining, remaining - 1))
+                return forcedErrorStatus;
+        }
+        if(errorRate <= 0)
+            return null;
+        synchronized (errorRandom) {
+            return errorRandom.nextDouble() < errorRate ? errorStatus : null;
+        }
+    }
+
+    private void reply(HttpExchange exchange, Reply reply) throws IOException {
+        send(exchange, reply.status, reply.body);
+    }
+
+    private void send(HttpExchange exchange, int status, JsonObject body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void writeLine(OutputStream out, JsonObject message) throws IOException {
+        out.write((message.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private JsonObject readBody(HttpExchange exchange) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            JsonElement body = new JsonParser().parse(reader);
+            return body.isJsonObject() ? body.getAsJsonObject() : null;
+        }
+    }
+
+    private Map<String, String> parseQuery(String rawQuery) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        if(rawQuery == null)
+            return query;
+        for (String pair : rawQuery.split("&")) {
+            int split = pair.indexOf('=');
+            if(split > 0)
+                query.put(URLDecoder.decode(pair.substring(0, split), "UTF-8"), URLDecoder.decode(pair.substring(split + 1), "UTF-8"));
+        }
+        return query;
+    }
+
+    private JsonObject error(String message) {
+        JsonObject body = new JsonObject();
+        body.addProperty("errorMessage", message);
+        return body;
+    }
+
+    private JsonObject error(String message, String code) {
+        JsonObject body = error(message);
+        body.addProperty("errorCode", code);
+        body.addProperty("lastTransactionID", String.valueOf(lastTransactionID));
+        return body;
+    }
+
+    private JsonArray ids(String id) {
+        JsonArray ids = new JsonArray();
+        ids.add(id);
+        return ids;
+    }
+
+    private JsonArray toArray(Collection<JsonObject> values) {
+        JsonArray array = new JsonArray();
+        for (JsonObject value : values)
+            array.add(value.deepCopy());
+        return array;
+    }
+
+    private String price(BigDecimal value) {
+        return value.setScale(5, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private String format(BigDecimal value) {
+        return value.setScale(MARGIN_SCALE, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private String now() {
+        return Instant.now().toString();
+    }
+
+    private void delay(long millis) throws InterruptedException {
+        if(millis > 0)
+            Thread.sleep(millis);
+    }
+
+    private static Map<String, Long> granularitySeconds() {
+        Map<String, Long> seconds = new HashMap<>();
+        for (int value : new int[]{5, 10, 15, 30})
+            seconds.put("S" + value, (long) value);
+        for (int value : new int[]{1, 2, 4, 5, 10, 15, 30})
+            seconds.put("M" + value, TimeUnit.MINUTES.toSeconds(value));
+        for (int value : new int[]{1, 2, 3, 4, 6, 8, 12})
+            seconds.put("H" + value, TimeUnit.HOURS.toSeconds(value));
+        seconds.put("D", TimeUnit.DAYS.toSeconds(1));
+        seconds.put("W", TimeUnit.DAYS.toSeconds(7));
+        seconds.put("M", TimeUnit.DAYS.toSeconds(30));
+        return seconds;
+    }
+
+    private static final class Change {
+
+        private final long transactionID;
+        private final String list;
+        private final JsonObject body;
+
+        Change(long transactionID, String list, JsonObject body) {
+            this.transactionID = transactionID;
+            this.list = list;
+            this.body = body;
+        }
+    }
+
+    private static final class Reply {
+
+        private final int status;
+        private final JsonObject body;
+
+        Reply(int status, JsonObject body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private static final class SimulatorThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "V20Simulator-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    public static class Builder {
+
+        private int port = 0;
+        private String accountID = "101-004-0000000-001";
+        private String instrument = "EUR_USD";
+        private BigDecimal balance = new BigDecimal("10000");
+        private TickReplay ticks = TickReplay.randomWalk(Instant.parse("2018-06-01T15:10:00Z"), new BigDecimal("1.16500"), 1000, 1L);
+        private long latencyMillis;
+        private double errorRate;
+        private int errorStatus = 503;
+        private long streamIntervalMillis = 50L;
+        private long heartbeatIntervalMillis = 5_000L;
+        private int threads = 32;
+        private long seed = 1L;
+
+        public Builder setPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder setAccountID(String accountID) {
+            this.accountID = accountID;
+            return this;
+        }
+
+        public Builder setInstrument(String instrument) {
+            this.instrument = instrument;
+            return this;
+        }
+
+        public Builder setBalance(BigDecimal balance) {
+            this.balance = balance;
+            return this;
+        }
+
+        public Builder setTicks(TickReplay ticks) {
+            this.ticks = ticks;
+            return this;
+        }
+
+        public Builder setLatencyMillis(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+            return this;
+        }
+
+        /**
+         * Share of the requests, between 0 and 1, answered with {@code errorStatus} instead of the real response.
+         */
+        public Builder setErrorRate(double errorRate, int errorStatus) {
+            this.errorRate = errorRate;
+            this.errorStatus = errorStatus;
+            return this;
+        }
+
+        public Builder setStreamIntervalMillis(long streamIntervalMillis) {
+            this.streamIntervalMillis = streamIntervalMillis;
+            return this;
+        }
+
+        public Builder setHeartbeatIntervalMillis(long heartbeatIntervalMillis) {
+            this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+            return this;
+        }
+
+        public Builder setThreads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public V20Simulator build() {
+            if(accountID == null || instrument == null || balance == null || ticks == null)
+                throw new NullPointerException();
+            if(errorRate < 0 || errorRate > 1 || threads < 1 || streamIntervalMillis < 1)
+                throw new IllegalArgumentException();
+            return new V20Simulator(this);
+        }
+    }
+}
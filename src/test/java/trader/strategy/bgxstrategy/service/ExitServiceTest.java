@@ -3,6 +3,7 @@ package trader.strategy.bgxstrategy.service;
 import org.junit.Before;
 import org.junit.Test;
 import trader.broker.BrokerGateway;
+import trader.broker.candle.CandleRepository;
 import trader.strategy.TradingStrategyConfiguration;
 import trader.exception.NullArgumentException;
 import trader.exit.ExitStrategy;
@@ -40,7 +41,7 @@ public class ExitServiceTest {
         brokerGatewayMock = mock(BrokerGateway.class);
         configurationMock = mock(TradingStrategyConfiguration.class);
         exitStrategyMock = mock(ExitStrategy.class);
-        service = new ExitService(useCaseFactoryMock, presenterMock, brokerGatewayMock, configurationMock);
+        service = new ExitService(useCaseFactoryMock, presenterMock, brokerGatewayMock, mock(CandleRepository.class), configurationMock);
     }
 
     @Test(expected = NullArgumentException.class)
@@ -55,6 +56,7 @@ public class ExitServiceTest {
 
         verify(exitStrategyMock, times(1)).setConfiguration(any(TradingStrategyConfiguration.class));
         verify(exitStrategyMock,times(1)).setBrokerGateway(any(BrokerGateway.class));
+        verify(exitStrategyMock,times(1)).setCandleRepository(any(CandleRepository.class));
         verify(exitStrategyMock, times(1)).setPresenter(any(Presenter.class));
 
         assertEquals(exitStrategyMock, strategy);